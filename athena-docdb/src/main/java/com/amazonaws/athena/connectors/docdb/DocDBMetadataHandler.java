@@ -39,12 +39,16 @@ import com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.ListTablesResponse;
 import com.amazonaws.athena.connector.lambda.metadata.MetadataRequest;
 import com.amazonaws.athena.connector.lambda.metadata.glue.GlueFieldLexer;
+import com.amazonaws.athena.connector.lambda.metadata.optimizations.DataSourceOptimizations;
 import com.amazonaws.athena.connector.lambda.metadata.optimizations.OptimizationSubType;
+import com.amazonaws.athena.connector.lambda.metadata.optimizations.pushdown.LimitPushdownSubType;
+import com.amazonaws.athena.connector.lambda.metadata.optimizations.pushdown.TopNPushdownSubType;
 import com.amazonaws.athena.connector.lambda.security.EncryptionKeyFactory;
 import com.amazonaws.athena.connectors.docdb.qpt.DocDBQueryPassthrough;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 import org.apache.arrow.util.VisibleForTesting;
@@ -60,6 +64,9 @@ import software.amazon.awssdk.services.glue.model.Table;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -102,6 +109,17 @@ public class DocDBMetadataHandler
     private static final int SCHEMA_INFERRENCE_NUM_DOCS = 10;
     // used to filter out Glue databases which lack the docdb-metadata-flag in the URI.
     private static final DatabaseFilter DB_FILTER = (Database database) -> (database.locationUri() != null && database.locationUri().contains(DOCDB_METADATA_FLAG));
+    //Field names used to store the (serialized) _id range bounds of a split, a missing bound leaves that side open.
+    protected static final String ID_RANGE_START = "idRangeStart";
+    protected static final String ID_RANGE_END = "idRangeEnd";
+    //The approximate number of documents each split of a collection scan should read, 0 (the default) reads the whole
+    //collection with a single split.
+    private static final String DOCS_PER_SPLIT = "docs_per_split";
+    //The upper limit on the number of _id range splits generated for one collection.
+    @VisibleForTesting
+    protected static final int MAX_SPLITS_PER_COLLECTION = 1000;
+    //The number of _ids sampled per split when picking range bounds, more samples give more even ranges.
+    private static final int SAMPLES_PER_SPLIT = 10;
 
     private final GlueClient glue;
     private final DocDBConnectionFactory connectionFactory;
@@ -156,6 +174,12 @@ public class DocDBMetadataHandler
     public GetDataSourceCapabilitiesResponse doGetDataSourceCapabilities(BlockAllocator allocator, GetDataSourceCapabilitiesRequest request)
     {
         ImmutableMap.Builder<String, List<OptimizationSubType>> capabilities = ImmutableMap.builder();
+        capabilities.put(DataSourceOptimizations.SUPPORTS_LIMIT_PUSHDOWN.withSupportedSubTypes(
+                LimitPushdownSubType.INTEGER_CONSTANT
+        ));
+        capabilities.put(DataSourceOptimizations.SUPPORTS_TOP_N_PUSHDOWN.withSupportedSubTypes(
+                TopNPushdownSubType.SUPPORTS_ORDER_BY
+        ));
         queryPassthrough.addQueryPassthroughCapabilityIfEnabled(capabilities, configOptions);
 
         return new GetDataSourceCapabilitiesResponse(request.getCatalogName(), capabilities.build());
@@ -339,22 +363,109 @@ public class DocDBMetadataHandler
     }
 
     /**
-     * Since our connector does not support parallel scans we generate a single Split and include the connection details
-     * as a property on the split so that the RecordHandler has easy access to it.
+     * By default we generate a single Split for the collection. When docs_per_split is set we instead divide the
+     * collection into contiguous _id ranges, using bounds picked from a random sample of _ids, and generate a Split
+     * per range so that the scan is shared by several readers. In either case the connection details are included as
+     * a property on the split so that the RecordHandler has easy access to it.
      *
      * @see GlueMetadataHandler
      */
     @Override
     public GetSplitsResponse doGetSplits(BlockAllocator blockAllocator, GetSplitsRequest request)
     {
-        //Every split must have a unique location if we wish to spill to avoid failures
-        SpillLocation spillLocation = makeSpillLocation(request);
-
-        //Since our connector does not support parallel reads we return a fixed split.
-        return new GetSplitsResponse(request.getCatalogName(),
-                Split.newBuilder(spillLocation, makeEncryptionKey())
-                        .add(DOCDB_CONN_STR, getConnStr(request))
-                        .build());
+        List<Object> bounds = getIdRangeBounds(request);
+
+        Set<Split> splits = new HashSet<>();
+        for (int i = 0; i <= bounds.size(); i++) {
+            //Every split must have a unique location if we wish to spill to avoid failures
+            SpillLocation spillLocation = makeSpillLocation(request);
+            Split.Builder splitBuilder = Split.newBuilder(spillLocation, makeEncryptionKey())
+                    .add(DOCDB_CONN_STR, getConnStr(request));
+            if (i > 0) {
+                splitBuilder.add(ID_RANGE_START, QueryUtils.serializeIdBound(bounds.get(i - 1)));
+            }
+            if (i < bounds.size()) {
+                splitBuilder.add(ID_RANGE_END, QueryUtils.serializeIdBound(bounds.get(i)));
+            }
+            splits.add(splitBuilder.build());
+        }
+
+        logger.info("doGetSplits: Generated {} splits for table {}", splits.size(), request.getTableName());
+        return new GetSplitsResponse(request.getCatalogName(), splits);
+    }
+
+    /**
+     * Samples the _ids of the requested collection to find the bounds that divide it into ranges of roughly
+     * docs_per_split documents.
+     *
+     * @return The ordered range bounds, or an empty list if the collection should be read with a single split.
+     */
+    private List<Object> getIdRangeBounds(GetSplitsRequest request)
+    {
+        long docsPerSplit = Long.parseLong(configOptions.getOrDefault(DOCS_PER_SPLIT, "0"));
+        if (docsPerSplit <= 0 || request.getConstraints().isQueryPassThrough()) {
+            return Collections.emptyList();
+        }
+
+        try {
+            MongoClient client = getOrCreateConn(request);
+            String schemaName = DocDBCaseInsensitiveResolver.getSchemaNameCaseInsensitiveMatch(configOptions, client,
+                    request.getTableName().getSchemaName());
+            MongoDatabase db = client.getDatabase(schemaName);
+            //The table's source_table property is not available here, a Glue table that maps to a differently named
+            //collection finds no documents and falls back to a single split.
+            String tableName = DocDBCaseInsensitiveResolver.getTableNameCaseInsensitiveMatch(configOptions, db,
+                    request.getTableName().getTableName());
+            MongoCollection<Document> collection = db.getCollection(tableName);
+
+            long numDocs = collection.estimatedDocumentCount();
+            int numSplits = (int) Math.min(MAX_SPLITS_PER_COLLECTION, numDocs / docsPerSplit + (numDocs % docsPerSplit == 0 ? 0 : 1));
+            if (numSplits <= 1) {
+                return Collections.emptyList();
+            }
+
+            List<Object> sampledIds = new ArrayList<>();
+            try (MongoCursor<Document> itr = collection.aggregate(Arrays.asList(
+                    new Document("$sample", new Document("size", numSplits * SAMPLES_PER_SPLIT)),
+                    new Document("$project", new Document("_id", 1)),
+                    new Document("$sort", new Document("_id", 1)))).iterator()) {
+                while (itr.hasNext()) {
+                    sampledIds.add(itr.next().get("_id"));
+                }
+            }
+            logger.info("getIdRangeBounds: Sampled {} _ids from {} documents for {} splits", sampledIds.size(), numDocs, numSplits);
+            return getIdRangeBounds(sampledIds, numSplits);
+        }
+        catch (RuntimeException ex) {
+            logger.warn("getIdRangeBounds: Unable to sample _ids of table {}, using a single split.", request.getTableName(), ex);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Picks the bounds of up to numSplits ranges from a sorted sample of _ids. Range queries only match _ids of the
+     * same BSON type as their bounds, so collections whose sample mixes _id types are not divided.
+     *
+     * @param sortedIds The sampled _ids in ascending order.
+     * @param numSplits The desired number of ranges.
+     * @return The distinct, ordered range bounds (one fewer than the number of ranges).
+     */
+    @VisibleForTesting
+    protected static List<Object> getIdRangeBounds(List<Object> sortedIds, int numSplits)
+    {
+        if (sortedIds.isEmpty() || sortedIds.stream().map(Object::getClass).distinct().count() > 1) {
+            return Collections.emptyList();
+        }
+
+        List<Object> bounds = new ArrayList<>();
+        for (int i = 1; i < numSplits; i++) {
+            Object next = sortedIds.get((int) ((long) i * sortedIds.size() / numSplits));
+            //$sample may return the same document more than once
+            if (bounds.isEmpty() ? !next.equals(sortedIds.get(0)) : !next.equals(bounds.get(bounds.size() - 1))) {
+                bounds.add(next);
+            }
+        }
+        return bounds;
     }
 
     /**
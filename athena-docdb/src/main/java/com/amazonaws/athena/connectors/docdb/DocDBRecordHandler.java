@@ -24,10 +24,12 @@ import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.handlers.RecordHandler;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.docdb.qpt.DocDBQueryPassthrough;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
@@ -49,6 +51,8 @@ import java.util.concurrent.atomic.AtomicLong;
 import static com.amazonaws.athena.connector.lambda.handlers.GlueMetadataHandler.SOURCE_TABLE_PROPERTY;
 import static com.amazonaws.athena.connectors.docdb.DocDBFieldResolver.DEFAULT_FIELD_RESOLVER;
 import static com.amazonaws.athena.connectors.docdb.DocDBMetadataHandler.DOCDB_CONN_STR;
+import static com.amazonaws.athena.connectors.docdb.DocDBMetadataHandler.ID_RANGE_END;
+import static com.amazonaws.athena.connectors.docdb.DocDBMetadataHandler.ID_RANGE_START;
 
 /**
  * Handles data read record requests for the Athena DocumentDB Connector.
@@ -158,6 +162,10 @@ public class DocDBRecordHandler
             db =  client.getDatabase(schemaName);
             table = db.getCollection(tableName);
             query = QueryUtils.makeQuery(recordsRequest.getSchema(), constraintSummary);
+            //Restrict the query to the _id range of this split, if DocDBMetadataHandler divided the collection
+            query = QueryUtils.makeIdRangeQuery(query,
+                    QueryUtils.parseIdBound(recordsRequest.getSplit().getProperty(ID_RANGE_START)),
+                    QueryUtils.parseIdBound(recordsRequest.getSplit().getProperty(ID_RANGE_END)));
         }
 
         String disableProjectionAndCasingEnvValue = configOptions.getOrDefault(DISABLE_PROJECTION_AND_CASING_ENV, "false").toLowerCase();
@@ -172,10 +180,26 @@ public class DocDBRecordHandler
         Document projection = disableProjectionAndCasing ? null : QueryUtils.makeProjection(recordsRequest.getSchema());
         logger.info("readWithConstraint: query[{}] projection[{}]", query, projection);
 
-        final MongoCursor<Document> iterable = table
+        FindIterable<Document> findIterable = table
                 .find(query)
                 .projection(projection)
-                .batchSize(MONGO_QUERY_BATCH_SIZE).iterator();
+                .batchSize(MONGO_QUERY_BATCH_SIZE);
+
+        Constraints constraints = recordsRequest.getConstraints();
+        if (!constraints.isQueryPassThrough() && constraints.hasLimit() && QueryUtils.isQueryComplete(recordsRequest.getSchema(), constraintSummary)) {
+            //Document field names may differ in case from the column names when projection and casing are disabled,
+            //in which case sorting by the column names would not order the documents.
+            Document sort = disableProjectionAndCasing && constraints.hasNonEmptyOrderByClause() ? null : QueryUtils.makeSort(constraints.getOrderByClause());
+            if (sort != null) {
+                logger.info("readWithConstraint: pushing down sort[{}] limit[{}]", sort, constraints.getLimit());
+                if (!sort.isEmpty()) {
+                    findIterable = findIterable.sort(sort);
+                }
+                findIterable = findIterable.limit((int) Math.min(constraints.getLimit(), Integer.MAX_VALUE));
+            }
+        }
+
+        final MongoCursor<Document> iterable = findIterable.iterator();
 
         long numRows = 0;
         AtomicLong numResultRows = new AtomicLong(0);
@@ -37,6 +37,7 @@ package com.amazonaws.athena.connectors.docdb;
 
 import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.domain.predicate.EquatableValueSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.OrderByField;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import org.apache.arrow.vector.complex.reader.FieldReader;
@@ -48,6 +49,7 @@ import org.bson.json.JsonParseException;
 import org.bson.types.ObjectId;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -61,6 +63,7 @@ import static java.util.stream.Collectors.toList;
  * 1. Projections
  * 2. Predicates
  * 3. Queries (a collection of predicates)
+ * 4. Sorts
  */
 public final class QueryUtils
 {
@@ -111,14 +114,57 @@ public final class QueryUtils
     public static Document makeQuery(Schema schema, Map<String, ValueSet> constraintSummary)
     {
         Document query = new Document();
+        List<Document> predicates = new ArrayList<>();
+        boolean conflict = false;
         for (Map.Entry<String, ValueSet> entry : constraintSummary.entrySet()) {
             Document doc = makePredicate(schema.findField(entry.getKey()), entry.getValue());
             if (doc != null) {
+                //Two columns can each produce a top-level $or, merging them would drop one of the predicates
+                conflict |= !Collections.disjoint(query.keySet(), doc.keySet());
                 query.putAll(doc);
+                predicates.add(doc);
             }
         }
 
-        return query;
+        return conflict ? documentOf(AND_OP, predicates) : query;
+    }
+
+    /**
+     * Checks whether makeQuery(...) translates every constraint in the summary, in which case DocumentDB returns only
+     * documents that match all of the constraints and a LIMIT can safely be applied by DocumentDB.
+     *
+     * @param schema The schema containing the requested projection.
+     * @param constraintSummary The set of constraints to apply to the query.
+     * @return True if no constraint is left for the connector to evaluate.
+     */
+    public static boolean isQueryComplete(Schema schema, Map<String, ValueSet> constraintSummary)
+    {
+        for (Map.Entry<String, ValueSet> entry : constraintSummary.entrySet()) {
+            if (makePredicate(schema.findField(entry.getKey()), entry.getValue()) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts an ORDER BY clause into a sort Document for use with a DocumentDB query. DocumentDB orders null and
+     * missing values before all other values, so only ASC NULLS FIRST and DESC NULLS LAST sort keys can be converted.
+     *
+     * @param orderByClause The ORDER BY clause of the query.
+     * @return The sort Document (empty if there is no ORDER BY clause), or null if the clause can not be converted.
+     */
+    public static Document makeSort(List<OrderByField> orderByClause)
+    {
+        Document sort = new Document();
+        for (OrderByField next : orderByClause) {
+            OrderByField.Direction direction = next.getDirection();
+            if (direction.isAscending() != direction.isNullsFirst()) {
+                return null;
+            }
+            sort.append(next.getColumnName(), direction.isAscending() ? 1 : -1);
+        }
+        return sort;
     }
 
     /**
@@ -151,15 +197,17 @@ public final class QueryUtils
 
             FieldReader fieldReader = block.getFieldReaders().get(0);
             for (int i = 0; i < block.getRowCount(); i++) {
-                Document nextEqVal = new Document();
                 fieldReader.setPosition(i);
-                Object value = fieldReader.readObject();
-                nextEqVal.put(EQ_OP, convert(value));
-                singleValues.add(singleValues);
+                singleValues.add(convert(fieldReader.readObject()));
+            }
+
+            if (!((EquatableValueSet) constraint).isWhiteList()) {
+                //$nin also matches null and missing fields, which NOT IN excludes
+                return documentOf(name, documentOf(NOTIN_OP, singleValues).append(NOT_EQ_OP, null));
             }
 
             return orPredicate(singleValues.stream()
-                    .map(next -> new Document(name, next))
+                    .map(next -> new Document(name, documentOf(EQ_OP, next)))
                     .collect(toList()));
         }
 
@@ -233,6 +281,65 @@ public final class QueryUtils
                 .collect(toList()));
     }
 
+    /**
+     * Restricts the given query to the _id range [start, end) of a split, a null bound leaves that side of the range
+     * open. Comparison operators only match _ids of the same BSON type as the bound, so a range without a start bound
+     * is expressed as the negation of its end bound. This way the first range also covers _ids of any other type and
+     * the ranges of a collection remain disjoint and complete.
+     *
+     * @param query The query to restrict.
+     * @param start The inclusive lower bound of the range, or null.
+     * @param end The exclusive upper bound of the range, or null.
+     * @return The Document to use as the query.
+     */
+    public static Document makeIdRangeQuery(Document query, Object start, Object end)
+    {
+        Document range;
+        if (start != null) {
+            range = documentOf(GTE_OP, start);
+            if (end != null) {
+                range.append(LT_OP, end);
+            }
+        }
+        else if (end != null) {
+            range = documentOf(NOT_OP, documentOf(GTE_OP, end));
+        }
+        else {
+            return query;
+        }
+
+        if (query.isEmpty()) {
+            return documentOf(COLUMN_NAME_ID, range);
+        }
+        List<Document> conjuncts = new ArrayList<>();
+        conjuncts.add(query);
+        conjuncts.add(documentOf(COLUMN_NAME_ID, range));
+        return documentOf(AND_OP, conjuncts);
+    }
+
+    /**
+     * Serializes an _id range bound to (extended) Json so that it can be stored as a Split property without losing
+     * its BSON type.
+     *
+     * @param id The _id value.
+     * @return The Json representation of the bound.
+     */
+    public static String serializeIdBound(Object id)
+    {
+        return documentOf(COLUMN_NAME_ID, id).toJson();
+    }
+
+    /**
+     * Reverses serializeIdBound(...).
+     *
+     * @param bound The Json representation of the bound, may be null.
+     * @return The _id value, or null if there was no bound.
+     */
+    public static Object parseIdBound(String bound)
+    {
+        return bound == null ? null : Document.parse(bound).get(COLUMN_NAME_ID);
+    }
+
     /**
      * Parses DocDB/MongoDB Json Filter/Projection to confirm its valid and convert it to Doc
      * @param filter json's based filter
@@ -40,6 +40,8 @@ import com.amazonaws.athena.connector.lambda.metadata.MetadataRequestType;
 import com.amazonaws.athena.connector.lambda.metadata.MetadataResponse;
 import com.amazonaws.athena.connector.lambda.security.LocalKeyFactory;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
@@ -69,12 +71,15 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.UNLIMITED_PAGE_SIZE_VALUE;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -479,4 +484,57 @@ public class DocDBMetadataHandlerTest
         assertTrue("Continuation criteria violated", response.getSplits().size() == 1);
         assertTrue("Continuation criteria violated", response.getContinuationToken() == null);
     }
+
+    @Test
+    public void doGetSplitsIdRanges()
+    {
+        handler = new DocDBMetadataHandler(awsGlue, connectionFactory, new LocalKeyFactory(), secretsManager, mockAthena, "spillBucket", "spillPrefix",
+                com.google.common.collect.ImmutableMap.of("docs_per_split", "100"));
+
+        //250 documents at 100 docs per split gives 3 splits, the sample has 10 _ids per split
+        List<Document> sample = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            sample.add(new Document("_id", i));
+        }
+        MongoDatabase mockDatabase = mock(MongoDatabase.class);
+        MongoCollection mockCollection = mock(MongoCollection.class);
+        AggregateIterable mockAggregate = mock(AggregateIterable.class);
+        when(mockClient.getDatabase(eq(DEFAULT_SCHEMA))).thenReturn(mockDatabase);
+        when(mockDatabase.getCollection(eq(TEST_TABLE))).thenReturn(mockCollection);
+        when(mockCollection.estimatedDocumentCount()).thenReturn(250L);
+        when(mockCollection.aggregate(anyList())).thenReturn(mockAggregate);
+        when(mockAggregate.iterator()).thenReturn(new StubbingCursor(sample.iterator()));
+
+        Block partitions = BlockUtils.newBlock(allocator, PARTITION_ID, Types.MinorType.INT.getType(), 0);
+        GetSplitsRequest req = new GetSplitsRequest(IDENTITY,
+                QUERY_ID,
+                DEFAULT_CATALOG,
+                TABLE_NAME,
+                partitions,
+                new ArrayList<>(),
+                new Constraints(new HashMap<>(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                null);
+
+        GetSplitsResponse response = handler.doGetSplits(allocator, req);
+        assertNull(response.getContinuationToken());
+        assertEquals(3, response.getSplits().size());
+
+        Set<String> ranges = response.getSplits().stream()
+                .map(next -> QueryUtils.parseIdBound(next.getProperty(DocDBMetadataHandler.ID_RANGE_START)) + "-" +
+                        QueryUtils.parseIdBound(next.getProperty(DocDBMetadataHandler.ID_RANGE_END)))
+                .collect(Collectors.toSet());
+        assertEquals(ImmutableSet.of("null-10", "10-20", "20-null"), ranges);
+    }
+
+    @Test
+    public void getIdRangeBounds()
+    {
+        //Repeated samples do not produce empty ranges
+        assertEquals(ImmutableList.of(2, 4), DocDBMetadataHandler.getIdRangeBounds(ImmutableList.of(1, 1, 2, 3, 4, 5), 3));
+        assertEquals(ImmutableList.of(2), DocDBMetadataHandler.getIdRangeBounds(ImmutableList.of(1, 2, 2, 2, 2, 3), 3));
+        assertEquals(ImmutableList.of(), DocDBMetadataHandler.getIdRangeBounds(ImmutableList.of(1, 1, 1, 1), 4));
+        //Mixed _id types are not divided
+        assertEquals(ImmutableList.of(), DocDBMetadataHandler.getIdRangeBounds(ImmutableList.of(1, 2, "a", "b"), 2));
+        assertEquals(ImmutableList.of(), DocDBMetadataHandler.getIdRangeBounds(ImmutableList.of(), 2));
+    }
 }
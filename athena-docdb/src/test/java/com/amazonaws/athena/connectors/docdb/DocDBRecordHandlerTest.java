@@ -27,6 +27,7 @@ import com.amazonaws.athena.connector.lambda.data.S3BlockSpillReader;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.OrderByField;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
 import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
@@ -59,6 +60,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
@@ -94,6 +96,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -283,6 +286,115 @@ public class DocDBRecordHandlerTest
         logger.info("doReadRecordsNoSpill: {}", BlockUtils.rowToString(response.getRecords(), 0));
     }
 
+    @Test
+    public void doReadRecordsTopN()
+            throws Exception
+    {
+        List<Document> documents = new ArrayList<>();
+        for (int docNum = 11; docNum < 13; docNum++) {
+            Document doc = DocumentGenerator.makeRandomRow(schemaForRead.getFields(), docNum);
+            doc.put("col3", 22.0D);
+            documents.add(doc);
+        }
+
+        when(mockCollection.find(nullable(Document.class))).thenReturn(mockIterable);
+        when(mockIterable.projection(nullable(Document.class))).thenReturn(mockIterable);
+        when(mockIterable.batchSize(anyInt())).thenReturn(mockIterable);
+        when(mockIterable.sort(nullable(Document.class))).thenReturn(mockIterable);
+        when(mockIterable.limit(anyInt())).thenReturn(mockIterable);
+        when(mockIterable.iterator()).thenReturn(new StubbingCursor(documents.iterator()));
+
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put("col3", SortedRangeSet.copyOf(Types.MinorType.FLOAT8.getType(),
+                ImmutableList.of(Range.equal(allocator, Types.MinorType.FLOAT8.getType(), 22.0D)), false));
+        List<OrderByField> orderByClause = ImmutableList.of(new OrderByField("col1", OrderByField.Direction.DESC_NULLS_LAST));
+
+        S3SpillLocation splitLoc = S3SpillLocation.newBuilder()
+                .withBucket(UUID.randomUUID().toString())
+                .withSplitId(UUID.randomUUID().toString())
+                .withQueryId(UUID.randomUUID().toString())
+                .withIsDirectory(true)
+                .build();
+
+        ReadRecordsRequest request = new ReadRecordsRequest(IDENTITY,
+                DEFAULT_CATALOG,
+                "queryId-" + System.currentTimeMillis(),
+                TABLE_NAME,
+                schemaForRead,
+                Split.newBuilder(splitLoc, keyFactory.create()).add(DOCDB_CONN_STR, CONNECTION_STRING).build(),
+                new Constraints(constraintsMap, Collections.emptyList(), orderByClause, 2, Collections.emptyMap(), null),
+                100_000_000_000L, //100GB don't expect this to spill
+                100_000_000_000L
+        );
+
+        RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+
+        assertTrue(rawResponse instanceof ReadRecordsResponse);
+        assertEquals(2, ((ReadRecordsResponse) rawResponse).getRecords().getRowCount());
+        verify(mockIterable).sort(eq(new Document("col1", -1)));
+        verify(mockIterable).limit(eq(2));
+    }
+
+    @Test
+    public void doReadRecordsLimitMultiRange()
+            throws Exception
+    {
+        List<Document> documents = new ArrayList<>();
+        for (int docNum = 0; docNum < 2; docNum++) {
+            Document doc = DocumentGenerator.makeRandomRow(schemaForRead.getFields(), docNum);
+            doc.put("col1", 5);
+            doc.put("col3", 0.5D);
+            documents.add(doc);
+        }
+
+        when(mockCollection.find(nullable(Document.class))).thenReturn(mockIterable);
+        when(mockIterable.projection(nullable(Document.class))).thenReturn(mockIterable);
+        when(mockIterable.batchSize(anyInt())).thenReturn(mockIterable);
+        when(mockIterable.limit(anyInt())).thenReturn(mockIterable);
+        when(mockIterable.iterator()).thenReturn(new StubbingCursor(documents.iterator()));
+
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put("col1", SortedRangeSet.copyOf(Types.MinorType.INT.getType(),
+                ImmutableList.of(Range.lessThan(allocator, Types.MinorType.INT.getType(), 10),
+                        Range.greaterThan(allocator, Types.MinorType.INT.getType(), 20)), false));
+        constraintsMap.put("col3", SortedRangeSet.copyOf(Types.MinorType.FLOAT8.getType(),
+                ImmutableList.of(Range.lessThan(allocator, Types.MinorType.FLOAT8.getType(), 1.0D),
+                        Range.greaterThan(allocator, Types.MinorType.FLOAT8.getType(), 5.0D)), false));
+
+        S3SpillLocation splitLoc = S3SpillLocation.newBuilder()
+                .withBucket(UUID.randomUUID().toString())
+                .withSplitId(UUID.randomUUID().toString())
+                .withQueryId(UUID.randomUUID().toString())
+                .withIsDirectory(true)
+                .build();
+
+        ReadRecordsRequest request = new ReadRecordsRequest(IDENTITY,
+                DEFAULT_CATALOG,
+                "queryId-" + System.currentTimeMillis(),
+                TABLE_NAME,
+                schemaForRead,
+                Split.newBuilder(splitLoc, keyFactory.create()).add(DOCDB_CONN_STR, CONNECTION_STRING).build(),
+                new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), 2, Collections.emptyMap(), null),
+                100_000_000_000L, //100GB don't expect this to spill
+                100_000_000_000L
+        );
+
+        RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+
+        assertTrue(rawResponse instanceof ReadRecordsResponse);
+        assertEquals(2, ((ReadRecordsResponse) rawResponse).getRecords().getRowCount());
+        verify(mockIterable).limit(eq(2));
+
+        //both columns produce a top-level $or, so neither may be dropped from the pushed down query
+        ArgumentCaptor<Document> queryCaptor = ArgumentCaptor.forClass(Document.class);
+        verify(mockCollection).find(queryCaptor.capture());
+        List<?> conjuncts = (List<?>) queryCaptor.getValue().get("$and");
+        assertNotNull(conjuncts);
+        assertEquals(2, conjuncts.size());
+        assertTrue(conjuncts.contains(QueryUtils.makePredicate(schemaForRead.findField("col1"), constraintsMap.get("col1"))));
+        assertTrue(conjuncts.contains(QueryUtils.makePredicate(schemaForRead.findField("col3"), constraintsMap.get("col3"))));
+    }
+
     @Test
     public void doReadRecordsSpill()
             throws Exception
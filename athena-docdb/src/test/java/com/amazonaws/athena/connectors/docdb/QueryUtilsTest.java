@@ -20,20 +20,25 @@
 package com.amazonaws.athena.connectors.docdb;
 
 import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.domain.predicate.EquatableValueSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.OrderByField;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
 import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class QueryUtilsTest
@@ -65,6 +70,50 @@ public class QueryUtilsTest
         assertEquals(expected, result);
     }
 
+    @Test
+    public void testMakePredicateWithEquatableValueSet()
+    {
+        Field field = new Field("year", FieldType.nullable(new ArrowType.Int(32, true)), null);
+
+        ValueSet whiteList = EquatableValueSet.newBuilder(allocator, Types.MinorType.INT.getType(), true, false)
+                .add(1950).add(1952).build();
+        Document expected = new Document("$or", ImmutableList.of(
+                new Document("year", new Document("$eq", 1950)),
+                new Document("year", new Document("$eq", 1952))));
+        assertEquals(expected, QueryUtils.makePredicate(field, whiteList));
+
+        ValueSet blackList = EquatableValueSet.newBuilder(allocator, Types.MinorType.INT.getType(), false, false)
+                .add(1950).build();
+        assertEquals(new Document("year", new Document("$nin", ImmutableList.of(1950)).append("$ne", null)),
+                QueryUtils.makePredicate(field, blackList));
+    }
+
+    @Test
+    public void testMakeQueryWithMultipleOrPredicates()
+    {
+        Schema schema = new Schema(ImmutableList.of(
+                new Field("year", FieldType.nullable(new ArrowType.Int(32, true)), null),
+                new Field("month", FieldType.nullable(new ArrowType.Int(32, true)), null)));
+
+        ValueSet yearSet = SortedRangeSet.copyOf(Types.MinorType.INT.getType(),
+                ImmutableList.of(Range.lessThan(allocator, Types.MinorType.INT.getType(), 1950),
+                        Range.greaterThan(allocator, Types.MinorType.INT.getType(), 2010)), false);
+        ValueSet monthSet = SortedRangeSet.copyOf(Types.MinorType.INT.getType(),
+                ImmutableList.of(Range.lessThan(allocator, Types.MinorType.INT.getType(), 3),
+                        Range.greaterThan(allocator, Types.MinorType.INT.getType(), 10)), false);
+
+        Document query = QueryUtils.makeQuery(schema, ImmutableMap.of("year", yearSet, "month", monthSet));
+        Document expected = new Document("$and", ImmutableList.of(
+                QueryUtils.makePredicate(schema.findField("year"), yearSet),
+                QueryUtils.makePredicate(schema.findField("month"), monthSet)));
+        assertEquals(expected, query);
+
+        ValueSet equalSet = SortedRangeSet.copyOf(Types.MinorType.INT.getType(),
+                ImmutableList.of(Range.equal(allocator, Types.MinorType.INT.getType(), 1)), false);
+        assertEquals(new Document("year", new Document("$eq", 1)).append("month", new Document("$eq", 1)),
+                QueryUtils.makeQuery(schema, ImmutableMap.of("year", equalSet, "month", equalSet)));
+    }
+
     @Test
     public void testMakePredicateWithId()
     {
@@ -102,5 +151,39 @@ public class QueryUtilsTest
             QueryUtils.parseFilter(invalidJsonFilter);
         });
     }
-}
 
+    @Test
+    public void testMakeIdRangeQuery()
+    {
+        Document query = new Document("year", new Document("$gt", 1950));
+
+        assertEquals(query, QueryUtils.makeIdRangeQuery(query, null, null));
+        assertEquals(new Document("_id", new Document("$not", new Document("$gte", 10))),
+                QueryUtils.makeIdRangeQuery(new Document(), null, 10));
+        assertEquals(new Document("_id", new Document("$gte", 10)),
+                QueryUtils.makeIdRangeQuery(new Document(), 10, null));
+        assertEquals(new Document("$and", ImmutableList.of(query, new Document("_id", new Document("$gte", 10).append("$lt", 20)))),
+                QueryUtils.makeIdRangeQuery(query, 10, 20));
+    }
+
+    @Test
+    public void testSerializeIdBound()
+    {
+        ObjectId objectId = new ObjectId("4ecbe7f9e8c1c9092c000027");
+        assertEquals(objectId, QueryUtils.parseIdBound(QueryUtils.serializeIdBound(objectId)));
+        assertEquals("abc", QueryUtils.parseIdBound(QueryUtils.serializeIdBound("abc")));
+        assertNull(QueryUtils.parseIdBound(null));
+    }
+
+    @Test
+    public void testMakeSort()
+    {
+        assertEquals(new Document(), QueryUtils.makeSort(ImmutableList.of()));
+        assertEquals(new Document("year", -1).append("title", 1), QueryUtils.makeSort(ImmutableList.of(
+                new OrderByField("year", OrderByField.Direction.DESC_NULLS_LAST),
+                new OrderByField("title", OrderByField.Direction.ASC_NULLS_FIRST))));
+        //DocumentDB always orders nulls before other values
+        assertNull(QueryUtils.makeSort(ImmutableList.of(new OrderByField("year", OrderByField.Direction.ASC_NULLS_LAST))));
+        assertNull(QueryUtils.makeSort(ImmutableList.of(new OrderByField("year", OrderByField.Direction.DESC_NULLS_FIRST))));
+    }
+}
@@ -105,6 +105,8 @@ import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.UNLIMITED_PAGE_SIZE_VALUE;
+import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.BATCH_GET_KEYS_METADATA;
+import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.BATCH_GET_PARTITION_TYPE;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.DEFAULT_SCHEMA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.EXPRESSION_NAMES_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.EXPRESSION_VALUES_METADATA;
@@ -152,6 +154,14 @@ public class DynamoDBMetadataHandler
             || (table.storageDescriptor().parameters() != null && DYNAMODB.equals(table.storageDescriptor().parameters().get("classification")));
     // used to filter out Glue databases which lack the DYNAMO_DB_FLAG in the URI.
     private static final DatabaseFilter DB_FILTER = (Database database) -> (database.locationUri() != null && database.locationUri().contains(DYNAMO_DB_FLAG));
+    // the number of bytes each scan segment (split) should ideally read, used to choose the scan segment count.
+    // when unset, segments read up to 1GB and provisioned capacity adds segments regardless of the table size
+    private static final String SCAN_TARGET_BYTES_PER_SEGMENT_ENV = "scan_target_bytes_per_segment";
+    // the max number of keys DynamoDB accepts in a single BatchGetItem request
+    @VisibleForTesting
+    static final int MAX_KEYS_PER_BATCH_GET = 100;
+    // beyond this many fully specified primary keys, fall back to one Query per hash key
+    private static final int MAX_BATCH_GET_KEYS = 100_000;
 
     private final ThrottlingInvoker invoker;
     private final DynamoDbClient ddbClient;
@@ -399,7 +409,20 @@ public class DynamoDBMetadataHandler
         List<AttributeValue> valueAccumulator = new ArrayList<>();
         IncrementingValueNameProducer valueNameProducer = new IncrementingValueNameProducer();
         
-        if (!hashKeyInfo.isEmpty()) {
+        List<Object> rangeKeyValues = hashKeyInfo.isEmpty() || useQueryPlan ? Collections.emptyList()
+                : getBatchGetRangeKeyValues(table, index, summary, hashKeyInfo.values().size());
+        if (!rangeKeyValues.isEmpty()) {
+            // both keys are pinned to discrete values, so "partition" on the full primary keys and fetch them in batches
+            String rangeKeyName = index.getRangeKey().get();
+            partitionSchemaBuilder.addField(hashKeyName, hashKeyInfo.arrowType());
+            partitionSchemaBuilder.addField(rangeKeyName, summary.get(rangeKeyName).getType());
+            partitionSchemaBuilder.addMetadata(HASH_KEY_NAME_METADATA, hashKeyName);
+            partitionSchemaBuilder.addMetadata(RANGE_KEY_NAME_METADATA, rangeKeyName);
+            partitionSchemaBuilder.addMetadata(PARTITION_TYPE_METADATA, BATCH_GET_PARTITION_TYPE);
+            columnsToIgnore.add(hashKeyName);
+            columnsToIgnore.add(rangeKeyName);
+        }
+        else if (!hashKeyInfo.isEmpty()) {
             // can "partition" on hash key
             setupQueryPartition(partitionSchemaBuilder, hashKeyName, hashKeyInfo.arrowType(), table, index, columnsToIgnore);
 
@@ -475,7 +498,22 @@ public class DynamoDBMetadataHandler
                     : Collections.emptyList();
         }
 
-        if (!hashKeyValues.isEmpty()) {
+        List<Object> rangeKeyValues = hashKeyValues.isEmpty() || useQueryPlan ? Collections.emptyList()
+                : getBatchGetRangeKeyValues(table, index, request.getConstraints().getSummary(), hashKeyValues.size());
+        if (!rangeKeyValues.isEmpty()) {
+            // one partition per primary key, doGetSplits groups these into BatchGetItem sized splits
+            String rangeKeyName = index.getRangeKey().get();
+            for (Object hashKeyValue : hashKeyValues) {
+                for (Object rangeKeyValue : rangeKeyValues) {
+                    blockWriter.writeRows((Block block, int rowNum) -> {
+                        block.setValue(hashKeyName, rowNum, hashKeyValue);
+                        block.setValue(rangeKeyName, rowNum, rangeKeyValue);
+                        return 1;
+                    });
+                }
+            }
+        }
+        else if (!hashKeyValues.isEmpty()) {
             for (Object hashKeyValue : hashKeyValues) {
                 blockWriter.writeRows((Block block, int rowNum) -> {
                     block.setValue(hashKeyName, rowNum, hashKeyValue);
@@ -486,7 +524,16 @@ public class DynamoDBMetadataHandler
         }
         else {
             // always fall back to a scan, need to return at least one partition so stick the segment count in it
-            int segmentCount = DDBTableUtils.getNumSegments(table.getProvisionedReadCapacity(), table.getApproxTableSizeInBytes());
+            long tableSizeBytes = table.getApproxTableSizeInBytes();
+            if (tableSizeBytes == 0) {
+                // DescribeTable statistics lag behind new or recently loaded tables, so sample the table instead
+                tableSizeBytes = DDBTableUtils.estimateTableSizeBytes(table, invoker, ddbClient, overrideConfig);
+            }
+            String targetBytesPerSegment = configOptions.get(SCAN_TARGET_BYTES_PER_SEGMENT_ENV);
+            int segmentCount = (targetBytesPerSegment == null)
+                    ? DDBTableUtils.getNumSegments(table.getProvisionedReadCapacity(), tableSizeBytes)
+                    : DDBTableUtils.getNumSegments(table.getProvisionedReadCapacity(), tableSizeBytes, Long.parseLong(targetBytesPerSegment.trim()));
+            logger.info("getPartitions: Scanning {} of ~{} bytes with {} segments", table.getName(), tableSizeBytes, segmentCount);
             blockWriter.writeRows((Block block, int rowNum) -> {
                 block.setValue(SEGMENT_COUNT_METADATA, rowNum, segmentCount);
                 return 1;
@@ -596,6 +643,43 @@ public class DynamoDBMetadataHandler
             }
             return new GetSplitsResponse(request.getCatalogName(), splits, null);
         }
+        else if (BATCH_GET_PARTITION_TYPE.equals(partitionType)) {
+            String hashKeyName = partitionMetadata.get(HASH_KEY_NAME_METADATA);
+            String rangeKeyName = partitionMetadata.get(RANGE_KEY_NAME_METADATA);
+            FieldReader hashKeyValueReader = partitions.getFieldReader(hashKeyName);
+            FieldReader rangeKeyValueReader = partitions.getFieldReader(rangeKeyName);
+            // one split per BatchGetItem worth of primary keys, the continuation token is the last partition included
+            for (int curPartition = partitionContd; curPartition < partitions.getRowCount(); ) {
+                int endPartition = Math.min(curPartition + MAX_KEYS_PER_BATCH_GET, partitions.getRowCount());
+                List<AttributeValue> keys = new ArrayList<>(endPartition - curPartition);
+                for (; curPartition < endPartition; curPartition++) {
+                    hashKeyValueReader.setPosition(curPartition);
+                    rangeKeyValueReader.setPosition(curPartition);
+                    Object hashKeyValue = DDBTypeUtils.convertArrowTypeIfNecessary(hashKeyName, hashKeyValueReader.readObject());
+                    Object rangeKeyValue = DDBTypeUtils.convertArrowTypeIfNecessary(rangeKeyName, rangeKeyValueReader.readObject());
+                    keys.add(AttributeValue.fromM(ImmutableMap.of(
+                            hashKeyName, DDBTypeUtils.toAttributeValue(hashKeyValue),
+                            rangeKeyName, DDBTypeUtils.toAttributeValue(rangeKeyValue))));
+                }
+
+                //Every split must have a unique location if we wish to spill to avoid failures
+                SpillLocation spillLocation = makeSpillLocation(request);
+
+                // copy all partition metadata to the split
+                Map<String, String> splitMetadata = new HashMap<>(partitionMetadata);
+                splitMetadata.put(BATCH_GET_KEYS_METADATA, DDBTypeUtils.attributeToJson(AttributeValue.fromL(keys), BATCH_GET_KEYS_METADATA));
+                splits.add(new Split(spillLocation, makeEncryptionKey(), splitMetadata));
+
+                if (splits.size() == MAX_SPLITS_PER_REQUEST && curPartition != partitions.getRowCount()) {
+                    // We've reached max page size and this is not the last partition
+                    // so send the page back
+                    return new GetSplitsResponse(request.getCatalogName(),
+                            splits,
+                            encodeContinuationToken(curPartition - 1));
+                }
+            }
+            return new GetSplitsResponse(request.getCatalogName(), splits, null);
+        }
         else if (SCAN_PARTITION_TYPE.equals(partitionType)) {
             FieldReader segmentCountReader = partitions.getFieldReader(SEGMENT_COUNT_METADATA);
             int segmentCount = segmentCountReader.readInteger();
@@ -684,6 +768,24 @@ public class DynamoDBMetadataHandler
         }
     }
     
+    /**
+     * Returns the distinct range key values to fetch with BatchGetItem, or an empty list if the predicates don't pin
+     * the table's full primary key to a modest number of discrete values. BatchGetItem can only read the table itself,
+     * not its indexes, and any other predicates are applied as rows are written since it doesn't support filters.
+     */
+    private List<Object> getBatchGetRangeKeyValues(DynamoDBTable table, DynamoDBIndex index, Map<String, ValueSet> summary, int numHashKeyValues)
+    {
+        Optional<String> rangeKey = index.getRangeKey();
+        if (!table.getName().equals(index.getName()) || rangeKey.isEmpty() || !summary.containsKey(rangeKey.get())) {
+            return Collections.emptyList();
+        }
+        List<Object> rangeKeyValues = DDBPredicateUtils.getHashKeyAttributeValues(summary.get(rangeKey.get()));
+        if ((long) numHashKeyValues * rangeKeyValues.size() > MAX_BATCH_GET_KEYS) {
+            return Collections.emptyList();
+        }
+        return rangeKeyValues;
+    }
+
     /**
      * Sets up query partition metadata in the schema builder.
      */
@@ -37,6 +37,7 @@ import com.amazonaws.athena.connector.substrait.model.SubstraitRelModel;
 import com.amazonaws.athena.connectors.dynamodb.credentials.CrossAccountCredentialsProviderV2;
 import com.amazonaws.athena.connectors.dynamodb.qpt.DDBQueryPassthrough;
 import com.amazonaws.athena.connectors.dynamodb.resolver.DynamoDBFieldResolver;
+import com.amazonaws.athena.connectors.dynamodb.util.DDBPageIterator;
 import com.amazonaws.athena.connectors.dynamodb.util.DDBPredicateUtils;
 import com.amazonaws.athena.connectors.dynamodb.util.DDBRecordMetadata;
 import com.amazonaws.athena.connectors.dynamodb.util.DDBTypeUtils;
@@ -46,6 +47,8 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.substrait.proto.FetchRel;
 import io.substrait.proto.Plan;
 import org.apache.arrow.vector.types.pojo.Field;
@@ -58,8 +61,12 @@ import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
 import software.amazon.awssdk.services.athena.AthenaClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.ExecuteStatementRequest;
 import software.amazon.awssdk.services.dynamodb.model.ExecuteStatementResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
@@ -71,21 +78,28 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.BATCH_GET_KEYS_METADATA;
+import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.BATCH_GET_PARTITION_TYPE;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.EXPRESSION_NAMES_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.EXPRESSION_VALUES_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.HASH_KEY_NAME_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.INDEX_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.NON_KEY_FILTER_METADATA;
+import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.PARTITION_TYPE_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.RANGE_KEY_FILTER_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.SEGMENT_COUNT_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.SEGMENT_ID_PROPERTY;
@@ -109,9 +123,15 @@ public class DynamoDBRecordHandler
     private static final String sourceType = "ddb";
 
     private static final String DISABLE_PROJECTION_AND_CASING_ENV = "disable_projection_and_casing";
+    //The max number of Query/Scan pages to fetch ahead of the page being written, 0 disables prefetching.
+    private static final String PAGE_PREFETCH_DEPTH_ENV = "page_prefetch_depth";
+    private static final int DEFAULT_PAGE_PREFETCH_DEPTH = 1;
 
     private static final String HASH_KEY_VALUE_ALIAS = ":hashKeyValue";
 
+    //The max milliseconds spent re-requesting the unprocessed keys of a BatchGetItem before giving up.
+    private static final long BATCH_GET_RETRY_TIMEOUT_MS = 60_000;
+
     private static final TypeReference<HashMap<String, String>> STRING_MAP_TYPE_REFERENCE = new TypeReference<HashMap<String, String>>() {};
     private static final TypeReference<HashMap<String, AttributeValue>> ATTRIBUTE_VALUE_MAP_TYPE_REFERENCE = new TypeReference<HashMap<String, AttributeValue>>() {};
 
@@ -120,6 +140,10 @@ public class DynamoDBRecordHandler
 
     private final DDBQueryPassthrough queryPassthrough = new DDBQueryPassthrough();
 
+    //Names the background page fetch threads of DDBPageIterator, daemon threads so that an abandoned fetch can't pin the JVM.
+    private static final ThreadFactory PAGE_PREFETCH_THREAD_FACTORY =
+            new ThreadFactoryBuilder().setNameFormat("ddb-page-prefetch-%d").setDaemon(true).build();
+
     public DynamoDBRecordHandler(java.util.Map<String, String> configOptions)
     {
         super(sourceType, configOptions);
@@ -217,12 +241,17 @@ public class DynamoDBRecordHandler
             plan = SubstraitRelUtils.deserializeSubstraitPlan(queryPlan.getSubstraitPlan());
         }
 
-        Iterator<Map<String, AttributeValue>> itemIterator =
-                getIterator(split, tableName, recordsRequest.getSchema(), recordsRequest.getConstraints(),
-                        disableProjectionAndCasing, plan, overrideConfig);
         // Variable to determine limit can be applied or not, If applicable what is the limit value.
         Pair<Boolean, Integer> limitPair = getLimit(plan, recordsRequest.getConstraints());
-        writeItemsToBlock(spiller, recordsRequest, queryStatusChecker, recordMetadata, itemIterator, disableProjectionAndCasing, limitPair);
+        // A single background thread per read, which is stopped once the read ends
+        ExecutorService pagePrefetchExecutor = Executors.newSingleThreadExecutor(PAGE_PREFETCH_THREAD_FACTORY);
+        try (DDBPageIterator itemIterator = getIterator(split, tableName, recordsRequest.getSchema(),
+                disableProjectionAndCasing, limitPair, overrideConfig, pagePrefetchExecutor)) {
+            writeItemsToBlock(spiller, recordsRequest, queryStatusChecker, recordMetadata, itemIterator, disableProjectionAndCasing, limitPair);
+        }
+        finally {
+            pagePrefetchExecutor.shutdownNow();
+        }
     }
 
     private void handleQueryPassthroughPartiQLQuery(BlockSpiller spiller, ReadRecordsRequest recordsRequest, QueryStatusChecker queryStatusChecker)
@@ -340,6 +369,11 @@ public class DynamoDBRecordHandler
         return rangeValues;
     }
 
+    private boolean isBatchGetRequest(Split split)
+    {
+        return BATCH_GET_PARTITION_TYPE.equals(split.getProperty(PARTITION_TYPE_METADATA));
+    }
+
     private boolean isQueryRequest(Split split)
     {
         return split.getProperty(SEGMENT_ID_PROPERTY) == null;
@@ -477,63 +511,108 @@ public class DynamoDBRecordHandler
     }
 
     /*
-    Creates an iterator that can iterate through a Query or Scan, sending paginated requests as necessary
+    Converts a batchGet split into the request items of a BatchGetItem request
+     */
+    private Map<String, KeysAndAttributes> buildBatchGetRequestItems(Split split, String tableName, Schema schema,
+                                                                     boolean disableProjectionAndCasing)
+    {
+        validateExpectedMetadata(split.getProperties());
+        List<Map<String, AttributeValue>> keys = DDBTypeUtils.jsonToAttributeValue(split.getProperty(BATCH_GET_KEYS_METADATA), BATCH_GET_KEYS_METADATA)
+                .l()
+                .stream()
+                .map(AttributeValue::m)
+                .collect(Collectors.toList());
+        KeysAndAttributes.Builder keysAndAttributesBuilder = KeysAndAttributes.builder().keys(keys);
+        if (!disableProjectionAndCasing) {
+            // Only read columns that are needed in the query
+            Map<String, String> expressionAttributeNames = new HashMap<>();
+            String projectionExpression = schema.getFields()
+                    .stream()
+                    .map(field -> {
+                        String aliasedName = DDBPredicateUtils.aliasColumn(field.getName());
+                        expressionAttributeNames.put(aliasedName, field.getName());
+                        return aliasedName;
+                    })
+                    .collect(Collectors.joining(","));
+            keysAndAttributesBuilder.projectionExpression(projectionExpression)
+                    .expressionAttributeNames(expressionAttributeNames);
+        }
+        return ImmutableMap.of(tableName, keysAndAttributesBuilder.build());
+    }
+
+    /*
+    Fetches every key of a batchGet split. DynamoDB may return only part of a batch (e.g. when a partition is throttled or the
+    response reaches its 16MB limit), in which case only the unprocessed keys are re-requested. The retries go through a
+    ThrottlingInvoker of their own, which applies the same backoff as the table's invoker but, having no spiller, keeps
+    retrying rather than handing the throttle back to Athena and discarding the items already fetched.
      */
-    private Iterator<Map<String, AttributeValue>> getIterator(Split split, String tableName, Schema schema,
-                                                              Constraints constraints, boolean disableProjectionAndCasing,
-                                                              Plan plan, AwsRequestOverrideConfiguration requestOverrideConfiguration)
+    private List<Map<String, AttributeValue>> batchGetItems(String tableName, Map<String, KeysAndAttributes> requestItems,
+                                                            AwsRequestOverrideConfiguration overrideConfiguration)
+            throws TimeoutException, ExecutionException
     {
-        return new Iterator<Map<String, AttributeValue>>() {
-            AtomicReference<Map<String, AttributeValue>> lastKeyEvaluated = new AtomicReference<>();
-            AtomicReference<Iterator<Map<String, AttributeValue>>> currentPageIterator = new AtomicReference<>();
-
-            @Override
-            public boolean hasNext()
-            {
-                return currentPageIterator.get() == null
-                        || currentPageIterator.get().hasNext()
-                        || ((lastKeyEvaluated.get() != null && !lastKeyEvaluated.get().isEmpty()));
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        AtomicReference<Map<String, KeysAndAttributes>> remainingItems = new AtomicReference<>(requestItems);
+        ThrottlingInvoker tableInvoker = invokerCache.get(tableName);
+        ThrottlingInvoker unprocessedKeysInvoker = ThrottlingInvoker.newDefaultBuilder(EXCEPTION_FILTER, configOptions).build();
+        return unprocessedKeysInvoker.invoke(() -> {
+            BatchGetItemRequest request = BatchGetItemRequest.builder()
+                    .requestItems(remainingItems.get())
+                    .overrideConfiguration(overrideConfiguration)
+                    .build();
+            logger.info("Invoking DDB with BatchGetItem request for {} keys", remainingItems.get().get(tableName).keys().size());
+            BatchGetItemResponse response = tableInvoker.invoke(() -> ddbClient.batchGetItem(request));
+            items.addAll(response.responses().getOrDefault(tableName, Collections.emptyList()));
+            if (!response.hasUnprocessedKeys() || !response.unprocessedKeys().containsKey(tableName)) {
+                return items;
             }
+            remainingItems.set(response.unprocessedKeys());
+            throw ProvisionedThroughputExceededException.builder()
+                    .message("BatchGetItem returned " + response.unprocessedKeys().get(tableName).keys().size() + " unprocessed keys")
+                    .build();
+        }, BATCH_GET_RETRY_TIMEOUT_MS);
+    }
 
-            @Override
-            public Map<String, AttributeValue> next()
-            {
-                if (currentPageIterator.get() != null && currentPageIterator.get().hasNext()) {
-                    return currentPageIterator.get().next();
-                }
-                // Variable to determine limit can be applied or not, If applicable what is the limit value.
-                Pair<Boolean, Integer> limitPair = getLimit(plan, constraints);
-                Iterator<Map<String, AttributeValue>> iterator;
-                try {
-                    if (isQueryRequest(split)) {
-                        QueryRequest request = buildQueryRequest(split, tableName, schema,
-                                disableProjectionAndCasing, lastKeyEvaluated.get(),  requestOverrideConfiguration, limitPair);
-                        logger.info("Invoking DDB with Query request: {}", request);
-                        QueryResponse response = invokerCache.get(tableName).invoke(() -> ddbClient.query(request));
-                        lastKeyEvaluated.set(response.lastEvaluatedKey());
-                        iterator = response.items().iterator();
-                    }
-                    else {
-                        ScanRequest request = buildScanRequest(split, tableName, schema,
-                                 disableProjectionAndCasing, lastKeyEvaluated.get(), requestOverrideConfiguration, limitPair);
-                        logger.info("Invoking DDB with Scan request: {}", request);
-                        ScanResponse response = invokerCache.get(tableName).invoke(() -> ddbClient.scan(request));
-                        lastKeyEvaluated.set(response.lastEvaluatedKey());
-                        iterator = response.items().iterator();
-                    }
-                }
-                catch (TimeoutException | ExecutionException e) {
-                    throw new AthenaConnectorException(e.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).build());
-                }
-                currentPageIterator.set(iterator);
-                if (iterator.hasNext()) {
-                    return iterator.next();
+    /*
+    Creates an iterator that can iterate through a Query or Scan, sending paginated requests as necessary. Unless a limit
+    applies, in which case reading ahead could read (and consume capacity for) pages that are never used, the next page is
+    prefetched while the current one is being written.
+     */
+    private DDBPageIterator getIterator(Split split, String tableName, Schema schema, boolean disableProjectionAndCasing,
+                                        Pair<Boolean, Integer> limitPair, AwsRequestOverrideConfiguration requestOverrideConfiguration,
+                                        ExecutorService pagePrefetchExecutor)
+    {
+        DDBPageIterator.PageFetcher fetcher = (Map<String, AttributeValue> exclusiveStartKey) -> {
+            try {
+                if (isBatchGetRequest(split)) {
+                    Map<String, KeysAndAttributes> requestItems = buildBatchGetRequestItems(split, tableName, schema, disableProjectionAndCasing);
+                    return new DDBPageIterator.Page(batchGetItems(tableName, requestItems, requestOverrideConfiguration), null);
                 }
-                else {
-                    return null;
+                if (isQueryRequest(split)) {
+                    QueryRequest request = buildQueryRequest(split, tableName, schema,
+                            disableProjectionAndCasing, exclusiveStartKey, requestOverrideConfiguration, limitPair);
+                    logger.info("Invoking DDB with Query request: {}", request);
+                    QueryResponse response = invokerCache.get(tableName).invoke(() -> ddbClient.query(request));
+                    return new DDBPageIterator.Page(response.items(), response.lastEvaluatedKey());
                 }
+                ScanRequest request = buildScanRequest(split, tableName, schema,
+                        disableProjectionAndCasing, exclusiveStartKey, requestOverrideConfiguration, limitPair);
+                logger.info("Invoking DDB with Scan request: {}", request);
+                ScanResponse response = invokerCache.get(tableName).invoke(() -> ddbClient.scan(request));
+                return new DDBPageIterator.Page(response.items(), response.lastEvaluatedKey());
+            }
+            catch (TimeoutException | ExecutionException e) {
+                throw new AthenaConnectorException(e.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).build());
             }
         };
+        // a batchGet split is fetched as a single page so there is nothing to prefetch
+        int prefetchDepth = limitPair.getLeft() || isBatchGetRequest(split) ? 0 : getPagePrefetchDepth();
+        return new DDBPageIterator(fetcher, pagePrefetchExecutor, prefetchDepth);
+    }
+
+    private int getPagePrefetchDepth()
+    {
+        String prefetchDepth = configOptions.get(PAGE_PREFETCH_DEPTH_ENV);
+        return (prefetchDepth == null) ? DEFAULT_PAGE_PREFETCH_DEPTH : Integer.parseInt(prefetchDepth.trim());
     }
 
     /*
@@ -542,7 +621,10 @@ public class DynamoDBRecordHandler
     private void validateExpectedMetadata(Map<String, String> metadata)
     {
         boolean isQuery = !metadata.containsKey(SEGMENT_ID_PROPERTY);
-        if (isQuery) {
+        if (BATCH_GET_PARTITION_TYPE.equals(metadata.get(PARTITION_TYPE_METADATA))) {
+            checkArgument(metadata.containsKey(BATCH_GET_KEYS_METADATA), "Split missing expected metadata [%s]", BATCH_GET_KEYS_METADATA);
+        }
+        else if (isQuery) {
             checkArgument(metadata.containsKey(HASH_KEY_NAME_METADATA), "Split missing expected metadata [%s]", HASH_KEY_NAME_METADATA);
         }
         else {
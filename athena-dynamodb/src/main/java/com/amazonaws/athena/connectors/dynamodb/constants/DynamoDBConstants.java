@@ -27,6 +27,7 @@ public final class DynamoDBConstants
     public static final String PARTITION_TYPE_METADATA = "partitionType";
     public static final String QUERY_PARTITION_TYPE = "query";
     public static final String SCAN_PARTITION_TYPE = "scan";
+    public static final String BATCH_GET_PARTITION_TYPE = "batchGet";
     public static final String SEGMENT_COUNT_METADATA = "segmentCount";
     public static final String SEGMENT_ID_PROPERTY = "segmentId";
     public static final String TABLE_METADATA = "sourceTable";
@@ -37,6 +38,8 @@ public final class DynamoDBConstants
     public static final String NON_KEY_FILTER_METADATA = "nonKeyFilter";
     public static final String EXPRESSION_NAMES_METADATA = "expressionAttributeNames";
     public static final String EXPRESSION_VALUES_METADATA = "expressionAttributeValues";
+    // Metadata key whose value is the (json) list of primary keys a batchGet split should fetch
+    public static final String BATCH_GET_KEYS_METADATA = "batchGetKeys";
 
     // Metadata key whose value is a string that represents the maping from normalized column names to
     // any non-8601 format that customer wants to specify
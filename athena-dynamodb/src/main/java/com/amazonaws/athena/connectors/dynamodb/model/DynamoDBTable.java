@@ -95,6 +95,11 @@ public class DynamoDBTable
         return approxTableSizeInBytes;
     }
 
+    public long getApproxItemCount()
+    {
+        return approxItemCount;
+    }
+
     public long getProvisionedReadCapacity()
     {
         return provisionedReadCapacity;
@@ -0,0 +1,238 @@
+/*-
+ * #%L
+ * athena-dynamodb
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.dynamodb.util;
+
+import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.glue.model.ErrorDetails;
+import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Iterates over the items of a paginated DynamoDB Query or Scan. When a prefetch depth is configured, pages are
+ * requested on a background thread (each using the previous page's lastEvaluatedKey) and handed over through a queue
+ * holding at most that many pages, so that DynamoDB is serving the next page while the current one is being written
+ * to Apache Arrow. With a prefetch depth of 0 each page is requested on the calling thread when the previous one runs out.
+ *
+ * @note Callers must close() this iterator if they stop iterating early so the background fetch is cancelled.
+ */
+public class DDBPageIterator
+        implements Iterator<Map<String, AttributeValue>>, AutoCloseable
+{
+    private static final Logger logger = LoggerFactory.getLogger(DDBPageIterator.class);
+    //How long the background fetch waits on a full queue before checking whether the iterator was closed.
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private final PageFetcher fetcher;
+    private final ExecutorService executor;
+    private final int prefetchDepth;
+    private BlockingQueue<Page> pages;
+    private Future<?> prefetch;
+    private Iterator<Map<String, AttributeValue>> currentPage = Collections.emptyIterator();
+    //The lastEvaluatedKey of the most recently consumed page, only used when not prefetching.
+    private Map<String, AttributeValue> lastEvaluatedKey;
+    private boolean lastPage;
+    //Read by the background fetch, which stops queueing pages once the iterator is closed.
+    private volatile boolean closed;
+
+    /**
+     * @param fetcher Requests a single page, typically through the table's ThrottlingInvoker.
+     * @param executor The executor to run the background fetch on, owned by the caller and shut down when the read ends.
+     * @param prefetchDepth The max number of fetched pages to queue ahead of the consumer, 0 disables prefetching.
+     */
+    public DDBPageIterator(PageFetcher fetcher, ExecutorService executor, int prefetchDepth)
+    {
+        this.fetcher = requireNonNull(fetcher, "fetcher was null");
+        this.executor = requireNonNull(executor, "executor was null");
+        this.prefetchDepth = prefetchDepth;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        while (!currentPage.hasNext() && !lastPage) {
+            Page page = (prefetchDepth > 0) ? takePrefetched() : fetcher.fetch(lastEvaluatedKey);
+            lastEvaluatedKey = page.lastEvaluatedKey;
+            lastPage = page.isLast();
+            currentPage = page.items.iterator();
+        }
+        return currentPage.hasNext();
+    }
+
+    @Override
+    public Map<String, AttributeValue> next()
+    {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentPage.next();
+    }
+
+    /**
+     * Cancels any in progress background fetch, discarding pages which have not yet been consumed.
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        lastPage = true;
+        currentPage = Collections.emptyIterator();
+        if (prefetch != null) {
+            prefetch.cancel(true);
+        }
+    }
+
+    private Page takePrefetched()
+    {
+        if (closed) {
+            throw new AthenaConnectorException("DDBPageIterator is closed",
+                    ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
+        }
+        if (prefetch == null) {
+            pages = new ArrayBlockingQueue<>(prefetchDepth);
+            prefetch = executor.submit(this::prefetchPages);
+        }
+
+        Page page;
+        try {
+            page = pages.take();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new AthenaConnectorException("Interrupted while waiting for DynamoDB page",
+                    ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).build());
+        }
+
+        if (page.failure != null) {
+            throw page.failure;
+        }
+        return page;
+    }
+
+    /**
+     * Runs on the executor, fetching pages until the last one (or a failure) has been queued or the iterator is closed.
+     * Waiting on the bounded queue is what keeps the fetcher at most prefetchDepth pages ahead of the consumer.
+     */
+    private void prefetchPages()
+    {
+        Map<String, AttributeValue> startKey = null;
+        try {
+            Page page;
+            do {
+                page = fetcher.fetch(startKey);
+                if (!offer(page)) {
+                    logger.info("prefetchPages: Closed");
+                    return;
+                }
+                startKey = page.lastEvaluatedKey;
+            }
+            while (!page.isLast());
+        }
+        catch (InterruptedException ex) {
+            logger.info("prefetchPages: Cancelled");
+            Thread.currentThread().interrupt();
+        }
+        catch (RuntimeException ex) {
+            try {
+                if (!offer(new Page(ex))) {
+                    logger.warn("prefetchPages: Closed before reporting failure", ex);
+                }
+            }
+            catch (InterruptedException ie) {
+                logger.warn("prefetchPages: Cancelled while reporting failure", ex);
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Queues a page for the consumer. A closed iterator is never drained again, so rather than blocking on a full queue
+     * this gives up once close() has been called, even if the interrupt from cancelling the fetch was swallowed.
+     *
+     * @return True if the page was queued, false if the iterator was closed first.
+     */
+    private boolean offer(Page page)
+            throws InterruptedException
+    {
+        while (!closed) {
+            if (pages.offer(page, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Requests the page of a Query or Scan which starts after the given key.
+     */
+    public interface PageFetcher
+    {
+        /**
+         * @param exclusiveStartKey The lastEvaluatedKey of the previous page, null for the first page.
+         * @return The requested page.
+         * @throws AthenaConnectorException If the request fails.
+         */
+        Page fetch(Map<String, AttributeValue> exclusiveStartKey);
+    }
+
+    /**
+     * The items of a single Query or Scan response and the key to continue from.
+     */
+    public static class Page
+    {
+        private final List<Map<String, AttributeValue>> items;
+        private final Map<String, AttributeValue> lastEvaluatedKey;
+        private final RuntimeException failure;
+
+        public Page(List<Map<String, AttributeValue>> items, Map<String, AttributeValue> lastEvaluatedKey)
+        {
+            this.items = requireNonNull(items, "items was null");
+            this.lastEvaluatedKey = lastEvaluatedKey;
+            this.failure = null;
+        }
+
+        private Page(RuntimeException failure)
+        {
+            this.items = Collections.emptyList();
+            this.lastEvaluatedKey = null;
+            this.failure = failure;
+        }
+
+        private boolean isLast()
+        {
+            return lastEvaluatedKey == null || lastEvaluatedKey.isEmpty();
+        }
+    }
+}
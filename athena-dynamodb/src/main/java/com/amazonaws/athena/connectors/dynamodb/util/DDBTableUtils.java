@@ -39,8 +39,10 @@ import software.amazon.awssdk.services.dynamodb.model.KeyType;
 import software.amazon.awssdk.services.dynamodb.model.LocalSecondaryIndexDescription;
 import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
 import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputDescription;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
 import software.amazon.awssdk.services.dynamodb.model.TableDescription;
 
 import java.util.List;
@@ -62,6 +64,11 @@ public final class DDBTableUtils
     private static final int MIN_SCAN_SEGMENTS = 1;
     private static final long MAX_BYTES_PER_SEGMENT = 1024L * 1024L * 1024L;
     private static final double MIN_IO_PER_SEGMENT = 100.0;
+    // a Scan returns at most 1MB per page, segments smaller than that only add requests
+    private static final long MIN_BYTES_PER_SEGMENT = 1024L * 1024L;
+    // an eventually consistent read unit covers two 4KB reads
+    private static final long BYTES_PER_READ_UNIT = 8 * 1024;
+    private static final int SIZE_SAMPLE_NUM_RECORDS = 100;
     public static final int SCHEMA_INFERENCE_NUM_RECORDS = 4;
 
     private DDBTableUtils() {}
@@ -229,6 +236,86 @@ public final class DDBTableUtils
         return numSegments;
     }
 
+    /**
+     * Determines the segment count to perform Parallel Scans with, aiming for segments of targetBytesPerSegment while
+     * using enough segments to make use of the table's provisioned capacity. Capacity alone never produces segments
+     * smaller than a single Scan page, which would otherwise split small tables into mostly empty segments.
+     *
+     * @param tableNormalizedReadThroughput the provisioned read capacity for the table, 0 for on-demand tables
+     * @param currentTableSizeBytes the table's approximate size in bytes, 0 if unknown
+     * @param targetBytesPerSegment the number of bytes each segment should ideally scan
+     * @return an optimal segment count
+     */
+    public static int getNumSegments(long tableNormalizedReadThroughput, long currentTableSizeBytes, long targetBytesPerSegment)
+    {
+        // Segments for size
+        long numSegmentsForSize = (currentTableSizeBytes + targetBytesPerSegment - 1) / targetBytesPerSegment;
+        logger.debug("Would use {} segments for size", numSegmentsForSize);
+
+        // Segments for total throughput
+        long numSegmentsForThroughput = (long) (tableNormalizedReadThroughput / MIN_IO_PER_SEGMENT);
+        if (currentTableSizeBytes > 0) {
+            numSegmentsForThroughput = Math.min(numSegmentsForThroughput, (currentTableSizeBytes + MIN_BYTES_PER_SEGMENT - 1) / MIN_BYTES_PER_SEGMENT);
+        }
+        logger.debug("Would use {} segments for throughput", numSegmentsForThroughput);
+
+        // Take the larger
+        long numSegments = Math.max(numSegmentsForSize, numSegmentsForThroughput);
+
+        // Fit to bounds
+        numSegments = Math.min(numSegments, MAX_SCAN_SEGMENTS);
+        numSegments = Math.max(numSegments, MIN_SCAN_SEGMENTS);
+
+        logger.debug("Using computed number of segments: {}", numSegments);
+        return (int) numSegments;
+    }
+
+    /**
+     * Estimates the size of a table whose DescribeTable statistics, which DynamoDB only refreshes every few hours, report
+     * it as empty. A small COUNT Scan is sampled and the read capacity it consumed gives the average item size, which is
+     * then scaled by the item count (or taken as is if the sample covered the whole table).
+     *
+     * @param table the table metadata from DescribeTable
+     * @param invoker the ThrottlingInvoker to call DDB with
+     * @param ddbClient the DDB client to use
+     * @return the estimated table size in bytes, or 0 if it could not be estimated
+     */
+    public static long estimateTableSizeBytes(DynamoDBTable table, ThrottlingInvoker invoker, DynamoDbClient ddbClient,
+                                              AwsRequestOverrideConfiguration requestOverrideConfiguration)
+            throws TimeoutException
+    {
+        ScanRequest scanRequest = ScanRequest.builder()
+                .tableName(table.getName())
+                .select(Select.COUNT)
+                .limit(SIZE_SAMPLE_NUM_RECORDS)
+                .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                .overrideConfiguration(requestOverrideConfiguration)
+                .build();
+        ScanResponse scanResponse = invoker.invoke(() -> ddbClient.scan(scanRequest));
+
+        boolean sampledWholeTable = scanResponse.lastEvaluatedKey() == null || scanResponse.lastEvaluatedKey().isEmpty();
+        int sampledItems = (scanResponse.count() == null) ? 0 : scanResponse.count();
+        if (sampledItems == 0 || scanResponse.consumedCapacity() == null || scanResponse.consumedCapacity().capacityUnits() == null) {
+            logger.info("estimateTableSizeBytes: Unable to estimate size of {} from sample of {} items", table.getName(), sampledItems);
+            return 0;
+        }
+
+        long sampledBytes = (long) (scanResponse.consumedCapacity().capacityUnits() * BYTES_PER_READ_UNIT);
+        long estimate;
+        if (sampledWholeTable) {
+            estimate = sampledBytes;
+        }
+        else if (table.getApproxItemCount() > sampledItems) {
+            estimate = (sampledBytes / sampledItems) * table.getApproxItemCount();
+        }
+        else {
+            logger.info("estimateTableSizeBytes: Unable to estimate size of {} since its item count is also stale", table.getName());
+            return 0;
+        }
+        logger.info("estimateTableSizeBytes: Estimated {} at {} bytes from {} sampled items", table.getName(), estimate, sampledItems);
+        return estimate;
+    }
+
     /*
     Simple convenient holder for key data
      */
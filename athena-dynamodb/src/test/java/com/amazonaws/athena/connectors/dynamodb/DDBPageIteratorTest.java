@@ -0,0 +1,161 @@
+/*-
+ * #%L
+ * athena-dynamodb
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.dynamodb;
+
+import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
+import com.amazonaws.athena.connectors.dynamodb.util.DDBPageIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.After;
+import org.junit.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.glue.model.ErrorDetails;
+import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DDBPageIteratorTest
+{
+    private static final int NUM_PAGES = 5;
+    private static final int ITEMS_PER_PAGE = 3;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void iteratesAllPages()
+    {
+        for (int prefetchDepth : new int[] {0, 1, 2}) {
+            AtomicInteger fetches = new AtomicInteger();
+            try (DDBPageIterator iterator = new DDBPageIterator(pages(fetches, -1), executor, prefetchDepth)) {
+                List<String> items = new ArrayList<>();
+                while (iterator.hasNext()) {
+                    items.add(iterator.next().get("id").s());
+                }
+                assertEquals(NUM_PAGES * ITEMS_PER_PAGE, items.size());
+                for (int i = 0; i < items.size(); i++) {
+                    assertEquals(String.valueOf(i), items.get(i));
+                }
+                assertEquals(NUM_PAGES, fetches.get());
+            }
+        }
+    }
+
+    @Test
+    public void skipsEmptyPages()
+    {
+        DDBPageIterator.PageFetcher fetcher = (Map<String, AttributeValue> startKey) -> (startKey == null)
+                ? new DDBPageIterator.Page(Collections.emptyList(), ImmutableMap.of("id", AttributeValue.fromS("0")))
+                : new DDBPageIterator.Page(Collections.emptyList(), Collections.emptyMap());
+        try (DDBPageIterator iterator = new DDBPageIterator(fetcher, executor, 1)) {
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Test
+    public void propagatesFetchFailure()
+    {
+        try (DDBPageIterator iterator = new DDBPageIterator(pages(new AtomicInteger(), 2), executor, 1)) {
+            int consumed = 0;
+            while (iterator.hasNext()) {
+                iterator.next();
+                consumed++;
+            }
+            fail("Expected the failed page fetch to be rethrown, consumed " + consumed);
+        }
+        catch (AthenaConnectorException ex) {
+            assertTrue(ex.getMessage().contains("page 2"));
+        }
+    }
+
+    @Test
+    public void closeStopsPrefetchBlockedOnFullQueue()
+            throws Exception
+    {
+        CountDownLatch blocked = new CountDownLatch(1);
+        DDBPageIterator.PageFetcher fetcher = (Map<String, AttributeValue> startKey) -> {
+            int page = (startKey == null) ? 0 : Integer.parseInt(startKey.get("page").n());
+            if (page == 2) {
+                // Like a retrying fetch which turns the interrupt from close() into a failure, clearing the flag.
+                blocked.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                }
+                catch (InterruptedException ex) {
+                    throw new AthenaConnectorException("Interrupted while fetching page " + page,
+                            ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).build());
+                }
+            }
+            return new DDBPageIterator.Page(ImmutableList.of(ImmutableMap.of("id", AttributeValue.fromS(String.valueOf(page)))),
+                    ImmutableMap.of("page", AttributeValue.fromN(String.valueOf(page + 1))));
+        };
+
+        DDBPageIterator iterator = new DDBPageIterator(fetcher, executor, 1);
+        assertTrue(iterator.hasNext());
+        // Page 1 fills the queue while page 2 is being fetched, so the failure of page 2 has nowhere to go.
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        iterator.close();
+
+        executor.shutdown();
+        assertTrue("The background fetch should stop once the iterator is closed", executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Makes a fetcher which returns NUM_PAGES pages of ITEMS_PER_PAGE sequentially numbered items, failing when asked
+     * for failPage.
+     */
+    private static DDBPageIterator.PageFetcher pages(AtomicInteger fetches, int failPage)
+    {
+        return (Map<String, AttributeValue> startKey) -> {
+            int page = (startKey == null) ? 0 : Integer.parseInt(startKey.get("page").n());
+            fetches.incrementAndGet();
+            if (page == failPage) {
+                throw new AthenaConnectorException("Failed to fetch page " + page,
+                        ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
+            }
+            ImmutableList.Builder<Map<String, AttributeValue>> items = ImmutableList.builder();
+            for (int i = 0; i < ITEMS_PER_PAGE; i++) {
+                items.add(ImmutableMap.of("id", AttributeValue.fromS(String.valueOf(page * ITEMS_PER_PAGE + i))));
+            }
+            Map<String, AttributeValue> lastKey = (page + 1 < NUM_PAGES)
+                    ? ImmutableMap.of("page", AttributeValue.fromN(String.valueOf(page + 1)))
+                    : Collections.emptyMap();
+            return new DDBPageIterator.Page(items.build(), lastKey);
+        };
+    }
+}
@@ -0,0 +1,99 @@
+/*-
+ * #%L
+ * athena-dynamodb
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.dynamodb;
+
+import com.amazonaws.athena.connector.lambda.ThrottlingInvoker;
+import com.amazonaws.athena.connectors.dynamodb.model.DynamoDBTable;
+import com.amazonaws.athena.connectors.dynamodb.util.DDBTableUtils;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.util.Optional;
+
+import static com.amazonaws.athena.connectors.dynamodb.throttling.DynamoDBExceptionFilter.EXCEPTION_FILTER;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DDBTableUtilsTest
+{
+    private static final long MB = 1024L * 1024L;
+    private static final long GB = 1024L * MB;
+
+    @Mock
+    private DynamoDbClient ddbClient;
+
+    private final ThrottlingInvoker invoker = ThrottlingInvoker.newDefaultBuilder(EXCEPTION_FILTER, ImmutableMap.of()).build();
+
+    @Test
+    public void getNumSegments()
+    {
+        // without a target each segment reads up to 1GB and capacity adds segments regardless of the size
+        assertEquals(10, DDBTableUtils.getNumSegments(0, 10 * GB));
+        assertEquals(100, DDBTableUtils.getNumSegments(10_000, 3 * MB));
+        // sized by the target bytes per segment
+        assertEquals(40, DDBTableUtils.getNumSegments(0, 10 * GB, 256 * MB));
+        assertEquals(1, DDBTableUtils.getNumSegments(0, 100 * MB, 256 * MB));
+        // provisioned capacity adds segments, but never ones smaller than a single scan page
+        assertEquals(100, DDBTableUtils.getNumSegments(10_000, 10 * GB, 1 * GB));
+        assertEquals(3, DDBTableUtils.getNumSegments(10_000, 3 * MB, 256 * MB));
+        // with an unknown size only capacity is considered
+        assertEquals(100, DDBTableUtils.getNumSegments(10_000, 0, 256 * MB));
+        assertEquals(1, DDBTableUtils.getNumSegments(0, 0, 256 * MB));
+    }
+
+    @Test
+    public void estimateTableSizeBytes()
+            throws Exception
+    {
+        // the sample is a fraction of the table, so scale it by the item count
+        when(ddbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder()
+                .count(100)
+                .consumedCapacity(ConsumedCapacity.builder().capacityUnits(50.0).build())
+                .lastEvaluatedKey(ImmutableMap.of("pk", AttributeValue.fromS("100")))
+                .build());
+        assertEquals(4096L * 1_000_000L, DDBTableUtils.estimateTableSizeBytes(table(1_000_000), invoker, ddbClient, null));
+
+        // the item count is stale too, so there is nothing to scale by
+        assertEquals(0, DDBTableUtils.estimateTableSizeBytes(table(0), invoker, ddbClient, null));
+
+        // the sample covered the whole table
+        when(ddbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder()
+                .count(10)
+                .consumedCapacity(ConsumedCapacity.builder().capacityUnits(0.5).build())
+                .build());
+        assertEquals(4096L, DDBTableUtils.estimateTableSizeBytes(table(0), invoker, ddbClient, null));
+    }
+
+    private static DynamoDBTable table(long itemCount)
+    {
+        return new DynamoDBTable("table", "pk", Optional.empty(), ImmutableList.of(), ImmutableList.of(), 0, itemCount, 0);
+    }
+}
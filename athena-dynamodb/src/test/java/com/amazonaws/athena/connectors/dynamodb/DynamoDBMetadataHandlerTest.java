@@ -84,6 +84,7 @@ import software.amazon.awssdk.services.glue.model.Table;
 import software.amazon.awssdk.services.glue.paginators.GetDatabasesIterable;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
@@ -105,6 +106,8 @@ import static com.amazonaws.athena.connector.lambda.handlers.GlueMetadataHandler
 import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.UNLIMITED_PAGE_SIZE_VALUE;
 import static com.amazonaws.athena.connectors.dynamodb.DynamoDBMetadataHandler.DYNAMO_DB_FLAG;
 import static com.amazonaws.athena.connectors.dynamodb.DynamoDBMetadataHandler.MAX_SPLITS_PER_REQUEST;
+import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.BATCH_GET_KEYS_METADATA;
+import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.BATCH_GET_PARTITION_TYPE;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.DEFAULT_SCHEMA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.EXPRESSION_NAMES_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.EXPRESSION_VALUES_METADATA;
@@ -684,6 +687,56 @@ public class DynamoDBMetadataHandlerTest
         assertThat(response.getSplits().stream().map(split -> split.getProperty("col_0")).distinct().count(), equalTo((long) MAX_SPLITS_PER_REQUEST));
     }
 
+    @Test
+    public void doGetSplitsBatchGet()
+            throws Exception
+    {
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        EquatableValueSet.Builder hashKeyValueSet = EquatableValueSet.newBuilder(allocator, Types.MinorType.VARCHAR.getType(), true, false);
+        for (int i = 0; i < 15; i++) {
+            hashKeyValueSet.add("test_str_" + i);
+        }
+        ArrowType rangeKeyType = schema.findField("col_1").getType();
+        SortedRangeSet.Builder rangeKeyValueSet = SortedRangeSet.newBuilder(rangeKeyType, false);
+        for (int i = 0; i < 10; i++) {
+            rangeKeyValueSet.add(Range.equal(allocator, rangeKeyType, new BigDecimal(i).setScale(((ArrowType.Decimal) rangeKeyType).getScale())));
+        }
+        constraintsMap.put("col_0", hashKeyValueSet.build());
+        constraintsMap.put("col_1", rangeKeyValueSet.build());
+        Constraints constraints = new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null);
+        GetTableLayoutResponse layoutResponse = handler.doGetTableLayout(allocator, new GetTableLayoutRequest(TEST_IDENTITY,
+                TEST_QUERY_ID,
+                TEST_CATALOG_NAME,
+                TEST_TABLE_NAME,
+                constraints,
+                SchemaBuilder.newBuilder().build(),
+                Collections.EMPTY_SET));
+
+        assertThat(layoutResponse.getPartitions().getSchema().getCustomMetadata().get(PARTITION_TYPE_METADATA), equalTo(BATCH_GET_PARTITION_TYPE));
+        assertThat(layoutResponse.getPartitions().getSchema().getCustomMetadata().get(HASH_KEY_NAME_METADATA), equalTo("col_0"));
+        assertThat(layoutResponse.getPartitions().getSchema().getCustomMetadata().get(RANGE_KEY_NAME_METADATA), equalTo("col_1"));
+        assertThat(layoutResponse.getPartitions().getSchema().getCustomMetadata().containsKey(RANGE_KEY_FILTER_METADATA), is(false));
+        assertThat(layoutResponse.getPartitions().getRowCount(), equalTo(150));
+
+        GetSplitsRequest req = new GetSplitsRequest(TEST_IDENTITY,
+                TEST_QUERY_ID,
+                TEST_CATALOG_NAME,
+                TEST_TABLE_NAME,
+                layoutResponse.getPartitions(),
+                ImmutableList.of("col_0", "col_1"),
+                constraints,
+                null);
+        GetSplitsResponse response = handler.doGetSplits(allocator, req);
+
+        assertThat(response.getContinuationToken(), equalTo(null));
+        assertThat(response.getSplits().size(), equalTo(2));
+        List<Integer> keysPerSplit = response.getSplits().stream()
+                .map(split -> DDBTypeUtils.jsonToAttributeValue(split.getProperty(BATCH_GET_KEYS_METADATA), BATCH_GET_KEYS_METADATA).l().size())
+                .sorted()
+                .collect(Collectors.toList());
+        assertThat(keysPerSplit, equalTo(ImmutableList.of(50, 100)));
+    }
+
     @Test
     public void validateSourceTableNamePropagation()
             throws Exception
@@ -54,13 +54,17 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
 import software.amazon.awssdk.services.athena.AthenaClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
 import software.amazon.awssdk.services.glue.GlueClient;
 import software.amazon.awssdk.services.glue.model.Column;
 import software.amazon.awssdk.services.glue.model.EntityNotFoundException;
@@ -83,12 +87,16 @@ import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints
 import static com.amazonaws.athena.connector.lambda.handlers.GlueMetadataHandler.COLUMN_NAME_MAPPING_PROPERTY;
 import static com.amazonaws.athena.connector.lambda.handlers.GlueMetadataHandler.DATETIME_FORMAT_MAPPING_PROPERTY;
 import static com.amazonaws.athena.connector.lambda.handlers.GlueMetadataHandler.SOURCE_TABLE_PROPERTY;
+import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.BATCH_GET_KEYS_METADATA;
+import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.BATCH_GET_PARTITION_TYPE;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.DEFAULT_SCHEMA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.EXPRESSION_NAMES_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.EXPRESSION_VALUES_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.HASH_KEY_NAME_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.NON_KEY_FILTER_METADATA;
+import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.PARTITION_TYPE_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.RANGE_KEY_FILTER_METADATA;
+import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.RANGE_KEY_NAME_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.SEGMENT_COUNT_METADATA;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.SEGMENT_ID_PROPERTY;
 import static com.amazonaws.athena.connectors.dynamodb.constants.DynamoDBConstants.TABLE_METADATA;
@@ -99,6 +107,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -438,6 +448,104 @@ public class DynamoDBRecordHandlerTest
         logger.info("testReadQuerySplit: {}", BlockUtils.rowToString(response.getRecords(), 0));
     }
 
+    @Test
+    public void testReadBatchGetSplit()
+            throws Exception
+    {
+        List<AttributeValue> keys = ImmutableList.of(
+                AttributeValue.fromM(ImmutableMap.of("col_0", DDBTypeUtils.toAttributeValue("test_str_0"), "col_1", DDBTypeUtils.toAttributeValue(0))),
+                AttributeValue.fromM(ImmutableMap.of("col_0", DDBTypeUtils.toAttributeValue("test_str_0"), "col_1", DDBTypeUtils.toAttributeValue(2))),
+                AttributeValue.fromM(ImmutableMap.of("col_0", DDBTypeUtils.toAttributeValue("test_str_3"), "col_1", DDBTypeUtils.toAttributeValue(4))),
+                // no such item
+                AttributeValue.fromM(ImmutableMap.of("col_0", DDBTypeUtils.toAttributeValue("test_str_3"), "col_1", DDBTypeUtils.toAttributeValue(0))));
+        Split split = Split.newBuilder(SPILL_LOCATION, keyFactory.create())
+                .add(TABLE_METADATA, TEST_TABLE)
+                .add(PARTITION_TYPE_METADATA, BATCH_GET_PARTITION_TYPE)
+                .add(HASH_KEY_NAME_METADATA, "col_0")
+                .add(RANGE_KEY_NAME_METADATA, "col_1")
+                .add(BATCH_GET_KEYS_METADATA, DDBTypeUtils.attributeToJson(AttributeValue.fromL(keys), BATCH_GET_KEYS_METADATA))
+                .build();
+
+        ReadRecordsRequest request = new ReadRecordsRequest(
+                TEST_IDENTITY,
+                TEST_CATALOG_NAME,
+                TEST_QUERY_ID,
+                TEST_TABLE_NAME,
+                schema,
+                split,
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L, // too big to spill
+                100_000_000_000L);
+
+        RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+
+        assertTrue(rawResponse instanceof ReadRecordsResponse);
+
+        ReadRecordsResponse response = (ReadRecordsResponse) rawResponse;
+        logger.info("testReadBatchGetSplit: rows[{}]", response.getRecordCount());
+
+        assertEquals(3, response.getRecords().getRowCount());
+        logger.info("testReadBatchGetSplit: {}", BlockUtils.rowToString(response.getRecords(), 0));
+    }
+
+    @Test
+    public void testReadBatchGetSplitWithUnprocessedKeys()
+            throws Exception
+    {
+        List<AttributeValue> keys = ImmutableList.of(
+                AttributeValue.fromM(ImmutableMap.of("col_0", DDBTypeUtils.toAttributeValue("test_str_0"), "col_1", DDBTypeUtils.toAttributeValue(0))),
+                AttributeValue.fromM(ImmutableMap.of("col_0", DDBTypeUtils.toAttributeValue("test_str_0"), "col_1", DDBTypeUtils.toAttributeValue(2))),
+                AttributeValue.fromM(ImmutableMap.of("col_0", DDBTypeUtils.toAttributeValue("test_str_3"), "col_1", DDBTypeUtils.toAttributeValue(4))),
+                // no such item
+                AttributeValue.fromM(ImmutableMap.of("col_0", DDBTypeUtils.toAttributeValue("test_str_3"), "col_1", DDBTypeUtils.toAttributeValue(0))));
+        Split split = Split.newBuilder(SPILL_LOCATION, keyFactory.create())
+                .add(TABLE_METADATA, TEST_TABLE)
+                .add(PARTITION_TYPE_METADATA, BATCH_GET_PARTITION_TYPE)
+                .add(HASH_KEY_NAME_METADATA, "col_0")
+                .add(RANGE_KEY_NAME_METADATA, "col_1")
+                .add(BATCH_GET_KEYS_METADATA, DDBTypeUtils.attributeToJson(AttributeValue.fromL(keys), BATCH_GET_KEYS_METADATA))
+                .build();
+
+        // The first response only processes the first key, like a throttled partition or a response at its size limit.
+        DynamoDbClient partialClient = mock(DynamoDbClient.class);
+        when(partialClient.batchGetItem(any(BatchGetItemRequest.class))).thenAnswer(invocation -> {
+            BatchGetItemRequest batchRequest = invocation.getArgument(0);
+            KeysAndAttributes requested = batchRequest.requestItems().get(TEST_TABLE);
+            if (requested.keys().size() < keys.size()) {
+                return ddbClient.batchGetItem(batchRequest);
+            }
+            KeysAndAttributes processed = requested.toBuilder().keys(requested.keys().subList(0, 1)).build();
+            KeysAndAttributes unprocessed = requested.toBuilder().keys(requested.keys().subList(1, keys.size())).build();
+            return ddbClient.batchGetItem(batchRequest.toBuilder().requestItems(ImmutableMap.of(TEST_TABLE, processed)).build())
+                    .toBuilder()
+                    .unprocessedKeys(ImmutableMap.of(TEST_TABLE, unprocessed))
+                    .build();
+        });
+        DynamoDBRecordHandler partialHandler = new DynamoDBRecordHandler(partialClient, mock(S3Client.class), mock(SecretsManagerClient.class),
+                mock(AthenaClient.class), "source_type", ImmutableMap.of());
+
+        ReadRecordsRequest request = new ReadRecordsRequest(
+                TEST_IDENTITY,
+                TEST_CATALOG_NAME,
+                TEST_QUERY_ID,
+                TEST_TABLE_NAME,
+                schema,
+                split,
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L, // too big to spill
+                100_000_000_000L);
+
+        RecordResponse rawResponse = partialHandler.doReadRecords(allocator, request);
+
+        assertTrue(rawResponse instanceof ReadRecordsResponse);
+        ReadRecordsResponse response = (ReadRecordsResponse) rawResponse;
+        // the item of the first response is kept and only the unprocessed keys are requested again
+        assertEquals(3, response.getRecords().getRowCount());
+        ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(partialClient, times(2)).batchGetItem(captor.capture());
+        assertEquals(keys.size() - 1, captor.getAllValues().get(1).requestItems().get(TEST_TABLE).keys().size());
+    }
+
     @Test
     public void testZeroRowQuery()
             throws Exception
@@ -33,7 +33,9 @@ import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.GetAliasesResponse;
+import org.elasticsearch.client.Request;
 import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
@@ -41,7 +43,14 @@ import org.elasticsearch.client.indices.GetMappingsRequest;
 import org.elasticsearch.client.indices.GetMappingsResponse;
 import org.elasticsearch.cluster.health.ClusterHealthStatus;
 import org.elasticsearch.cluster.metadata.MappingMetadata;
+import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.search.SearchHit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +61,8 @@ import software.amazon.awssdk.services.glue.model.ErrorDetails;
 import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -176,6 +187,35 @@ public class AwsRestHighLevelClient
         return response.getIndices().get(index).getShards().keySet();
     }
 
+    /**
+     * Retrieves the number of documents held by each started primary shard of the specified index.
+     * @param index is the index whose shards are counted.
+     * @return a map of shard id to the number of documents in the shard.
+     * @throws IOException if an error occurs while sending the request to the Elasticsearch instance.
+     */
+    public Map<Integer, Long> getShardDocCounts(String index)
+            throws IOException
+    {
+        Request request = new Request("GET", "/_cat/shards/" + index);
+        request.addParameter("format", "json");
+        request.addParameter("h", "shard,prirep,state,docs");
+
+        Response response = getLowLevelClient().performRequest(request);
+        Map<Integer, Long> docCounts = new HashMap<>();
+        try (InputStream content = response.getEntity().getContent();
+             XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+                     DeprecationHandler.THROW_UNSUPPORTED_OPERATION, content)) {
+            for (Object next : parser.list()) {
+                Map<?, ?> shard = (Map<?, ?>) next;
+                // docs is null for shards that aren't started
+                if ("p".equals(shard.get("prirep")) && "STARTED".equals(shard.get("state")) && shard.get("docs") != null) {
+                    docCounts.put(Integer.parseInt(shard.get("shard").toString()), Long.parseLong(shard.get("docs").toString()));
+                }
+            }
+        }
+        return docCounts;
+    }
+
     /**
      * Gets the Documents for the specified index and predicate.
      * @param request is the search request that includes the projection, predicate, batch size, and from position
@@ -189,6 +229,48 @@ public class AwsRestHighLevelClient
         return search(request, RequestOptions.DEFAULT);
     }
 
+    /**
+     * Opens a point in time (PIT) on the specified index, which pins the documents seen by the searches that reference
+     * it regardless of any later writes or segment merges.
+     * @param index is the index the point in time is opened on.
+     * @param preference restricts the point in time to a set of shards (e.g. "_shards:5"), may be null.
+     * @param keepAlive is how long the point in time is kept alive after each search that references it.
+     * @return the id of the point in time.
+     * @throws IOException if an error occurs while sending the request to the Elasticsearch instance.
+     */
+    public String openPointInTime(String index, String preference, TimeValue keepAlive)
+            throws IOException
+    {
+        Request request = new Request("POST", "/" + index + "/_pit");
+        request.addParameter("keep_alive", keepAlive.getStringRep());
+        if (preference != null) {
+            request.addParameter("preference", preference);
+        }
+
+        Response response = getLowLevelClient().performRequest(request);
+        try (InputStream content = response.getEntity().getContent()) {
+            Object pitId = XContentHelper.convertToMap(XContentType.JSON.xContent(), content, false).get("id");
+            if (pitId == null) {
+                throw new AthenaConnectorException("Point in time response for index (" + index + ") is missing its id.",
+                        ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
+            }
+            return pitId.toString();
+        }
+    }
+
+    /**
+     * Closes a point in time opened by openPointInTime(), releasing the search contexts it holds.
+     * @param pitId is the id of the point in time.
+     * @throws IOException if an error occurs while sending the request to the Elasticsearch instance.
+     */
+    public void closePointInTime(String pitId)
+            throws IOException
+    {
+        Request request = new Request("DELETE", "/_pit");
+        request.setJsonEntity(Strings.toString(XContentFactory.jsonBuilder().startObject().field("id", pitId).endObject()));
+        getLowLevelClient().performRequest(request);
+    }
+
     /**
      * Gets the Document from the search hit.
      * @param searchHit is the search hit containing the document source.
@@ -61,9 +61,9 @@ import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -133,6 +133,20 @@ public class ElasticsearchMetadataHandler
 
     protected static final String INDEX_KEY = "index";
 
+    /**
+     * Keys used to store the slice of a shard a split reads (later used by the Record Handler), only present when the
+     * shard was divided into more than one slice.
+     */
+    protected static final String SLICE_ID_KEY = "slice_id";
+    protected static final String SLICE_MAX_KEY = "slice_max";
+
+    // Env. variable that holds the number of documents each split should read. Shards holding more documents are
+    // divided into slices that are read in parallel, 0 (the default) reads each shard as a single split.
+    private static final String DOCS_PER_SLICE = "docs_per_slice";
+    // Upper bound on the slices of a single shard, each slice evaluates its filter against every document of the shard.
+    @VisibleForTesting
+    protected static final int MAX_SLICES_PER_SHARD = 256;
+
     private final GlueClient awsGlue;
     private final AwsRestHighLevelClientFactory clientFactory;
     private final ElasticsearchDomainMapProvider domainMapProvider;
@@ -333,7 +347,8 @@ public class ElasticsearchMetadataHandler
     /**
      * Used to split-up the reads required to scan the requested index by shard. Cluster-health information is
      * retrieved for shards associated with the specified index. A split will then be generated for each shard that
-     * is primary and active.
+     * is primary and active. When docs_per_slice is set, shards holding more documents than that are instead divided
+     * into slices (up to MAX_SLICES_PER_SHARD), with a split generated for each slice.
      * @param allocator Tool for creating and managing Apache Arrow Blocks.
      * @param request Provides details of the catalog, domain, and index being queried, as well as any filter predicate.
      * @return A GetSplitsResponse which primarily contains:
@@ -368,12 +383,28 @@ public class ElasticsearchMetadataHandler
         // For non data stream, index name is same as table name
         GetIndexResponse indexResponse = client.indices().get(new GetIndexRequest(indx), RequestOptions.DEFAULT);
 
-        Set<Split> splits = Arrays.stream(indexResponse.getIndices())
-                .flatMap(index -> getShardsIDsFromES(client, index) // get all shards for an index.
-                        .stream()
-                        .map(shardId -> new Split(makeSpillLocation(request), makeEncryptionKey(), ImmutableMap.of(SECRET_USERNAME, username, SECRET_PASSWORD, password, domain, endpoint, SHARD_KEY, SHARD_VALUE + shardId.toString(), INDEX_KEY, index))) // make split for each (index + shardId) combination
-                )
-                .collect(Collectors.toSet());
+        long docsPerSlice = Long.parseLong(configOptions.getOrDefault(DOCS_PER_SLICE, "0"));
+        Set<Split> splits = new HashSet<>();
+        for (String index : indexResponse.getIndices()) {
+            Map<Integer, Long> shardDocCounts = docsPerSlice > 0 ? getShardDocCounts(client, index) : Collections.emptyMap();
+            // make split(s) for each (index + shardId) combination
+            for (Integer shardId : getShardsIDsFromES(client, index)) {
+                Map<String, String> properties = ImmutableMap.of(SECRET_USERNAME, username, SECRET_PASSWORD, password,
+                        domain, endpoint, SHARD_KEY, SHARD_VALUE + shardId.toString(), INDEX_KEY, index);
+                int numSlices = getNumSlices(shardDocCounts.getOrDefault(shardId, 0L), docsPerSlice);
+                if (numSlices == 1) {
+                    splits.add(new Split(makeSpillLocation(request), makeEncryptionKey(), properties));
+                    continue;
+                }
+                logger.info("doGetSplits: Dividing shard {} of index {} into {} slices", shardId, index, numSlices);
+                for (int sliceId = 0; sliceId < numSlices; sliceId++) {
+                    Map<String, String> sliceProperties = new HashMap<>(properties);
+                    sliceProperties.put(SLICE_ID_KEY, String.valueOf(sliceId));
+                    sliceProperties.put(SLICE_MAX_KEY, String.valueOf(numSlices));
+                    splits.add(new Split(makeSpillLocation(request), makeEncryptionKey(), sliceProperties));
+                }
+            }
+        }
 
         return new GetSplitsResponse(request.getCatalogName(), splits);
     }
@@ -442,11 +473,38 @@ public class ElasticsearchMetadataHandler
     }
 
     /**
-     * Mandatory checked exception needs to handle from here
-     * This is to keep the lambda stream function clearer.
+     * @return the number of slices a shard holding the given number of documents should be read with.
+     */
+    @VisibleForTesting
+    protected static int getNumSlices(long shardDocCount, long docsPerSlice)
+    {
+        if (docsPerSlice <= 0 || shardDocCount <= docsPerSlice) {
+            return 1;
+        }
+        long numSlices = shardDocCount / docsPerSlice + (shardDocCount % docsPerSlice == 0 ? 0 : 1);
+        return (int) Math.min(numSlices, MAX_SLICES_PER_SHARD);
+    }
+
+    /**
+     * Slicing is only an optimization, so a failure to get the doc counts falls back to a split per shard.
+     */
+    private Map<Integer, Long> getShardDocCounts(AwsRestHighLevelClient client, String index)
+    {
+        try {
+            return client.getShardDocCounts(index);
+        }
+        catch (IOException | RuntimeException error) {
+            logger.warn("getShardDocCounts: Unable to get the shard doc counts of index {}, shards will not be sliced", index, error);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Gets the ids of the shards of the index, the mandatory checked exception is handled here
+     * so that it does not have to be handled while the splits are built.
      * @param client
      * @param index
-     * @return
+     * @return the shard ids of the index
      */
     private Set<Integer> getShardsIDsFromES(AwsRestHighLevelClient client, String index)
     {
@@ -28,6 +28,7 @@ import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException
 import com.amazonaws.athena.connector.lambda.handlers.RecordHandler;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.elasticsearch.qpt.ElasticsearchQueryPassthrough;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.arrow.util.VisibleForTesting;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.commons.lang3.StringUtils;
@@ -41,7 +42,10 @@ import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.Scroll;
 import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.PointInTimeBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.athena.AthenaClient;
@@ -53,6 +57,11 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -77,14 +86,36 @@ public class ElasticsearchRecordHandler
 
     // Env. variable that holds the query timeout period for the Search queries.
     private static final String QUERY_TIMEOUT_SEARCH = "query_timeout_search";
-    // Env. variable that holds the scroll timeout for the Search queries.
+    // Env. variable that holds the scroll timeout for the Search queries, also used as the point in time keep-alive.
     private static final String SCROLL_TIMEOUT = "query_scroll_timeout";
+    // Env. variable that selects how search results are paginated: "scroll" (default), or "pit" for point in time +
+    // search_after pagination which requires Elasticsearch 7.10+.
+    private static final String QUERY_PAGINATION_MODE = "query_pagination_mode";
+    @VisibleForTesting
+    protected static final String PIT_PAGINATION_MODE = "pit";
+    // Env. variable that holds the number of documents requested per page (the first page in pit mode).
+    private static final String QUERY_BATCH_SIZE_ENV = "query_batch_size";
+    // Env. variable that holds the number of _source bytes each page should return in pit mode, page sizes are
+    // adjusted towards it based on the size of the documents returned so far.
+    private static final String QUERY_PAGE_TARGET_BYTES = "query_page_target_bytes";
 
     private final long queryTimeout;
     private final long scrollTimeout;
 
     // Pagination batch size (100 documents).
     private static final int QUERY_BATCH_SIZE = 100;
+    private static final long DEFAULT_PAGE_TARGET_BYTES = 4L * 1024L * 1024L;
+    // Elasticsearch rejects pages larger than index.max_result_window, which defaults to 10,000 documents.
+    @VisibleForTesting
+    protected static final int MAX_QUERY_BATCH_SIZE = 10_000;
+
+    private final boolean usePointInTime;
+    private final int queryBatchSize;
+    private final long pageTargetBytes;
+
+    //Names the threads prefetching the next page in pit mode, daemon threads so that an abandoned fetch can't pin the JVM.
+    private static final ThreadFactory PAGE_PREFETCH_THREAD_FACTORY =
+            new ThreadFactoryBuilder().setNameFormat("elasticsearch-page-prefetch-%d").setDaemon(true).build();
 
     private final AwsRestHighLevelClientFactory clientFactory;
     private final ElasticsearchTypeUtils typeUtils;
@@ -92,13 +123,11 @@ public class ElasticsearchRecordHandler
 
     public ElasticsearchRecordHandler(Map<String, String> configOptions)
     {
-        super(S3Client.create(), SecretsManagerClient.create(),
-                AthenaClient.create(), SOURCE_TYPE, configOptions);
-
-        this.typeUtils = new ElasticsearchTypeUtils();
-        this.clientFactory = new AwsRestHighLevelClientFactory(configOptions.getOrDefault(AUTO_DISCOVER_ENDPOINT, "").equalsIgnoreCase("true"));
-        this.queryTimeout = Long.parseLong(configOptions.getOrDefault(QUERY_TIMEOUT_SEARCH, "720"));
-        this.scrollTimeout = Long.parseLong(configOptions.getOrDefault(SCROLL_TIMEOUT, "60"));
+        this(S3Client.create(), SecretsManagerClient.create(), AthenaClient.create(),
+                new AwsRestHighLevelClientFactory(configOptions.getOrDefault(AUTO_DISCOVER_ENDPOINT, "").equalsIgnoreCase("true")),
+                Long.parseLong(configOptions.getOrDefault(QUERY_TIMEOUT_SEARCH, "720")),
+                Long.parseLong(configOptions.getOrDefault(SCROLL_TIMEOUT, "60")),
+                configOptions);
     }
 
     @VisibleForTesting
@@ -117,6 +146,9 @@ public class ElasticsearchRecordHandler
         this.clientFactory = clientFactory;
         this.queryTimeout = queryTimeout;
         this.scrollTimeout = scrollTimeout;
+        this.usePointInTime = PIT_PAGINATION_MODE.equalsIgnoreCase(configOptions.getOrDefault(QUERY_PAGINATION_MODE, ""));
+        this.queryBatchSize = Integer.parseInt(configOptions.getOrDefault(QUERY_BATCH_SIZE_ENV, String.valueOf(QUERY_BATCH_SIZE)));
+        this.pageTargetBytes = Long.parseLong(configOptions.getOrDefault(QUERY_PAGE_TARGET_BYTES, String.valueOf(DEFAULT_PAGE_TARGET_BYTES)));
     }
 
     /**
@@ -173,44 +205,24 @@ public class ElasticsearchRecordHandler
 
                 // Create a new search-source injected with the projection, predicate, and the pagination batch size.
                 SearchSourceBuilder searchSource = new SearchSourceBuilder()
-                        .size(QUERY_BATCH_SIZE)
+                        .size(queryBatchSize)
                         .timeout(new TimeValue(queryTimeout, TimeUnit.SECONDS))
                         .fetchSource(ElasticsearchQueryUtils.getProjection(recordsRequest.getSchema()))
                         .query(query);
 
-                //init scroll
-                Scroll scroll = new Scroll(TimeValue.timeValueSeconds(this.scrollTimeout));
-                // Create a new search-request for the specified index.
-                SearchRequest searchRequest = new SearchRequest(index)
-                        .preference(shard)
-                        .scroll(scroll)
-                        .source(searchSource.from(0));
-
-                //Read the returned scroll id, which points to the search context that's being kept alive and will be needed in the following search scroll call
-                SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
-
-                while (searchResponse.getHits() != null
-                        && searchResponse.getHits().getHits() != null
-                        && searchResponse.getHits().getHits().length > 0
-                        && queryStatusChecker.isQueryRunning()) {
-                    Iterator<SearchHit> finalIterator = searchResponse.getHits().iterator();
-                    while (finalIterator.hasNext() && queryStatusChecker.isQueryRunning()) {
-                        ++numRows;
-                        spiller.writeRows((Block block, int rowNum) ->
-                                rowWriter.writeRow(block, rowNum, client.getDocument(finalIterator.next())) ? 1 : 0);
-                    }
-
-                    //prep for next hits and keep track of scroll id.
-                    SearchScrollRequest scrollRequest = new SearchScrollRequest(searchResponse.getScrollId()).scroll(scroll);
-                    searchResponse = client.scroll(scrollRequest, RequestOptions.DEFAULT);
-                    if (searchResponse.isTimedOut()) {
-                        throw new AthenaConnectorException("Request for index (" + index + ") " + shard + " timed out.", ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).build());
-                    }
+                // Read only this split's slice of the shard, if it was divided into several.
+                String sliceId = recordsRequest.getSplit().getProperty(ElasticsearchMetadataHandler.SLICE_ID_KEY);
+                String sliceMax = recordsRequest.getSplit().getProperty(ElasticsearchMetadataHandler.SLICE_MAX_KEY);
+                if (sliceId != null && sliceMax != null) {
+                    searchSource.slice(new SliceBuilder(Integer.parseInt(sliceId), Integer.parseInt(sliceMax)));
                 }
 
-                ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
-                clearScrollRequest.addScrollId(searchResponse.getScrollId());
-                client.clearScroll(clearScrollRequest, RequestOptions.DEFAULT);
+                if (usePointInTime) {
+                    numRows = readWithPointInTime(spiller, queryStatusChecker, client, rowWriter, searchSource, index, shard);
+                }
+                else {
+                    numRows = readWithScroll(spiller, queryStatusChecker, client, rowWriter, searchSource, index, shard);
+                }
             }
             catch (IOException error) {
                 throw new AthenaConnectorException("Error sending search query: " + error.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).errorMessage(error.getMessage()).build());
@@ -220,6 +232,180 @@ public class ElasticsearchRecordHandler
         logger.info("readWithConstraint: numRows[{}]", numRows);
     }
 
+    /**
+     * Pages through the search results using a scroll, which returns the same number of documents on every round trip.
+     * @return the number of documents read.
+     */
+    private long readWithScroll(BlockSpiller spiller, QueryStatusChecker queryStatusChecker, AwsRestHighLevelClient client,
+                                GeneratedRowWriter rowWriter, SearchSourceBuilder searchSource, String index, String shard)
+            throws IOException
+    {
+        //init scroll
+        Scroll scroll = new Scroll(TimeValue.timeValueSeconds(this.scrollTimeout));
+        // Create a new search-request for the specified index.
+        SearchRequest searchRequest = new SearchRequest(index)
+                .preference(shard)
+                .scroll(scroll)
+                .source(searchSource.from(0));
+
+        //Read the returned scroll id, which points to the search context that's being kept alive and will be needed in the following search scroll call
+        SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
+
+        long numRows = 0;
+        while (searchResponse.getHits() != null
+                && searchResponse.getHits().getHits() != null
+                && searchResponse.getHits().getHits().length > 0
+                && queryStatusChecker.isQueryRunning()) {
+            numRows += writeHits(spiller, queryStatusChecker, client, rowWriter, searchResponse);
+
+            //prep for next hits and keep track of scroll id.
+            SearchScrollRequest scrollRequest = new SearchScrollRequest(searchResponse.getScrollId()).scroll(scroll);
+            searchResponse = client.scroll(scrollRequest, RequestOptions.DEFAULT);
+            if (searchResponse.isTimedOut()) {
+                throw new AthenaConnectorException("Request for index (" + index + ") " + shard + " timed out.", ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).build());
+            }
+        }
+
+        ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+        clearScrollRequest.addScrollId(searchResponse.getScrollId());
+        client.clearScroll(clearScrollRequest, RequestOptions.DEFAULT);
+        return numRows;
+    }
+
+    /**
+     * Pages through the search results of a point in time (PIT) opened on the split's shard, using search_after on the
+     * shard's doc order. Unlike a scroll, every page can be sized independently, so page sizes are adjusted to return
+     * roughly pageTargetBytes of _source per round trip, and the next page is fetched while the current one is written.
+     * @return the number of documents read.
+     */
+    private long readWithPointInTime(BlockSpiller spiller, QueryStatusChecker queryStatusChecker, AwsRestHighLevelClient client,
+                                     GeneratedRowWriter rowWriter, SearchSourceBuilder searchSource, String index, String shard)
+            throws IOException
+    {
+        TimeValue keepAlive = TimeValue.timeValueSeconds(this.scrollTimeout);
+        String pitId = client.openPointInTime(index, shard, keepAlive);
+        // a single background thread per read, which is stopped once the read ends
+        ExecutorService pagePrefetchExecutor = Executors.newSingleThreadExecutor(PAGE_PREFETCH_THREAD_FACTORY);
+        Future<SearchResponse> nextPage = null;
+        long numRows = 0;
+        try {
+            // _doc is the cheapest sort and is unique within the shard the point in time was opened on
+            searchSource.sort("_doc", SortOrder.ASC);
+            int pageSize = queryBatchSize;
+            SearchResponse searchResponse = client.search(makePointInTimeRequest(searchSource, pitId, keepAlive, null, pageSize), RequestOptions.DEFAULT);
+            while (queryStatusChecker.isQueryRunning()) {
+                if (searchResponse.isTimedOut()) {
+                    throw new AthenaConnectorException("Request for index (" + index + ") " + shard + " timed out.", ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).build());
+                }
+                SearchHit[] hits = searchResponse.getHits() == null ? null : searchResponse.getHits().getHits();
+                if (hits == null || hits.length == 0) {
+                    break;
+                }
+                if (searchResponse.pointInTimeId() != null) {
+                    // the id of a point in time may change between searches
+                    pitId = searchResponse.pointInTimeId();
+                }
+
+                // a short page is the last one, otherwise request the next page before writing this one
+                boolean lastPage = hits.length < pageSize;
+                if (!lastPage) {
+                    pageSize = getNextPageSize(pageSize, hits, pageTargetBytes);
+                    SearchRequest nextRequest = makePointInTimeRequest(searchSource, pitId, keepAlive,
+                            hits[hits.length - 1].getSortValues(), pageSize);
+                    nextPage = pagePrefetchExecutor.submit(() -> client.search(nextRequest, RequestOptions.DEFAULT));
+                }
+
+                numRows += writeHits(spiller, queryStatusChecker, client, rowWriter, searchResponse);
+                if (lastPage) {
+                    break;
+                }
+                searchResponse = awaitPage(nextPage);
+            }
+        }
+        finally {
+            // interrupts the prefetch of a page which is no longer needed
+            pagePrefetchExecutor.shutdownNow();
+            try {
+                client.closePointInTime(pitId);
+            }
+            catch (IOException | RuntimeException ex) {
+                // the point in time expires after keepAlive regardless, so this shouldn't fail the query
+                logger.warn("readWithPointInTime: Failed to close point in time for index ({}) {}", index, shard, ex);
+            }
+        }
+        return numRows;
+    }
+
+    private static SearchRequest makePointInTimeRequest(SearchSourceBuilder searchSource, String pitId, TimeValue keepAlive,
+                                                        Object[] searchAfter, int pageSize)
+    {
+        // Searches of a point in time are already bound to its index and shards, so neither may be set on the request.
+        SearchSourceBuilder pageSource = searchSource.shallowCopy()
+                .size(pageSize)
+                .pointInTimeBuilder(new PointInTimeBuilder(pitId).setKeepAlive(keepAlive));
+        if (searchAfter != null) {
+            pageSource.searchAfter(searchAfter);
+        }
+        return new SearchRequest().source(pageSource);
+    }
+
+    private static SearchResponse awaitPage(Future<SearchResponse> page)
+            throws IOException
+    {
+        try {
+            return page.get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AthenaConnectorException("Interrupted while fetching search results: " + ex.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).errorMessage(ex.getMessage()).build());
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new AthenaConnectorException("Error fetching search results: " + ex.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).errorMessage(ex.getMessage()).build());
+        }
+    }
+
+    /**
+     * Sizes the next page so that it returns roughly targetBytes of _source, based on the average document size of the
+     * page just returned.
+     * @param pageSize is the size of the page just returned.
+     * @param hits are the documents of the page just returned.
+     * @param targetBytes is the number of _source bytes a page should return.
+     * @return the number of documents to request for the next page, between 1 and MAX_QUERY_BATCH_SIZE.
+     */
+    @VisibleForTesting
+    protected static int getNextPageSize(int pageSize, SearchHit[] hits, long targetBytes)
+    {
+        long pageBytes = 0;
+        for (SearchHit hit : hits) {
+            pageBytes += (hit.getSourceRef() == null) ? 0 : hit.getSourceRef().length();
+        }
+        if (pageBytes == 0) {
+            // nothing to go on (e.g. an empty projection)
+            return pageSize;
+        }
+        long nextPageSize = targetBytes * hits.length / pageBytes;
+        return (int) Math.max(1, Math.min(MAX_QUERY_BATCH_SIZE, nextPageSize));
+    }
+
+    private long writeHits(BlockSpiller spiller, QueryStatusChecker queryStatusChecker, AwsRestHighLevelClient client,
+                           GeneratedRowWriter rowWriter, SearchResponse searchResponse)
+    {
+        long numRows = 0;
+        Iterator<SearchHit> finalIterator = searchResponse.getHits().iterator();
+        while (finalIterator.hasNext() && queryStatusChecker.isQueryRunning()) {
+            ++numRows;
+            spiller.writeRows((Block block, int rowNum) ->
+                    rowWriter.writeRow(block, rowNum, client.getDocument(finalIterator.next())) ? 1 : 0);
+        }
+        return numRows;
+    }
+
     /**
      * Creates field extractors to aid in extracting values from retrieved documents. Method makeExtractor()
      * is used for creating the extractors for simple data types (e.g. INT, BIGINT, etc...) Complex data types such as
@@ -253,6 +439,6 @@ public class ElasticsearchRecordHandler
     @VisibleForTesting
     protected int getQueryBatchSize()
     {
-        return QUERY_BATCH_SIZE;
+        return queryBatchSize;
     }
 }
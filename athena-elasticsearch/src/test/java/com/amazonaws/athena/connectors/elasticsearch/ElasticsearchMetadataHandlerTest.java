@@ -488,6 +488,56 @@ public class ElasticsearchMetadataHandlerTest
         logger.info("doGetSplits: exit");
     }
 
+    @Test
+    public void doGetSplitsSliced()
+            throws Exception
+    {
+        String index = "customer";
+        Block partitions = BlockUtils.newBlock(allocator, "partitionId", Types.MinorType.INT.getType(), 0);
+        GetSplitsRequest req = new GetSplitsRequest(fakeIdentity(),
+                "queryId",
+                "elasticsearch",
+                new TableName("movies", index),
+                partitions,
+                new ArrayList<>(),
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                null);
+
+        String domain = "movies";
+        String endpoint = "https://search-movies-ne3fcqzfipy6jcrew2wca6kyqu.us-east-1.es.amazonaws.com";
+        when(domainMapProvider.getDomainMap(null)).thenReturn(ImmutableMap.of(domain, endpoint));
+        when(mockClient.getShardIds(nullable(String.class), anyLong())).thenReturn(ImmutableSet.of(0, 1));
+        // shard 0 fits in a single split, shard 1 needs 3
+        when(mockClient.getShardDocCounts(index)).thenReturn(ImmutableMap.of(0, 900L, 1, 2_500L));
+
+        IndicesClient indices = mock(IndicesClient.class);
+        GetIndexResponse mockIndexResponse = mock(GetIndexResponse.class);
+        when(mockIndexResponse.getIndices()).thenReturn(new String[]{index});
+        when(indices.get(nullable(GetIndexRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(mockIndexResponse);
+        when(mockClient.indices()).thenReturn(indices);
+
+        handler = new ElasticsearchMetadataHandler(awsGlue, new LocalKeyFactory(), awsSecretsManager, amazonAthena,
+                "spill-bucket", "spill-prefix", domainMapProvider, clientFactory, 10, ImmutableMap.of("docs_per_slice", "1000"), false);
+
+        GetSplitsResponse response = handler.doGetSplits(allocator, req);
+
+        assertEquals("Response has invalid number of splits", 4, response.getSplits().size());
+        Set<String> slices = new HashSet<>();
+        response.getSplits().forEach(split -> slices.add(split.getProperty(ElasticsearchMetadataHandler.SHARD_KEY) + "/"
+                + split.getProperty(ElasticsearchMetadataHandler.SLICE_ID_KEY) + "/"
+                + split.getProperty(ElasticsearchMetadataHandler.SLICE_MAX_KEY)));
+        assertEquals(ImmutableSet.of("_shards:0/null/null", "_shards:1/0/3", "_shards:1/1/3", "_shards:1/2/3"), slices);
+    }
+
+    @Test
+    public void getNumSlices()
+    {
+        assertEquals(1, ElasticsearchMetadataHandler.getNumSlices(1_000_000, 0));
+        assertEquals(1, ElasticsearchMetadataHandler.getNumSlices(1_000, 1_000));
+        assertEquals(2, ElasticsearchMetadataHandler.getNumSlices(1_001, 1_000));
+        assertEquals(ElasticsearchMetadataHandler.MAX_SLICES_PER_SHARD, ElasticsearchMetadataHandler.getNumSlices(Long.MAX_VALUE, 1_000));
+    }
+
     private static FederatedIdentity fakeIdentity()
     {
         return new FederatedIdentity("access_key_id",
@@ -50,6 +50,8 @@ import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.search.DocValueFormat;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -85,10 +87,14 @@ import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -308,7 +314,8 @@ public class ElasticsearchRecordHandlerTest
         when(mockClient.getDocument(any())).thenReturn(document1, document2);
         when(mockClient.search(any(), any())).thenReturn(mockResponse);
         when(mockScrollResponse.getHits()).thenReturn(null);
-        when(mockClient.scroll(any(), any())).thenReturn(mockScrollResponse);
+        // not used by point in time reads
+        lenient().when(mockClient.scroll(any(), any())).thenReturn(mockScrollResponse);
 
         handler = new ElasticsearchRecordHandler(amazonS3, awsSecretsManager, athena, clientFactory, 720, 60, ImmutableMap.of());
 
@@ -447,6 +454,115 @@ public class ElasticsearchRecordHandlerTest
         logger.info("doReadRecordsSpill: exit");
     }
 
+    @Test
+    public void doReadRecordsPointInTime()
+            throws Exception
+    {
+        logger.info("doReadRecordsPointInTime: enter");
+
+        handler = new ElasticsearchRecordHandler(amazonS3, awsSecretsManager, athena, clientFactory, 720, 60,
+                ImmutableMap.of("query_pagination_mode", ElasticsearchRecordHandler.PIT_PAGINATION_MODE, "query_batch_size", "2"));
+
+        SearchHit searchHit[] = new SearchHit[2];
+        searchHit[0] = new SearchHit(1);
+        searchHit[1] = new SearchHit(2);
+        // the _doc sort value of the last hit is where the next page starts
+        searchHit[1].sortValues(new Object[] {2}, new DocValueFormat[] {DocValueFormat.RAW});
+        SearchHits searchHits =
+                new SearchHits(searchHit, new TotalHits(2, TotalHits.Relation.EQUAL_TO), 4);
+        when(mockResponse.getHits()).thenReturn(searchHits);
+        // a full first page, followed by an empty one
+        when(mockClient.search(any(), any())).thenReturn(mockResponse, mockScrollResponse);
+        when(mockClient.openPointInTime(eq("index1"), eq("_shards:5"), any())).thenReturn("pit-1");
+
+        ReadRecordsRequest request = new ReadRecordsRequest(fakeIdentity(),
+                "elasticsearch",
+                "queryId-" + System.currentTimeMillis(),
+                new TableName("movies", "mishmash"),
+                mapping,
+                split,
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L, //100GB don't expect this to spill
+                100_000_000_000L
+        );
+
+        RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+
+        ArgumentCaptor<SearchRequest> argumentCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(mockClient, times(2)).search(argumentCaptor.capture(), any());
+        SearchRequest firstPage = argumentCaptor.getAllValues().get(0);
+        SearchRequest secondPage = argumentCaptor.getAllValues().get(1);
+        // searches of a point in time can't name the index, the point in time is already bound to it
+        assertEquals(0, firstPage.indices().length);
+        assertEquals("pit-1", firstPage.source().pointInTimeBuilder().getId());
+        assertEquals(2, firstPage.source().size());
+        assertNull(firstPage.source().searchAfter());
+        assertNotNull(secondPage.source().searchAfter());
+        verify(mockClient).closePointInTime("pit-1");
+
+        assertTrue(rawResponse instanceof ReadRecordsResponse);
+        ReadRecordsResponse response = (ReadRecordsResponse) rawResponse;
+        assertEquals(2, response.getRecords().getRowCount());
+        for (int i = 0; i < response.getRecords().getRowCount(); ++i) {
+            assertEquals(expectedDocuments[i], BlockUtils.rowToString(response.getRecords(), i));
+        }
+
+        logger.info("doReadRecordsPointInTime: exit");
+    }
+
+    @Test
+    public void doReadRecordsSlice()
+            throws Exception
+    {
+        Split slice = Split.newBuilder(makeSpillLocation(), null)
+                .add("movies", "https://search-movies-ne3fcqzfipy6jcrew2wca6kyqu.us-east-1.es.amazonaws.com")
+                .add(ElasticsearchMetadataHandler.SHARD_KEY, "_shards:5")
+                .add(ElasticsearchMetadataHandler.INDEX_KEY, "index1")
+                .add(ElasticsearchMetadataHandler.SLICE_ID_KEY, "2")
+                .add(ElasticsearchMetadataHandler.SLICE_MAX_KEY, "3")
+                .build();
+        when(mockResponse.getHits()).thenReturn(null);
+
+        ReadRecordsRequest request = new ReadRecordsRequest(fakeIdentity(),
+                "elasticsearch",
+                "queryId-" + System.currentTimeMillis(),
+                new TableName("movies", "mishmash"),
+                mapping,
+                slice,
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L, //100GB don't expect this to spill
+                100_000_000_000L
+        );
+
+        handler.doReadRecords(allocator, request);
+
+        ArgumentCaptor<SearchRequest> argumentCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(mockClient).search(argumentCaptor.capture(), any());
+        SearchRequest searchRequest = argumentCaptor.getValue();
+        assertEquals("_shards:5", searchRequest.preference());
+        assertEquals(2, searchRequest.source().slice().getId());
+        assertEquals(3, searchRequest.source().slice().getMax());
+    }
+
+    @Test
+    public void getNextPageSize()
+    {
+        // a 1KB document
+        String document = "{\"a\":\"" + String.join("", Collections.nCopies(1016, "x")) + "\"}";
+        SearchHit[] hits = new SearchHit[4];
+        for (int i = 0; i < hits.length; ++i) {
+            hits[i] = new SearchHit(i).sourceRef(new BytesArray(document));
+        }
+        // 1KB documents and a 1MB target
+        assertEquals(1024, ElasticsearchRecordHandler.getNextPageSize(4, hits, 1024 * 1024));
+        // 1KB documents and a target smaller than a document
+        assertEquals(1, ElasticsearchRecordHandler.getNextPageSize(4, hits, 100));
+        // capped at the max page size
+        assertEquals(ElasticsearchRecordHandler.MAX_QUERY_BATCH_SIZE, ElasticsearchRecordHandler.getNextPageSize(4, hits, Long.MAX_VALUE / 8));
+        // documents without a _source keep the current page size
+        assertEquals(4, ElasticsearchRecordHandler.getNextPageSize(4, new SearchHit[] {new SearchHit(1)}, 1024 * 1024));
+    }
+
     private class ByteHolder
     {
         private byte[] bytes;
@@ -0,0 +1,183 @@
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK Benchmarks
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connector.lambda.benchmarks;
+
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
+import com.amazonaws.athena.connector.lambda.data.BlockUtils;
+import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import com.amazonaws.athena.connector.lambda.security.EncryptionKey;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
+
+/**
+ * Shared fixtures for the benchmarks in this module. Values are derived from the row number so that every benchmark
+ * sees the same, deterministic, data and so that constraints can be placed at a known selectivity.
+ */
+final class BenchmarkData
+{
+    //The default number of rows each benchmark invocation processes, results are reported per row.
+    static final int ROWS = 4096;
+    //Apache Arrow requires access to java.nio, forked benchmark JVMs are started with this argument.
+    static final String ADD_OPENS = "--add-opens=java.base/java.nio=ALL-UNNAMED";
+    static final String COLUMN = "col1";
+    static final ArrowType DECIMAL_TYPE = new ArrowType.Decimal(18, 2, 128);
+    static final int EPOCH_DAY_OFFSET = 18_000;
+    static final long EPOCH_MILLI_OFFSET = LocalDateTime.of(2020, 1, 1, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    private BenchmarkData() {}
+
+    static ArrowType arrowType(Types.MinorType minorType)
+    {
+        return (minorType == Types.MinorType.DECIMAL) ? DECIMAL_TYPE : minorType.getType();
+    }
+
+    /**
+     * @return The value of the given type for the given row, in the java type that BlockUtils.setValue(...) and the
+     * ValueSets expect for that type.
+     */
+    static Object value(Types.MinorType minorType, int row)
+    {
+        switch (minorType) {
+            case BIGINT:
+                return (long) row;
+            case INT:
+                return row;
+            case SMALLINT:
+                return (short) (row % Short.MAX_VALUE);
+            case TINYINT:
+                return (byte) (row % Byte.MAX_VALUE);
+            case FLOAT8:
+                return row * 1.5D;
+            case FLOAT4:
+                return row * 1.5F;
+            case DECIMAL:
+                return BigDecimal.valueOf(row, 2);
+            case BIT:
+                return row % 2 == 0;
+            case DATEDAY:
+                return EPOCH_DAY_OFFSET + row;
+            case DATEMILLI:
+                return LocalDateTime.ofEpochSecond((EPOCH_MILLI_OFFSET / 1000) + row, 0, ZoneOffset.UTC);
+            case VARCHAR:
+                return String.format("value-%08d", row);
+            case VARBINARY:
+                return String.format("value-%08d", row).getBytes(StandardCharsets.UTF_8);
+            default:
+                throw new IllegalArgumentException("Unsupported type " + minorType);
+        }
+    }
+
+    static Schema schema(Types.MinorType... minorTypes)
+    {
+        SchemaBuilder builder = SchemaBuilder.newBuilder();
+        for (int i = 0; i < minorTypes.length; i++) {
+            builder.addField(column(i), arrowType(minorTypes[i]));
+        }
+        return builder.build();
+    }
+
+    static String column(int i)
+    {
+        return (i == 0) ? COLUMN : "col" + (i + 1);
+    }
+
+    /**
+     * Creates a Block of the given schema with numRows rows, see value(...) for the values of each column.
+     */
+    static Block block(BlockAllocator allocator, Schema schema, int numRows)
+    {
+        Block block = allocator.createBlock(schema);
+        for (int column = 0; column < schema.getFields().size(); column++) {
+            Types.MinorType minorType = Types.getMinorTypeForArrowType(schema.getFields().get(column).getType());
+            for (int row = 0; row < numRows; row++) {
+                BlockUtils.setValue(block.getFieldVector(column(column)), row, value(minorType, row));
+            }
+        }
+        block.setRowCount(numRows);
+        return block;
+    }
+
+    /**
+     * Creates a random AES-GCM EncryptionKey. LocalKeyFactory is avoided here because its key generation thread keeps the
+     * JVM alive when benchmarks are run without forking.
+     */
+    static EncryptionKey encryptionKey()
+    {
+        SecureRandom random = new SecureRandom();
+        byte[] key = new byte[32];
+        byte[] nonce = new byte[12];
+        random.nextBytes(key);
+        random.nextBytes(nonce);
+        return new EncryptionKey(key, nonce);
+    }
+
+    static Constraints constraints(Map<String, ValueSet> summary)
+    {
+        return new Constraints(summary, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null);
+    }
+
+    static Constraints noConstraints()
+    {
+        return constraints(Collections.emptyMap());
+    }
+
+    /**
+     * An S3Client that discards everything written to it, this keeps the network out of the spill benchmarks while
+     * still paying for serializing (and optionally encrypting) each spilled Block.
+     */
+    static class DiscardingS3Client
+            implements S3Client
+    {
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody requestBody)
+        {
+            return PutObjectResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName()
+        {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
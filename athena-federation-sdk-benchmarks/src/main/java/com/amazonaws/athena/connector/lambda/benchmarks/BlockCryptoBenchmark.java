@@ -0,0 +1,99 @@
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK Benchmarks
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connector.lambda.benchmarks;
+
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.security.AesGcmBlockCrypto;
+import com.amazonaws.athena.connector.lambda.security.EncryptionKey;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of encrypting and decrypting a spilled Block, of the given number of rows, with AesGcmBlockCrypto.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkData.ADD_OPENS)
+public class BlockCryptoBenchmark
+{
+    @Param({"1024", "4096"})
+    public int rows;
+
+    private BlockAllocatorImpl allocator;
+    private Schema schema;
+    private Block block;
+    private EncryptionKey key;
+    private AesGcmBlockCrypto crypto;
+    private byte[] encrypted;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        allocator = new BlockAllocatorImpl();
+        schema = BenchmarkData.schema(Types.MinorType.BIGINT, Types.MinorType.INT, Types.MinorType.FLOAT8,
+                Types.MinorType.DECIMAL, Types.MinorType.DATEMILLI, Types.MinorType.VARCHAR);
+        block = BenchmarkData.block(allocator, schema, rows);
+        key = BenchmarkData.encryptionKey();
+        crypto = new AesGcmBlockCrypto(allocator);
+        encrypted = crypto.encrypt(key, block);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+            throws Exception
+    {
+        block.close();
+        allocator.close();
+    }
+
+    @Benchmark
+    public byte[] encrypt()
+    {
+        return crypto.encrypt(key, block);
+    }
+
+    @Benchmark
+    public int decrypt()
+            throws Exception
+    {
+        try (Block decrypted = crypto.decrypt(key, encrypted, schema)) {
+            return decrypted.getRowCount();
+        }
+    }
+}
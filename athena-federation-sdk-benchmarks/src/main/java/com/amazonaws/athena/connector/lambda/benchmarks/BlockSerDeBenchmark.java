@@ -0,0 +1,115 @@
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK Benchmarks
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connector.lambda.benchmarks;
+
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.records.ReadRecordsResponse;
+import com.amazonaws.athena.connector.lambda.request.FederationResponse;
+import com.amazonaws.athena.connector.lambda.serde.VersionedObjectMapperFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.amazonaws.athena.connector.lambda.benchmarks.BenchmarkData.ROWS;
+
+/**
+ * Measures the cost of serializing and deserializing an inline Block, wrapped in the ReadRecordsResponse it travels in,
+ * using the v4 and v6 SerDe.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkData.ADD_OPENS)
+public class BlockSerDeBenchmark
+{
+    @Param({"4", "6"})
+    public int serDeVersion;
+
+    private BlockAllocatorImpl allocator;
+    private Block block;
+    private ReadRecordsResponse response;
+    private ObjectMapper mapper;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setup()
+            throws Exception
+    {
+        allocator = new BlockAllocatorImpl();
+        Schema schema = BenchmarkData.schema(Types.MinorType.BIGINT, Types.MinorType.INT, Types.MinorType.FLOAT8,
+                Types.MinorType.DECIMAL, Types.MinorType.DATEMILLI, Types.MinorType.VARCHAR);
+        block = BenchmarkData.block(allocator, schema, ROWS);
+        response = new ReadRecordsResponse("benchmark-catalog", block);
+        mapper = VersionedObjectMapperFactory.create(allocator, serDeVersion);
+        serialized = mapper.writeValueAsBytes(response);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+            throws Exception
+    {
+        response.close();
+        allocator.close();
+    }
+
+    @Benchmark
+    public byte[] serialize()
+            throws Exception
+    {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public int deserialize()
+            throws Exception
+    {
+        try (ReadRecordsResponse result = (ReadRecordsResponse) mapper.readValue(serialized, FederationResponse.class)) {
+            return result.getRecordCount();
+        }
+    }
+
+    @Benchmark
+    public int roundTrip()
+            throws Exception
+    {
+        byte[] bytes = mapper.writeValueAsBytes(response);
+        try (ReadRecordsResponse result = (ReadRecordsResponse) mapper.readValue(bytes, FederationResponse.class)) {
+            return result.getRecordCount();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK Benchmarks
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connector.lambda.benchmarks;
+
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.data.BlockUtils;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.amazonaws.athena.connector.lambda.benchmarks.BenchmarkData.COLUMN;
+import static com.amazonaws.athena.connector.lambda.benchmarks.BenchmarkData.ROWS;
+
+/**
+ * Measures the per row cost of BlockUtils.setValue(...) for each of the commonly used types and of
+ * BlockUtils.copyRows(...) for a Block containing all of those types.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkData.ADD_OPENS)
+public class BlockUtilsBenchmark
+{
+    private static final Types.MinorType[] COPY_TYPES = {Types.MinorType.BIGINT, Types.MinorType.INT,
+            Types.MinorType.FLOAT8, Types.MinorType.DECIMAL, Types.MinorType.BIT, Types.MinorType.DATEDAY,
+            Types.MinorType.DATEMILLI, Types.MinorType.VARCHAR, Types.MinorType.VARBINARY};
+
+    @State(Scope.Thread)
+    public static class SetValueState
+    {
+        @Param({"BIGINT", "INT", "SMALLINT", "TINYINT", "FLOAT8", "FLOAT4", "DECIMAL", "BIT", "DATEDAY", "DATEMILLI", "VARCHAR", "VARBINARY"})
+        public String type;
+
+        private BlockAllocatorImpl allocator;
+        private Block block;
+        private FieldVector vector;
+        private Object[] values;
+
+        @Setup(Level.Trial)
+        public void setup()
+        {
+            Types.MinorType minorType = Types.MinorType.valueOf(type);
+            allocator = new BlockAllocatorImpl();
+            block = allocator.createBlock(BenchmarkData.schema(minorType));
+            vector = block.getFieldVector(COLUMN);
+            values = new Object[ROWS];
+            for (int i = 0; i < ROWS; i++) {
+                values[i] = BenchmarkData.value(minorType, i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown()
+                throws Exception
+        {
+            block.close();
+            allocator.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CopyRowsState
+    {
+        private BlockAllocatorImpl allocator;
+        private Block source;
+        private Block target;
+
+        @Setup(Level.Trial)
+        public void setup()
+        {
+            allocator = new BlockAllocatorImpl();
+            Schema schema = BenchmarkData.schema(COPY_TYPES);
+            source = BenchmarkData.block(allocator, schema, ROWS);
+            target = allocator.createBlock(schema);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown()
+                throws Exception
+        {
+            source.close();
+            target.close();
+            allocator.close();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public FieldVector setValue(SetValueState state)
+    {
+        for (int i = 0; i < ROWS; i++) {
+            BlockUtils.setValue(state.vector, i, state.values[i]);
+        }
+        return state.vector;
+    }
+
+    /**
+     * Copies every row of a Block with one column per type in COPY_TYPES.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int copyRows(CopyRowsState state)
+    {
+        //Rewind the target so that each invocation writes over the same (already allocated) buffers.
+        state.target.setRowCount(0);
+        return BlockUtils.copyRows(state.source, state.target, 0, ROWS - 1);
+    }
+}
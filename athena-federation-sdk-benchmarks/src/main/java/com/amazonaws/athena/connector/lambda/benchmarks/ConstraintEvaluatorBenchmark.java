@@ -0,0 +1,157 @@
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK Benchmarks
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connector.lambda.benchmarks;
+
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.data.BlockUtils;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintEvaluator;
+import com.amazonaws.athena.connector.lambda.domain.predicate.EquatableValueSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.amazonaws.athena.connector.lambda.benchmarks.BenchmarkData.COLUMN;
+import static com.amazonaws.athena.connector.lambda.benchmarks.BenchmarkData.ROWS;
+
+/**
+ * Measures the per row cost of ConstraintEvaluator.apply(...), both one value at a time and over an Apache Arrow
+ * vector, for a BIGINT column constrained by either a SortedRangeSet of single value ranges or an EquatableValueSet
+ * of the same values. Every other row of the input matches the constraint.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkData.ADD_OPENS)
+public class ConstraintEvaluatorBenchmark
+{
+    public enum ValueSetType
+    {
+        SORTED_RANGE_SET,
+        EQUATABLE_VALUE_SET
+    }
+
+    @Param({"SORTED_RANGE_SET", "EQUATABLE_VALUE_SET"})
+    public ValueSetType valueSetType;
+
+    @Param({"10", "1000"})
+    public int listSize;
+
+    private BlockAllocatorImpl allocator;
+    private Block block;
+    private FieldVector vector;
+    private Object[] values;
+    private BitSet selection;
+    private ConstraintEvaluator evaluator;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        allocator = new BlockAllocatorImpl();
+        ArrowType type = Types.MinorType.BIGINT.getType();
+        Schema schema = BenchmarkData.schema(Types.MinorType.BIGINT);
+
+        //The constraint holds the even numbers in [0, 2 * listSize), the input cycles through [0, 2 * listSize).
+        ValueSet valueSet;
+        if (valueSetType == ValueSetType.SORTED_RANGE_SET) {
+            List<Range> ranges = new ArrayList<>(listSize);
+            for (int i = 0; i < listSize; i++) {
+                ranges.add(Range.equal(allocator, type, 2L * i));
+            }
+            valueSet = SortedRangeSet.copyOf(type, ranges, false);
+        }
+        else {
+            EquatableValueSet.Builder builder = EquatableValueSet.newBuilder(allocator, type, true, false);
+            for (int i = 0; i < listSize; i++) {
+                builder.add(2L * i);
+            }
+            valueSet = builder.build();
+        }
+        evaluator = new ConstraintEvaluator(allocator, schema,
+                BenchmarkData.constraints(Collections.singletonMap(COLUMN, valueSet)));
+
+        block = allocator.createBlock(schema);
+        vector = block.getFieldVector(COLUMN);
+        values = new Object[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            values[i] = (long) (i % (2 * listSize));
+            BlockUtils.setValue(vector, i, values[i]);
+        }
+        block.setRowCount(ROWS);
+        selection = new BitSet(ROWS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+            throws Exception
+    {
+        evaluator.close();
+        block.close();
+        allocator.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int applyScalar()
+    {
+        int matched = 0;
+        for (int i = 0; i < ROWS; i++) {
+            if (evaluator.apply(COLUMN, values[i])) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int applyVector()
+    {
+        selection.set(0, ROWS);
+        evaluator.apply(COLUMN, vector, 0, ROWS, selection);
+        return selection.cardinality();
+    }
+}
@@ -0,0 +1,227 @@
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK Benchmarks
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connector.lambda.benchmarks;
+
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.data.writers.GeneratedRowWriter;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.BigIntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.BitExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.DateDayExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.DateMilliExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.DecimalExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.Extractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.Float4Extractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.Float8Extractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.IntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.SmallIntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.TinyIntExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.VarBinaryExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.extractors.VarCharExtractor;
+import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableDecimalHolder;
+import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableVarBinaryHolder;
+import com.amazonaws.athena.connector.lambda.data.writers.holders.NullableVarCharHolder;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import org.apache.arrow.vector.holders.NullableBigIntHolder;
+import org.apache.arrow.vector.holders.NullableBitHolder;
+import org.apache.arrow.vector.holders.NullableDateDayHolder;
+import org.apache.arrow.vector.holders.NullableDateMilliHolder;
+import org.apache.arrow.vector.holders.NullableFloat4Holder;
+import org.apache.arrow.vector.holders.NullableFloat8Holder;
+import org.apache.arrow.vector.holders.NullableIntHolder;
+import org.apache.arrow.vector.holders.NullableSmallIntHolder;
+import org.apache.arrow.vector.holders.NullableTinyIntHolder;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static com.amazonaws.athena.connector.lambda.benchmarks.BenchmarkData.COLUMN;
+import static com.amazonaws.athena.connector.lambda.benchmarks.BenchmarkData.EPOCH_DAY_OFFSET;
+import static com.amazonaws.athena.connector.lambda.benchmarks.BenchmarkData.EPOCH_MILLI_OFFSET;
+import static com.amazonaws.athena.connector.lambda.benchmarks.BenchmarkData.ROWS;
+
+/**
+ * Measures the per row cost of GeneratedRowWriter.writeRow(...) for each of the Extractor types, with and without a
+ * constraint on the column. When constrained, the constraint passes roughly half of the rows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkData.ADD_OPENS)
+public class GeneratedRowWriterBenchmark
+{
+    @Param({"BIGINT", "INT", "SMALLINT", "TINYINT", "FLOAT8", "FLOAT4", "DECIMAL", "BIT", "DATEDAY", "DATEMILLI", "VARCHAR", "VARBINARY"})
+    public String type;
+
+    @Param({"false", "true"})
+    public boolean constrained;
+
+    private BlockAllocatorImpl allocator;
+    private Block block;
+    private GeneratedRowWriter rowWriter;
+    private Integer[] contexts;
+    private BigDecimal[] decimals;
+    private String[] strings;
+    private byte[][] binaries;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Types.MinorType minorType = Types.MinorType.valueOf(type);
+        ArrowType arrowType = BenchmarkData.arrowType(minorType);
+        allocator = new BlockAllocatorImpl();
+        block = allocator.createBlock(BenchmarkData.schema(minorType));
+
+        //Connectors typically extract from a row object, here the context is simply the row number.
+        contexts = new Integer[ROWS];
+        decimals = new BigDecimal[ROWS];
+        strings = new String[ROWS];
+        binaries = new byte[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            contexts[i] = i;
+            decimals[i] = (BigDecimal) BenchmarkData.value(Types.MinorType.DECIMAL, i);
+            strings[i] = (String) BenchmarkData.value(Types.MinorType.VARCHAR, i);
+            binaries[i] = (byte[]) BenchmarkData.value(Types.MinorType.VARBINARY, i);
+        }
+
+        Constraints constraints = BenchmarkData.noConstraints();
+        if (constrained) {
+            Range range = (minorType == Types.MinorType.BIT)
+                    ? Range.equal(allocator, arrowType, true)
+                    : Range.greaterThanOrEqual(allocator, arrowType, BenchmarkData.value(minorType, ROWS / 2));
+            constraints = BenchmarkData.constraints(Collections.singletonMap(COLUMN, (ValueSet) SortedRangeSet.of(false, range)));
+        }
+        rowWriter = GeneratedRowWriter.newBuilder(constraints)
+                .withExtractor(COLUMN, makeExtractor(minorType))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+            throws Exception
+    {
+        block.close();
+        allocator.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int writeRow()
+            throws Exception
+    {
+        int matched = 0;
+        for (int i = 0; i < ROWS; i++) {
+            if (rowWriter.writeRow(block, i, contexts[i])) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private Extractor makeExtractor(Types.MinorType minorType)
+    {
+        switch (minorType) {
+            case BIGINT:
+                return (BigIntExtractor) (Object context, NullableBigIntHolder dst) -> {
+                    dst.isSet = 1;
+                    dst.value = (Integer) context;
+                };
+            case INT:
+                return (IntExtractor) (Object context, NullableIntHolder dst) -> {
+                    dst.isSet = 1;
+                    dst.value = (Integer) context;
+                };
+            case SMALLINT:
+                return (SmallIntExtractor) (Object context, NullableSmallIntHolder dst) -> {
+                    dst.isSet = 1;
+                    dst.value = (short) ((Integer) context % Short.MAX_VALUE);
+                };
+            case TINYINT:
+                return (TinyIntExtractor) (Object context, NullableTinyIntHolder dst) -> {
+                    dst.isSet = 1;
+                    dst.value = (byte) ((Integer) context % Byte.MAX_VALUE);
+                };
+            case FLOAT8:
+                return (Float8Extractor) (Object context, NullableFloat8Holder dst) -> {
+                    dst.isSet = 1;
+                    dst.value = (Integer) context * 1.5D;
+                };
+            case FLOAT4:
+                return (Float4Extractor) (Object context, NullableFloat4Holder dst) -> {
+                    dst.isSet = 1;
+                    dst.value = (Integer) context * 1.5F;
+                };
+            case DECIMAL:
+                return (DecimalExtractor) (Object context, NullableDecimalHolder dst) -> {
+                    dst.isSet = 1;
+                    dst.value = decimals[(Integer) context];
+                };
+            case BIT:
+                return (BitExtractor) (Object context, NullableBitHolder dst) -> {
+                    dst.isSet = 1;
+                    dst.value = ((Integer) context % 2 == 0) ? 1 : 0;
+                };
+            case DATEDAY:
+                return (DateDayExtractor) (Object context, NullableDateDayHolder dst) -> {
+                    dst.isSet = 1;
+                    dst.value = EPOCH_DAY_OFFSET + (Integer) context;
+                };
+            case DATEMILLI:
+                return (DateMilliExtractor) (Object context, NullableDateMilliHolder dst) -> {
+                    dst.isSet = 1;
+                    dst.value = EPOCH_MILLI_OFFSET + (Integer) context * 1000L;
+                };
+            case VARCHAR:
+                return (VarCharExtractor) (Object context, NullableVarCharHolder dst) -> {
+                    dst.isSet = 1;
+                    dst.value = strings[(Integer) context];
+                };
+            case VARBINARY:
+                return (VarBinaryExtractor) (Object context, NullableVarBinaryHolder dst) -> {
+                    dst.isSet = 1;
+                    dst.value = binaries[(Integer) context];
+                };
+            default:
+                throw new IllegalArgumentException("Unsupported type " + minorType);
+        }
+    }
+}
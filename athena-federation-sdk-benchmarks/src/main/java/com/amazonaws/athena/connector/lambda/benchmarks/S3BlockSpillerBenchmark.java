@@ -0,0 +1,160 @@
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK Benchmarks
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connector.lambda.benchmarks;
+
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.data.BlockUtils;
+import com.amazonaws.athena.connector.lambda.data.S3BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.SpillConfig;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintEvaluator;
+import com.amazonaws.athena.connector.lambda.domain.spill.S3SpillLocation;
+import com.amazonaws.athena.connector.lambda.domain.spill.SpillLocation;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.amazonaws.athena.connector.lambda.benchmarks.BenchmarkData.ROWS;
+
+/**
+ * Measures the per row cost of writing through an S3BlockSpiller, including Block rollover, serialization and
+ * (optionally) encryption of every spilled Block. The max block size is kept small so that each invocation spills
+ * several Blocks, the S3Client discards the spilled bytes so the network is not part of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkData.ADD_OPENS)
+public class S3BlockSpillerBenchmark
+{
+    private static final long MAX_BLOCK_BYTES = 64 * 1024;
+    private static final long MAX_INLINE_BLOCK_BYTES = 0;
+
+    @Param({"false", "true"})
+    public boolean encrypted;
+
+    private BlockAllocatorImpl allocator;
+    private Schema schema;
+    private Block source;
+    private BenchmarkData.DiscardingS3Client s3Client;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        allocator = new BlockAllocatorImpl();
+        schema = BenchmarkData.schema(Types.MinorType.BIGINT, Types.MinorType.INT, Types.MinorType.FLOAT8,
+                Types.MinorType.VARCHAR, Types.MinorType.DATEMILLI);
+        source = BenchmarkData.block(allocator, schema, ROWS);
+        s3Client = new BenchmarkData.DiscardingS3Client();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+            throws Exception
+    {
+        source.close();
+        allocator.close();
+    }
+
+    /**
+     * Writes one row per call to writeRows(...), the way most connectors use the spiller.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<SpillLocation> writeRows()
+    {
+        //Each invocation gets its own allocator so that Blocks left behind by the spiller are released with it.
+        BlockAllocatorImpl spillAllocator = new BlockAllocatorImpl();
+        S3BlockSpiller spiller = newSpiller(spillAllocator);
+        try {
+            for (int i = 0; i < ROWS; i++) {
+                final int row = i;
+                spiller.writeRows((Block block, int rowNum) -> BlockUtils.copyRows(source, block, row, row));
+            }
+            return spiller.getSpillLocations();
+        }
+        finally {
+            spiller.close();
+            spillAllocator.close();
+        }
+    }
+
+    /**
+     * Writes all rows with a single call to writeBatch(...), appending Apache Arrow vectors directly.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<SpillLocation> writeBatch()
+    {
+        //Each invocation gets its own allocator so that Blocks left behind by the spiller are released with it.
+        BlockAllocatorImpl spillAllocator = new BlockAllocatorImpl();
+        S3BlockSpiller spiller = newSpiller(spillAllocator);
+        try {
+            spiller.writeBatch(ROWS, (Block block, int rowNum, int sourceOffset, int sourceCount) ->
+                    block.appendVectors(source.getFieldVectors(), sourceOffset, sourceCount, rowNum));
+            return spiller.getSpillLocations();
+        }
+        finally {
+            spiller.close();
+            spillAllocator.close();
+        }
+    }
+
+    private S3BlockSpiller newSpiller(BlockAllocatorImpl spillAllocator)
+    {
+        SpillConfig spillConfig = SpillConfig.newBuilder()
+                .withEncryptionKey(encrypted ? BenchmarkData.encryptionKey() : null)
+                .withRequestId(UUID.randomUUID().toString())
+                .withSpillLocation(S3SpillLocation.newBuilder()
+                        .withBucket("benchmark-bucket")
+                        .withPrefix("benchmark-prefix")
+                        .withQueryId(UUID.randomUUID().toString())
+                        .withSplitId(UUID.randomUUID().toString())
+                        .withIsDirectory(true)
+                        .build())
+                .withMaxBlockBytes(MAX_BLOCK_BYTES)
+                .withMaxInlineBlockBytes(MAX_INLINE_BLOCK_BYTES)
+                .withNumSpillThreads(0)
+                .build();
+
+        ConstraintEvaluator evaluator = new ConstraintEvaluator(spillAllocator, schema, BenchmarkData.noConstraints());
+        return new S3BlockSpiller(s3Client, spillConfig, spillAllocator, schema, evaluator, Collections.emptyMap());
+    }
+}
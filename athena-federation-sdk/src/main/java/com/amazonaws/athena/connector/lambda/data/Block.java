@@ -21,21 +21,29 @@ package com.amazonaws.athena.connector.lambda.data;
  */
 
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintEvaluator;
+import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
 import com.google.common.base.MoreObjects;
+import org.apache.arrow.compression.CommonsCompressionFactory;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.VectorLoader;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.VectorUnloader;
 import org.apache.arrow.vector.complex.reader.FieldReader;
+import org.apache.arrow.vector.compression.CompressionCodec;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.compression.NoCompressionCodec;
 import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.glue.model.ErrorDetails;
+import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
 
 import java.beans.Transient;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -220,6 +228,57 @@ public class Block
         return true;
     }
 
+    /**
+     * Appends a range of rows from the provided Apache Arrow vectors to this Block's vectors of the same name. Values are
+     * copied buffer to buffer without being materialized as Java objects, which makes this significantly faster than
+     * calling offerValue(...) for each cell when your source system already produces Apache Arrow data. This Block's
+     * constraints are applied to each source vector as a selection mask over the range and only rows that pass all
+     * constraints are appended. Like setValue(...), this method does _not_ update the row count of the Block.
+     *
+     * @param sourceVectors The vectors to copy rows from, each must be copy compatible with this Block's vector of the same
+     * name (see BlockUtils.isCopyCompatible(...)). Source vectors with no matching field in this Block are not copied.
+     * @param sourceOffset The first row of the source vectors to copy.
+     * @param sourceCount The number of rows, starting at sourceOffset, to copy.
+     * @param rowNum The row number in this Block that the first appended row should be written to.
+     * @return The number of rows that were appended to the Block.
+     */
+    public int appendVectors(List<FieldVector> sourceVectors, int sourceOffset, int sourceCount, int rowNum)
+    {
+        BitSet selection = new BitSet(sourceCount);
+        selection.set(0, sourceCount);
+
+        List<FieldVector> targetVectors = new ArrayList<>(sourceVectors.size());
+        for (FieldVector source : sourceVectors) {
+            String fieldName = source.getField().getName();
+            FieldVector target = getFieldVector(fieldName);
+            if (target != null && !BlockUtils.isCopyCompatible(source.getField(), target.getField())) {
+                throw new AthenaConnectorException("Source vector " + fieldName + " of type " + source.getField().getType() +
+                        " can not be appended to a vector of type " + target.getField().getType(),
+                        ErrorDetails.builder().errorCode(FederationSourceErrorCode.INVALID_INPUT_EXCEPTION.toString()).build());
+            }
+            targetVectors.add(target);
+            constraintEvaluator.apply(fieldName, source, sourceOffset, sourceCount, selection);
+        }
+
+        int rows = selection.cardinality();
+        if (rows == 0) {
+            return 0;
+        }
+
+        for (int col = 0; col < sourceVectors.size(); col++) {
+            FieldVector source = sourceVectors.get(col);
+            FieldVector target = targetVectors.get(col);
+            if (target == null) {
+                continue;
+            }
+            int targetRow = rowNum;
+            for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+                target.copyFromSafe(sourceOffset + i, targetRow++, source);
+            }
+        }
+        return rows;
+    }
+
     /**
      * Provides access to the Apache Arrow Vector Schema when direct access to Apache Arrow is required.
      *
@@ -337,7 +396,25 @@ public class Block
     }
 
     /**
-     * Used to load Apache Arrow data into this Block after it has been deserialized.
+     * Used to unload the Apache Arrow data in this Block, with each buffer compressed using the given codec, in
+     * preparation for Serialization.
+     *
+     * @param codecType The Apache Arrow IPC body compression to apply, NO_COMPRESSION is equivalent to getRecordBatch().
+     * @return An ArrowRecordBatch containing all row data in this Block for use in serializing the Block.
+     */
+    public ArrowRecordBatch getRecordBatch(CompressionUtil.CodecType codecType)
+    {
+        if (codecType == CompressionUtil.CodecType.NO_COMPRESSION) {
+            return getRecordBatch();
+        }
+        VectorUnloader vectorUnloader = new VectorUnloader(vectorSchema, true,
+                codecFactory(codecType).createCodec(codecType), true);
+        return vectorUnloader.getRecordBatch();
+    }
+
+    /**
+     * Used to load Apache Arrow data into this Block after it has been deserialized. Batches that were written with
+     * Apache Arrow IPC body compression (LZ4 frame or ZSTD) are decompressed as they are loaded.
      *
      * @param batch An ArrowRecordBatch containing all row data you'd like to load into this Block.
      * @note The batch is closed after being loaded to avoid memory leaks or data corruption since the buffers
@@ -346,11 +423,34 @@ public class Block
      */
     public void loadRecordBatch(ArrowRecordBatch batch)
     {
-        VectorLoader vectorLoader = new VectorLoader(vectorSchema);
+        CompressionUtil.CodecType codecType = CompressionUtil.CodecType.fromCompressionType(batch.getBodyCompression().getCodec());
+        VectorLoader vectorLoader = new VectorLoader(vectorSchema, codecFactory(codecType));
         vectorLoader.load(batch);
         batch.close();
     }
 
+    /**
+     * Gets the factory for the given codec. The codecs live in the optional arrow-compression dependency, which is
+     * only loaded once a compressed batch is written or read so that connectors which don't compress their spills
+     * don't need to package it.
+     *
+     * @param codecType The Apache Arrow IPC body compression in use.
+     * @return The CompressionCodec.Factory that can create the codec.
+     */
+    private static CompressionCodec.Factory codecFactory(CompressionUtil.CodecType codecType)
+    {
+        if (codecType == CompressionUtil.CodecType.NO_COMPRESSION) {
+            return NoCompressionCodec.Factory.INSTANCE;
+        }
+        try {
+            return CommonsCompressionFactory.INSTANCE;
+        }
+        catch (NoClassDefFoundError ex) {
+            throw new AthenaConnectorException(codecType + " compression requires org.apache.arrow:arrow-compression on the classpath",
+                    ErrorDetails.builder().errorCode(FederationSourceErrorCode.INVALID_INPUT_EXCEPTION.toString()).build());
+        }
+    }
+
     /**
      * Frees all Apache Arrow Buffers and resources associated with this block.
      *
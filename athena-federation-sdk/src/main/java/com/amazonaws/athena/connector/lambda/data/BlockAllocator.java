@@ -20,10 +20,13 @@ package com.amazonaws.athena.connector.lambda.data;
  * #L%
  */
 
+import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
 import org.apache.arrow.vector.types.pojo.Schema;
+import software.amazon.awssdk.services.glue.model.ErrorDetails;
+import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
 
 /**
  * Defines the interface that should be implemented by all reference counting Apache Arrow resource allocators
@@ -46,6 +49,23 @@ public interface BlockAllocator
      */
     Block createBlock(Schema schema);
 
+    /**
+     * Hands back a Block that the caller is done with. Implementations may reset and keep the Block so that a later
+     * call to createBlock(...) with the same Schema can reuse its Apache Arrow buffers instead of allocating new ones,
+     * by default the Block is simply closed.
+     *
+     * @param block The Block to recycle, the caller must not use it again after this call.
+     */
+    default void recycleBlock(Block block)
+    {
+        try {
+            block.close();
+        }
+        catch (Exception ex) {
+            throw new AthenaConnectorException(ex.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
+        }
+    }
+
     /**
      * Creates an empty Apache Arrow Buffer of the requested size. This is useful when working with certain Apache Arrow
      * types directly.
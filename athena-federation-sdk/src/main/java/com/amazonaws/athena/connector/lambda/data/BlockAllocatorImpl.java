@@ -25,6 +25,8 @@ import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.util.VisibleForTesting;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
@@ -35,8 +37,12 @@ import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.glue.model.ErrorDetails;
 import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -49,6 +55,8 @@ public class BlockAllocatorImpl
         implements BlockAllocator
 {
     private static final Logger logger = LoggerFactory.getLogger(BlockAllocatorImpl.class);
+    //The max number of recycled Blocks that are kept, per Schema, for reuse by createBlock(...)
+    private static final int MAX_POOLED_BLOCKS_PER_SCHEMA = 4;
 
     //Identifier for this block allocator, mostly used by BlockAllocatorRegistry.
     private final String id;
@@ -57,6 +65,8 @@ public class BlockAllocatorImpl
     private final boolean ownRootAllocator;
     //The Blocks that have been allocated via this BlockAllocator
     private final List<Block> blocks = new ArrayList<>();
+    //Recycled Blocks, whose vectors have been reset but still hold their buffers, waiting to be reused by createBlock(...)
+    private final Map<Schema, Deque<Block>> blockPool = new HashMap<>();
     //The record batches that have been allocated via this BlockAllocator
     private final List<ArrowRecordBatch> recordBatches = new ArrayList<>();
     //The arrow buffers that have been allocated via this BlockAllocator
@@ -117,12 +127,20 @@ public class BlockAllocatorImpl
     }
 
     /**
-     * Creates a block and registers it for later clean up if the block isn't explicitly closed by the caller.
+     * Creates a block and registers it for later clean up if the block isn't explicitly closed by the caller. If a Block
+     * with the same Schema has been recycled it is reused rather than allocating new Apache Arrow vectors.
      *
      * @see com.amazonaws.athena.connector.lambda.data.BlockAllocator
      */
     public synchronized Block createBlock(Schema schema)
     {
+        Deque<Block> pooled = blockPool.get(schema);
+        if (pooled != null && !pooled.isEmpty()) {
+            Block block = pooled.pop();
+            block.constrain(null);
+            return block;
+        }
+
         Block block = null;
         VectorSchemaRoot vectorSchemaRoot = null;
         List<FieldVector> vectors = new ArrayList();
@@ -157,6 +175,52 @@ public class BlockAllocatorImpl
         return block;
     }
 
+    /**
+     * Empties the vectors of the provided Block, which keeps their buffers (and capacity) but discards their contents,
+     * and pools it for reuse by createBlock(...). Blocks from other allocators, or in excess of the pool size, are closed.
+     *
+     * @see com.amazonaws.athena.connector.lambda.data.BlockAllocator
+     */
+    @Override
+    public synchronized void recycleBlock(Block block)
+    {
+        Deque<Block> pooled = blockPool.computeIfAbsent(block.getSchema(), key -> new ArrayDeque<>());
+        for (Block next : pooled) {
+            if (next == block) {
+                return;
+            }
+        }
+
+        if (isClosed.get() || !id.equals(block.getAllocatorId()) || pooled.size() >= MAX_POOLED_BLOCKS_PER_SCHEMA) {
+            BlockAllocator.super.recycleBlock(block);
+            return;
+        }
+
+        for (FieldVector next : block.getFieldVectors()) {
+            clearForReuse(next);
+        }
+        block.setRowCount(0);
+        pooled.push(block);
+    }
+
+    /**
+     * Empties a vector of a recycled Block. reset() zero fills every buffer of the vector, but the values of fixed and
+     * variable width vectors are overwritten as rows are written, so only their validity buffer (which marks unwritten
+     * rows as null) is zeroed. Other vectors, such as lists and structs, are reset.
+     */
+    private static void clearForReuse(FieldVector vector)
+    {
+        if (vector instanceof BaseFixedWidthVector || vector instanceof BaseVariableWidthVector) {
+            ArrowBuf validityBuffer = vector.getValidityBuffer();
+            validityBuffer.setZero(0, validityBuffer.capacity());
+            //also forgets the last row set in a variable width vector, so its offsets are rewritten from the first row
+            vector.setValueCount(0);
+        }
+        else {
+            vector.reset();
+        }
+    }
+
     /**
      * Creates an ArrowBuf and registers it for later clean up if the ArrowBuff isn't explicitly closed by the caller.
      *
@@ -222,6 +286,7 @@ public class BlockAllocatorImpl
     protected synchronized void closeBlocks()
     {
         logger.debug("closeBlocks: {}", blocks.size());
+        blockPool.clear();
         for (Block next : blocks) {
             try {
                 next.close();
@@ -552,6 +552,64 @@ public class BlockUtils
         return rowsCopied;
     }
 
+    /**
+     * Checks if values of the source Field can be copied, as-is, into a vector of the target Field. This is the case
+     * when both Fields have the same Apache Arrow type and their children (if any) are pairwise compatible.
+     *
+     * @param source The Field of the vector we'd like to copy from.
+     * @param target The Field of the vector we'd like to copy to.
+     * @return True if the vectors are copy compatible, False otherwise.
+     * @note Field names and nullability are not considered since they do not affect the physical layout of the vectors.
+     */
+    public static boolean isCopyCompatible(Field source, Field target)
+    {
+        if (!source.getType().equals(target.getType())) {
+            return false;
+        }
+
+        List<Field> sourceChildren = source.getChildren();
+        List<Field> targetChildren = target.getChildren();
+        if (sourceChildren.size() != targetChildren.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < sourceChildren.size(); i++) {
+            if (!isCopyCompatible(sourceChildren.get(i), targetChildren.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if every one of the provided vectors has a copy compatible Field, of the same name, in the target Schema.
+     * When this is true the vectors can be written using Block.appendVectors(...) instead of value at a time.
+     *
+     * @param target The Schema of the Block we'd like to append to.
+     * @param sourceVectors The vectors we'd like to append.
+     * @return True if all vectors can be appended as-is, False otherwise.
+     */
+    public static boolean canAppendVectors(Schema target, List<FieldVector> sourceVectors)
+    {
+        for (FieldVector next : sourceVectors) {
+            Field targetField = findField(target, next.getField().getName());
+            if (targetField == null || !isCopyCompatible(next.getField(), targetField)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Field findField(Schema schema, String fieldName)
+    {
+        for (Field next : schema.getFields()) {
+            if (next.getName().equals(fieldName)) {
+                return next;
+            }
+        }
+        return null;
+    }
+
     /**
      * Checks if a row is null by checking that all fields in that row are null (aka not set).
      *
@@ -20,6 +20,9 @@
 package com.amazonaws.athena.connector.lambda.data;
 
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintEvaluator;
+import org.apache.arrow.vector.FieldVector;
+
+import java.util.List;
 
 /**
  * Defines an abstraction that can be used to write to a Block without owning the lifecycle of the
@@ -48,6 +51,28 @@ public interface BlockWriter
         int writeRows(Block block, int rowNum) throws Exception;
     }
 
+    /**
+     * The interface you should implement for writing a batch of rows to a Block via the inverted ownership
+     * model offered by BlockWriter. Unlike RowWriter, a BatchWriter is handed a range of the caller's source
+     * rows (e.g. a page of results or a range of an Apache Arrow vector) and may write all of them in a single
+     * call. The BlockWriter decides how large each range is so that it can manage Block size on the caller's behalf.
+     */
+    interface BatchWriter
+    {
+        /**
+         * Used to write a range of source rows into a block.
+         *
+         * @param block The block you can add your rows to.
+         * @param rowNum The row number in that block that the first row written by this call represents.
+         * @param sourceOffset The offset of the first source row that should be written by this call.
+         * @param sourceCount The number of source rows, starting at sourceOffset, that should be written by this call.
+         * @return The number of rows that were added to the block. This may be less than sourceCount if some rows
+         * were filtered (e.g. by constraints) but must never exceed sourceCount.
+         * @throws Exception internal exception.
+         */
+        int writeRows(Block block, int rowNum, int sourceOffset, int sourceCount) throws Exception;
+    }
+
     /**
      * Used to write rows via the BlockWriter.
      *
@@ -55,6 +80,46 @@ public interface BlockWriter
      */
     void writeRows(RowWriter rowWriter);
 
+    /**
+     * Used to write a batch of source rows via the BlockWriter. The BlockWriter will call the provided BatchWriter
+     * one or more times with contiguous, non-overlapping ranges that together cover [0, numRows).
+     *
+     * @param numRows The number of source rows available to the BatchWriter.
+     * @param batchWriter The BatchWriter that the BlockWriter should use to write rows into the Block(s) it is managing.
+     * @return The total number of rows that were added to the Block(s).
+     * @note The default implementation writes one source row per call to writeRows(...), implementations that manage
+     * Block size should override this to hand larger ranges to the BatchWriter.
+     */
+    default int writeBatch(int numRows, BatchWriter batchWriter)
+    {
+        int[] written = new int[1];
+        for (int i = 0; i < numRows; i++) {
+            int sourceOffset = i;
+            writeRows((Block block, int rowNum) -> {
+                int rows = batchWriter.writeRows(block, rowNum, sourceOffset, 1);
+                written[0] += rows;
+                return rows;
+            });
+        }
+        return written[0];
+    }
+
+    /**
+     * Used to write rows that are already held in Apache Arrow vectors (e.g. a batch produced by an Arrow native source
+     * system) via the BlockWriter. Rows are bulk copied into the Block(s) using Block.appendVectors(...) and filtered using
+     * the Block's constraints, no per-cell Java objects are created for the common case of unconstrained columns.
+     *
+     * @param sourceVectors The vectors to copy rows from, use BlockUtils.canAppendVectors(...) to check that they are
+     * compatible with the Schema of the Block(s) managed by this BlockWriter.
+     * @param numRows The number of rows, starting at row 0, to copy from the source vectors.
+     * @return The total number of rows that were added to the Block(s).
+     */
+    default int writeArrowBatch(List<FieldVector> sourceVectors, int numRows)
+    {
+        return writeBatch(numRows, (Block block, int rowNum, int sourceOffset, int sourceCount) ->
+                block.appendVectors(sourceVectors, sourceOffset, sourceCount, rowNum));
+    }
+
     /**
      * Provides access to the ConstraintEvaluator that will be applied to the generated Blocks.
      */
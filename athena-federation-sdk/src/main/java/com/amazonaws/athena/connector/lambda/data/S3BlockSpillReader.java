@@ -55,7 +55,7 @@ public class S3BlockSpillReader
     }
 
     /**
-     * Reads a spilled block.
+     * Reads a spilled block, decompressing it if it was spilled with Apache Arrow IPC body compression.
      *
      * @param spillLocation The location to read the spilled Block from.
      * @param key The encryption key to use when reading the spilled Block.
@@ -36,13 +36,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.core.ResponseInputStream;
-import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.glue.model.ErrorDetails;
 import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -76,6 +74,8 @@ public class S3BlockSpiller
     private static final long ASYNC_SHUTDOWN_MILLIS = 10_000;
     //The default max number of rows that are allowed to be written per call to writeRows(...)
     private static final int MAX_ROWS_PER_CALL = 100;
+    //The max number of source rows handed to a BatchWriter in a single call to writeBatch(...)
+    private static final int MAX_ROWS_PER_BATCH_CALL = 8192;
     //Config to set spill queue capacity
     private static final String SPILL_QUEUE_CAPACITY = "SPILL_QUEUE_CAPACITY";
 
@@ -92,13 +92,15 @@ public class S3BlockSpiller
     private final Schema schema;
     //The max number of rows that are allowed to be written per call to writeRows(...)
     private final long maxRowsPerCall;
-    //If we spilled, the spill locations are kept here.
-    private final List<SpillLocation> spillLocations = new ArrayList<>();
+    //If we spilled, the spill locations are kept here, multiple spill threads may add to this concurrently.
+    private final List<SpillLocation> spillLocations = Collections.synchronizedList(new ArrayList<>());
     //Reference to the in progress Block.
     private final AtomicReference<Block> inProgressBlock = new AtomicReference<>();
     //Allows a degree of pipelining to take place so we don't block reading from the source
     //while we are spilling.
     private final ExecutorService asyncSpillPool;
+    //Bounds the bytes of filled Blocks handed to asyncSpillPool but not yet spilled, null if spilling synchronously.
+    private final SpillByteBudget spillBudget;
     //Allows us to provide thread safety between async spill completion and calls to getSpill status
     private final ReadWriteLock spillLock = new StampedLock().asReadWriteLock();
     //Used to create monotonically increasing spill locations, if the locations are not
@@ -112,6 +114,12 @@ public class S3BlockSpiller
     private final ConstraintEvaluator constraintEvaluator;
     //Used to track total bytes written
     private final AtomicLong totalBytesSpilled = new AtomicLong();
+    //Used to track time spent serializing (and encrypting) spilled Blocks, summed across spill threads.
+    private final AtomicLong totalEncodeNanos = new AtomicLong();
+    //Used to track time spent in calls to S3 while spilling Blocks, summed across spill threads.
+    private final AtomicLong totalUploadNanos = new AtomicLong();
+    //Used to track time the writing thread spent waiting for in flight spills to free up spillBudget.
+    private final AtomicLong totalBackpressureNanos = new AtomicLong();
     //Time this BlockSpiller wss created.
     private final long startTime = System.currentTimeMillis();
 
@@ -164,8 +172,11 @@ public class S3BlockSpiller
         this.spillConfig = requireNonNull(spillConfig, "spillConfig was null");
         this.allocator = requireNonNull(allocator, "allocator was null");
         this.schema = requireNonNull(schema, "schema was null");
-        this.blockCrypto = (spillConfig.getEncryptionKey() != null) ? new AesGcmBlockCrypto(allocator) : new NoOpBlockCrypto(allocator);
+        this.blockCrypto = (spillConfig.getEncryptionKey() != null)
+                ? new AesGcmBlockCrypto(allocator, spillConfig.getSpillCompression())
+                : new NoOpBlockCrypto(allocator, spillConfig.getSpillCompression());
         asyncSpillPool = (spillConfig.getNumSpillThreads() <= 0) ? null : makeAsyncSpillPool(spillConfig);
+        spillBudget = (asyncSpillPool == null) ? null : new SpillByteBudget(getMaxInFlightSpillBytes(spillConfig));
         this.maxRowsPerCall = maxRowsPerCall;
         this.constraintEvaluator = constraintEvaluator;
     }
@@ -210,13 +221,53 @@ public class S3BlockSpiller
             block.setRowCount(rowCount + rows);
         }
 
-        if (block.getSize() > spillConfig.getMaxBlockBytes()) {
-            logger.info("writeRow: Spilling block with {} rows and {} bytes and config {} bytes",
-                    new Object[] {block.getRowCount(), block.getSize(), spillConfig.getMaxBlockBytes()});
-            spillBlock(block);
-            inProgressBlock.set(this.allocator.createBlock(this.schema));
-            inProgressBlock.get().constrain(constraintEvaluator);
+        rolloverIfFull(block);
+    }
+
+    /**
+     * Used to write a batch of source rows via the BlockWriter. Rather than capping each call at maxRowsPerCall, this
+     * method sizes every range it hands to the BatchWriter from the average row width observed in the in-progress Block
+     * so that each Block is filled up to (but not far beyond) the configured max block size before it is spilled.
+     *
+     * @param numRows The number of source rows available to the BatchWriter.
+     * @param batchWriter The BatchWriter that the BlockWriter should use to write rows into the Block(s) it is managing.
+     * @return The total number of rows that were added to the Block(s).
+     * @see BlockWriter
+     */
+    @Override
+    public int writeBatch(int numRows, BatchWriter batchWriter)
+    {
+        ensureInit();
+
+        int written = 0;
+        int sourceOffset = 0;
+        while (sourceOffset < numRows) {
+            Block block = inProgressBlock.get();
+            int rowCount = block.getRowCount();
+            int sourceCount = Math.min(numRows - sourceOffset, estimateBatchRows(block));
+
+            int rows;
+            try {
+                rows = batchWriter.writeRows(block, rowCount, sourceOffset, sourceCount);
+            }
+            catch (Exception ex) {
+                throw (ex instanceof RuntimeException) ? (RuntimeException) ex : new RuntimeException(ex);
+            }
+
+            if (rows > sourceCount) {
+                throw new AthenaConnectorException("Call generated " + rows + " rows but was only given " + sourceCount +
+                        " source rows. Generating more rows than source rows per call to writeBatch(...) can result in blocks " +
+                        "that exceed the max size.", ErrorDetails.builder().errorCode(FederationSourceErrorCode.INVALID_INPUT_EXCEPTION.toString()).build());
+            }
+            if (rows > 0) {
+                block.setRowCount(rowCount + rows);
+                written += rows;
+            }
+            sourceOffset += sourceCount;
+
+            rolloverIfFull(block);
         }
+        return written;
     }
 
     /**
@@ -302,7 +353,11 @@ public class S3BlockSpiller
      */
     public void close()
     {
-        logger.info("close: Spilled a total of {} bytes in {} ms", totalBytesSpilled.get(), System.currentTimeMillis() - startTime);
+        logger.info("close: Spilled a total of {} bytes in {} ms, spill threads spent {} ms encoding and {} ms uploading, " +
+                        "writer spent {} ms waiting for in flight spills",
+                new Object[] {totalBytesSpilled.get(), System.currentTimeMillis() - startTime,
+                        TimeUnit.NANOSECONDS.toMillis(totalEncodeNanos.get()), TimeUnit.NANOSECONDS.toMillis(totalUploadNanos.get()),
+                        TimeUnit.NANOSECONDS.toMillis(totalBackpressureNanos.get())});
 
         if (asyncSpillPool == null) {
             return;
@@ -344,7 +399,8 @@ public class S3BlockSpiller
     }
 
     /**
-     * Writes (aka spills) a Block.
+     * Writes (aka spills) a Block. The Block is serialized and encrypted directly into the upload to S3 so that, beyond
+     * the Block itself, at most SpillConfig.getSpillPartBytes() bytes are held in memory while spilling.
      */
     protected SpillLocation write(Block block)
     {
@@ -352,23 +408,28 @@ public class S3BlockSpiller
             S3SpillLocation spillLocation = makeSpillLocation();
             EncryptionKey encryptionKey = spillConfig.getEncryptionKey();
 
-            logger.info("write: Started encrypting block for write to {}", spillLocation);
-            byte[] bytes = blockCrypto.encrypt(encryptionKey, block);
-
-            totalBytesSpilled.addAndGet(bytes.length);
+            logger.info("write: Started spilling block of size {} bytes to {}", block.getSize(), spillLocation);
+            long start = System.nanoTime();
 
-            logger.info("write: Started spilling block of size {} bytes", bytes.length);
+            S3SpillOutputStream out = new S3SpillOutputStream(amazonS3, spillLocation.getBucket(), spillLocation.getKey(),
+                    getRequestHeadersFromEnv(), spillConfig.getSpillPartBytes(), block.getSize());
+            try {
+                blockCrypto.encrypt(encryptionKey, block, out);
+                out.close();
+            }
+            catch (RuntimeException ex) {
+                out.abort();
+                throw ex;
+            }
 
-            // Set the contentLength otherwise the s3 client will buffer again since it
-            // only sees the InputStream wrapper.
-            PutObjectRequest request = PutObjectRequest.builder()
-                    .bucket(spillLocation.getBucket())
-                    .key(spillLocation.getKey())
-                    .contentLength((long) bytes.length)
-                    .metadata(getRequestHeadersFromEnv())
-                    .build();
-            amazonS3.putObject(request, RequestBody.fromBytes(bytes));
-            logger.info("write: Completed spilling block of size {} bytes", bytes.length);
+            //Serialization and encryption are streamed into the upload, so anything not spent in S3 was spent encoding.
+            long uploadNanos = out.getUploadNanos();
+            long encodeNanos = Math.max(0, System.nanoTime() - start - uploadNanos);
+            totalBytesSpilled.addAndGet(out.getBytesWritten());
+            totalEncodeNanos.addAndGet(encodeNanos);
+            totalUploadNanos.addAndGet(uploadNanos);
+            logger.info("write: Completed spilling block of size {} bytes, {} ms encoding and {} ms uploading",
+                    new Object[] {out.getBytesWritten(), TimeUnit.NANOSECONDS.toMillis(encodeNanos), TimeUnit.NANOSECONDS.toMillis(uploadNanos)});
 
             return spillLocation;
         }
@@ -406,13 +467,22 @@ public class S3BlockSpiller
     }
 
     /**
-     * Spills a block, potentially asynchronously depending on the settings.
+     * Spills a block, potentially asynchronously depending on the settings. When spilling asynchronously this blocks
+     * until the Block fits within the in flight spill budget, which is what slows down a producer that outpaces S3.
      *
      * @param block The Block to spill.
      */
     private void spillBlock(Block block)
     {
         if (asyncSpillPool != null) {
+            //Fail fast rather than continuing to read from the source once a background spill has failed.
+            if (asyncException.get() != null) {
+                throw asyncException.get();
+            }
+
+            long blockBytes = block.getSize();
+            totalBackpressureNanos.addAndGet(spillBudget.acquire(blockBytes));
+
             //We use the read lock here because we want to allow these in parallel, its a bit counter intuitive
             Lock lock = spillLock.readLock();
             try {
@@ -423,16 +493,18 @@ public class S3BlockSpiller
                     try {
                         SpillLocation spillLocation = write(block);
                         spillLocations.add(spillLocation);
-                        //Free the memory from the previous block since it has been spilled
-                        safeClose(block);
+                        //The block has been spilled, hand its buffers back so the next block can reuse them
+                        allocator.recycleBlock(block);
                     }
                     finally {
+                        spillBudget.release(blockBytes);
                         lock.unlock();
                     }
                 });
             }
             catch (Exception ex) {
                 //If we hit an exception, make sure we unlock to avoid a deadlock before throwing.
+                spillBudget.release(blockBytes);
                 lock.unlock();
                 throw ex;
             }
@@ -440,10 +512,46 @@ public class S3BlockSpiller
         else {
             SpillLocation spillLocation = write(block);
             spillLocations.add(spillLocation);
-            safeClose(block);
+            allocator.recycleBlock(block);
+        }
+    }
+
+    /**
+     * Spills the provided Block and replaces it with a new in-progress Block if it has exceeded the max block size.
+     *
+     * @param block The in-progress Block.
+     */
+    private void rolloverIfFull(Block block)
+    {
+        if (block.getSize() > spillConfig.getMaxBlockBytes()) {
+            logger.info("rolloverIfFull: Spilling block with {} rows and {} bytes and config {} bytes",
+                    new Object[] {block.getRowCount(), block.getSize(), spillConfig.getMaxBlockBytes()});
+            spillBlock(block);
+            inProgressBlock.set(this.allocator.createBlock(this.schema));
+            inProgressBlock.get().constrain(constraintEvaluator);
         }
     }
 
+    /**
+     * Estimates how many source rows can be written into the provided Block before it reaches the max block size. Until
+     * the Block contains rows we have no estimate of row width, so we fall back to maxRowsPerCall.
+     *
+     * @param block The in-progress Block.
+     * @return The number of source rows to hand to the next BatchWriter call, always at least 1.
+     */
+    private int estimateBatchRows(Block block)
+    {
+        int rowCount = block.getRowCount();
+        long size = block.getSize();
+        if (rowCount == 0 || size == 0) {
+            return (int) Math.max(1, Math.min(maxRowsPerCall, MAX_ROWS_PER_BATCH_CALL));
+        }
+
+        long bytesPerRow = Math.max(1, size / rowCount);
+        long remainingRows = (spillConfig.getMaxBlockBytes() - size) / bytesPerRow;
+        return (int) Math.max(1, Math.min(remainingRows, MAX_ROWS_PER_BATCH_CALL));
+    }
+
     /**
      * Ensures that the initial Block is initialized.
      */
@@ -477,18 +585,15 @@ public class S3BlockSpiller
     }
 
     /**
-     * Closes the supplied AutoCloseable and remaps any actions to Runtime.
-     *
-     * @param block The Block to close.
+     * Gets the max bytes of filled Blocks that may be in flight, by default enough for each spill thread to be spilling
+     * one full Block while another is queued behind it.
      */
-    private void safeClose(AutoCloseable block)
+    private static long getMaxInFlightSpillBytes(SpillConfig config)
     {
-        try {
-            block.close();
-        }
-        catch (Exception ex) {
-            throw new AthenaConnectorException(ex.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
+        if (config.getMaxInFlightSpillBytes() > 0) {
+            return config.getMaxInFlightSpillBytes();
         }
+        return Math.max(1, 2L * config.getNumSpillThreads() * config.getMaxBlockBytes());
     }
 
     /**
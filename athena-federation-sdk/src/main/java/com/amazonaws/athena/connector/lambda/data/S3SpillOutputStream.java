@@ -0,0 +1,251 @@
+package com.amazonaws.athena.connector.lambda.data;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.glue.model.ErrorDetails;
+import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An OutputStream which uploads everything written to it to a single S3 object while holding at most one part's worth
+ * of bytes in memory. If the stream is closed before a full part has been written the object is uploaded with a single
+ * PutObject request, otherwise the object is uploaded using an S3 multipart upload with one part per partBytes written.
+ *
+ * @note If writing to this stream fails part way through, callers must call abort() so that any in-progress multipart
+ * upload does not linger (and accrue storage costs) in the spill bucket.
+ */
+class S3SpillOutputStream
+        extends OutputStream
+{
+    private static final Logger logger = LoggerFactory.getLogger(S3SpillOutputStream.class);
+    //The initial size of the buffer, it grows (up to partBytes) as needed.
+    private static final int MIN_BUFFER_BYTES = 64 * 1024;
+
+    private final S3Client amazonS3;
+    private final String bucket;
+    private final String key;
+    private final Map<String, String> metadata;
+    private final int partBytes;
+    private final PartBuffer buffer;
+    private final List<CompletedPart> completedParts = new ArrayList<>();
+    //Set once the first full part has been written, null if the object will be uploaded with a single PutObject.
+    private String uploadId;
+    private long bytesWritten;
+    //Time spent in calls to S3, the remainder of the time spent writing to this stream is spent producing the bytes.
+    private long uploadNanos;
+    private boolean closed;
+
+    /**
+     * @param amazonS3 The S3Client to use for the upload.
+     * @param bucket The bucket of the object being written.
+     * @param key The key of the object being written.
+     * @param metadata The metadata (headers) to set on the object.
+     * @param partBytes The max number of bytes to buffer in memory, also the size of each part of a multipart upload.
+     * @param sizeHint The expected size of the object, used to size the buffer. May be 0 if unknown.
+     */
+    S3SpillOutputStream(S3Client amazonS3, String bucket, String key, Map<String, String> metadata, long partBytes, long sizeHint)
+    {
+        this.amazonS3 = requireNonNull(amazonS3, "amazonS3 was null");
+        this.bucket = requireNonNull(bucket, "bucket was null");
+        this.key = requireNonNull(key, "key was null");
+        this.metadata = requireNonNull(metadata, "metadata was null");
+        if (partBytes <= 0 || partBytes > Integer.MAX_VALUE) {
+            throw new AthenaConnectorException("partBytes must be between 1 and " + Integer.MAX_VALUE + " but was " + partBytes,
+                    ErrorDetails.builder().errorCode(FederationSourceErrorCode.INVALID_INPUT_EXCEPTION.toString()).build());
+        }
+        this.partBytes = (int) partBytes;
+        this.buffer = new PartBuffer((int) Math.min(partBytes, Math.max(MIN_BUFFER_BYTES, sizeHint)));
+    }
+
+    @Override
+    public void write(int b)
+    {
+        ensureOpen();
+        buffer.write(b);
+        bytesWritten++;
+        if (buffer.size() >= partBytes) {
+            uploadPart();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len)
+    {
+        ensureOpen();
+        while (len > 0) {
+            int chunk = Math.min(len, partBytes - buffer.size());
+            buffer.write(b, off, chunk);
+            bytesWritten += chunk;
+            off += chunk;
+            len -= chunk;
+            if (buffer.size() >= partBytes) {
+                uploadPart();
+            }
+        }
+    }
+
+    /**
+     * Uploads any remaining buffered bytes and completes the upload of the object.
+     */
+    @Override
+    public void close()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (uploadId == null) {
+            long start = System.nanoTime();
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .contentLength((long) buffer.size())
+                    .metadata(metadata)
+                    .build();
+            amazonS3.putObject(request, buffer.toRequestBody());
+            uploadNanos += System.nanoTime() - start;
+            return;
+        }
+
+        if (buffer.size() > 0) {
+            uploadPart();
+        }
+        long start = System.nanoTime();
+        amazonS3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                .build());
+        uploadNanos += System.nanoTime() - start;
+        logger.info("close: Completed multipart upload of {} bytes in {} parts to {}", bytesWritten, completedParts.size(), key);
+    }
+
+    /**
+     * Abandons the object being written, aborting the multipart upload if one was started. This method does not throw
+     * since it is typically called while handling another failure.
+     */
+    void abort()
+    {
+        closed = true;
+        if (uploadId == null) {
+            return;
+        }
+        try {
+            amazonS3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        }
+        catch (RuntimeException ex) {
+            logger.warn("abort: Failed to abort multipart upload {} of {}", uploadId, key, ex);
+        }
+    }
+
+    /**
+     * @return The total number of bytes written to this stream.
+     */
+    long getBytesWritten()
+    {
+        return bytesWritten;
+    }
+
+    /**
+     * @return The number of nanoseconds spent in calls to S3 (uploading) by this stream.
+     */
+    long getUploadNanos()
+    {
+        return uploadNanos;
+    }
+
+    private void uploadPart()
+    {
+        long start = System.nanoTime();
+        if (uploadId == null) {
+            uploadId = amazonS3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .metadata(metadata)
+                    .build()).uploadId();
+            logger.info("uploadPart: Started multipart upload {} of {}", uploadId, key);
+        }
+
+        int partNumber = completedParts.size() + 1;
+        UploadPartResponse response = amazonS3.uploadPart(UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) buffer.size())
+                .build(), buffer.toRequestBody());
+        completedParts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+        buffer.reset();
+        uploadNanos += System.nanoTime() - start;
+    }
+
+    private void ensureOpen()
+    {
+        if (closed) {
+            throw new AthenaConnectorException("Stream for " + key + " is closed.",
+                    ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
+        }
+    }
+
+    /**
+     * Exposes the internal buffer of ByteArrayOutputStream so that parts can be uploaded without copying them.
+     */
+    private static class PartBuffer
+            extends ByteArrayOutputStream
+    {
+        PartBuffer(int size)
+        {
+            super(size);
+        }
+
+        RequestBody toRequestBody()
+        {
+            return RequestBody.fromInputStream(new ByteArrayInputStream(buf, 0, count), count);
+        }
+    }
+}
@@ -64,6 +64,38 @@ public class SimpleBlockWriter
         }
     }
 
+    /**
+     * Used to write a batch of rows into the Block that is managed by this BlockWriter. Since this BlockWriter
+     * manages a single Block, the BatchWriter is given the entire range of source rows in one call.
+     *
+     * @param numRows The number of source rows available to the BatchWriter.
+     * @param batchWriter The BatchWriter that the BlockWriter should use to write rows into the Block it is managing.
+     * @return The total number of rows that were added to the Block.
+     * @See BlockWriter
+     */
+    @Override
+    public int writeBatch(int numRows, BlockWriter.BatchWriter batchWriter)
+    {
+        if (numRows <= 0) {
+            return 0;
+        }
+
+        int rowCount = block.getRowCount();
+
+        int rows;
+        try {
+            rows = batchWriter.writeRows(block, rowCount, 0, numRows);
+        }
+        catch (Exception ex) {
+            throw (ex instanceof RuntimeException) ? (RuntimeException) ex : new RuntimeException(ex);
+        }
+
+        if (rows > 0) {
+            block.setRowCount(rowCount + rows);
+        }
+        return Math.max(rows, 0);
+    }
+
     /**
      * Provides access to the ConstraintEvaluator that will be applied to the generated Blocks.
      *
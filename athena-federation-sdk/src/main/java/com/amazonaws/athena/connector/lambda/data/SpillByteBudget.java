@@ -0,0 +1,122 @@
+package com.amazonaws.athena.connector.lambda.data;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
+import software.amazon.awssdk.services.glue.model.ErrorDetails;
+import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks the bytes of filled Blocks which have been handed off for spilling but not yet written and freed, blocking
+ * callers which would take the total over the configured limit. This lets a fast producer run ahead of the spill
+ * threads by a bounded amount of (off-heap) memory rather than a bounded number of Blocks of unknown size.
+ *
+ * @note A single acquisition larger than the limit is allowed once nothing else is in flight, otherwise an oversized
+ * Block would never be spilled.
+ */
+class SpillByteBudget
+{
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private long inFlightBytes;
+
+    /**
+     * @param maxBytes The max number of bytes that may be in flight at once.
+     */
+    SpillByteBudget(long maxBytes)
+    {
+        if (maxBytes <= 0) {
+            throw new AthenaConnectorException("maxBytes must be greater than 0 but was " + maxBytes,
+                    ErrorDetails.builder().errorCode(FederationSourceErrorCode.INVALID_INPUT_EXCEPTION.toString()).build());
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Reserves the requested number of bytes, waiting for in flight spills to release theirs if needed.
+     *
+     * @param bytes The number of bytes to reserve.
+     * @return The number of nanoseconds spent waiting for the reservation.
+     */
+    long acquire(long bytes)
+    {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            while (inFlightBytes > 0 && inFlightBytes + bytes > maxBytes) {
+                released.await();
+            }
+            inFlightBytes += bytes;
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AthenaConnectorException("Interrupted while waiting for in flight spills to complete.",
+                    ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).build());
+        }
+        finally {
+            lock.unlock();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Returns bytes previously reserved via acquire(...), waking any waiting callers.
+     *
+     * @param bytes The number of bytes to release.
+     */
+    void release(long bytes)
+    {
+        lock.lock();
+        try {
+            inFlightBytes = Math.max(0, inFlightBytes - bytes);
+            released.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of bytes currently reserved.
+     */
+    long getInFlightBytes()
+    {
+        lock.lock();
+        try {
+            return inFlightBytes;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The max number of bytes that may be in flight at once.
+     */
+    long getMaxBytes()
+    {
+        return maxBytes;
+    }
+}
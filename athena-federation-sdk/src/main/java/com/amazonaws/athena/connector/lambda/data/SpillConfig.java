@@ -21,7 +21,11 @@ package com.amazonaws.athena.connector.lambda.data;
  */
 
 import com.amazonaws.athena.connector.lambda.domain.spill.SpillLocation;
+import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
 import com.amazonaws.athena.connector.lambda.security.EncryptionKey;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import software.amazon.awssdk.services.glue.model.ErrorDetails;
+import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
 
 import static java.util.Objects.requireNonNull;
 
@@ -32,6 +36,10 @@ public class SpillConfig
 {
     //The default number of threads to use for async spill operations. 0 indicates that the calling thread should be used.
     private static final int DEFAULT_SPILL_THREADS = 1;
+    //The default size of each part of a multipart spill upload, S3 requires every part but the last to be at least 5MB.
+    private static final long DEFAULT_SPILL_PART_BYTES = 8 * 1024 * 1024;
+    //The minimum size of every part but the last of an S3 multipart upload, smaller parts fail with EntityTooSmall.
+    private static final long MIN_SPILL_PART_BYTES = 5 * 1024 * 1024;
     //The encryption key that should be used to read/write spilled data. If null, encryption is disabled.
     private final EncryptionKey encryptionKey;
     //The location where the data is spilled.
@@ -44,6 +52,13 @@ public class SpillConfig
     private final long maxInlineBlockSize;
     //The default number of threads to use for async spill operations. 0 indicates that the calling thread should be used.
     private final int numSpillThreads;
+    //The max bytes of a spilled Block that are buffered in memory before being uploaded as one part of a multipart upload.
+    private final long spillPartBytes;
+    //The Apache Arrow IPC body compression to apply to spilled Blocks.
+    private final CompressionUtil.CodecType spillCompression;
+    //The max bytes of filled Blocks that may be queued or being spilled at once. 0 indicates it should be derived from
+    //numSpillThreads and maxBlockBytes.
+    private final long maxInFlightSpillBytes;
 
     private SpillConfig(Builder builder)
     {
@@ -53,6 +68,9 @@ public class SpillConfig
         maxBlockBytes = builder.maxBlockBytes;
         maxInlineBlockSize = builder.maxInlineBlockSize;
         numSpillThreads = builder.numSpillThreads;
+        spillPartBytes = builder.spillPartBytes;
+        spillCompression = requireNonNull(builder.spillCompression, "spillCompression was null");
+        maxInFlightSpillBytes = builder.maxInFlightSpillBytes;
     }
 
     /**
@@ -112,6 +130,38 @@ public class SpillConfig
         return numSpillThreads;
     }
 
+    /**
+     * Gets the max number of bytes of a spilled Block that are buffered in memory while it is being uploaded. Spilled
+     * Blocks that are larger than this are uploaded in parts of this size using an S3 multipart upload.
+     * @return The number of bytes.
+     */
+    public long getSpillPartBytes()
+    {
+        return spillPartBytes;
+    }
+
+    /**
+     * Gets the Apache Arrow IPC body compression (LZ4 frame or ZSTD) applied to the record batches of spilled Blocks.
+     * Compressed batches are self describing, S3BlockSpillReader (and Block.loadRecordBatch) decode them transparently.
+     * @return The compression codec type, NO_COMPRESSION by default.
+     * @note This is opt-in because every reader of the spilled data must support Apache Arrow IPC body compression.
+     */
+    public CompressionUtil.CodecType getSpillCompression()
+    {
+        return spillCompression;
+    }
+
+    /**
+     * Gets the max number of bytes of filled Blocks which may be waiting to be spilled, or being spilled, at any one
+     * time. Once this is reached, calls which fill a Block block until an in flight spill completes.
+     * @return The number of bytes, 0 if the BlockSpiller should derive it from the number of spill threads and the max
+     * Block size.
+     */
+    public long getMaxInFlightSpillBytes()
+    {
+        return maxInFlightSpillBytes;
+    }
+
     public static Builder newBuilder()
     {
         return new Builder();
@@ -122,6 +172,9 @@ public class SpillConfig
         Builder builder = new Builder();
         builder.encryptionKey = copy.getEncryptionKey();
         builder.maxBlockBytes = copy.getMaxBlockBytes();
+        builder.spillPartBytes = copy.getSpillPartBytes();
+        builder.spillCompression = copy.getSpillCompression();
+        builder.maxInFlightSpillBytes = copy.getMaxInFlightSpillBytes();
         return builder;
     }
 
@@ -133,6 +186,9 @@ public class SpillConfig
         private long maxBlockBytes;
         private long maxInlineBlockSize;
         private int numSpillThreads = DEFAULT_SPILL_THREADS;
+        private long spillPartBytes = DEFAULT_SPILL_PART_BYTES;
+        private CompressionUtil.CodecType spillCompression = CompressionUtil.CodecType.NO_COMPRESSION;
+        private long maxInFlightSpillBytes;
 
         private Builder() {}
 
@@ -172,8 +228,30 @@ public class SpillConfig
             return this;
         }
 
+        public Builder withSpillPartBytes(long val)
+        {
+            spillPartBytes = val;
+            return this;
+        }
+
+        public Builder withSpillCompression(CompressionUtil.CodecType val)
+        {
+            spillCompression = val;
+            return this;
+        }
+
+        public Builder withMaxInFlightSpillBytes(long val)
+        {
+            maxInFlightSpillBytes = val;
+            return this;
+        }
+
         public SpillConfig build()
         {
+            if (spillPartBytes < MIN_SPILL_PART_BYTES) {
+                throw new AthenaConnectorException("spillPartBytes must be at least " + MIN_SPILL_PART_BYTES + " but was " + spillPartBytes,
+                        ErrorDetails.builder().errorCode(FederationSourceErrorCode.INVALID_INPUT_EXCEPTION.toString()).build());
+            }
             return new SpillConfig(this);
         }
     }
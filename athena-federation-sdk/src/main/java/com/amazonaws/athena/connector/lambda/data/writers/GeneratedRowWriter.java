@@ -47,8 +47,10 @@ import com.amazonaws.athena.connector.lambda.data.writers.fieldwriters.SmallIntF
 import com.amazonaws.athena.connector.lambda.data.writers.fieldwriters.TinyIntFieldWriter;
 import com.amazonaws.athena.connector.lambda.data.writers.fieldwriters.VarBinaryFieldWriter;
 import com.amazonaws.athena.connector.lambda.data.writers.fieldwriters.VarCharFieldWriter;
+import com.amazonaws.athena.connector.lambda.domain.predicate.CompiledRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintProjector;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
 import com.google.common.collect.ImmutableMap;
@@ -72,8 +74,10 @@ import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.glue.model.ErrorDetails;
 import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -85,11 +89,15 @@ public class GeneratedRowWriter
     private static final Logger logger = LoggerFactory.getLogger(GeneratedRowWriter.class);
     private final LinkedHashMap<String, Extractor> extractors = new LinkedHashMap<>();
     private final LinkedHashMap<String, FieldWriterFactory> fieldWriterFactories = new LinkedHashMap<>();
+    //The max number of Blocks whose FieldWriters we keep, see checkAndRecompile(...)
+    private static final int MAX_COMPILED_BLOCKS = 4;
     private List<FieldWriter> fieldWriters = new ArrayList<>();
     private LinkedHashMap<String, ConstraintProjector> constraints = new LinkedHashMap<>();
 
     //holds the last block that was used to generate our FieldWriters
     private Block block;
+    //the most recently used blocks and their FieldWriters, most recent first
+    private final ArrayDeque<CompiledBlock> compiledBlocks = new ArrayDeque<>();
 
     private GeneratedRowWriter(RowWriterBuilder builder)
     {
@@ -126,19 +134,47 @@ public class GeneratedRowWriter
 
     private ConstraintProjector makeConstraintProjector(ValueSet constraint)
     {
+        //The compiled form lets the FieldWriters for fixed width types test values without boxing them.
+        if (constraint instanceof SortedRangeSet) {
+            CompiledRangeSet compiled = ((SortedRangeSet) constraint).compile();
+            if (compiled != null) {
+                return compiled;
+            }
+        }
         return (Object value) -> constraint.containsValue(value);
     }
 
+    /**
+     * Points our FieldWriters at the vectors of the given Block. A Block's vectors never change so, since the
+     * BlockAllocator hands the same few (recycled) Blocks back to a BlockSpiller as it rolls over, the FieldWriters of
+     * recently used Blocks are kept and reused rather than rebuilt on every rollover.
+     */
     private void checkAndRecompile(Block block)
     {
-        if (this.block != block) {
-            logger.info("recompile: Detected a new block, rebuilding field writers so they point to the correct Arrow vectors.");
-            this.block = block;
-            fieldWriters.clear();
-            for (FieldVector vector : block.getFieldVectors()) {
-                fieldWriters.add(makeFieldWriter(vector));
+        if (this.block == block) {
+            return;
+        }
+
+        this.block = block;
+        for (Iterator<CompiledBlock> itr = compiledBlocks.iterator(); itr.hasNext(); ) {
+            CompiledBlock next = itr.next();
+            if (next.block == block) {
+                itr.remove();
+                compiledBlocks.addFirst(next);
+                fieldWriters = next.fieldWriters;
+                return;
             }
         }
+
+        logger.info("recompile: Detected a new block, rebuilding field writers so they point to the correct Arrow vectors.");
+        fieldWriters = new ArrayList<>();
+        for (FieldVector vector : block.getFieldVectors()) {
+            fieldWriters.add(makeFieldWriter(vector));
+        }
+        if (compiledBlocks.size() >= MAX_COMPILED_BLOCKS) {
+            compiledBlocks.removeLast();
+        }
+        compiledBlocks.addFirst(new CompiledBlock(block, fieldWriters));
     }
 
     private FieldWriter makeFieldWriter(FieldVector vector)
@@ -188,6 +224,18 @@ public class GeneratedRowWriter
         }
     }
 
+    private static class CompiledBlock
+    {
+        private final Block block;
+        private final List<FieldWriter> fieldWriters;
+
+        private CompiledBlock(Block block, List<FieldWriter> fieldWriters)
+        {
+            this.block = block;
+            this.fieldWriters = fieldWriters;
+        }
+    }
+
     public static class RowWriterBuilder
     {
         private final Constraints constraints;
@@ -20,9 +20,11 @@
 package com.amazonaws.athena.connector.lambda.data.writers.fieldwriters;
 
 import com.amazonaws.athena.connector.lambda.data.writers.extractors.BigIntExtractor;
+import com.amazonaws.athena.connector.lambda.domain.predicate.CompiledRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintProjector;
 import org.apache.arrow.vector.BigIntVector;
 import org.apache.arrow.vector.holders.NullableBigIntHolder;
+import org.apache.arrow.vector.types.Types;
 
 /**
  * Used to write a value and apply constraints for a particular column to the row currently being processed.
@@ -53,7 +55,11 @@ public class BigIntFieldWriter
     {
         this.extractor = extractor;
         this.vector = vector;
-        if (rawConstraint != null) {
+        if (rawConstraint instanceof CompiledRangeSet && ((CompiledRangeSet) rawConstraint).getMinorType() == Types.MinorType.BIGINT) {
+            CompiledRangeSet rangeSet = (CompiledRangeSet) rawConstraint;
+            constraint = (NullableBigIntHolder value) -> value.isSet == 0 ? rangeSet.isNullAllowed() : rangeSet.contains(value.value);
+        }
+        else if (rawConstraint != null) {
             constraint = (NullableBigIntHolder value) -> rawConstraint.apply(value.isSet == 0 ? null : value.value);
         }
         else {
@@ -20,9 +20,11 @@
 package com.amazonaws.athena.connector.lambda.data.writers.fieldwriters;
 
 import com.amazonaws.athena.connector.lambda.data.writers.extractors.DateDayExtractor;
+import com.amazonaws.athena.connector.lambda.domain.predicate.CompiledRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintProjector;
 import org.apache.arrow.vector.DateDayVector;
 import org.apache.arrow.vector.holders.NullableDateDayHolder;
+import org.apache.arrow.vector.types.Types;
 
 /**
  * Used to write a value and apply constraints for a particular column to the row currently being processed.
@@ -53,7 +55,11 @@ public class DateDayFieldWriter
     {
         this.extractor = extractor;
         this.vector = vector;
-        if (rawConstraint != null) {
+        if (rawConstraint instanceof CompiledRangeSet && ((CompiledRangeSet) rawConstraint).getMinorType() == Types.MinorType.DATEDAY) {
+            CompiledRangeSet rangeSet = (CompiledRangeSet) rawConstraint;
+            constraint = (NullableDateDayHolder value) -> value.isSet == 0 ? rangeSet.isNullAllowed() : rangeSet.contains(value.value);
+        }
+        else if (rawConstraint != null) {
             constraint = (NullableDateDayHolder value) -> rawConstraint.apply(value.isSet == 0 ? null : value.value);
         }
         else {
@@ -20,9 +20,11 @@
 package com.amazonaws.athena.connector.lambda.data.writers.fieldwriters;
 
 import com.amazonaws.athena.connector.lambda.data.writers.extractors.DateMilliExtractor;
+import com.amazonaws.athena.connector.lambda.domain.predicate.CompiledRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintProjector;
 import org.apache.arrow.vector.DateMilliVector;
 import org.apache.arrow.vector.holders.NullableDateMilliHolder;
+import org.apache.arrow.vector.types.Types;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -57,7 +59,11 @@ public class DateMilliFieldWriter
     {
         this.extractor = extractor;
         this.vector = vector;
-        if (rawConstraint != null) {
+        if (rawConstraint instanceof CompiledRangeSet && ((CompiledRangeSet) rawConstraint).getMinorType() == Types.MinorType.DATEMILLI) {
+            CompiledRangeSet rangeSet = (CompiledRangeSet) rawConstraint;
+            constraint = (NullableDateMilliHolder value) -> value.isSet == 0 ? rangeSet.isNullAllowed() : rangeSet.contains(value.value);
+        }
+        else if (rawConstraint != null) {
             constraint = (NullableDateMilliHolder value) -> rawConstraint.apply(value.isSet == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(value.value), ZoneOffset.UTC));
         }
         else {
@@ -20,9 +20,11 @@
  package com.amazonaws.athena.connector.lambda.data.writers.fieldwriters;
 
  import com.amazonaws.athena.connector.lambda.data.writers.extractors.Float4Extractor;
+ import com.amazonaws.athena.connector.lambda.domain.predicate.CompiledRangeSet;
  import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintProjector;
  import org.apache.arrow.vector.Float4Vector;
  import org.apache.arrow.vector.holders.NullableFloat4Holder;
+ import org.apache.arrow.vector.types.Types;
 
  /**
   * Used to write a value and apply constraints for a particular column to the row currently being processed.
@@ -53,7 +55,11 @@
      {
          this.extractor = extractor;
          this.vector = vector;
-         if (rawConstraint != null) {
+         if (rawConstraint instanceof CompiledRangeSet && ((CompiledRangeSet) rawConstraint).getMinorType() == Types.MinorType.FLOAT4) {
+             CompiledRangeSet rangeSet = (CompiledRangeSet) rawConstraint;
+             constraint = (NullableFloat4Holder value) -> value.isSet == 0 ? rangeSet.isNullAllowed() : rangeSet.contains(value.value);
+         }
+         else if (rawConstraint != null) {
              constraint = (NullableFloat4Holder value) -> rawConstraint.apply(value.isSet == 0 ? null : value.value);
          }
          else {
@@ -0,0 +1,370 @@
+package com.amazonaws.athena.connector.lambda.domain.predicate;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The compiled form of a SortedRangeSet over a fixed width type. The ranges are held as sorted, disjoint, inclusive
+ * [low, high] pairs of primitive longs which lets contains(long) and contains(double) answer with a binary search
+ * and without creating a Marker (or any other object) per value.
+ * <p>
+ * Values are mapped to longs as follows:
+ * 1. TINYINT, SMALLINT, INT and BIGINT use the value itself.
+ * 2. DATEDAY uses days since epoch and DATEMILLI uses millis since epoch (UTC), the same as their Apache Arrow vectors.
+ * 3. DECIMAL uses the unscaled value at the scale of the type, the same as the Apache Arrow DecimalVector.
+ * 4. FLOAT4 and FLOAT8 use an order preserving transform of the value's bits which matches the ordering of
+ * Double.compare(...), and therefore ArrowTypeComparator, including the handling of NaN and -0.0.
+ * <p>
+ * Use SortedRangeSet.compile() to obtain an instance, it returns null if the set can not be compiled.
+ */
+public final class CompiledRangeSet
+        implements ConstraintProjector
+{
+    private static final int NANOS_PER_MILLI = 1_000_000;
+
+    private final SortedRangeSet source;
+    private final Types.MinorType minorType;
+    //Only meaningful for DECIMAL.
+    private final int scale;
+    private final long[] lows;
+    private final long[] highs;
+    private final boolean nullAllowed;
+
+    private CompiledRangeSet(SortedRangeSet source, Types.MinorType minorType, int scale, long[] lows, long[] highs)
+    {
+        this.source = source;
+        this.minorType = minorType;
+        this.scale = scale;
+        this.lows = lows;
+        this.highs = highs;
+        this.nullAllowed = source.isNullAllowed();
+    }
+
+    /**
+     * Compiles the provided SortedRangeSet.
+     *
+     * @param rangeSet The SortedRangeSet to compile.
+     * @return The CompiledRangeSet or null if the type is not supported or a bound is not of the expected java type.
+     */
+    static CompiledRangeSet of(SortedRangeSet rangeSet)
+    {
+        ArrowType type = rangeSet.getType();
+        Types.MinorType minorType = Types.getMinorTypeForArrowType(type);
+        int scale = 0;
+        switch (minorType) {
+            case TINYINT:
+            case SMALLINT:
+            case INT:
+            case BIGINT:
+            case DATEDAY:
+            case DATEMILLI:
+            case FLOAT4:
+            case FLOAT8:
+                break;
+            case DECIMAL:
+                scale = ((ArrowType.Decimal) type).getScale();
+                break;
+            default:
+                return null;
+        }
+
+        List<Range> ranges = rangeSet.getOrderedRanges();
+        long[] lows = new long[ranges.size()];
+        long[] highs = new long[ranges.size()];
+        int size = 0;
+        for (Range next : ranges) {
+            Marker low = next.getLow();
+            Marker high = next.getHigh();
+            long lowBound = Long.MIN_VALUE;
+            long highBound = Long.MAX_VALUE;
+            if (!low.isLowerUnbounded()) {
+                Bound bound = Bound.of(minorType, scale, low.getValue());
+                if (bound == null) {
+                    return null;
+                }
+                //An inexact bound falls between two keys so only the key above it can satisfy value >= bound.
+                if (bound == Bound.BELOW_ALL) {
+                    lowBound = Long.MIN_VALUE;
+                }
+                else if (!bound.exact || low.getBound() == Marker.Bound.ABOVE) {
+                    if (bound.floor == Long.MAX_VALUE) {
+                        continue;
+                    }
+                    lowBound = bound.floor + 1;
+                }
+                else {
+                    lowBound = bound.floor;
+                }
+            }
+            if (!high.isUpperUnbounded()) {
+                Bound bound = Bound.of(minorType, scale, high.getValue());
+                if (bound == null) {
+                    return null;
+                }
+                if (bound == Bound.BELOW_ALL) {
+                    continue;
+                }
+                else if (bound.exact && high.getBound() == Marker.Bound.BELOW) {
+                    if (bound.floor == Long.MIN_VALUE) {
+                        continue;
+                    }
+                    highBound = bound.floor - 1;
+                }
+                else {
+                    highBound = bound.floor;
+                }
+            }
+            if (lowBound > highBound) {
+                continue;
+            }
+            lows[size] = lowBound;
+            highs[size] = highBound;
+            size++;
+        }
+        return new CompiledRangeSet(rangeSet, minorType, scale, Arrays.copyOf(lows, size), Arrays.copyOf(highs, size));
+    }
+
+    /**
+     * @return The minor type of the values in this set.
+     */
+    public Types.MinorType getMinorType()
+    {
+        return minorType;
+    }
+
+    /**
+     * @return The scale that DECIMAL values passed to contains(long) are expected to have, 0 for all other types.
+     */
+    public int getScale()
+    {
+        return scale;
+    }
+
+    /**
+     * @return True if NULL satisfies this set, False otherwise.
+     */
+    public boolean isNullAllowed()
+    {
+        return nullAllowed;
+    }
+
+    /**
+     * Tests if the value is contained in this set. Applicable to the integral, date and DECIMAL types, see the class
+     * documentation for how values of each type are represented.
+     *
+     * @param value The value to test.
+     * @return True if the value is contained in this set, False otherwise.
+     */
+    public boolean contains(long value)
+    {
+        int length = lows.length;
+        if (length == 0) {
+            return false;
+        }
+        //Find the last range whose low bound is <= value, the ternary keeps the loop free of unpredictable branches.
+        int base = 0;
+        while (length > 1) {
+            int half = length >>> 1;
+            base = (lows[base + half] <= value) ? base + half : base;
+            length -= half;
+        }
+        return lows[base] <= value && value <= highs[base];
+    }
+
+    /**
+     * Tests if the value is contained in this set. Applicable to FLOAT4 and FLOAT8.
+     *
+     * @param value The value to test.
+     * @return True if the value is contained in this set, False otherwise.
+     */
+    public boolean contains(double value)
+    {
+        return contains(sortableBits(value));
+    }
+
+    /**
+     * Conveys if containsValue(Object) can evaluate the given value directly. This is the case for NULL and for the
+     * java types that the Apache Arrow vector of this type natively maps to.
+     *
+     * @param value The value to check.
+     * @return True if containsValue(Object) can evaluate the value, False if the value should be converted first, for
+     * example by evaluating it as a Marker.
+     */
+    public boolean accepts(Object value)
+    {
+        if (value == null) {
+            return true;
+        }
+        switch (minorType) {
+            case TINYINT:
+                return value instanceof Byte;
+            case SMALLINT:
+                return value instanceof Short;
+            case INT:
+                return value instanceof Integer;
+            case BIGINT:
+                return value instanceof Long;
+            case DATEDAY:
+                return value instanceof Integer || value instanceof LocalDate;
+            case DATEMILLI:
+                //Sub-millisecond values are left to the caller since callers differ in whether they truncate them.
+                return (value instanceof LocalDateTime && ((LocalDateTime) value).getNano() % NANOS_PER_MILLI == 0)
+                        || value instanceof Date || value instanceof Instant || value instanceof Long;
+            case FLOAT4:
+                return value instanceof Float;
+            case FLOAT8:
+                return value instanceof Double;
+            case DECIMAL:
+                return value instanceof BigDecimal && ((BigDecimal) value).scale() <= scale
+                        && ((BigDecimal) value).setScale(scale).unscaledValue().bitLength() < Long.SIZE;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Tests if the value is contained in this set, the value must be one that accepts(Object) returns true for.
+     *
+     * @param value The value to test.
+     * @return True if the value is contained in this set, False otherwise.
+     */
+    public boolean containsValue(Object value)
+    {
+        if (value == null) {
+            return nullAllowed;
+        }
+        switch (minorType) {
+            case DATEDAY:
+                return contains((value instanceof LocalDate) ? ((LocalDate) value).toEpochDay() : (Integer) value);
+            case DATEMILLI:
+                return contains(toEpochMilli(value));
+            case FLOAT4:
+            case FLOAT8:
+                return contains(((Number) value).doubleValue());
+            case DECIMAL:
+                return contains(((BigDecimal) value).setScale(scale).unscaledValue().longValue());
+            default:
+                return contains(((Number) value).longValue());
+        }
+    }
+
+    /**
+     * Evaluates the value against this set, falling back to the source SortedRangeSet for values that are not
+     * accepted by containsValue(Object).
+     *
+     * @param value The value to test.
+     * @return True if the value is contained in this set, False otherwise.
+     */
+    @Override
+    public boolean apply(Object value)
+    {
+        return accepts(value) ? containsValue(value) : source.containsValue(value);
+    }
+
+    /**
+     * Maps a double to a long such that the signed ordering of the longs matches the ordering of Double.compare(...).
+     */
+    private static long sortableBits(double value)
+    {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static long toEpochMilli(Object value)
+    {
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        else if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        else if (value instanceof Instant) {
+            return ((Instant) value).toEpochMilli();
+        }
+        return (Long) value;
+    }
+
+    /**
+     * A range bound expressed as the largest key that is <= the bound along with whether the key equals the bound.
+     * DECIMAL bounds beyond the range of a long are saturated, those above it become an inexact Long.MAX_VALUE while
+     * those below it become BELOW_ALL. Values beyond the range of a long are never probed via contains(long).
+     */
+    private static class Bound
+    {
+        private static final Bound BELOW_ALL = new Bound(Long.MIN_VALUE, false);
+
+        private final long floor;
+        private final boolean exact;
+
+        private Bound(long floor, boolean exact)
+        {
+            this.floor = floor;
+            this.exact = exact;
+        }
+
+        /**
+         * @return The Bound for the given value or null if it can not be represented as a long key.
+         */
+        static Bound of(Types.MinorType minorType, int scale, Object value)
+        {
+            switch (minorType) {
+                case FLOAT4:
+                case FLOAT8:
+                    return (value instanceof Float || value instanceof Double) ? new Bound(sortableBits(((Number) value).doubleValue()), true) : null;
+                case DECIMAL:
+                    if (!(value instanceof BigDecimal)) {
+                        return null;
+                    }
+                    BigDecimal decimal = (BigDecimal) value;
+                    BigInteger floor = decimal.setScale(scale, RoundingMode.FLOOR).unscaledValue();
+                    if (floor.bitLength() >= Long.SIZE) {
+                        return (floor.signum() > 0) ? new Bound(Long.MAX_VALUE, false) : BELOW_ALL;
+                    }
+                    return new Bound(floor.longValue(), decimal.scale() <= scale || decimal.compareTo(new BigDecimal(floor, scale)) == 0);
+                case DATEMILLI:
+                    if (!(value instanceof LocalDateTime)) {
+                        return null;
+                    }
+                    LocalDateTime dateTime = (LocalDateTime) value;
+                    //toEpochMilli() floors any sub-millisecond part.
+                    return new Bound(dateTime.toInstant(ZoneOffset.UTC).toEpochMilli(), dateTime.getNano() % NANOS_PER_MILLI == 0);
+                default:
+                    if (value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long) {
+                        return new Bound(((Number) value).longValue(), true);
+                    }
+                    return null;
+            }
+        }
+    }
+}
@@ -22,16 +22,20 @@ package com.amazonaws.athena.connector.lambda.domain.predicate;
 
 import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 
@@ -43,6 +47,9 @@ import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints
  * <p>
  * After being used, ConstraintEvaluator instance must be closed to ensure no Apache Arrow resources used by
  * Markers that it creates as part of evaluation are leaked.
+ * <p>
+ * If your values are already held in Apache Arrow vectors, the vectorized apply(...) evaluates a whole range of rows
+ * into a selection mask and, for the common types, does so without creating a Marker per value (see VectorConstraints).
  *
  * @note This abstraction works well for the associative predicates that are made available to your connector
  * today but will likely require enhancement as we expose more sophisticated predicates (e.g. col1 + col2 < 100)
@@ -67,6 +74,10 @@ public class ConstraintEvaluator
     private final MarkerFactory markerFactory;
     //Holds the type for each field.
     private final Map<String, ArrowType> typeMap = new HashMap<>();
+    //Holds the vectorized form of each field's constraints, compiled the first time a vector of that field is evaluated.
+    private final Map<String, Optional<VectorConstraint>> vectorConstraints = new ConcurrentHashMap<>();
+    //Holds the compiled form of each field's SortedRangeSet, if any, compiled the first time a value of that field is evaluated.
+    private final Map<String, Optional<CompiledRangeSet>> compiledRangeSets = new ConcurrentHashMap<>();
 
     public ConstraintEvaluator(BlockAllocator allocator, Schema schema, Constraints constraints)
     {
@@ -103,6 +114,10 @@ public class ConstraintEvaluator
             }
             ValueSet constraint = constraints.getSummary().get(fieldName);
             if (constraint != null && typeMap.get(fieldName) != null) {
+                CompiledRangeSet compiledRangeSet = getCompiledRangeSet(fieldName, constraint);
+                if (compiledRangeSet != null && compiledRangeSet.accepts(value)) {
+                    return compiledRangeSet.containsValue(value);
+                }
                 try (Marker marker = markerFactory.createNullable(typeMap.get(fieldName),
                         value,
                         Marker.Bound.EXACTLY)) {
@@ -117,10 +132,82 @@ public class ConstraintEvaluator
         }
     }
 
+    /**
+     * Used to apply the constraints on the given field to a range of values in an Apache Arrow vector. Bit i of the
+     * selection corresponds to row (offset + i) of the vector, only rows that are still selected are tested and the
+     * bits of rows that fail the constraints are cleared.
+     *
+     * @param fieldName The name of the field whoe's constraints we'd like to apply to the vector.
+     * @param vector The vector holding the values to test.
+     * @param offset The first row of the vector to test.
+     * @param count The number of rows, starting at offset, to test.
+     * @param selection The selection mask to update.
+     */
+    public void apply(String fieldName, FieldVector vector, int offset, int count, BitSet selection)
+    {
+        if (constraints.getSummary() == null || constraints.getSummary().get(fieldName) == null) {
+            return;
+        }
+
+        VectorConstraint vectorConstraint = getVectorConstraint(fieldName, vector);
+        if (vectorConstraint != null) {
+            vectorConstraint.apply(vector, offset, count, selection);
+            return;
+        }
+
+        for (int i = selection.nextSetBit(0); i >= 0 && i < count; i = selection.nextSetBit(i + 1)) {
+            if (!apply(fieldName, vector.getObject(offset + i))) {
+                selection.clear(i);
+            }
+        }
+    }
+
+    /**
+     * Gets (compiling if needed) the VectorConstraint for the given field, provided the vector is of the field's type.
+     *
+     * @return The VectorConstraint or null if the constraint has no vectorized form or the vector's type does not match.
+     */
+    private VectorConstraint getVectorConstraint(String fieldName, FieldVector vector)
+    {
+        ArrowType type = typeMap.get(fieldName);
+        if (type == null || Types.getMinorTypeForArrowType(type) != vector.getMinorType()) {
+            return null;
+        }
+
+        return vectorConstraints.computeIfAbsent(fieldName, (String key) -> {
+            ValueSet constraint = constraints.getSummary().get(key);
+            if (Types.getMinorTypeForArrowType(constraint.getType()) != vector.getMinorType()) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(VectorConstraints.compile(constraint));
+        }).orElse(null);
+    }
+
+    /**
+     * Gets (compiling if needed) the CompiledRangeSet for the given field, provided the field's constraint is a
+     * SortedRangeSet of exactly the field's type. The latter ensures the compiled form sees values exactly as the Marker
+     * created for them would.
+     *
+     * @return The CompiledRangeSet or null if the constraint can not be evaluated in its compiled form.
+     */
+    private CompiledRangeSet getCompiledRangeSet(String fieldName, ValueSet constraint)
+    {
+        return compiledRangeSets.computeIfAbsent(fieldName, (String key) -> {
+            if (!(constraint instanceof SortedRangeSet) || !constraint.getType().equals(typeMap.get(key))) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(((SortedRangeSet) constraint).compile());
+        }).orElse(null);
+    }
+
     public Optional<ConstraintProjector> makeConstraintProjector(String fieldName)
     {
         ValueSet constraint = constraints.getSummary().get(fieldName);
         if (constraint != null && typeMap.get(fieldName) != null) {
+            CompiledRangeSet compiledRangeSet = getCompiledRangeSet(fieldName, constraint);
+            if (compiledRangeSet != null) {
+                return Optional.of(compiledRangeSet);
+            }
             return Optional.of((Object value) -> constraint.containsValue(value));
         }
         return Optional.empty();
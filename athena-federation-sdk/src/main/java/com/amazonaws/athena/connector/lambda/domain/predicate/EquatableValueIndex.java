@@ -0,0 +1,251 @@
+package com.amazonaws.athena.connector.lambda.domain.predicate;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.amazonaws.athena.connector.lambda.data.Block;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.reader.FieldReader;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.util.Text;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A hash index over the values of an EquatableValueSet which replaces the linear scan of the value Block when probing
+ * for membership. Integral, date and floating point values are keyed by a primitive long in an open addressing hash set
+ * while VARCHAR values are keyed by their UTF-8 bytes, which lets vector probes skip decoding each value into a String.
+ * <p>
+ * Equality follows ArrowTypeComparator, floating point values are keyed by their bit pattern which matches the
+ * semantics of Double.compare and Float.compare (e.g. all NaNs are equal and -0.0 differs from 0.0).
+ */
+final class EquatableValueIndex
+{
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final Types.MinorType minorType;
+    //Populated for all supported types other than VARCHAR.
+    private final LongHashSet longValues;
+    //Populated only for VARCHAR.
+    private final Set<ByteBuffer> byteValues;
+
+    private EquatableValueIndex(Types.MinorType minorType, LongHashSet longValues, Set<ByteBuffer> byteValues)
+    {
+        this.minorType = minorType;
+        this.longValues = longValues;
+        this.byteValues = byteValues;
+    }
+
+    /**
+     * Builds an index over the non-null values in the given column of the Block.
+     *
+     * @param valueBlock The Block holding the values of the EquatableValueSet.
+     * @param column The name of the column holding the values.
+     * @return The index, or null if the column's type can not be indexed.
+     */
+    static EquatableValueIndex build(Block valueBlock, String column)
+    {
+        FieldReader reader = valueBlock.getFieldReader(column);
+        Types.MinorType minorType = reader.getMinorType();
+        if (!isSupported(minorType)) {
+            return null;
+        }
+
+        int rowCount = valueBlock.getRowCount();
+        LongHashSet longValues = (minorType == Types.MinorType.VARCHAR) ? null : new LongHashSet(rowCount);
+        Set<ByteBuffer> byteValues = (minorType == Types.MinorType.VARCHAR) ? new HashSet<>(rowCount * 2) : null;
+        for (int i = 0; i < rowCount; i++) {
+            reader.setPosition(i);
+            Object value = reader.readObject();
+            if (value == null) {
+                //Null entries never match a non-null probe, nulls are governed by the ValueSet's nullAllowed flag.
+                continue;
+            }
+            if (byteValues != null) {
+                ByteBuffer key = toBytes(value);
+                byteValues.add(ByteBuffer.wrap(Arrays.copyOfRange(key.array(), key.position(), key.limit())));
+            }
+            else if (minorType != Types.MinorType.DATEMILLI || isWholeMillis((LocalDateTime) value)) {
+                longValues.add(toLong(minorType, value));
+            }
+        }
+        return new EquatableValueIndex(minorType, longValues, byteValues);
+    }
+
+    private static boolean isSupported(Types.MinorType minorType)
+    {
+        switch (minorType) {
+            case TINYINT:
+            case SMALLINT:
+            case INT:
+            case BIGINT:
+            case DATEDAY:
+            case DATEMILLI:
+            case FLOAT4:
+            case FLOAT8:
+            case VARCHAR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Tests if the index contains the provided value.
+     *
+     * @param value The value to test, must not be null.
+     * @return True if the value is present in the index, false otherwise.
+     */
+    boolean contains(Object value)
+    {
+        if (byteValues != null) {
+            return byteValues.contains(toBytes(value));
+        }
+        if (minorType == Types.MinorType.DATEMILLI && !isWholeMillis((LocalDateTime) value)) {
+            //The stored values have millisecond precision so a finer grained value can never be equal to one of them.
+            return false;
+        }
+        return longValues.contains(toLong(minorType, value));
+    }
+
+    /**
+     * Tests if the index contains the value at the given row of the vector. The vector must be of the same type as the
+     * values in the index.
+     *
+     * @param vector The vector to read the value from.
+     * @param row The row to read, must not be null.
+     * @return True if the value is present in the index, false otherwise.
+     */
+    boolean contains(FieldVector vector, int row)
+    {
+        switch (minorType) {
+            case VARCHAR:
+                return byteValues.contains(ByteBuffer.wrap(((VarCharVector) vector).get(row)));
+            case DATEDAY:
+                return longValues.contains(((DateDayVector) vector).get(row));
+            case DATEMILLI:
+                return longValues.contains(((DateMilliVector) vector).get(row));
+            case FLOAT4:
+                return longValues.contains(Float.floatToIntBits(((Float4Vector) vector).get(row)));
+            case FLOAT8:
+                return longValues.contains(Double.doubleToLongBits(((Float8Vector) vector).get(row)));
+            default:
+                return longValues.contains(((BaseIntVector) vector).getValueAsLong(row));
+        }
+    }
+
+    private static long toLong(Types.MinorType minorType, Object value)
+    {
+        switch (minorType) {
+            case DATEMILLI:
+                return ((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli();
+            case FLOAT4:
+                return Float.floatToIntBits(((Number) value).floatValue());
+            case FLOAT8:
+                return Double.doubleToLongBits(((Number) value).doubleValue());
+            default:
+                return ((Number) value).longValue();
+        }
+    }
+
+    private static boolean isWholeMillis(LocalDateTime value)
+    {
+        return value.getNano() % NANOS_PER_MILLI == 0;
+    }
+
+    private static ByteBuffer toBytes(Object value)
+    {
+        if (value instanceof Text) {
+            Text text = (Text) value;
+            return ByteBuffer.wrap(text.getBytes(), 0, (int) text.getLength());
+        }
+        return ByteBuffer.wrap(value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A minimal open addressing (linear probing) hash set of primitive longs. It is sized once up front since the
+     * values of an EquatableValueSet are immutable.
+     */
+    private static class LongHashSet
+    {
+        //0 marks an empty slot so the value 0 is tracked separately.
+        private final long[] slots;
+        private final int mask;
+        private boolean containsZero;
+
+        LongHashSet(int expectedSize)
+        {
+            //Keep the load factor at or below 0.5 to keep probe sequences short.
+            int capacity = Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) << 1;
+            slots = new long[capacity];
+            mask = capacity - 1;
+        }
+
+        void add(long value)
+        {
+            if (value == 0) {
+                containsZero = true;
+                return;
+            }
+            int slot = hash(value) & mask;
+            while (slots[slot] != 0) {
+                if (slots[slot] == value) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = value;
+        }
+
+        boolean contains(long value)
+        {
+            if (value == 0) {
+                return containsZero;
+            }
+            int slot = hash(value) & mask;
+            long current;
+            while ((current = slots[slot]) != 0) {
+                if (current == value) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        private static int hash(long value)
+        {
+            long hash = value * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+}
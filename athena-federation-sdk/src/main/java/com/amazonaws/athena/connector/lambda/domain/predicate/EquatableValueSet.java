@@ -58,6 +58,9 @@ public class EquatableValueSet
     private final boolean whiteList;
     private final Block valueBlock;
     public final boolean nullAllowed;
+    //Lazily built hash index over the values in valueBlock, see getIndex().
+    private volatile EquatableValueIndex index;
+    private volatile boolean indexBuilt;
 
     /**
      * Constructs a new EquatableValueSet.
@@ -275,14 +278,7 @@ public class EquatableValueSet
             return false;
         }
 
-        Object value = marker.getValue();
-        boolean result = false;
-        FieldReader reader = valueBlock.getFieldReader(DEFAULT_COLUMN);
-        for (int i = 0; i < valueBlock.getRowCount() && !result; i++) {
-            reader.setPosition(i);
-            result = ArrowTypeComparator.compare(reader, value, reader.readObject()) == 0;
-        }
-        return whiteList == result;
+        return whiteList == isPresent(marker.getValue());
     }
 
     /**
@@ -299,13 +295,7 @@ public class EquatableValueSet
             return true;
         }
 
-        boolean result = false;
-        FieldReader reader = valueBlock.getFieldReader(DEFAULT_COLUMN);
-        for (int i = 0; i < valueBlock.getRowCount() && !result; i++) {
-            reader.setPosition(i);
-            result = ArrowTypeComparator.compare(reader, value, reader.readObject()) == 0;
-        }
-        return whiteList == result;
+        return whiteList == isPresent(value);
     }
 
     @Override
@@ -376,7 +366,7 @@ public class EquatableValueSet
         int count = 0;
         for (int i = 0; i < lhsBlock.getRowCount(); i++) {
             lhs.setPosition(i);
-            if (isPresent(lhs.readObject(), right.valueBlock)) {
+            if (right.isPresent(lhs.readObject())) {
                 BlockUtils.setValue(result, count++, lhs.readObject());
             }
         }
@@ -402,7 +392,7 @@ public class EquatableValueSet
         FieldReader rhs = rhsBlock.getFieldReader(DEFAULT_COLUMN);
         for (int i = 0; i < rhsBlock.getRowCount(); i++) {
             rhs.setPosition(i);
-            if (!isPresent(rhs.readObject(), left.valueBlock)) {
+            if (!left.isPresent(rhs.readObject())) {
                 BlockUtils.setValue(result, count++, rhs.readObject());
             }
         }
@@ -423,7 +413,7 @@ public class EquatableValueSet
         int count = 0;
         for (int i = 0; i < lhsBlock.getRowCount(); i++) {
             lhs.setPosition(i);
-            if (!isPresent(lhs.readObject(), right.valueBlock)) {
+            if (!right.isPresent(lhs.readObject())) {
                 BlockUtils.setValue(result, count++, lhs.readObject());
             }
         }
@@ -431,19 +421,49 @@ public class EquatableValueSet
         return resultBlock;
     }
 
-    private static boolean isPresent(Object lhs, Block right)
+    /**
+     * Tests if the value is one of the values in valueBlock, using the hash index when one is available for this type.
+     *
+     * @param value The value to look for.
+     * @return True if the value is present in valueBlock, False otherwise.
+     */
+    private boolean isPresent(Object value)
     {
-        FieldReader rhs = right.getFieldReader(DEFAULT_COLUMN);
-        Types.MinorType type = rhs.getMinorType();
-        for (int j = 0; j < right.getRowCount(); j++) {
-            rhs.setPosition(j);
-            if (ArrowTypeComparator.compare(rhs, lhs, rhs.readObject()) == 0) {
+        EquatableValueIndex valueIndex = (value != null) ? getIndex() : null;
+        if (valueIndex != null) {
+            return valueIndex.contains(value);
+        }
+
+        FieldReader reader = valueBlock.getFieldReader(DEFAULT_COLUMN);
+        for (int i = 0; i < valueBlock.getRowCount(); i++) {
+            reader.setPosition(i);
+            if (ArrowTypeComparator.compare(reader, value, reader.readObject()) == 0) {
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Provides the hash index over the values in this ValueSet, building it on first use. Large IN-lists would otherwise
+     * require a linear scan of valueBlock for every value tested.
+     *
+     * @return The index, or null if the type of this ValueSet can not be indexed.
+     */
+    @Transient
+    EquatableValueIndex getIndex()
+    {
+        if (!indexBuilt) {
+            synchronized (this) {
+                if (!indexBuilt) {
+                    index = EquatableValueIndex.build(valueBlock, DEFAULT_COLUMN);
+                    indexBuilt = true;
+                }
+            }
+        }
+        return index;
+    }
+
     private EquatableValueSet checkCompatibility(ValueSet other)
     {
         if (!getType().equals(other.getType())) {
@@ -55,6 +55,9 @@ public class SortedRangeSet
     private final boolean nullAllowed;
     private final ArrowType type;
     private final NavigableMap<ValueMarker, Range> lowIndexedRanges;
+    //Lazily compiled primitive form of this set, see compile().
+    private volatile CompiledRangeSet compiled;
+    private volatile boolean compiledBuilt;
 
     private SortedRangeSet(ArrowType type, NavigableMap<ValueMarker, Range> lowIndexedRanges, boolean nullAllowed)
     {
@@ -297,6 +300,25 @@ public class SortedRangeSet
         return floorEntry != null && floorEntry.getValue().includes(marker);
     }
 
+    /**
+     * Provides the compiled form of this SortedRangeSet, compiling it on first use. The compiled form can test primitive
+     * values for membership without the LiteralValueMarker and generic comparisons that containsValue(...) requires.
+     *
+     * @return The CompiledRangeSet, or null if this set's type or bounds are not supported (see CompiledRangeSet).
+     */
+    public CompiledRangeSet compile()
+    {
+        if (!compiledBuilt) {
+            synchronized (this) {
+                if (!compiledBuilt) {
+                    compiled = CompiledRangeSet.of(this);
+                    compiledBuilt = true;
+                }
+            }
+        }
+        return compiled;
+    }
+
     boolean includesMarker(Marker marker)
     {
         requireNonNull(marker, "marker is null");
@@ -0,0 +1,45 @@
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connector.lambda.domain.predicate;
+
+import org.apache.arrow.vector.FieldVector;
+
+import java.util.BitSet;
+
+/**
+ * Applies the constraints of a single column to a range of values held in an Apache Arrow vector. This is the
+ * vectorized counterpart of ConstraintProjector, it reads values straight from the vector's buffers instead of
+ * requiring each value to be boxed and wrapped in a Marker.
+ *
+ * @see VectorConstraints for how ValueSets are compiled into VectorConstraints.
+ */
+public interface VectorConstraint
+{
+    /**
+     * Clears the selection bit of every row in the range that does not satisfy the constraint. Bit i of the selection
+     * corresponds to row (offset + i) of the vector, rows whose bit is already clear are not tested.
+     *
+     * @param vector The vector holding the values to test.
+     * @param offset The first row of the vector to test.
+     * @param count The number of rows, starting at offset, to test.
+     * @param selection The selection mask to update.
+     */
+    void apply(FieldVector vector, int offset, int count, BitSet selection);
+}
@@ -0,0 +1,353 @@
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connector.lambda.domain.predicate;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FloatingPointVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.types.Types;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Compiles ValueSets into VectorConstraints. Where possible the compiled form avoids per-value object creation entirely,
+ * for example a SortedRangeSet over an integral or date column is compiled into sorted arrays of primitive bounds (see
+ * CompiledRangeSet) which are probed directly with the values read from the vector's buffers.
+ * <p>
+ * Fast paths are available for:
+ * 1. SortedRangeSets over TINYINT, SMALLINT, INT, BIGINT, DATEDAY, DATEMILLI, FLOAT4, FLOAT8, DECIMAL and VARCHAR columns.
+ * 2. EquatableValueSets over the above types other than DECIMAL, these probe the ValueSet's hash index with the values read from the
+ * vector's buffers.
+ * 3. EquatableValueSets over BIT, DECIMAL and VARBINARY, these probe the ValueSet with the vector's value directly rather
+ * than first wrapping it in a Marker.
+ */
+public final class VectorConstraints
+{
+    private VectorConstraints() {}
+
+    /**
+     * Compiles the provided ValueSet into a VectorConstraint.
+     *
+     * @param valueSet The ValueSet to compile.
+     * @return The compiled VectorConstraint, or null if there is no vectorized implementation for this ValueSet. Callers
+     * should fall back to ConstraintEvaluator.apply(...) for each value in that case.
+     */
+    public static VectorConstraint compile(ValueSet valueSet)
+    {
+        Types.MinorType minorType = Types.getMinorTypeForArrowType(valueSet.getType());
+        if (valueSet instanceof SortedRangeSet) {
+            SortedRangeSet rangeSet = (SortedRangeSet) valueSet;
+            switch (minorType) {
+                case TINYINT:
+                case SMALLINT:
+                case INT:
+                case BIGINT:
+                case DATEDAY:
+                case DATEMILLI:
+                case FLOAT4:
+                case FLOAT8:
+                case DECIMAL:
+                    CompiledRangeSet compiled = rangeSet.compile();
+                    return (compiled == null) ? null : new CompiledRangeConstraint(compiled);
+                case VARCHAR:
+                    return new StringRangeConstraint(StringRanges.of(rangeSet), rangeSet.isNullAllowed());
+                default:
+                    return null;
+            }
+        }
+        else if (valueSet instanceof EquatableValueSet) {
+            EquatableValueSet equatableValueSet = (EquatableValueSet) valueSet;
+            EquatableValueIndex index = equatableValueSet.getIndex();
+            if (index != null) {
+                return new IndexedValueSetConstraint(index, equatableValueSet.isWhiteList(), equatableValueSet.isNullAllowed());
+            }
+            switch (minorType) {
+                case TINYINT:
+                case SMALLINT:
+                case INT:
+                case BIGINT:
+                case DATEDAY:
+                case DATEMILLI:
+                case FLOAT4:
+                case FLOAT8:
+                case VARCHAR:
+                case BIT:
+                case DECIMAL:
+                case VARBINARY:
+                    return new ValueSetConstraint(valueSet);
+                default:
+                    return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Provides a primitive accessor for the integral and date vectors. DATEDAY values are days since epoch and DATEMILLI
+     * values are millis since epoch, which is also how CompiledRangeSet represents them.
+     */
+    private static IntToLongFunction longReader(FieldVector vector)
+    {
+        if (vector instanceof DateDayVector) {
+            DateDayVector dateDayVector = (DateDayVector) vector;
+            return dateDayVector::get;
+        }
+        else if (vector instanceof DateMilliVector) {
+            DateMilliVector dateMilliVector = (DateMilliVector) vector;
+            return dateMilliVector::get;
+        }
+        BaseIntVector intVector = (BaseIntVector) vector;
+        return intVector::getValueAsLong;
+    }
+
+    /**
+     * Probes a CompiledRangeSet with the primitive values read from the vector's buffers.
+     */
+    private static class CompiledRangeConstraint
+            implements VectorConstraint
+    {
+        private final CompiledRangeSet rangeSet;
+
+        CompiledRangeConstraint(CompiledRangeSet rangeSet)
+        {
+            this.rangeSet = rangeSet;
+        }
+
+        @Override
+        public void apply(FieldVector vector, int offset, int count, BitSet selection)
+        {
+            boolean nullAllowed = rangeSet.isNullAllowed();
+            if (vector instanceof FloatingPointVector) {
+                FloatingPointVector floatVector = (FloatingPointVector) vector;
+                for (int i = selection.nextSetBit(0); i >= 0 && i < count; i = selection.nextSetBit(i + 1)) {
+                    int row = offset + i;
+                    if (vector.isNull(row) ? !nullAllowed : !rangeSet.contains(floatVector.getValueAsDouble(row))) {
+                        selection.clear(i);
+                    }
+                }
+            }
+            else if (vector instanceof DecimalVector) {
+                applyDecimal((DecimalVector) vector, offset, count, selection);
+            }
+            else {
+                IntToLongFunction reader = longReader(vector);
+                for (int i = selection.nextSetBit(0); i >= 0 && i < count; i = selection.nextSetBit(i + 1)) {
+                    int row = offset + i;
+                    if (vector.isNull(row) ? !nullAllowed : !rangeSet.contains(reader.applyAsLong(row))) {
+                        selection.clear(i);
+                    }
+                }
+            }
+        }
+
+        /**
+         * DecimalVector holds each value as a 128 bit little endian unscaled integer. Values whose upper 64 bits are
+         * only the sign extension of the lower 64 bits fit in a long and are probed directly, the remaining (very large)
+         * values as well as vectors of a different scale fall back to the CompiledRangeSet's object based evaluation.
+         */
+        private void applyDecimal(DecimalVector vector, int offset, int count, BitSet selection)
+        {
+            boolean nullAllowed = rangeSet.isNullAllowed();
+            boolean sameScale = vector.getScale() == rangeSet.getScale();
+            ArrowBuf data = vector.getDataBuffer();
+            for (int i = selection.nextSetBit(0); i >= 0 && i < count; i = selection.nextSetBit(i + 1)) {
+                int row = offset + i;
+                boolean matches;
+                if (vector.isNull(row)) {
+                    matches = nullAllowed;
+                }
+                else {
+                    long index = (long) row * DecimalVector.TYPE_WIDTH;
+                    long lowBits = data.getLong(index);
+                    long highBits = data.getLong(index + Long.BYTES);
+                    matches = (sameScale && highBits == (lowBits >> 63)) ? rangeSet.contains(lowBits) : rangeSet.apply(vector.getObject(row));
+                }
+                if (!matches) {
+                    selection.clear(i);
+                }
+            }
+        }
+    }
+
+    private static class StringRangeConstraint
+            implements VectorConstraint
+    {
+        private final StringRanges ranges;
+        private final boolean nullAllowed;
+
+        StringRangeConstraint(StringRanges ranges, boolean nullAllowed)
+        {
+            this.ranges = ranges;
+            this.nullAllowed = nullAllowed;
+        }
+
+        @Override
+        public void apply(FieldVector vector, int offset, int count, BitSet selection)
+        {
+            VarCharVector varCharVector = (VarCharVector) vector;
+            for (int i = selection.nextSetBit(0); i >= 0 && i < count; i = selection.nextSetBit(i + 1)) {
+                int row = offset + i;
+                if (varCharVector.isNull(row) ? !nullAllowed : !ranges.contains(varCharVector.getObject(row).toString())) {
+                    selection.clear(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Probes the hash index of an EquatableValueSet with each value as read from the vector's buffers.
+     */
+    private static class IndexedValueSetConstraint
+            implements VectorConstraint
+    {
+        private final EquatableValueIndex index;
+        private final boolean whiteList;
+        private final boolean nullAllowed;
+
+        IndexedValueSetConstraint(EquatableValueIndex index, boolean whiteList, boolean nullAllowed)
+        {
+            this.index = index;
+            this.whiteList = whiteList;
+            this.nullAllowed = nullAllowed;
+        }
+
+        @Override
+        public void apply(FieldVector vector, int offset, int count, BitSet selection)
+        {
+            for (int i = selection.nextSetBit(0); i >= 0 && i < count; i = selection.nextSetBit(i + 1)) {
+                int row = offset + i;
+                if (vector.isNull(row) ? !nullAllowed : whiteList != index.contains(vector, row)) {
+                    selection.clear(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Probes the ValueSet with each value as read from the vector, this avoids the Marker that
+     * ConstraintEvaluator.apply(...) would otherwise create for every value.
+     */
+    private static class ValueSetConstraint
+            implements VectorConstraint
+    {
+        private final ValueSet valueSet;
+
+        ValueSetConstraint(ValueSet valueSet)
+        {
+            this.valueSet = valueSet;
+        }
+
+        @Override
+        public void apply(FieldVector vector, int offset, int count, BitSet selection)
+        {
+            boolean nullAllowed = valueSet.isNullAllowed();
+            for (int i = selection.nextSetBit(0); i >= 0 && i < count; i = selection.nextSetBit(i + 1)) {
+                int row = offset + i;
+                if (vector.isNull(row) ? !nullAllowed : !valueSet.containsValue(vector.getObject(row))) {
+                    selection.clear(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * The ranges of a SortedRangeSet over VARCHAR. Values are ordered using String.compareTo(...) to match
+     * ArrowTypeComparator.
+     */
+    private static class StringRanges
+    {
+        private final String[] lows;
+        private final String[] highs;
+        private final boolean[] lowInclusive;
+        private final boolean[] highInclusive;
+
+        private StringRanges(int size)
+        {
+            lows = new String[size];
+            highs = new String[size];
+            lowInclusive = new boolean[size];
+            highInclusive = new boolean[size];
+        }
+
+        static StringRanges of(SortedRangeSet rangeSet)
+        {
+            List<Range> ranges = rangeSet.getOrderedRanges();
+            StringRanges result = new StringRanges(ranges.size());
+            for (int i = 0; i < ranges.size(); i++) {
+                Marker low = ranges.get(i).getLow();
+                Marker high = ranges.get(i).getHigh();
+                //A null bound denotes an unbounded side of the range.
+                if (!low.isLowerUnbounded()) {
+                    result.lows[i] = low.getValue().toString();
+                    result.lowInclusive[i] = low.getBound() != Marker.Bound.ABOVE;
+                }
+                if (!high.isUpperUnbounded()) {
+                    result.highs[i] = high.getValue().toString();
+                    result.highInclusive[i] = high.getBound() != Marker.Bound.BELOW;
+                }
+            }
+            return result;
+        }
+
+        boolean contains(String value)
+        {
+            int low = 0;
+            int high = lows.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (isBelow(mid, value)) {
+                    high = mid - 1;
+                }
+                else if (isAbove(mid, value)) {
+                    low = mid + 1;
+                }
+                else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isBelow(int range, String value)
+        {
+            if (lows[range] == null) {
+                return false;
+            }
+            int cmp = value.compareTo(lows[range]);
+            return cmp < 0 || (cmp == 0 && !lowInclusive[range]);
+        }
+
+        private boolean isAbove(int range, String value)
+        {
+            if (highs[range] == null) {
+                return false;
+            }
+            int cmp = value.compareTo(highs[range]);
+            return cmp > 0 || (cmp == 0 && !highInclusive[range]);
+        }
+    }
+}
@@ -45,6 +45,7 @@ import com.amazonaws.athena.connector.lambda.security.KmsEncryptionProvider;
 import com.amazonaws.athena.connector.lambda.serde.VersionedObjectMapperFactory;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.arrow.vector.compression.CompressionUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
@@ -73,6 +74,11 @@ public abstract class RecordHandler
 {
     private static final Logger logger = LoggerFactory.getLogger(RecordHandler.class);
     private static final String MAX_BLOCK_SIZE_BYTES = "MAX_BLOCK_SIZE_BYTES";
+    private static final String SPILL_PART_SIZE_BYTES = "SPILL_PART_SIZE_BYTES";
+    //One of NO_COMPRESSION, LZ4_FRAME or ZSTD, only set this if every reader of the spilled data supports it.
+    private static final String SPILL_COMPRESSION = "SPILL_COMPRESSION";
+    //The max bytes of filled Blocks that may be waiting to be spilled at once before readWithConstraint is slowed down.
+    private static final String SPILL_MAX_IN_FLIGHT_BYTES = "SPILL_MAX_IN_FLIGHT_BYTES";
     private static final int NUM_SPILL_THREADS = 2;
     protected final java.util.Map<String, String> configOptions;
     private final S3Client amazonS3;
@@ -265,14 +271,23 @@ public abstract class RecordHandler
             maxBlockSize = Long.parseLong(configOptions.get(MAX_BLOCK_SIZE_BYTES));
         }
 
-        return SpillConfig.newBuilder()
+        SpillConfig.Builder builder = SpillConfig.newBuilder()
                 .withSpillLocation(request.getSplit().getSpillLocation())
                 .withMaxBlockBytes(maxBlockSize)
                 .withMaxInlineBlockBytes(request.getMaxInlineBlockSize())
                 .withRequestId(request.getQueryId())
                 .withEncryptionKey(request.getSplit().getEncryptionKey())
-                .withNumSpillThreads(NUM_SPILL_THREADS)
-                .build();
+                .withNumSpillThreads(NUM_SPILL_THREADS);
+        if (configOptions.get(SPILL_PART_SIZE_BYTES) != null) {
+            builder.withSpillPartBytes(Long.parseLong(configOptions.get(SPILL_PART_SIZE_BYTES)));
+        }
+        if (configOptions.get(SPILL_MAX_IN_FLIGHT_BYTES) != null) {
+            builder.withMaxInFlightSpillBytes(Long.parseLong(configOptions.get(SPILL_MAX_IN_FLIGHT_BYTES)));
+        }
+        if (configOptions.get(SPILL_COMPRESSION) != null) {
+            builder.withSpillCompression(CompressionUtil.CodecType.valueOf(configOptions.get(SPILL_COMPRESSION).trim().toUpperCase()));
+        }
+        return builder.build();
     }
 
     private PingResponse doPing(PingRequest request)
@@ -24,6 +24,7 @@ import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.RecordBatchSerDe;
 import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
+import org.apache.arrow.vector.compression.CompressionUtil;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.slf4j.Logger;
@@ -35,11 +36,14 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -64,22 +68,35 @@ public class AesGcmBlockCrypto
 
     private final RecordBatchSerDe serDe;
     private final BlockAllocator allocator;
+    //The Apache Arrow IPC body compression applied to Blocks as they are serialized.
+    private final CompressionUtil.CodecType compression;
 
     static {
         Security.addProvider(new BouncyCastleProvider());
     }
 
     public AesGcmBlockCrypto(BlockAllocator allocator)
+    {
+        this(allocator, CompressionUtil.CodecType.NO_COMPRESSION);
+    }
+
+    /**
+     * @param allocator The BlockAllocator to use when decrypting Blocks.
+     * @param compression The Apache Arrow IPC body compression to apply to Blocks before encrypting them. Decryption
+     * detects and decodes compressed Blocks regardless of this setting.
+     */
+    public AesGcmBlockCrypto(BlockAllocator allocator, CompressionUtil.CodecType compression)
     {
         this.serDe = new RecordBatchSerDe(allocator);
         this.allocator = allocator;
+        this.compression = compression;
     }
 
     public byte[] encrypt(EncryptionKey key, Block block)
     {
         try {
             ByteArrayOutputStream out = new ByteArrayOutputStream();
-            serDe.serialize(block.getRecordBatch(), out);
+            serDe.serialize(block.getRecordBatch(compression), out);
 
             Cipher cipher = makeCipher(Cipher.ENCRYPT_MODE, key);
             return cipher.doFinal(out.toByteArray());
@@ -89,6 +106,25 @@ public class AesGcmBlockCrypto
         }
     }
 
+    /**
+     * Serializes the Block directly into an incremental AES-GCM cipher, so neither the clear text nor the cipher text of
+     * the Block is ever held in memory in its entirety. The GCM tag is written once the Block has been fully serialized.
+     *
+     * @see BlockCrypto
+     */
+    @Override
+    public void encrypt(EncryptionKey key, Block block, OutputStream out)
+    {
+        try {
+            CipherStream cipherStream = new CipherStream(makeCipher(Cipher.ENCRYPT_MODE, key), out);
+            serDe.serialize(block.getRecordBatch(compression), cipherStream);
+            cipherStream.finish();
+        }
+        catch (BadPaddingException | IllegalBlockSizeException | IOException ex) {
+            throw new AthenaConnectorException(ex, ex.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
+        }
+    }
+
     public Block decrypt(EncryptionKey key, byte[] bytes, Schema schema)
     {
         try {
@@ -140,4 +176,57 @@ public class AesGcmBlockCrypto
             throw new AthenaConnectorException(ex, ex.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
         }
     }
+
+    /**
+     * Passes everything written to it through the provided Cipher before writing the result to the underlying stream.
+     * Unlike javax.crypto.CipherOutputStream this does not close the underlying stream and surfaces failures to
+     * finalize the Cipher rather than swallowing them.
+     */
+    private static class CipherStream
+            extends FilterOutputStream
+    {
+        private final Cipher cipher;
+        private final byte[] single = new byte[1];
+        private byte[] buffer = new byte[0];
+
+        CipherStream(Cipher cipher, OutputStream out)
+        {
+            super(out);
+            this.cipher = cipher;
+        }
+
+        @Override
+        public void write(int b)
+                throws IOException
+        {
+            single[0] = (byte) b;
+            write(single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len)
+                throws IOException
+        {
+            int maxOutput = cipher.getOutputSize(len);
+            if (buffer.length < maxOutput) {
+                buffer = new byte[maxOutput];
+            }
+            try {
+                int encrypted = cipher.update(b, off, len, buffer, 0);
+                out.write(buffer, 0, encrypted);
+            }
+            catch (ShortBufferException ex) {
+                throw new IOException(ex);
+            }
+        }
+
+        /**
+         * Writes any remaining cipher text along with the GCM tag, the underlying stream is left open.
+         */
+        void finish()
+                throws IOException, BadPaddingException, IllegalBlockSizeException
+        {
+            out.write(cipher.doFinal());
+        }
+    }
 }
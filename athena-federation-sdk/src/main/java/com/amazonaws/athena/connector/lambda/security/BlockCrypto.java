@@ -21,7 +21,13 @@ package com.amazonaws.athena.connector.lambda.security;
  */
 
 import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
 import org.apache.arrow.vector.types.pojo.Schema;
+import software.amazon.awssdk.services.glue.model.ErrorDetails;
+import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
+
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * Defines a facility that can be used to encrypt and decrypt blocks.
@@ -37,6 +43,25 @@ public interface BlockCrypto
      */
     byte[] encrypt(EncryptionKey key, Block block);
 
+    /**
+     * Used to encrypt the provided Block in its serialized form, writing the result to the provided OutputStream. The
+     * bytes written are identical to those returned by encrypt(EncryptionKey, Block) but implementations may avoid
+     * materializing the serialized and encrypted Block in memory.
+     *
+     * @param key The EncryptionKey to use when encrypting the Block.
+     * @param block The Block to serialize and encrypt.
+     * @param out The OutputStream to write the encrypted Block to, this method does not close it.
+     */
+    default void encrypt(EncryptionKey key, Block block, OutputStream out)
+    {
+        try {
+            out.write(encrypt(key, block));
+        }
+        catch (IOException ex) {
+            throw new AthenaConnectorException(ex, ex.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
+        }
+    }
+
     /**
      * Used to decrypt and deserialize a Block from the provided bytes and schema.
      *
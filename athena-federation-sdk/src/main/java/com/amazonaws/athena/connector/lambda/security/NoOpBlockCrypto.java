@@ -24,12 +24,14 @@ import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.RecordBatchSerDe;
 import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
+import org.apache.arrow.vector.compression.CompressionUtil;
 import org.apache.arrow.vector.types.pojo.Schema;
 import software.amazon.awssdk.services.glue.model.ErrorDetails;
 import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * Implementation of BlockCrypto does a No-OP (nothing) for encrypting and decrypting blocks. This is helpful when you
@@ -42,11 +44,24 @@ public class NoOpBlockCrypto
 {
     private final RecordBatchSerDe serDe;
     private final BlockAllocator allocator;
+    //The Apache Arrow IPC body compression applied to Blocks as they are serialized.
+    private final CompressionUtil.CodecType compression;
 
     public NoOpBlockCrypto(BlockAllocator allocator)
+    {
+        this(allocator, CompressionUtil.CodecType.NO_COMPRESSION);
+    }
+
+    /**
+     * @param allocator The BlockAllocator to use when decrypting Blocks.
+     * @param compression The Apache Arrow IPC body compression to apply to Blocks before encrypting them. Decryption
+     * detects and decodes compressed Blocks regardless of this setting.
+     */
+    public NoOpBlockCrypto(BlockAllocator allocator, CompressionUtil.CodecType compression)
     {
         this.serDe = new RecordBatchSerDe(allocator);
         this.allocator = allocator;
+        this.compression = compression;
     }
 
     public byte[] encrypt(EncryptionKey key, Block block)
@@ -56,7 +71,7 @@ public class NoOpBlockCrypto
         }
         try {
             ByteArrayOutputStream out = new ByteArrayOutputStream();
-            serDe.serialize(block.getRecordBatch(), out);
+            serDe.serialize(block.getRecordBatch(compression), out);
             return out.toByteArray();
         }
         catch (IOException ex) {
@@ -64,6 +79,20 @@ public class NoOpBlockCrypto
         }
     }
 
+    @Override
+    public void encrypt(EncryptionKey key, Block block, OutputStream out)
+    {
+        if (key != null) {
+            throw new AthenaConnectorException("Real key provided to NoOpBlockCrypto, likely indicates you wanted real crypto.", ErrorDetails.builder().errorCode(FederationSourceErrorCode.INVALID_INPUT_EXCEPTION.toString()).build());
+        }
+        try {
+            serDe.serialize(block.getRecordBatch(compression), out);
+        }
+        catch (IOException ex) {
+            throw new AthenaConnectorException(ex, ex.getMessage(), ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).build());
+        }
+    }
+
     public Block decrypt(EncryptionKey key, byte[] bytes, Schema schema)
     {
         try {
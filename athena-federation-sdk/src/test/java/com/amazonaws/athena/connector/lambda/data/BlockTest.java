@@ -128,6 +128,89 @@ public class BlockTest
         }
     }
 
+    @Test
+    public void recycledBlockTest()
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addIntField("col1")
+                .addStringField("col2")
+                .addListField("col3", Types.MinorType.INT.getType())
+                .build();
+
+        Block block = allocator.createBlock(schema);
+        for (int i = 0; i < 3; i++) {
+            BlockUtils.setValue(block.getFieldVector("col1"), i, 100 + i);
+            BlockUtils.setValue(block.getFieldVector("col2"), i, "value" + i);
+            BlockUtils.setComplexValue(block.getFieldVector("col3"), i, FieldResolver.DEFAULT, Collections.singletonList(i));
+        }
+        block.setRowCount(3);
+
+        allocator.recycleBlock(block);
+        Block recycled = allocator.createBlock(schema);
+        assertTrue(block == recycled);
+        assertEquals(0, recycled.getRowCount());
+
+        //Row 0 is left unwritten, so it must read as null rather than as the value written before the block was recycled
+        BlockUtils.setValue(recycled.getFieldVector("col1"), 1, 7);
+        BlockUtils.setValue(recycled.getFieldVector("col2"), 1, "new");
+        recycled.setRowCount(2);
+        assertTrue(recycled.getFieldVector("col1").isNull(0));
+        assertTrue(recycled.getFieldVector("col2").isNull(0));
+        assertTrue(recycled.getFieldVector("col3").isNull(0));
+        assertEquals(7, ((IntVector) recycled.getFieldVector("col1")).get(1));
+        assertEquals("new", new String(((VarCharVector) recycled.getFieldVector("col2")).get(1), Charsets.UTF_8));
+    }
+
+    @Test
+    public void appendVectorsTest()
+            throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addIntField("col1")
+                .addStringField("col2")
+                .build();
+
+        ValueSet col1Constraint = EquatableValueSet.newBuilder(allocator, Types.MinorType.INT.getType(), true, false)
+                .add(1).add(3).add(4).build();
+        Constraints constraints = new Constraints(Collections.singletonMap("col1", col1Constraint), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null);
+
+        try (Block source = allocator.createBlock(schema);
+                Block block = allocator.createBlock(schema);
+                ConstraintEvaluator constraintEvaluator = new ConstraintEvaluator(allocator, schema, constraints)) {
+            for (int i = 0; i < 5; i++) {
+                source.setValue("col1", i, i);
+                source.setValue("col2", i, "value_" + i);
+            }
+            source.setRowCount(5);
+
+            assertTrue(BlockUtils.canAppendVectors(schema, source.getFieldVectors()));
+            assertFalse(BlockUtils.canAppendVectors(SchemaBuilder.newBuilder().addBigIntField("col1").build(),
+                    source.getFieldVectors()));
+
+            block.constrain(constraintEvaluator);
+            block.setValue("col1", 0, 1);
+            block.setValue("col2", 0, "existing");
+            block.setRowCount(1);
+
+            //Only rows 1..4 are offered, of those only 1, 3, and 4 pass the constraint.
+            int rows = block.appendVectors(source.getFieldVectors(), 1, 4, block.getRowCount());
+            block.setRowCount(block.getRowCount() + rows);
+
+            assertEquals(3, rows);
+            assertEquals(4, block.getRowCount());
+            IntVector col1 = (IntVector) block.getFieldVector("col1");
+            VarCharVector col2 = (VarCharVector) block.getFieldVector("col2");
+            assertEquals(1, col1.get(0));
+            assertEquals("existing", col2.getObject(0).toString());
+            assertEquals(1, col1.get(1));
+            assertEquals("value_1", col2.getObject(1).toString());
+            assertEquals(3, col1.get(2));
+            assertEquals("value_3", col2.getObject(2).toString());
+            assertEquals(4, col1.get(3));
+            assertEquals("value_4", col2.getObject(3).toString());
+        }
+    }
+
     //TODO: Break this into multiple smaller tests, probably primitive types vs. complex vs. nested complex
     //TODO: List of Lists
     //TODO: List of Structs
@@ -27,6 +27,7 @@ import com.amazonaws.athena.connector.lambda.security.EncryptionKey;
 import com.amazonaws.athena.connector.lambda.security.EncryptionKeyFactory;
 import com.amazonaws.athena.connector.lambda.security.LocalKeyFactory;
 import com.amazonaws.athena.connector.lambda.security.NoOpBlockCrypto;
+import org.apache.arrow.vector.compression.CompressionUtil;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.After;
@@ -42,6 +43,7 @@ import java.io.ByteArrayInputStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -123,6 +125,36 @@ public class S3BlockSpillReaderTest
         verifyNoMoreInteractions(mockS3);
     }
 
+    @Test
+    public void read_CompressedBlock_Succeeds()
+            throws Exception
+    {
+        try (Block large = allocator.createBlock(schema)) {
+            for (int i = 0; i < 5_000; i++) {
+                BlockUtils.setValue(large.getFieldVector("col1"), i, i % 10);
+                BlockUtils.setValue(large.getFieldVector("col2"), i, "a highly compressible value " + (i % 10));
+            }
+            large.setRowCount(5_000);
+
+            int uncompressedSize = new AesGcmBlockCrypto(allocator).encrypt(encryptionKey, large).length;
+            for (CompressionUtil.CodecType codecType : new CompressionUtil.CodecType[] {CompressionUtil.CodecType.LZ4_FRAME, CompressionUtil.CodecType.ZSTD}) {
+                byte[] encryptedBytes = new AesGcmBlockCrypto(allocator, codecType).encrypt(encryptionKey, large);
+                byte[] clearBytes = new NoOpBlockCrypto(allocator, codecType).encrypt(null, large);
+                assertTrue(codecType + " did not compress", encryptedBytes.length < uncompressedSize / 2);
+
+                when(mockS3.getObject(any(GetObjectRequest.class)))
+                        .thenReturn(new ResponseInputStream<>(GetObjectResponse.builder().build(), new ByteArrayInputStream(encryptedBytes)))
+                        .thenReturn(new ResponseInputStream<>(GetObjectResponse.builder().build(), new ByteArrayInputStream(clearBytes)));
+
+                try (Block encrypted = blockReader.read(spillLocation, encryptionKey, schema);
+                        Block clear = blockReader.read(spillLocation, null, schema)) {
+                    assertEquals(large, encrypted);
+                    assertEquals(large, clear);
+                }
+            }
+        }
+    }
+
     @Test
     public void readBytes_EncryptedBytes_Succeeds()
     {
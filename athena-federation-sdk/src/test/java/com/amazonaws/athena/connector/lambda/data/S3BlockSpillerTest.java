@@ -23,8 +23,10 @@ package com.amazonaws.athena.connector.lambda.data;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintEvaluator;
 import com.amazonaws.athena.connector.lambda.domain.spill.S3SpillLocation;
 import com.amazonaws.athena.connector.lambda.domain.spill.SpillLocation;
+import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
 import com.amazonaws.athena.connector.lambda.security.EncryptionKeyFactory;
 import com.amazonaws.athena.connector.lambda.security.LocalKeyFactory;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.io.ByteStreams;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -42,19 +44,34 @@ import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -101,7 +118,7 @@ public class S3BlockSpillerTest
                 .withRequestId(requestId)
                 .build();
 
-        blockWriter = new S3BlockSpiller(mockS3, spillConfig, allocator, schema, ConstraintEvaluator.emptyEvaluator(), com.google.common.collect.ImmutableMap.of());
+        blockWriter = new S3BlockSpiller(mockS3, spillConfig, allocator, schema, ConstraintEvaluator.emptyEvaluator(), ImmutableMap.of());
 
         expected = allocator.createBlock(schema);
         BlockUtils.setValue(expected.getFieldVector("col1"), 1, 100);
@@ -196,6 +213,294 @@ public class S3BlockSpillerTest
         logger.info("spillTest: exit");
     }
 
+    @Test
+    public void writeBatchTest()
+            throws Exception
+    {
+        logger.info("writeBatchTest: enter");
+
+        when(mockS3.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().build());
+
+        Schema schema = SchemaBuilder.newBuilder()
+                .addField("col1", new ArrowType.Int(32, true))
+                .build();
+
+        SpillConfig smallBlockConfig = SpillConfig.newBuilder(spillConfig)
+                .withRequestId(requestId)
+                .withSpillLocation(spillConfig.getSpillLocation())
+                .withMaxBlockBytes(16_000)
+                .withMaxInlineBlockBytes(0)
+                .withNumSpillThreads(0)
+                .build();
+
+        int numRows = 10_000;
+        int[] source = new int[numRows];
+        for (int i = 0; i < numRows; i++) {
+            source[i] = i;
+        }
+
+        try (S3BlockSpiller spiller = new S3BlockSpiller(mockS3, smallBlockConfig, allocator, schema,
+                ConstraintEvaluator.emptyEvaluator(), ImmutableMap.of())) {
+            int[] maxCall = new int[1];
+            int[] nextSource = new int[1];
+            int rows = spiller.writeBatch(numRows, (Block block, int rowNum, int sourceOffset, int sourceCount) -> {
+                assertEquals(nextSource[0], sourceOffset);
+                nextSource[0] += sourceCount;
+                maxCall[0] = Math.max(maxCall[0], sourceCount);
+                for (int i = 0; i < sourceCount; i++) {
+                    block.setValue("col1", rowNum + i, source[sourceOffset + i]);
+                }
+                return sourceCount;
+            });
+
+            assertEquals(numRows, rows);
+            assertEquals(numRows, nextSource[0]);
+            //Batches should grow well beyond the per-call row limit once the row width is known.
+            assertTrue(maxCall[0] > 100);
+            assertTrue(spiller.spilled());
+            assertTrue(spiller.getSpillLocations().size() > 1);
+        }
+
+        logger.info("writeBatchTest: exit");
+    }
+
+    @Test
+    public void writeArrowBatchTest()
+            throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addIntField("col1")
+                .addStringField("col2")
+                .build();
+
+        try (Block source = allocator.createBlock(schema)) {
+            for (int i = 0; i < 1_000; i++) {
+                source.setValue("col1", i, i);
+                source.setValue("col2", i, "value_" + i);
+            }
+            source.setRowCount(1_000);
+
+            SpillConfig inlineConfig = SpillConfig.newBuilder(spillConfig)
+                    .withRequestId(requestId)
+                    .withSpillLocation(spillConfig.getSpillLocation())
+                    .withMaxBlockBytes(Long.MAX_VALUE)
+                    .withMaxInlineBlockBytes(Long.MAX_VALUE)
+                    .build();
+
+            try (S3BlockSpiller spiller = new S3BlockSpiller(mockS3, inlineConfig, allocator, schema,
+                    ConstraintEvaluator.emptyEvaluator(), ImmutableMap.of())) {
+                assertEquals(1_000, spiller.writeArrowBatch(source.getFieldVectors(), source.getRowCount()));
+                assertFalse(spiller.spilled());
+                assertEquals(source, spiller.getBlock());
+            }
+        }
+    }
+
+    @Test
+    public void multipartSpillTest()
+            throws Exception
+    {
+        Schema schema = expected.getSchema();
+        //SpillConfig only accepts parts of at least 5MB, S3's minimum, so a smaller part size is stubbed in.
+        SpillConfig smallPartConfig = spy(SpillConfig.newBuilder(spillConfig)
+                .withRequestId(requestId)
+                .withSpillLocation(spillConfig.getSpillLocation())
+                .build());
+        doReturn((long) 16 * 1024).when(smallPartConfig).getSpillPartBytes();
+
+        ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+        when(mockS3.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("uploadId").build());
+        when(mockS3.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer((InvocationOnMock invocation) -> {
+                    UploadPartRequest request = invocation.getArgument(0);
+                    RequestBody body = invocation.getArgument(1);
+                    byte[] part = ByteStreams.toByteArray(body.contentStreamProvider().newStream());
+                    assertEquals(request.contentLength().longValue(), part.length);
+                    uploaded.write(part);
+                    return UploadPartResponse.builder().eTag("etag" + request.partNumber()).build();
+                });
+        when(mockS3.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().build());
+
+        try (Block large = allocator.createBlock(schema);
+                S3BlockSpiller spiller = new S3BlockSpiller(mockS3, smallPartConfig, allocator, schema,
+                        ConstraintEvaluator.emptyEvaluator(), ImmutableMap.of())) {
+            for (int i = 0; i < 10_000; i++) {
+                BlockUtils.setValue(large.getFieldVector("col1"), i, i);
+                BlockUtils.setValue(large.getFieldVector("col2"), i, "VarChar" + i);
+            }
+            large.setRowCount(10_000);
+
+            SpillLocation location = spiller.write(large);
+
+            ArgumentCaptor<CompleteMultipartUploadRequest> completeArgument = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+            verify(mockS3, times(1)).completeMultipartUpload(completeArgument.capture());
+            verify(mockS3, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+            int numParts = completeArgument.getValue().multipartUpload().parts().size();
+            assertTrue(numParts > 1);
+            assertEquals("etag" + numParts, completeArgument.getValue().multipartUpload().parts().get(numParts - 1).eTag());
+
+            when(mockS3.getObject(any(GetObjectRequest.class)))
+                    .thenReturn(new ResponseInputStream<>(GetObjectResponse.builder().build(), new ByteArrayInputStream(uploaded.toByteArray())));
+            try (Block actual = spiller.read((S3SpillLocation) location, smallPartConfig.getEncryptionKey(), schema)) {
+                assertEquals(large, actual);
+            }
+        }
+    }
+
+    @Test
+    public void multipartSpillAbortTest()
+    {
+        //SpillConfig only accepts parts of at least 5MB, S3's minimum, so a smaller part size is stubbed in.
+        SpillConfig smallPartConfig = spy(SpillConfig.newBuilder(spillConfig)
+                .withRequestId(requestId)
+                .withSpillLocation(spillConfig.getSpillLocation())
+                .build());
+        doReturn((long) 64).when(smallPartConfig).getSpillPartBytes();
+
+        when(mockS3.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("uploadId").build());
+        when(mockS3.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(new RuntimeException("upload failed"));
+
+        try (S3BlockSpiller spiller = new S3BlockSpiller(mockS3, smallPartConfig, allocator, expected.getSchema(),
+                ConstraintEvaluator.emptyEvaluator(), ImmutableMap.of())) {
+            spiller.write(expected);
+            fail("Expected the spill to fail");
+        }
+        catch (RuntimeException ex) {
+            assertEquals("upload failed", ex.getMessage());
+        }
+
+        ArgumentCaptor<AbortMultipartUploadRequest> abortArgument = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        verify(mockS3, times(1)).abortMultipartUpload(abortArgument.capture());
+        assertEquals("uploadId", abortArgument.getValue().uploadId());
+        verify(mockS3, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void spillPartBytesBelowMultipartMinimumTest()
+    {
+        try {
+            SpillConfig.newBuilder(spillConfig)
+                    .withRequestId(requestId)
+                    .withSpillLocation(spillConfig.getSpillLocation())
+                    .withSpillPartBytes(1024 * 1024)
+                    .build();
+            fail("Expected the SpillConfig to be rejected");
+        }
+        catch (AthenaConnectorException ex) {
+            assertTrue(ex.getMessage().contains("spillPartBytes"));
+        }
+    }
+
+    @Test
+    public void spillWithoutPartBytesTest()
+    {
+        //A SpillConfig without a part size would buffer whole Blocks in memory, so the spill is rejected.
+        SpillConfig noPartConfig = spy(SpillConfig.newBuilder(spillConfig)
+                .withRequestId(requestId)
+                .withSpillLocation(spillConfig.getSpillLocation())
+                .build());
+        doReturn(0L).when(noPartConfig).getSpillPartBytes();
+
+        try (S3BlockSpiller spiller = new S3BlockSpiller(mockS3, noPartConfig, allocator, expected.getSchema(),
+                ConstraintEvaluator.emptyEvaluator(), ImmutableMap.of())) {
+            spiller.write(expected);
+            fail("Expected the spill to be rejected");
+        }
+        catch (RuntimeException ex) {
+            assertTrue(ex.getMessage().contains("partBytes"));
+        }
+
+        verify(mockS3, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(mockS3, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void inFlightSpillBudgetTest()
+    {
+        //Every filled block exceeds maxBlockBytes, so a budget of maxBlockBytes admits only one block at a time even
+        //though there are several spill threads available.
+        SpillConfig budgetConfig = SpillConfig.newBuilder(spillConfig)
+                .withRequestId(requestId)
+                .withSpillLocation(spillConfig.getSpillLocation())
+                .withMaxBlockBytes(1024)
+                .withNumSpillThreads(4)
+                .withMaxInFlightSpillBytes(1024)
+                .build();
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(mockS3.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenAnswer((InvocationOnMock invocation) -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    inFlight.decrementAndGet();
+                    return PutObjectResponse.builder().build();
+                });
+
+        try (S3BlockSpiller spiller = new S3BlockSpiller(mockS3, budgetConfig, allocator, expected.getSchema(),
+                ConstraintEvaluator.emptyEvaluator(), ImmutableMap.of())) {
+            for (int i = 0; i < 1_000; i++) {
+                int value = i;
+                spiller.writeRows((Block block, int rowNum) -> {
+                    BlockUtils.setValue(block.getFieldVector("col1"), rowNum, value);
+                    BlockUtils.setValue(block.getFieldVector("col2"), rowNum, "VarChar" + value);
+                    return 1;
+                });
+            }
+
+            int numSpills = spiller.getSpillLocations().size();
+            assertTrue(numSpills > 4);
+            verify(mockS3, times(numSpills)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+            assertEquals(1, maxInFlight.get());
+        }
+    }
+
+    @Test
+    public void recycledBlockTest()
+    {
+        SpillConfig syncConfig = SpillConfig.newBuilder(spillConfig)
+                .withRequestId(requestId)
+                .withSpillLocation(spillConfig.getSpillLocation())
+                .withMaxBlockBytes(1024)
+                .withNumSpillThreads(0)
+                .build();
+
+        when(mockS3.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().build());
+
+        Set<Block> blocks = Collections.newSetFromMap(new IdentityHashMap<>());
+        try (S3BlockSpiller spiller = new S3BlockSpiller(mockS3, syncConfig, allocator, expected.getSchema(),
+                ConstraintEvaluator.emptyEvaluator(), ImmutableMap.of())) {
+            long usage = 0;
+            for (int i = 0; i < 1_000; i++) {
+                int value = i;
+                spiller.writeRows((Block block, int rowNum) -> {
+                    if (blocks.add(block) || rowNum == 0) {
+                        //A recycled block must come back empty
+                        assertEquals(0, block.getRowCount());
+                        assertEquals(0, block.getSize());
+                    }
+                    BlockUtils.setValue(block.getFieldVector("col1"), rowNum, value);
+                    BlockUtils.setValue(block.getFieldVector("col2"), rowNum, "VarChar" + value);
+                    return 1;
+                });
+                if (i == 100) {
+                    usage = allocator.getUsage();
+                }
+            }
+
+            assertTrue(spiller.getSpillLocations().size() > 4);
+            //Every rollover reused the spilled block rather than allocating a new one
+            assertEquals(1, blocks.size());
+            assertEquals(usage, allocator.getUsage());
+        }
+    }
+
     private class ByteHolder
     {
         private byte[] bytes;
@@ -79,6 +79,20 @@ public class SimpleBlockWriterTest {
         assertEquals("Simulated exception", exception.getMessage());
     }
 
+    @Test
+    public void testWriteBatch() throws Exception {
+        // Arrange
+        BlockWriter.BatchWriter mockBatchWriter = mock(BlockWriter.BatchWriter.class);
+        when(mockBatchWriter.writeRows(eq(mockBlock), ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt())).thenReturn(7);
+
+        int rows = simpleBlockWriter.writeBatch(10, mockBatchWriter);
+
+        // Assert: the whole source range is handed over in a single call
+        assertEquals(7, rows);
+        verify(mockBatchWriter, times(1)).writeRows(eq(mockBlock), eq(0), eq(0), eq(10));
+        verifyBlockRowCount(7);
+    }
+
     @Test
     public void testGetConstraintEvaluator() {
         // Act
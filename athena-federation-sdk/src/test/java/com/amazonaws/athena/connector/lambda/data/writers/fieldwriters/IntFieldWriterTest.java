@@ -19,12 +19,18 @@
  */
 package com.amazonaws.athena.connector.lambda.data.writers.fieldwriters;
 
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
 import com.amazonaws.athena.connector.lambda.data.writers.extractors.IntExtractor;
+import com.amazonaws.athena.connector.lambda.domain.predicate.CompiledRangeSet;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintProjector;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.vector.IntVector;
 import org.apache.arrow.vector.holders.NullableIntHolder;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -151,4 +157,22 @@ public class IntFieldWriterTest {
         verify(mockExtractor, times(1)).extract(any(), any(NullableIntHolder.class));
         verify(mockConstraintProjector, times(1)).apply(expectedIntValue);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void write_withCompiledRangeSet_shouldApplyConstraintToPrimitiveValue() throws Exception {
+        try (BlockAllocatorImpl blockAllocator = new BlockAllocatorImpl()) {
+            ArrowType type = Types.MinorType.INT.getType();
+            CompiledRangeSet rangeSet = SortedRangeSet.of(false, Range.range(blockAllocator, type, 100, true, 200, false)).compile();
+            intFieldWriter = new IntFieldWriter(mockExtractor, vector, rangeSet);
+
+            configureIntExtractor(mockExtractor, expectedIntValue, 1);
+            assertTrue(intFieldWriter.write(new Object(), 0));
+
+            configureIntExtractor(mockExtractor, 200, 1);
+            assertFalse(intFieldWriter.write(new Object(), 0));
+
+            configureIntExtractor(mockExtractor, 0, 0);
+            assertFalse(intFieldWriter.write(new Object(), 0));
+        }
+    }
+}
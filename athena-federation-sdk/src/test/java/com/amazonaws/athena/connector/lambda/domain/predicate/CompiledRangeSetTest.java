@@ -0,0 +1,167 @@
+package com.amazonaws.athena.connector.lambda.domain.predicate;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledRangeSetTest
+{
+    private BlockAllocatorImpl allocator;
+
+    @Before
+    public void setup()
+    {
+        allocator = new BlockAllocatorImpl();
+    }
+
+    @After
+    public void tearDown()
+    {
+        allocator.close();
+    }
+
+    @Test
+    public void testInt()
+    {
+        ArrowType type = Types.MinorType.INT.getType();
+        SortedRangeSet rangeSet = SortedRangeSet.of(false,
+                Range.lessThan(allocator, type, -10),
+                Range.range(allocator, type, 0, false, 5, true),
+                Range.equal(allocator, type, 7),
+                Range.greaterThanOrEqual(allocator, type, 100));
+        CompiledRangeSet compiled = rangeSet.compile();
+        assertNotNull(compiled);
+        assertSame(compiled, rangeSet.compile());
+        assertMatches(rangeSet, Arrays.asList(Integer.MIN_VALUE, -11, -10, -1, 0, 1, 5, 6, 7, 8, 99, 100, Integer.MAX_VALUE, null));
+        assertTrue(compiled.contains(Long.MAX_VALUE));
+        assertFalse(compiled.contains(50L));
+    }
+
+    @Test
+    public void testBigInt()
+    {
+        ArrowType type = Types.MinorType.BIGINT.getType();
+        SortedRangeSet rangeSet = SortedRangeSet.of(true,
+                Range.range(allocator, type, Long.MIN_VALUE, true, 0L, false),
+                Range.greaterThan(allocator, type, Long.MAX_VALUE - 1));
+        assertMatches(rangeSet, Arrays.asList(Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE - 1, Long.MAX_VALUE, null));
+
+        SortedRangeSet empty = SortedRangeSet.of(false, Range.greaterThan(allocator, type, Long.MAX_VALUE));
+        assertMatches(empty, Arrays.asList(Long.MIN_VALUE, 0L, Long.MAX_VALUE, null));
+    }
+
+    @Test
+    public void testFloat8()
+    {
+        ArrowType type = Types.MinorType.FLOAT8.getType();
+        SortedRangeSet rangeSet = SortedRangeSet.of(false,
+                Range.range(allocator, type, -1.5D, false, -0.0D, true),
+                Range.range(allocator, type, 0.0D, false, 1.5D, true),
+                Range.greaterThan(allocator, type, 10D));
+        assertMatches(rangeSet, Arrays.asList(-1.5D, -1.4D, -0.0D, 0.0D, Double.MIN_VALUE, 1.5D, 1.6D, 10D, Math.nextUp(10D),
+                Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, null));
+        assertTrue(rangeSet.compile().contains(1D));
+        assertFalse(rangeSet.compile().contains(5D));
+    }
+
+    @Test
+    public void testFloat4()
+    {
+        ArrowType type = Types.MinorType.FLOAT4.getType();
+        SortedRangeSet rangeSet = SortedRangeSet.of(false, Range.range(allocator, type, 1.1F, true, 2.2F, false));
+        assertMatches(rangeSet, Arrays.asList(1.0F, 1.1F, Math.nextUp(1.1F), 2.1F, 2.2F, Float.NaN, null));
+    }
+
+    @Test
+    public void testDates()
+    {
+        ArrowType dateDay = Types.MinorType.DATEDAY.getType();
+        SortedRangeSet dayRangeSet = SortedRangeSet.of(false, Range.range(allocator, dateDay, 100, true, 200, false));
+        assertMatches(dayRangeSet, Arrays.asList(99, 100, 150, 199, 200, null));
+
+        ArrowType dateMilli = Types.MinorType.DATEMILLI.getType();
+        LocalDateTime low = LocalDateTime.of(2020, 1, 1, 0, 0);
+        LocalDateTime high = LocalDateTime.of(2021, 1, 1, 0, 0);
+        SortedRangeSet milliRangeSet = SortedRangeSet.of(false, Range.range(allocator, dateMilli, low, false, high, true));
+        assertMatches(milliRangeSet, Arrays.asList(low.minusNanos(1_000_000), low, low.plusNanos(1_000_000), high, high.plusNanos(1_000_000), null));
+        assertTrue(milliRangeSet.compile().contains(high.toInstant(ZoneOffset.UTC).toEpochMilli()));
+        assertFalse(milliRangeSet.compile().contains(low.toInstant(ZoneOffset.UTC).toEpochMilli()));
+        //Sub millisecond values are not accepted since callers differ in how they truncate them.
+        assertFalse(milliRangeSet.compile().accepts(low.plusNanos(1)));
+    }
+
+    @Test
+    public void testDecimal()
+    {
+        ArrowType type = new ArrowType.Decimal(10, 2, 128);
+        SortedRangeSet rangeSet = SortedRangeSet.of(false,
+                Range.range(allocator, type, new BigDecimal("1.005"), true, new BigDecimal("2.50"), false),
+                Range.greaterThan(allocator, type, new BigDecimal("100.001")));
+        CompiledRangeSet compiled = rangeSet.compile();
+        assertNotNull(compiled);
+        assertEquals(2, compiled.getScale());
+        assertMatches(rangeSet, Arrays.asList(new BigDecimal("1.00"), new BigDecimal("1.01"), new BigDecimal("2.49"),
+                new BigDecimal("2.50"), new BigDecimal("100.00"), new BigDecimal("100.01"), new BigDecimal("5"), null));
+        //Unscaled values at the type's scale.
+        assertTrue(compiled.contains(101L));
+        assertFalse(compiled.contains(100L));
+        assertFalse(compiled.contains(250L));
+    }
+
+    @Test
+    public void testUnsupported()
+    {
+        ArrowType type = Types.MinorType.VARCHAR.getType();
+        assertNull(SortedRangeSet.of(false, Range.equal(allocator, type, "a")).compile());
+    }
+
+    /**
+     * Asserts that the compiled form agrees with the SortedRangeSet for each of the values.
+     */
+    private void assertMatches(SortedRangeSet rangeSet, List<Object> values)
+    {
+        CompiledRangeSet compiled = rangeSet.compile();
+        assertNotNull(compiled);
+        for (Object value : values) {
+            assertTrue("value " + value, compiled.accepts(value));
+            assertEquals("value " + value, rangeSet.containsValue(value), compiled.containsValue(value));
+            assertEquals("value " + value, rangeSet.containsValue(value), compiled.apply(value));
+        }
+    }
+}
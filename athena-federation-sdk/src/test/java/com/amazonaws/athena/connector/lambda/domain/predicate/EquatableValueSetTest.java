@@ -24,11 +24,15 @@ import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
 import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.util.Text;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -329,4 +333,73 @@ public class EquatableValueSetTest
         assertEquals(EquatableValueSet.of(allocator, INT, 0).complement(allocator).subtract(allocator, EquatableValueSet.of(allocator, INT, 0, 1)), EquatableValueSet.of(allocator, INT, 0, 1).complement(allocator));
         assertEquals(EquatableValueSet.of(allocator, INT, 0).complement(allocator).subtract(allocator, EquatableValueSet.of(allocator, INT, 0, 1).complement(allocator)), EquatableValueSet.of(allocator, INT, 1));
     }
+
+    @Test
+    public void testLargeInList()
+            throws Exception
+    {
+        List<Object> values = new ArrayList<>();
+        for (long i = 0; i < 5_000; i++) {
+            values.add(i * 3);
+        }
+        ArrowType bigInt = Types.MinorType.BIGINT.getType();
+        EquatableValueSet equatables = EquatableValueSet.of(allocator, bigInt, false, values);
+        EquatableValueSet complement = equatables.complement(allocator);
+        for (long i = -10; i < 15_010; i++) {
+            boolean expected = i >= 0 && i < 15_000 && i % 3 == 0;
+            assertEquals(expected, equatables.containsValue(i));
+            assertEquals(expected, equatables.containsValue(Marker.exactly(allocator, bigInt, i)));
+            assertEquals(!expected, complement.containsValue(i));
+        }
+        assertFalse(equatables.containsValue(Marker.nullMarker(allocator, bigInt)));
+        assertTrue(complement.containsValue(Marker.nullMarker(allocator, bigInt)));
+
+        List<Object> others = new ArrayList<>();
+        for (long i = 0; i < 5_000; i++) {
+            others.add(i * 2);
+        }
+        EquatableValueSet otherEquatables = EquatableValueSet.of(allocator, bigInt, false, others);
+        EquatableValueSet intersection = equatables.intersect(allocator, otherEquatables);
+        EquatableValueSet union = equatables.union(allocator, otherEquatables);
+        for (long i = 0; i < 15_000; i++) {
+            boolean inLeft = i % 3 == 0;
+            boolean inRight = i < 10_000 && i % 2 == 0;
+            assertEquals(inLeft && inRight, intersection.containsValue(i));
+            assertEquals(inLeft || inRight, union.containsValue(i));
+        }
+    }
+
+    @Test
+    public void testIndexedTypes()
+            throws Exception
+    {
+        ArrowType varchar = Types.MinorType.VARCHAR.getType();
+        EquatableValueSet strings = EquatableValueSet.of(allocator, varchar, "a", "b", "\u00e9t\u00e9", "");
+        assertTrue(strings.containsValue("b"));
+        assertTrue(strings.containsValue(new Text("\u00e9t\u00e9")));
+        assertTrue(strings.containsValue(""));
+        assertFalse(strings.containsValue("c"));
+        assertFalse(strings.containsValue("ab"));
+
+        ArrowType float8 = Types.MinorType.FLOAT8.getType();
+        EquatableValueSet doubles = EquatableValueSet.of(allocator, float8, 0D, 1.5D, Double.NaN);
+        assertTrue(doubles.containsValue(0D));
+        assertTrue(doubles.containsValue(1.5D));
+        assertTrue(doubles.containsValue(Double.NaN));
+        assertFalse(doubles.containsValue(-0D));
+        assertFalse(doubles.containsValue(2D));
+
+        ArrowType dateMilli = Types.MinorType.DATEMILLI.getType();
+        LocalDateTime time = LocalDateTime.of(2020, 2, 3, 4, 5, 6, 7_000_000);
+        EquatableValueSet times = EquatableValueSet.of(allocator, dateMilli, time);
+        assertTrue(times.containsValue(time));
+        assertFalse(times.containsValue(time.plusNanos(1)));
+        assertFalse(times.containsValue(time.plusNanos(1_000_000)));
+
+        ArrowType dateDay = Types.MinorType.DATEDAY.getType();
+        EquatableValueSet days = EquatableValueSet.of(allocator, dateDay, 0, 18_000);
+        assertTrue(days.containsValue(0));
+        assertTrue(days.containsValue(18_000));
+        assertFalse(days.containsValue(1));
+    }
 }
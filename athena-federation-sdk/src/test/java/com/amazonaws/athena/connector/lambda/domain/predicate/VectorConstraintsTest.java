@@ -0,0 +1,195 @@
+package com.amazonaws.athena.connector.lambda.domain.predicate;
+
+/*-
+ * #%L
+ * Amazon Athena Query Federation SDK
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ * #L%
+ */
+
+import com.amazonaws.athena.connector.lambda.data.Block;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.data.BlockUtils;
+import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class VectorConstraintsTest
+{
+    private static final String COLUMN = "col1";
+
+    private BlockAllocatorImpl allocator;
+
+    @Before
+    public void setup()
+    {
+        allocator = new BlockAllocatorImpl();
+    }
+
+    @After
+    public void tearDown()
+    {
+        allocator.close();
+    }
+
+    @Test
+    public void intRangesTest()
+            throws Exception
+    {
+        ArrowType type = Types.MinorType.INT.getType();
+        ValueSet valueSet = SortedRangeSet.of(false,
+                Range.lessThan(allocator, type, -10),
+                Range.range(allocator, type, 0, false, 5, true),
+                Range.greaterThanOrEqual(allocator, type, 100));
+        assertNotNull(VectorConstraints.compile(valueSet));
+        assertMatchesScalar(type, valueSet, Arrays.asList(-11, -10, -1, 0, 1, 5, 6, 99, 100, Integer.MAX_VALUE, Integer.MIN_VALUE, null));
+    }
+
+    @Test
+    public void bigIntRangesTest()
+            throws Exception
+    {
+        ArrowType type = Types.MinorType.BIGINT.getType();
+        ValueSet valueSet = SortedRangeSet.of(true,
+                Range.range(allocator, type, Long.MIN_VALUE, true, 0L, false),
+                Range.greaterThan(allocator, type, Long.MAX_VALUE - 1));
+        assertNotNull(VectorConstraints.compile(valueSet));
+        assertMatchesScalar(type, valueSet, Arrays.asList(Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE - 1, Long.MAX_VALUE, null));
+    }
+
+    @Test
+    public void float8RangesTest()
+            throws Exception
+    {
+        ArrowType type = Types.MinorType.FLOAT8.getType();
+        ValueSet valueSet = SortedRangeSet.of(false,
+                Range.range(allocator, type, -1.5D, false, 1.5D, true),
+                Range.greaterThan(allocator, type, 10D));
+        assertNotNull(VectorConstraints.compile(valueSet));
+        assertMatchesScalar(type, valueSet, Arrays.asList(-1.5D, -1.4D, 0D, 1.5D, 1.6D, 10D, 10.1D, Double.NaN, Double.NEGATIVE_INFINITY, null));
+    }
+
+    @Test
+    public void dateRangesTest()
+            throws Exception
+    {
+        ArrowType dateDay = Types.MinorType.DATEDAY.getType();
+        ValueSet dayValueSet = SortedRangeSet.of(false, Range.range(allocator, dateDay, 100, true, 200, false));
+        assertNotNull(VectorConstraints.compile(dayValueSet));
+        assertMatchesScalar(dateDay, dayValueSet, Arrays.asList(99, 100, 150, 199, 200, null));
+
+        ArrowType dateMilli = Types.MinorType.DATEMILLI.getType();
+        LocalDateTime low = LocalDateTime.of(2020, 1, 1, 0, 0);
+        LocalDateTime high = LocalDateTime.of(2021, 1, 1, 0, 0);
+        ValueSet milliValueSet = SortedRangeSet.of(false, Range.range(allocator, dateMilli, low, false, high, true));
+        assertNotNull(VectorConstraints.compile(milliValueSet));
+        assertMatchesScalar(dateMilli, milliValueSet, Arrays.asList(low.minusSeconds(1), low, low.plusNanos(1_000_000), high, high.plusSeconds(1), null));
+    }
+
+    @Test
+    public void decimalRangesTest()
+            throws Exception
+    {
+        ArrowType type = new ArrowType.Decimal(38, 2, 128);
+        ValueSet valueSet = SortedRangeSet.of(false,
+                Range.range(allocator, type, new BigDecimal("-2.50"), true, new BigDecimal("2.50"), false),
+                Range.greaterThan(allocator, type, new BigDecimal("100000000000000000000")));
+        assertNotNull(VectorConstraints.compile(valueSet));
+        assertMatchesScalar(type, valueSet, Arrays.asList(new BigDecimal("-2.51"), new BigDecimal("-2.50"), new BigDecimal("0.00"),
+                new BigDecimal("2.49"), new BigDecimal("2.50"), new BigDecimal("-100000000000000000000.00"),
+                new BigDecimal("100000000000000000000.01"), null));
+    }
+
+    @Test
+    public void varCharRangesTest()
+            throws Exception
+    {
+        ArrowType type = Types.MinorType.VARCHAR.getType();
+        ValueSet valueSet = SortedRangeSet.of(false,
+                Range.range(allocator, type, "apple", true, "banana", false),
+                Range.equal(allocator, type, "zebra"));
+        assertNotNull(VectorConstraints.compile(valueSet));
+        assertMatchesScalar(type, valueSet, Arrays.asList("apple", "apples", "banana", "aardvark", "zebra", "zebras", "", null));
+    }
+
+    @Test
+    public void equatableValueSetTest()
+            throws Exception
+    {
+        ArrowType type = Types.MinorType.VARCHAR.getType();
+        ValueSet whiteList = EquatableValueSet.newBuilder(allocator, type, true, false).add("a").add("c").build();
+        assertNotNull(VectorConstraints.compile(whiteList));
+        assertMatchesScalar(type, whiteList, Arrays.asList("a", "b", "c", "d", null));
+
+        ArrowType intType = Types.MinorType.INT.getType();
+        ValueSet blackList = EquatableValueSet.newBuilder(allocator, intType, false, false).add(1).add(3).build();
+        assertNotNull(VectorConstraints.compile(blackList));
+        assertMatchesScalar(intType, blackList, Arrays.asList(0, 1, 2, 3, 4, null));
+    }
+
+    @Test
+    public void unsupportedTypeTest()
+    {
+        ArrowType type = Types.MinorType.BIT.getType();
+        assertNull(VectorConstraints.compile(SortedRangeSet.of(false, Range.equal(allocator, type, true))));
+    }
+
+    /**
+     * Asserts that evaluating the values as a vector produces the same results as evaluating them one at a time
+     * using the existing Marker based path.
+     */
+    private void assertMatchesScalar(ArrowType type, ValueSet valueSet, List<Object> values)
+            throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder().addField(COLUMN, type).build();
+        Constraints constraints = new Constraints(Collections.singletonMap(COLUMN, valueSet), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null);
+        try (Block block = allocator.createBlock(schema);
+                ConstraintEvaluator evaluator = new ConstraintEvaluator(allocator, schema, constraints)) {
+            //Leave a leading row so that we also exercise a non-zero offset.
+            FieldVector vector = block.getFieldVector(COLUMN);
+            for (int i = 0; i < values.size(); i++) {
+                BlockUtils.setValue(vector, i + 1, values.get(i));
+            }
+            block.setRowCount(values.size() + 1);
+
+            BitSet selection = new BitSet(values.size());
+            selection.set(0, values.size());
+            evaluator.apply(COLUMN, vector, 1, values.size(), selection);
+
+            for (int i = 0; i < values.size(); i++) {
+                assertEquals("value " + values.get(i), evaluator.apply(COLUMN, values.get(i)), selection.get(i));
+            }
+        }
+    }
+}
@@ -31,6 +31,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+
 import static org.junit.Assert.*;
 
 public class BlockCryptoTest
@@ -74,6 +76,29 @@ public class BlockCryptoTest
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void encryptToStream()
+    {
+        Schema schema = SchemaBuilder.newBuilder()
+                .addField("col1", new ArrowType.Int(32, true))
+                .addField("col2", new ArrowType.Utf8())
+                .build();
+
+        Block expected = allocator.createBlock(schema);
+        for (int i = 0; i < 10_000; i++) {
+            BlockUtils.setValue(expected.getFieldVector("col1"), i, i);
+            BlockUtils.setValue(expected.getFieldVector("col2"), i, "VarChar" + i);
+        }
+        expected.setRowCount(10_000);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        crypto.encrypt(key, expected, out);
+
+        assertArrayEquals(crypto.encrypt(key, expected), out.toByteArray());
+        Block actual = crypto.decrypt(key, out.toByteArray(), schema);
+        assertEquals(expected, actual);
+    }
+
     @Test
     public void decryptWithInvalidBytes()
     {
@@ -23,6 +23,7 @@ import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
 import com.amazonaws.athena.connector.lambda.ThrottlingInvoker;
 import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.BlockUtils;
 import com.amazonaws.athena.connector.lambda.data.FieldResolver;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
@@ -151,10 +152,16 @@ public class GcsRecordHandler
                             // This will be loaded with new values on every call to loadNextBatch on the reader.
                             VectorSchemaRoot root = reader.getVectorSchemaRoot()
                     ) {
+                        List<FieldVector> fieldVectors = invoker.invoke(root::getFieldVectors);
+                        if (partitionColumns.isEmpty() && BlockUtils.canAppendVectors(schema, fieldVectors)) {
+                            // The batch already matches our schema, so bulk copy it instead of converting value by value.
+                            spiller.writeArrowBatch(fieldVectors, root.getRowCount());
+                            continue;
+                        }
                         // We will loop on batch records and consider each records to write in spiller.
                         for (int rowIndex = 0; rowIndex < root.getRowCount(); rowIndex++) {
                             // we are passing record to spiller to be written.
-                            execute(spiller, invoker.invoke(root::getFieldVectors), rowIndex, partitionColumns, split);
+                            execute(spiller, fieldVectors, rowIndex, partitionColumns, split);
                         }
                     }
                 }
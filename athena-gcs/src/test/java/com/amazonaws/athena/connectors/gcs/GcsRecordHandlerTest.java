@@ -20,14 +20,19 @@
 package com.amazonaws.athena.connectors.gcs;
 
 import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
 import com.amazonaws.athena.connector.lambda.data.S3BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.data.SpillConfig;
 import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintEvaluator;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.domain.spill.S3SpillLocation;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connector.lambda.security.EncryptionKey;
@@ -37,6 +42,7 @@ import com.amazonaws.athena.connector.lambda.security.LocalKeyFactory;
 import com.google.auth.oauth2.GoogleCredentials;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -52,16 +58,24 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.io.File;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static com.amazonaws.athena.connectors.gcs.GcsConstants.FILE_FORMAT;
 import static com.amazonaws.athena.connectors.gcs.GcsConstants.STORAGE_SPLIT_JSON;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @TestInstance(PER_CLASS)
@@ -174,4 +188,122 @@ public class GcsRecordHandlerTest extends GenericGcsTest
         }
     }
 
-}
+    @Test
+    public void testReadWithConstraintBulkCopy()
+            throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder().addBigIntField("id").addStringField("name").build();
+        try (BlockAllocator allocator = new BlockAllocatorImpl();
+                ReadRecordsRequest request = newReadRecordsRequest(schema, mockSplit(Collections.emptyMap()), Collections.emptyMap());
+                S3BlockSpiller spiller = newInlineSpiller(allocator, request)) {
+            gcsRecordHandler.readWithConstraint(spiller, request, mock(QueryStatusChecker.class));
+
+            verify(spiller, times(1)).writeArrowBatch(any(), eq(2));
+            verify(spiller, never()).writeRows(any());
+            assertEquals(2, spiller.getBlock().getRowCount(), "Total records should be 2");
+        }
+    }
+
+    @Test
+    public void testReadWithConstraintBulkCopyFiltered()
+            throws Exception
+    {
+        Schema schema = SchemaBuilder.newBuilder().addBigIntField("id").addStringField("name").build();
+        try (BlockAllocator allocator = new BlockAllocatorImpl()) {
+            Map<String, ValueSet> constraintsMap = Collections.singletonMap("name",
+                    SortedRangeSet.of(Range.equal(allocator, Types.MinorType.VARCHAR.getType(), "Azam")));
+            try (ReadRecordsRequest request = newReadRecordsRequest(schema, mockSplit(Collections.emptyMap()), constraintsMap);
+                    S3BlockSpiller spiller = newInlineSpiller(allocator, request)) {
+                gcsRecordHandler.readWithConstraint(spiller, request, mock(QueryStatusChecker.class));
+
+                verify(spiller, times(1)).writeArrowBatch(any(), eq(2));
+                Block block = spiller.getBlock();
+                assertEquals(1, block.getRowCount(), "Only the matching record should be written");
+                assertEquals("Azam", block.getFieldReader("name").readText().toString());
+            }
+        }
+    }
+
+    @Test
+    public void testReadWithConstraintSchemaMismatch()
+            throws Exception
+    {
+        // The parquet file stores id as a 64 bit integer, which must be coerced value by value to the requested type.
+        mockedGcsUtil.when(() -> GcsUtil.coerce(any(), any())).thenCallRealMethod();
+        Schema schema = SchemaBuilder.newBuilder().addIntField("id").addStringField("name").build();
+        try (BlockAllocator allocator = new BlockAllocatorImpl();
+                ReadRecordsRequest request = newReadRecordsRequest(schema, mockSplit(Collections.emptyMap()), Collections.emptyMap());
+                S3BlockSpiller spiller = newInlineSpiller(allocator, request)) {
+            gcsRecordHandler.readWithConstraint(spiller, request, mock(QueryStatusChecker.class));
+
+            verify(spiller, never()).writeArrowBatch(any(), anyInt());
+            verify(spiller, times(2)).writeRows(any());
+            Block block = spiller.getBlock();
+            assertEquals(2, block.getRowCount(), "Total records should be 2");
+            assertNotNull(block.getFieldReader("name").readText());
+        }
+    }
+
+    @Test
+    public void testReadWithConstraintPartitionColumn()
+            throws Exception
+    {
+        // Partition column values come from the split rather than the file, so these batches are written row by row.
+        Schema schema = SchemaBuilder.newBuilder().addBigIntField("id").addStringField("name").addStringField("year").build();
+        try (BlockAllocator allocator = new BlockAllocatorImpl();
+                ReadRecordsRequest request = newReadRecordsRequest(schema, mockSplit(Collections.singletonMap("year", "2022")), Collections.emptyMap());
+                S3BlockSpiller spiller = newInlineSpiller(allocator, request)) {
+            gcsRecordHandler.readWithConstraint(spiller, request, mock(QueryStatusChecker.class));
+
+            verify(spiller, never()).writeArrowBatch(any(), anyInt());
+            verify(spiller, times(2)).writeRows(any());
+            Block block = spiller.getBlock();
+            assertEquals(2, block.getRowCount(), "Total records should be 2");
+            block.getFieldReader("year").setPosition(1);
+            assertEquals("2022", block.getFieldReader("year").readText().toString());
+        }
+    }
+
+    private Split mockSplit(Map<String, String> partitionValues)
+    {
+        Map<String, String> properties = new HashMap<>(partitionValues);
+        properties.put(STORAGE_SPLIT_JSON, "[\"data.parquet\"]");
+        properties.put(FILE_FORMAT, "parquet");
+        Split split = mock(Split.class);
+        when(split.getProperties()).thenReturn(properties);
+        when(split.getProperty(anyString())).thenAnswer(invocation -> properties.get(invocation.getArgument(0, String.class)));
+        return split;
+    }
+
+    private ReadRecordsRequest newReadRecordsRequest(Schema schema, Split split, Map<String, ValueSet> constraintsMap)
+    {
+        return new ReadRecordsRequest(
+                federatedIdentity,
+                GcsTestUtils.PROJECT_1_NAME,
+                "queryId",
+                new TableName("dataset1", "table1"), // dummy table
+                schema,
+                split,
+                new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                0, //This is ignored when directly calling readWithConstraints.
+                0); //This is ignored when directly calling readWithConstraints.
+    }
+
+    /**
+     * Creates a spiller, applying the request's constraints, that keeps the few rows of the test file inline so the
+     * written Block can be inspected.
+     */
+    private S3BlockSpiller newInlineSpiller(BlockAllocator allocator, ReadRecordsRequest request)
+    {
+        SpillConfig spillConfig = SpillConfig.newBuilder()
+                .withEncryptionKey(encryptionKey)
+                .withMaxBlockBytes(100000)
+                .withMaxInlineBlockBytes(100000)
+                .withNumSpillThreads(0)
+                .withRequestId(UUID.randomUUID().toString())
+                .withSpillLocation(s3SpillLocation)
+                .build();
+        ConstraintEvaluator evaluator = new ConstraintEvaluator(allocator, request.getSchema(), request.getConstraints());
+        return Mockito.spy(new S3BlockSpiller(mock(S3Client.class), spillConfig, allocator, request.getSchema(), evaluator, com.google.common.collect.ImmutableMap.of()));
+    }
+}
\ No newline at end of file
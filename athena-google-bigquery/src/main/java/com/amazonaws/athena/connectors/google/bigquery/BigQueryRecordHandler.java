@@ -24,6 +24,7 @@ import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
 import com.amazonaws.athena.connector.lambda.ThrottlingInvoker;
 import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.BlockUtils;
 import com.amazonaws.athena.connector.lambda.data.FieldResolver;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.handlers.RecordHandler;
@@ -283,6 +284,11 @@ public class BigQueryRecordHandler
                     Preconditions.checkState(response.hasArrowRecordBatch());
                     VectorSchemaRoot root = reader.processRows(response.getArrowRecordBatch());
                     long rowLimit = (recordsRequest.getConstraints().getLimit() > 0 && recordsRequest.getConstraints().getLimit() < root.getRowCount()) ? recordsRequest.getConstraints().getLimit() : root.getRowCount();
+                    if (BlockUtils.canAppendVectors(recordsRequest.getSchema(), root.getFieldVectors())) {
+                        // The batch already matches our schema, so bulk copy it instead of converting value by value.
+                        spiller.writeArrowBatch(root.getFieldVectors(), (int) rowLimit);
+                        continue;
+                    }
                     for (int rowIndex = 0; rowIndex < rowLimit; rowIndex++) {
                         outputResults(spiller, recordsRequest, root, rowIndex);
                     }
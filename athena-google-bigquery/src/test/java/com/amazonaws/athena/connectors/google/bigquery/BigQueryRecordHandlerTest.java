@@ -20,6 +20,7 @@
 package com.amazonaws.athena.connectors.google.bigquery;
 
 import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
 import com.amazonaws.athena.connector.lambda.data.S3BlockSpillReader;
@@ -29,6 +30,9 @@ import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintEvaluator;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.domain.spill.S3SpillLocation;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connector.lambda.security.EncryptionKey;
@@ -52,25 +56,26 @@ import com.google.cloud.bigquery.storage.v1.ReadStream;
 import com.google.common.collect.ImmutableList;
 import com.google.protobuf.ByteString;
 import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
 import org.apache.arrow.vector.BitVector;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.Float8Vector;
 import org.apache.arrow.vector.IntVector;
 import org.apache.arrow.vector.VarCharVector;
-import org.apache.arrow.vector.VectorLoader;
+import org.apache.arrow.vector.VectorUnloader;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.complex.ListVector;
 import org.apache.arrow.vector.complex.impl.UnionListWriter;
-import org.apache.arrow.vector.ipc.ReadChannel;
+import org.apache.arrow.vector.ipc.WriteChannel;
 import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
 import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
-import org.mockito.MockedConstruction;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -80,6 +85,8 @@ import software.amazon.awssdk.services.athena.AthenaClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -89,12 +96,17 @@ import java.util.UUID;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
 import static com.amazonaws.athena.connectors.google.bigquery.BigQueryTestUtils.getBlockTestSchema;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -136,11 +148,39 @@ public class BigQueryRecordHandlerTest
             .build();
     private FederatedIdentity federatedIdentity;
     private MockedStatic<BigQueryUtils> mockedStatic;
-    private MockedStatic<MessageSerializer> messageSer;
-    MockedConstruction<VectorSchemaRoot> mockedDefaultVectorSchemaRoot;
-    MockedConstruction<VectorLoader> mockedDefaultVectorLoader;
+    private MockedStatic<BigQueryReadClient> mockedReadClient;
 
     public List<FieldVector> getFieldVectors()
+    {
+        List<FieldVector> fieldVectors = getSchemaFieldVectors();
+        IntVector innerVector = new IntVector("innerVector", rootAllocator);
+        innerVector.allocateNew(1024);
+        innerVector.setSafe(0, 10);
+        innerVector.setSafe(1, 20);
+        innerVector.setSafe(2, 30);
+        innerVector.setValueCount(3);
+
+        // Create a ListVector and add the inner vector to it
+        ListVector listVector = ListVector.empty("listVector", rootAllocator);
+        UnionListWriter writer = listVector.getWriter();
+        for (int i = 0; i < 2; i++) {
+            writer.startList();
+            writer.setPosition(i);
+            for (int j = 0; j < 5; j++) {
+                writer.writeInt(j * i);
+            }
+            writer.setValueCount(5);
+            writer.endList();
+        }
+        listVector.setValueCount(2);
+        fieldVectors.add(listVector);
+        return fieldVectors;
+    }
+
+    /**
+     * Returns vectors that match the fields of the request schema, so they can be bulk copied into the spill blocks.
+     */
+    public List<FieldVector> getSchemaFieldVectors()
     {
         List<FieldVector> fieldVectors = new ArrayList<>();
         IntVector intVector = new IntVector("int1", rootAllocator);
@@ -167,27 +207,6 @@ public class BigQueryRecordHandlerTest
         float8Vector.setSafe(1, 0.0f);
         float8Vector.setValueCount(2);
         fieldVectors.add(float8Vector);
-        IntVector innerVector = new IntVector("innerVector", rootAllocator);
-        innerVector.allocateNew(1024);
-        innerVector.setSafe(0, 10);
-        innerVector.setSafe(1, 20);
-        innerVector.setSafe(2, 30);
-        innerVector.setValueCount(3);
-
-        // Create a ListVector and add the inner vector to it
-        ListVector listVector = ListVector.empty("listVector", rootAllocator);
-        UnionListWriter writer = listVector.getWriter();
-        for (int i = 0; i < 2; i++) {
-            writer.startList();
-            writer.setPosition(i);
-            for (int j = 0; j < 5; j++) {
-                writer.writeInt(j * i);
-            }
-            writer.setValueCount(5);
-            writer.endList();
-        }
-        listVector.setValueCount(2);
-        fieldVectors.add(listVector);
         return fieldVectors;
     }
 
@@ -208,7 +227,7 @@ public class BigQueryRecordHandlerTest
                 //This will be enough for a single block
                 .withMaxBlockBytes(100000)
                 //This will force the writer to spill.
-                .withMaxInlineBlockBytes(100)
+                .withMaxInlineBlockBytes(10)
                 //Async Writing.
                 .withNumSpillThreads(0)
                 .withRequestId(UUID.randomUUID().toString())
@@ -239,10 +258,8 @@ public class BigQueryRecordHandlerTest
     @After
     public void close()
     {
-        mockedDefaultVectorLoader.close();
-        mockedDefaultVectorSchemaRoot.close();
+        mockedReadClient.close();
         mockedStatic.close();
-        messageSer.close();
         allocator.close();
     }
 
@@ -250,7 +267,107 @@ public class BigQueryRecordHandlerTest
     public void testReadWithConstraint()
             throws Exception
     {
-        try (ReadRecordsRequest request = new ReadRecordsRequest(
+        try (ReadRecordsRequest request = newReadRecordsRequest(Collections.emptyMap(), DEFAULT_NO_LIMIT)) {
+            mockReadRows(getFieldVectors(), 2);
+            QueryStatusChecker queryStatusChecker = mock(QueryStatusChecker.class);
+
+            //Execute the test
+            bigQueryRecordHandler.readWithConstraint(spillWriter, request, queryStatusChecker);
+
+            //Ensure that there was a spill so that we can read the spilled block.
+            assertTrue(spillWriter.spilled());
+        }
+    }
+
+    @Test
+    public void testReadWithConstraintBulkCopy()
+            throws Exception
+    {
+        try (ReadRecordsRequest request = newReadRecordsRequest(Collections.emptyMap(), DEFAULT_NO_LIMIT);
+                S3BlockSpiller spiller = newInlineSpiller(request)) {
+            mockReadRows(getSchemaFieldVectors(), 2);
+
+            bigQueryRecordHandler.readWithConstraint(spiller, request, mock(QueryStatusChecker.class));
+
+            verify(spiller, times(1)).writeArrowBatch(any(), eq(2));
+            verify(spiller, never()).writeRows(any());
+            Block block = spiller.getBlock();
+            assertEquals(2, block.getRowCount());
+            assertEquals(42, block.getFieldReader("int1").readInteger().intValue());
+            block.getFieldReader("string1").setPosition(1);
+            assertEquals("test1", block.getFieldReader("string1").readText().toString());
+        }
+    }
+
+    @Test
+    public void testReadWithConstraintBulkCopyFiltered()
+            throws Exception
+    {
+        Map<String, ValueSet> constraintsMap = Collections.singletonMap("int1",
+                SortedRangeSet.of(Range.equal(allocator, Types.MinorType.INT.getType(), 3)));
+        try (ReadRecordsRequest request = newReadRecordsRequest(constraintsMap, DEFAULT_NO_LIMIT);
+                S3BlockSpiller spiller = newInlineSpiller(request)) {
+            mockReadRows(getSchemaFieldVectors(), 2);
+
+            bigQueryRecordHandler.readWithConstraint(spiller, request, mock(QueryStatusChecker.class));
+
+            verify(spiller, times(1)).writeArrowBatch(any(), eq(2));
+            Block block = spiller.getBlock();
+            assertEquals(1, block.getRowCount());
+            assertEquals(3, block.getFieldReader("int1").readInteger().intValue());
+            assertEquals("test1", block.getFieldReader("string1").readText().toString());
+        }
+    }
+
+    @Test
+    public void testReadWithConstraintBulkCopyLimit()
+            throws Exception
+    {
+        try (ReadRecordsRequest request = newReadRecordsRequest(Collections.emptyMap(), 1);
+                S3BlockSpiller spiller = newInlineSpiller(request)) {
+            mockReadRows(getSchemaFieldVectors(), 2);
+
+            bigQueryRecordHandler.readWithConstraint(spiller, request, mock(QueryStatusChecker.class));
+
+            verify(spiller, times(1)).writeArrowBatch(any(), eq(1));
+            Block block = spiller.getBlock();
+            assertEquals(1, block.getRowCount());
+            assertEquals(42, block.getFieldReader("int1").readInteger().intValue());
+        }
+    }
+
+    @Test
+    public void testReadWithConstraintSchemaMismatch()
+            throws Exception
+    {
+        //BigQuery returns int1 as a 64 bit integer which must be coerced, value by value, to the 32 bit int in our schema.
+        List<FieldVector> fieldVectors = getSchemaFieldVectors();
+        fieldVectors.remove(0).close();
+        BigIntVector bigIntVector = new BigIntVector("int1", rootAllocator);
+        bigIntVector.allocateNew(2);
+        bigIntVector.setSafe(0, 42L);
+        bigIntVector.setSafe(1, 3L);
+        bigIntVector.setValueCount(2);
+        fieldVectors.add(bigIntVector);
+
+        try (ReadRecordsRequest request = newReadRecordsRequest(Collections.emptyMap(), DEFAULT_NO_LIMIT);
+                S3BlockSpiller spiller = newInlineSpiller(request)) {
+            mockReadRows(fieldVectors, 2);
+
+            bigQueryRecordHandler.readWithConstraint(spiller, request, mock(QueryStatusChecker.class));
+
+            verify(spiller, never()).writeArrowBatch(any(), anyInt());
+            verify(spiller, times(2)).writeRows(any());
+            Block block = spiller.getBlock();
+            assertEquals(2, block.getRowCount());
+            block.getFieldReader("int1").setPosition(1);
+            assertEquals(3, block.getFieldReader("int1").readInteger().intValue());
+        }
+    }
+
+    private ReadRecordsRequest newReadRecordsRequest(Map<String, ValueSet> constraintsMap, long limit)
+    {
+        return new ReadRecordsRequest(
                 federatedIdentity,
                 BigQueryTestUtils.PROJECT_1_NAME,
                 "queryId",
@@ -264,61 +381,67 @@ public class BigQueryRecordHandlerTest
                                 .withIsDirectory(true)
                                 .build(),
                         keyFactory.create()).build(),
-                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), limit, Collections.emptyMap(), null),
                 0,          //This is ignored when directly calling readWithConstraints.
-                0)) {
-
-            // Mocking necessary dependencies
-            ReadSession readSession = mock(ReadSession.class);
-            ReadRowsResponse readRowsResponse = mock(ReadRowsResponse.class);
-            ServerStreamingCallable ssCallable = mock(ServerStreamingCallable.class);
-
-            // Mocking method calls
-            mockStatic(BigQueryReadClient.class);
-            when(BigQueryReadClient.create()).thenReturn(bigQueryReadClient);
-            messageSer = mockStatic(MessageSerializer.class);
-            when(MessageSerializer.deserializeSchema((ReadChannel) any())).thenReturn(BigQueryTestUtils.getBlockTestSchema());
-            mockedDefaultVectorLoader = Mockito.mockConstruction(VectorLoader.class,
-                    (mock, context) -> {
-                        Mockito.doNothing().when(mock).load(any());
-                    });
-            mockedDefaultVectorSchemaRoot = Mockito.mockConstruction(VectorSchemaRoot.class,
-                    (mock, context) -> {
-                        when(mock.getRowCount()).thenReturn(2);
-                        when(mock.getFieldVectors()).thenReturn(getFieldVectors());
-                    });
-            when(bigQueryReadClient.createReadSession(any(CreateReadSessionRequest.class))).thenReturn(readSession);
-            when(readSession.getArrowSchema()).thenReturn(arrowSchema);
-            when(readSession.getStreamsCount()).thenReturn(1);
-            ReadStream readStream = mock(ReadStream.class);
-            when(readSession.getStreams(anyInt())).thenReturn(readStream);
-            when(readStream.getName()).thenReturn("testStream");
-            byte[] byteArray1 = {(byte) 0xFF};
-            ByteString byteString1 = ByteString.copyFrom(byteArray1);
-
-            ByteString bs = mock(ByteString.class);
-            when(arrowSchema.getSerializedSchema()).thenReturn(bs);
-            when(bs.toByteArray()).thenReturn(byteArray1);
-            when(bigQueryReadClient.readRowsCallable()).thenReturn(ssCallable);
-            when(ssCallable.call(any(ReadRowsRequest.class))).thenReturn(serverStream);
-            when(serverStream.iterator()).thenReturn(ImmutableList.of(readRowsResponse).iterator());
-            when(readRowsResponse.hasArrowRecordBatch()).thenReturn(true);
-            com.google.cloud.bigquery.storage.v1.ArrowRecordBatch arrowRecordBatch = mock(com.google.cloud.bigquery.storage.v1.ArrowRecordBatch.class);
-            when(readRowsResponse.getArrowRecordBatch()).thenReturn(arrowRecordBatch);
-            byte[] byteArray = {(byte) 0xFF};
-            ByteString byteString = ByteString.copyFrom(byteArray);
-            when(arrowRecordBatch.getSerializedRecordBatch()).thenReturn(byteString);
-            ArrowRecordBatch apacheArrowRecordBatch = mock(ArrowRecordBatch.class);
-            when(MessageSerializer.deserializeRecordBatch(any(ReadChannel.class), any())).thenReturn(apacheArrowRecordBatch);
-            Mockito.doNothing().when(apacheArrowRecordBatch).close();
-
-            QueryStatusChecker queryStatusChecker = mock(QueryStatusChecker.class);
+                0);
+    }
 
-            //Execute the test
-            bigQueryRecordHandler.readWithConstraint(spillWriter, request, queryStatusChecker);
+    /**
+     * Creates a spiller, applying the request's constraints, that keeps the rows of these small tests inline so the
+     * written Block can be inspected.
+     */
+    private S3BlockSpiller newInlineSpiller(ReadRecordsRequest request)
+    {
+        SpillConfig inlineSpillConfig = SpillConfig.newBuilder()
+                .withEncryptionKey(encryptionKey)
+                .withMaxBlockBytes(100000)
+                .withMaxInlineBlockBytes(100000)
+                .withNumSpillThreads(0)
+                .withRequestId(UUID.randomUUID().toString())
+                .withSpillLocation(s3SpillLocation)
+                .build();
+        ConstraintEvaluator evaluator = new ConstraintEvaluator(allocator, schemaForRead, request.getConstraints());
+        return Mockito.spy(new S3BlockSpiller(amazonS3, inlineSpillConfig, allocator, schemaForRead, evaluator, com.google.common.collect.ImmutableMap.of()));
+    }
 
-            //Ensure that there was a spill so that we can read the spilled block.
-            assertTrue(spillWriter.spilled());
+    /**
+     * Mocks a read session with a single stream that returns one Arrow batch, made of the provided vectors, serialized
+     * the same way as the BigQuery Storage API.
+     */
+    private void mockReadRows(List<FieldVector> batchVectors, int batchRowCount)
+            throws Exception
+    {
+        VectorSchemaRoot batch = new VectorSchemaRoot(batchVectors);
+        batch.setRowCount(batchRowCount);
+        ByteArrayOutputStream schemaBytes = new ByteArrayOutputStream();
+        MessageSerializer.serialize(new WriteChannel(Channels.newChannel(schemaBytes)), batch.getSchema());
+        ByteArrayOutputStream batchBytes = new ByteArrayOutputStream();
+        try (ArrowRecordBatch recordBatch = new VectorUnloader(batch).getRecordBatch()) {
+            MessageSerializer.serialize(new WriteChannel(Channels.newChannel(batchBytes)), recordBatch);
         }
+        batch.close();
+
+        // Mocking necessary dependencies
+        ReadSession readSession = mock(ReadSession.class);
+        ReadRowsResponse readRowsResponse = mock(ReadRowsResponse.class);
+        ServerStreamingCallable ssCallable = mock(ServerStreamingCallable.class);
+
+        // Mocking method calls
+        mockedReadClient = mockStatic(BigQueryReadClient.class);
+        when(BigQueryReadClient.create()).thenReturn(bigQueryReadClient);
+        when(bigQueryReadClient.createReadSession(any(CreateReadSessionRequest.class))).thenReturn(readSession);
+        when(readSession.getArrowSchema()).thenReturn(arrowSchema);
+        when(readSession.getStreamsCount()).thenReturn(1);
+        ReadStream readStream = mock(ReadStream.class);
+        when(readSession.getStreams(anyInt())).thenReturn(readStream);
+        when(readStream.getName()).thenReturn("testStream");
+        when(arrowSchema.getSerializedSchema()).thenReturn(ByteString.copyFrom(schemaBytes.toByteArray()));
+        when(bigQueryReadClient.readRowsCallable()).thenReturn(ssCallable);
+        when(ssCallable.call(any(ReadRowsRequest.class))).thenReturn(serverStream);
+        when(serverStream.iterator()).thenReturn(ImmutableList.of(readRowsResponse).iterator());
+        when(readRowsResponse.hasArrowRecordBatch()).thenReturn(true);
+        com.google.cloud.bigquery.storage.v1.ArrowRecordBatch arrowRecordBatch = mock(com.google.cloud.bigquery.storage.v1.ArrowRecordBatch.class);
+        when(readRowsResponse.getArrowRecordBatch()).thenReturn(arrowRecordBatch);
+        when(arrowRecordBatch.getSerializedRecordBatch()).thenReturn(ByteString.copyFrom(batchBytes.toByteArray()));
     }
 }
@@ -53,6 +53,7 @@ import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.hadoop.hbase.HRegionInfo;
 import org.apache.hadoop.hbase.NamespaceDescriptor;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.athena.AthenaClient;
@@ -296,6 +297,7 @@ public class HbaseMetadataHandler
 
     /**
      * If the table is spread across multiple region servers, then we parallelize the scan by making each region server a split.
+     * Regions whose key range can not contain any of the row keys allowed by the query's row key constraint are skipped.
      *
      * @see GlueMetadataHandler
      */
@@ -309,9 +311,14 @@ public class HbaseMetadataHandler
         }
 
         Set<Split> splits = new HashSet<>();
+        List<RowRange> rowRanges = HbaseRowKeyUtils.getRowRanges(request.getConstraints().getSummary());
 
         //We can read each region in parallel
         for (HRegionInfo info : getOrCreateConn(request).getTableRegions(HbaseTableNameUtils.getQualifiedTable(request.getTableName()))) {
+            if (rowRanges != null && !HbaseRowKeyUtils.intersects(rowRanges, info.getStartKey(), info.getEndKey())) {
+                logger.debug("doGetSplits: Pruned region {}", info.getRegionNameAsString());
+                continue;
+            }
             Split.Builder splitBuilder = Split.newBuilder(makeSpillLocation(request), makeEncryptionKey())
                     .add(HBASE_CONN_STR, getConnStr(request))
                     .add(START_KEY_FIELD, new String(info.getStartKey()))
@@ -43,6 +43,9 @@ import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.filter.BinaryComparator;
 import org.apache.hadoop.hbase.filter.CompareFilter;
 import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
 import org.apache.hadoop.hbase.filter.ParseFilter;
 import org.apache.hadoop.hbase.filter.RowFilter;
 import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
@@ -55,11 +58,13 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.io.IOException;
 import java.nio.charset.CharacterCodingException;
+import java.util.List;
 import java.util.Map;
 
 import static com.amazonaws.athena.connectors.hbase.HbaseMetadataHandler.END_KEY_FIELD;
 import static com.amazonaws.athena.connectors.hbase.HbaseMetadataHandler.HBASE_CONN_STR;
 import static com.amazonaws.athena.connectors.hbase.HbaseMetadataHandler.HBASE_NATIVE_STORAGE_FLAG;
+import static com.amazonaws.athena.connectors.hbase.HbaseMetadataHandler.REGION_NAME_FIELD;
 import static com.amazonaws.athena.connectors.hbase.HbaseMetadataHandler.START_KEY_FIELD;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -79,9 +84,22 @@ public class HbaseRecordHandler
 
     //Used to denote the 'type' of this connector for diagnostic purposes.
     private static final String SOURCE_TYPE = "hbase";
+    //The number of rows fetched per scanner RPC, if not set the client's hbase.client.scanner.caching applies.
+    private static final String SCAN_CACHING = "scan_caching";
+    //The max bytes returned per scanner RPC, if not set the client's hbase.client.scanner.max.result.size applies.
+    private static final String SCAN_MAX_RESULT_SIZE = "scan_max_result_size";
+    //If true the scanner fetches the next rows from the region server while the current rows are being written, if not
+    //set the client's hbase.client.scanner.async.prefetch applies.
+    private static final String SCAN_ASYNC_PREFETCH = "scan_async_prefetch";
+    //If true the scan metrics (RPCs, bytes, rows scanned and filtered) are logged when the scan completes.
+    private static final String SCAN_METRICS_ENABLED = "scan_metrics_enabled";
 
     private final S3Client amazonS3;
     private final HbaseConnectionFactory connectionFactory;
+    private final Integer scanCaching;
+    private final Long scanMaxResultSize;
+    private final Boolean scanAsyncPrefetch;
+    private final boolean scanMetricsEnabled;
 
     private final HbaseQueryPassthrough queryPassthrough = new HbaseQueryPassthrough();
 
@@ -101,6 +119,10 @@ public class HbaseRecordHandler
         super(amazonS3, secretsManager, athena, SOURCE_TYPE, configOptions);
         this.amazonS3 = amazonS3;
         this.connectionFactory = connectionFactory;
+        this.scanCaching = configOptions.containsKey(SCAN_CACHING) ? Integer.valueOf(configOptions.get(SCAN_CACHING)) : null;
+        this.scanMaxResultSize = configOptions.containsKey(SCAN_MAX_RESULT_SIZE) ? Long.valueOf(configOptions.get(SCAN_MAX_RESULT_SIZE)) : null;
+        this.scanAsyncPrefetch = configOptions.containsKey(SCAN_ASYNC_PREFETCH) ? Boolean.valueOf(configOptions.get(SCAN_ASYNC_PREFETCH)) : null;
+        this.scanMetricsEnabled = Boolean.parseBoolean(configOptions.getOrDefault(SCAN_METRICS_ENABLED, "false"));
     }
 
     private HBaseConnection getOrCreateConn(String conStr)
@@ -158,13 +180,48 @@ public class HbaseRecordHandler
         for (Field next : request.getSchema().getFields()) {
             addToProjection(scan, next);
         }
+        configureScanner(scan);
 
         getOrCreateConn(conStr).scanTable(HbaseTableNameUtils.getQualifiedTable(tableNameObj),
                 scan,
                 (ResultScanner scanner) -> scanFilterProject(scanner, request, blockSpiller, queryStatusChecker));
     }
 
+    /**
+     * Applies the scanner tuning options from the connector's config to the scan, any option that is not set keeps
+     * the HBase client's default. Scan.setBatch(...) is deliberately not exposed since it splits wide rows across
+     * several Results, each of which would be written as a separate row.
+     *
+     * @param scan The scan object that will be used to read data from HBase.
+     */
+    private void configureScanner(Scan scan)
+    {
+        if (scanCaching != null) {
+            scan.setCaching(scanCaching);
+        }
+        if (scanMaxResultSize != null) {
+            scan.setMaxResultSize(scanMaxResultSize);
+        }
+        if (scanAsyncPrefetch != null) {
+            scan.setAsyncPrefetch(scanAsyncPrefetch);
+        }
+        scan.setScanMetricsEnabled(scanMetricsEnabled);
+    }
+
     private boolean scanFilterProject(ResultScanner scanner, ReadRecordsRequest request, BlockSpiller blockSpiller, QueryStatusChecker queryStatusChecker)
+    {
+        try {
+            return writeResults(scanner, request, blockSpiller, queryStatusChecker);
+        }
+        finally {
+            if (scanMetricsEnabled && scanner.getScanMetrics() != null) {
+                logger.info("scanFilterProject: region[{}] scan metrics {}", request.getSplit().getProperty(REGION_NAME_FIELD),
+                        scanner.getScanMetrics().getMetricsMap());
+            }
+        }
+    }
+
+    private boolean writeResults(ResultScanner scanner, ReadRecordsRequest request, BlockSpiller blockSpiller, QueryStatusChecker queryStatusChecker)
     {
         Schema projection = request.getSchema();
         boolean isNative = projection.getCustomMetadata().get(HBASE_NATIVE_STORAGE_FLAG) != null;
@@ -264,12 +321,28 @@ public class HbaseRecordHandler
      * @param isNative True if the values are stored in HBase using native byte[] vs being serialized as Strings.
      * @param constraints The constraints that we can attempt to push into HBase as part of the scan.
      * @return A filter if we found a predicate we can push down, null otherwise/
-     * @note Currently this method only supports constraints that can be represented by HBase's SingleColumnValueFilter
-     * or RowFilter and CompareOp of EQUAL. In the future we can add > and < for certain field types.
+     * @note Constraints on the row key (e.g. IN lists or several disjoint ranges) are pushed down as a
+     * MultiRowRangeFilter, which lets the region server seek directly to each range. Beyond that this method only
+     * supports a single constraint that can be represented by HBase's SingleColumnValueFilter and CompareOp of EQUAL.
+     * In the future we can add > and < for certain field types.
      */
     private Filter pushdownPredicate(boolean isNative, Constraints constraints)
+    {
+        List<RowRange> rowRanges = HbaseRowKeyUtils.getRowRanges(constraints.getSummary());
+        Filter rowFilter = rowRanges == null ? null : new MultiRowRangeFilter(rowRanges);
+        Filter columnFilter = pushdownColumnPredicate(isNative, constraints, rowRanges != null);
+        if (rowFilter != null && columnFilter != null) {
+            return new FilterList(FilterList.Operator.MUST_PASS_ALL, rowFilter, columnFilter);
+        }
+        return rowFilter != null ? rowFilter : columnFilter;
+    }
+
+    private Filter pushdownColumnPredicate(boolean isNative, Constraints constraints, boolean rowKeyPushedDown)
     {
         for (Map.Entry<String, ValueSet> next : constraints.getSummary().entrySet()) {
+            if (rowKeyPushedDown && next.getKey().equals(HbaseSchemaUtils.ROW_COLUMN_NAME)) {
+                continue;
+            }
             if (next.getValue().isSingleValue() && !next.getValue().isNullAllowed()) {
                 byte[] value = HbaseSchemaUtils.toBytes(isNative, next.getValue().getSingleValue());
                 String[] colParts = HbaseSchemaUtils.extractColumnParts(next.getKey());
@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * athena-hbase
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.hbase;
+
+import com.amazonaws.athena.connector.lambda.domain.predicate.EquatableValueSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Marker;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collection of helper methods which translate constraints on the special 'row' column into HBase row key ranges,
+ * these are used to prune regions when generating splits and to only read the matching key ranges within a region.
+ */
+public class HbaseRowKeyUtils
+{
+    private HbaseRowKeyUtils() {}
+
+    /**
+     * Converts the constraint on the row key, if any, into the row key ranges that can contain matching rows.
+     *
+     * @param constraintSummary The constraints of the query.
+     * @return The row key ranges to read, or null if all rows must be read.
+     */
+    public static List<RowRange> getRowRanges(Map<String, ValueSet> constraintSummary)
+    {
+        ValueSet valueSet = constraintSummary.get(HbaseSchemaUtils.ROW_COLUMN_NAME);
+        if (valueSet == null || valueSet.isNone() || valueSet.isAll()) {
+            return null;
+        }
+
+        List<RowRange> rowRanges = new ArrayList<>();
+        if (valueSet instanceof EquatableValueSet) {
+            EquatableValueSet equatableValueSet = (EquatableValueSet) valueSet;
+            if (!equatableValueSet.isWhiteList()) {
+                return null;
+            }
+            for (int i = 0; i < equatableValueSet.getValueBlock().getRowCount(); i++) {
+                byte[] rowKey = toRowKey(equatableValueSet.getValue(i));
+                rowRanges.add(new RowRange(rowKey, true, rowKey, true));
+            }
+        }
+        else if (valueSet instanceof SortedRangeSet) {
+            for (Range range : valueSet.getRanges().getOrderedRanges()) {
+                Marker low = range.getLow();
+                Marker high = range.getHigh();
+                rowRanges.add(new RowRange(
+                        low.isLowerUnbounded() ? HConstants.EMPTY_START_ROW : toRowKey(low.getValue()),
+                        low.isLowerUnbounded() || low.getBound() == Marker.Bound.EXACTLY,
+                        high.isUpperUnbounded() ? HConstants.EMPTY_END_ROW : toRowKey(high.getValue()),
+                        !high.isUpperUnbounded() && high.getBound() == Marker.Bound.EXACTLY));
+            }
+        }
+        else {
+            return null;
+        }
+        return rowRanges.isEmpty() ? null : rowRanges;
+    }
+
+    /**
+     * Checks whether any of the row key ranges overlaps the given region.
+     *
+     * @param rowRanges The row key ranges, as returned by getRowRanges(...).
+     * @param regionStartKey The (inclusive) start key of the region, empty for the first region.
+     * @param regionEndKey The (exclusive) end key of the region, empty for the last region.
+     * @return True if the region may contain rows in one of the ranges.
+     */
+    public static boolean intersects(List<RowRange> rowRanges, byte[] regionStartKey, byte[] regionEndKey)
+    {
+        for (RowRange next : rowRanges) {
+            byte[] rangeStart = next.getStartRow();
+            byte[] rangeStop = next.getStopRow();
+            boolean startsBeforeRegionEnd = regionEndKey.length == 0 || Bytes.compareTo(rangeStart, regionEndKey) < 0;
+            boolean endsAfterRegionStart = rangeStop.length == 0 || Bytes.compareTo(rangeStop, regionStartKey) > 0 ||
+                    (next.isStopRowInclusive() && Bytes.compareTo(rangeStop, regionStartKey) == 0);
+            if (startsBeforeRegionEnd && endsAfterRegionStart) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] toRowKey(Object value)
+    {
+        //The row column is always read as a String, see HbaseRecordHandler.writeField(...)
+        return Bytes.toBytes(value.toString());
+    }
+}
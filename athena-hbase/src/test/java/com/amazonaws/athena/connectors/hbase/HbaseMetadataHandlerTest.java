@@ -26,6 +26,9 @@ import com.amazonaws.athena.connector.lambda.data.BlockUtils;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsRequest;
 import com.amazonaws.athena.connector.lambda.metadata.GetSplitsResponse;
 import com.amazonaws.athena.connector.lambda.metadata.GetTableLayoutRequest;
@@ -42,6 +45,8 @@ import com.amazonaws.athena.connector.lambda.security.LocalKeyFactory;
 import com.amazonaws.athena.connectors.hbase.connection.HBaseConnection;
 import com.amazonaws.athena.connectors.hbase.connection.HbaseConnectionFactory;
 import com.amazonaws.athena.connectors.hbase.connection.ResultProcessor;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.hadoop.hbase.HRegionInfo;
@@ -67,8 +72,10 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
@@ -305,4 +312,40 @@ public class HbaseMetadataHandlerTest
         assertTrue("Continuation criteria violated", response.getSplits().size() == 4);
         assertTrue("Continuation criteria violated", response.getContinuationToken() == null);
     }
+
+    @Test
+    public void doGetSplitsPrunesRegions()
+            throws IOException
+    {
+        org.apache.hadoop.hbase.TableName hbaseTable = org.apache.hadoop.hbase.TableName.valueOf("schema1", "table1");
+        List<HRegionInfo> regionServers = new ArrayList<>();
+        regionServers.add(new HRegionInfo(hbaseTable, new byte[0], "b".getBytes()));
+        regionServers.add(new HRegionInfo(hbaseTable, "b".getBytes(), "d".getBytes()));
+        regionServers.add(new HRegionInfo(hbaseTable, "d".getBytes(), "f".getBytes()));
+        regionServers.add(new HRegionInfo(hbaseTable, "f".getBytes(), new byte[0]));
+        when(mockClient.getTableRegions(any())).thenReturn(regionServers);
+
+        //row IN ('a', 'e') only needs the first and third regions
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put(HbaseSchemaUtils.ROW_COLUMN_NAME, SortedRangeSet.copyOf(Types.MinorType.VARCHAR.getType(),
+                ImmutableList.of(Range.equal(allocator, Types.MinorType.VARCHAR.getType(), "a"),
+                        Range.equal(allocator, Types.MinorType.VARCHAR.getType(), "e")), false));
+
+        Block partitions = BlockUtils.newBlock(allocator, "partitionId", Types.MinorType.INT.getType(), 0);
+        GetSplitsRequest req = new GetSplitsRequest(IDENTITY,
+                QUERY_ID,
+                DEFAULT_CATALOG,
+                TABLE_NAME,
+                partitions,
+                new ArrayList<>(),
+                new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                null);
+
+        GetSplitsResponse response = handler.doGetSplits(allocator, req);
+
+        Set<String> startKeys = new HashSet<>();
+        response.getSplits().forEach(next -> startKeys.add(next.getProperty(HbaseMetadataHandler.START_KEY_FIELD)));
+        assertEquals(ImmutableSet.of("", "d"), startKeys);
+    }
 }
+
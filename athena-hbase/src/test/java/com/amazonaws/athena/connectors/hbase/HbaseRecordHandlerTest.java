@@ -51,6 +51,7 @@ import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.metrics.ScanMetrics;
 import org.apache.hadoop.hbase.client.Table;
 import org.junit.After;
 import org.junit.Before;
@@ -93,6 +94,8 @@ import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -184,6 +187,9 @@ public class HbaseRecordHandlerTest
         when(mockScanner.iterator()).thenReturn(results.iterator());
 
         when(mockClient.scanTable(any(), nullable(Scan.class), any())).thenAnswer((InvocationOnMock invocationOnMock) -> {
+            Scan scan = (Scan) invocationOnMock.getArguments()[1];
+            //Without the scan options set the client's configured defaults must apply.
+            assertNull(scan.isAsyncPrefetch());
             ResultProcessor processor = (ResultProcessor) invocationOnMock.getArguments()[2];
             return processor.scan(mockScanner);
         });
@@ -228,6 +234,61 @@ public class HbaseRecordHandlerTest
         logger.info("doReadRecordsNoSpill: {}", BlockUtils.rowToString(response.getRecords(), 0));
     }
 
+    @Test
+    public void doReadRecordsTunedScan()
+            throws Exception
+    {
+        handler = new HbaseRecordHandler(amazonS3, mockSecretsManager, mockAthena, mockConnFactory,
+                com.google.common.collect.ImmutableMap.of("scan_caching", "500", "scan_max_result_size", "4194304",
+                        "scan_async_prefetch", "true", "scan_metrics_enabled", "true"));
+
+        List<Result> results = TestUtils.makeResults(10);
+        ResultScanner mockScanner = mock(ResultScanner.class);
+        when(mockScanner.iterator()).thenReturn(results.iterator());
+        when(mockScanner.getScanMetrics()).thenReturn(new ScanMetrics());
+
+        when(mockClient.scanTable(any(), nullable(Scan.class), any())).thenAnswer((InvocationOnMock invocationOnMock) -> {
+            Scan scan = (Scan) invocationOnMock.getArguments()[1];
+            assertEquals(500, scan.getCaching());
+            assertEquals(4194304L, scan.getMaxResultSize());
+            assertTrue(scan.isAsyncPrefetch());
+            assertTrue(scan.isScanMetricsEnabled());
+            ResultProcessor processor = (ResultProcessor) invocationOnMock.getArguments()[2];
+            return processor.scan(mockScanner);
+        });
+
+        S3SpillLocation splitLoc = S3SpillLocation.newBuilder()
+                .withBucket(UUID.randomUUID().toString())
+                .withSplitId(UUID.randomUUID().toString())
+                .withQueryId(UUID.randomUUID().toString())
+                .withIsDirectory(true)
+                .build();
+
+        Split.Builder splitBuilder = Split.newBuilder(splitLoc, keyFactory.create())
+                .add(HBASE_CONN_STR, "fake_con_str")
+                .add(START_KEY_FIELD, "fake_start_key")
+                .add(END_KEY_FIELD, "fake_end_key")
+                .add(REGION_ID_FIELD, "fake_region_id")
+                .add(REGION_NAME_FIELD, "fake_region_name");
+
+        ReadRecordsRequest request = new ReadRecordsRequest(IDENTITY,
+                DEFAULT_CATALOG,
+                "queryId-" + System.currentTimeMillis(),
+                new TableName(DEFAULT_SCHEMA, TEST_TABLE),
+                schemaForRead,
+                splitBuilder.build(),
+                new Constraints(Collections.emptyMap(), Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L, //100GB don't expect this to spill
+                100_000_000_000L
+        );
+
+        RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+
+        assertTrue(rawResponse instanceof ReadRecordsResponse);
+        assertEquals(results.size(), ((ReadRecordsResponse) rawResponse).getRecords().getRowCount());
+        verify(mockScanner, atLeastOnce()).getScanMetrics();
+    }
+
     @Test
     public void doReadRecordsSpill()
             throws Exception
@@ -0,0 +1,92 @@
+/*-
+ * #%L
+ * athena-hbase
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.hbase;
+
+import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.arrow.vector.types.Types;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HbaseRowKeyUtilsTest
+{
+    private BlockAllocator allocator;
+
+    @Before
+    public void setUp()
+    {
+        allocator = new BlockAllocatorImpl();
+    }
+
+    @After
+    public void tearDown()
+    {
+        allocator.close();
+    }
+
+    @Test
+    public void getRowRanges()
+    {
+        assertNull(HbaseRowKeyUtils.getRowRanges(Collections.emptyMap()));
+
+        ValueSet rowKeys = SortedRangeSet.copyOf(Types.MinorType.VARCHAR.getType(),
+                ImmutableList.of(Range.equal(allocator, Types.MinorType.VARCHAR.getType(), "a"),
+                        Range.range(allocator, Types.MinorType.VARCHAR.getType(), "c", false, "e", true),
+                        Range.greaterThanOrEqual(allocator, Types.MinorType.VARCHAR.getType(), "x")),
+                false);
+        List<RowRange> rowRanges = HbaseRowKeyUtils.getRowRanges(ImmutableMap.of(HbaseSchemaUtils.ROW_COLUMN_NAME, rowKeys));
+
+        assertEquals(ImmutableList.of(
+                new RowRange(Bytes.toBytes("a"), true, Bytes.toBytes("a"), true),
+                new RowRange(Bytes.toBytes("c"), false, Bytes.toBytes("e"), true),
+                new RowRange(Bytes.toBytes("x"), true, new byte[0], false)), rowRanges);
+    }
+
+    @Test
+    public void intersects()
+    {
+        List<RowRange> rowRanges = ImmutableList.of(
+                new RowRange(Bytes.toBytes("b"), true, Bytes.toBytes("b"), true),
+                new RowRange(Bytes.toBytes("m"), true, Bytes.toBytes("p"), false));
+
+        assertTrue(HbaseRowKeyUtils.intersects(rowRanges, new byte[0], Bytes.toBytes("c")));
+        assertTrue(HbaseRowKeyUtils.intersects(rowRanges, Bytes.toBytes("b"), Bytes.toBytes("c")));
+        assertFalse(HbaseRowKeyUtils.intersects(rowRanges, Bytes.toBytes("c"), Bytes.toBytes("m")));
+        assertTrue(HbaseRowKeyUtils.intersects(rowRanges, Bytes.toBytes("o"), new byte[0]));
+        //the end of the range is exclusive
+        assertFalse(HbaseRowKeyUtils.intersects(rowRanges, Bytes.toBytes("p"), new byte[0]));
+    }
+}
@@ -481,7 +481,9 @@ public abstract class JdbcMetadataHandler
                         ResultSet minMaxResultSet = statement.executeQuery(String.format(SQL_SPLITS_STRING, primaryKeyColumns.get(0), primaryKeyColumns.get(0),
                                 wrapNameWithEscapedCharacter(tableName.getSchemaName()), wrapNameWithEscapedCharacter(tableName.getTableName())))) {
                     minMaxResultSet.next(); // expecting one result row
-                    Optional<Splitter> optionalSplitter = splitterFactory.getSplitter(primaryKeyColumns.get(0), minMaxResultSet, DEFAULT_NUM_SPLITS);
+                    List<Object> histogramBounds = getSplitColumnHistogram(jdbcConnection, tableName, primaryKeyColumns.get(0),
+                            minMaxResultSet.getMetaData().getColumnTypeName(1));
+                    Optional<Splitter> optionalSplitter = splitterFactory.getSplitter(primaryKeyColumns.get(0), minMaxResultSet, histogramBounds, DEFAULT_NUM_SPLITS);
 
                     if (optionalSplitter.isPresent()) {
                         Splitter splitter = optionalSplitter.get();
@@ -501,6 +503,21 @@ public abstract class JdbcMetadataHandler
         return splitClauses;
     }
 
+    /**
+     * Reads the histogram of the split column from the database statistics, used by getSplitClauses(...) to generate splits
+     * covering about the same number of rows. Connectors whose database keeps column histograms should override this.
+     *
+     * @param jdbcConnection connection to the database.
+     * @param tableName table of the split column.
+     * @param columnName split column name.
+     * @param columnTypeName database type name of the split column.
+     * @return sorted histogram bounds, or an empty list to split on the min and max values only.
+     */
+    protected List<Object> getSplitColumnHistogram(final Connection jdbcConnection, final TableName tableName, final String columnName, final String columnTypeName)
+    {
+        return Collections.emptyList();
+    }
+
     /**
      * Converts an ARRAY column's TYPE_NAME (provided by the jdbc metadata) to an ArrowType.
      * @param typeName The column's TYPE_NAME (e.g. _int4, _text, _float8, etc...)
@@ -0,0 +1,110 @@
+/*-
+ * #%L
+ * athena-jdbc
+ * %%
+ * Copyright (C) 2019 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.jdbc.splits;
+
+import org.apache.commons.lang3.Validate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits iterator over sorted boundary values of the split column, e.g. the bounds of the column histogram in the database
+ * statistics. Boundaries b1 < b2 < ... < bn give n + 1 half-open splits, the first and last ones unbounded so rows outside
+ * of the boundaries are still read.
+ *
+ * Example: [10, 20] as boundaries
+ *  Splits = (-inf, 10), [10, 20), [20, +inf)
+ *  Clauses = (col < 10), (col >= 10 AND col < 20), (col >= 20)
+ */
+public class BoundarySplitter
+        implements Splitter<Object>
+{
+    private final String columnName;
+    private final List<Object> boundaries;
+    private int current;
+
+    /**
+     * @param columnName split column name.
+     * @param boundaries strictly increasing, non-empty boundary values. Supported types are numbers, dates, timestamps and strings.
+     */
+    public BoundarySplitter(String columnName, List<Object> boundaries)
+    {
+        this.columnName = Validate.notNull(columnName);
+        this.boundaries = Validate.notEmpty(boundaries);
+        this.current = 0;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return this.current <= this.boundaries.size();
+    }
+
+    @Override
+    public SplitRange<Object> next()
+    {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object low = this.current == 0 ? null : this.boundaries.get(this.current - 1);
+        Object high = this.current == this.boundaries.size() ? null : this.boundaries.get(this.current);
+        this.current++;
+
+        return new SplitRange<>(low, high);
+    }
+
+    @Override
+    public String nextRangeClause()
+    {
+        SplitRange<Object> splitRange = next();
+        if (splitRange.getLow() == null) {
+            return String.format("(%s < %s)", this.columnName, toLiteral(splitRange.getHigh()));
+        }
+        if (splitRange.getHigh() == null) {
+            return String.format("(%s >= %s)", this.columnName, toLiteral(splitRange.getLow()));
+        }
+        return String.format("(%s >= %s AND %s < %s)", this.columnName, toLiteral(splitRange.getLow()), this.columnName, toLiteral(splitRange.getHigh()));
+    }
+
+    /**
+     * Renders a boundary value as a SQL literal, quoting strings so they can be embedded in the split clause.
+     */
+    static String toLiteral(Object value)
+    {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        if (value instanceof Date || value instanceof LocalDate) {
+            return String.format("DATE '%s'", value);
+        }
+        if (value instanceof Timestamp || value instanceof LocalDateTime) {
+            return String.format("TIMESTAMP '%s'", value);
+        }
+        return "'" + value.toString().replace("'", "''") + "'";
+    }
+}
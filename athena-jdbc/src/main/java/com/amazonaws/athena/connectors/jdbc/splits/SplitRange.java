@@ -22,7 +22,7 @@ package com.amazonaws.athena.connectors.jdbc.splits;
 import java.util.Objects;
 
 /**
- * Represents a closed interval. Endpoints are inclusive.
+ * Represents an interval. Endpoints are inclusive unless the {@link Splitter} documents otherwise, a null endpoint is unbounded.
  *
  * @param <T> type
  */
@@ -31,7 +31,7 @@ public interface Splitter<T>
 {
     /**
      * Provides the next split clause to be used in SQL queries.
-     * @return SQL clause for the range, both endpoints inclusive.
+     * @return SQL clause for the range.
      */
     String nextRangeClause();
 }
@@ -19,9 +19,17 @@
  */
 package com.amazonaws.athena.connectors.jdbc.splits;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -38,13 +46,123 @@ public class SplitterFactory
      */
     public Optional<Splitter> getSplitter(final String columnName, final ResultSet resultSet, final int maxSplits)
             throws SQLException
+    {
+        return getSplitter(columnName, resultSet, Collections.emptyList(), maxSplits);
+    }
+
+    /**
+     * Splits on the column statistics when available, so that each split covers about the same number of rows. Without
+     * statistics INTEGER, BIGINT, DECIMAL, DATE and TIMESTAMP columns are split into ranges of equal width between min and
+     * max, string columns are not split.
+     *
+     * @param columnName split column name.
+     * @param resultSet split min and max values.
+     * @param histogramBounds sorted histogram bounds of the split column from the database statistics, may be empty.
+     * @param maxSplits number of splits.
+     * @return {@link Splitter} optional.
+     * @throws SQLException exception accessing min and max values from {@link ResultSet}.
+     */
+    public Optional<Splitter> getSplitter(final String columnName, final ResultSet resultSet, final List<?> histogramBounds, final int maxSplits)
+            throws SQLException
     {
         int type = resultSet.getMetaData().getColumnType(1);
+        if (!histogramBounds.isEmpty() && isSplittable(type)) {
+            return toSplitter(columnName, pickBoundaries(histogramBounds, maxSplits));
+        }
+        if (type == Types.INTEGER) {
+            return Optional.of(new IntegerSplitter(new SplitInfo<>(new SplitRange<>(resultSet.getInt(1), resultSet.getInt(2)), columnName, type, maxSplits)));
+        }
+        if (resultSet.getObject(1) == null || resultSet.getObject(2) == null) {
+            // no rows to split
+            return Optional.empty();
+        }
+
+        List<Object> boundaries = new ArrayList<>();
+        switch (type) {
+            case Types.BIGINT:
+                for (BigDecimal next : equalWidthBoundaries(BigDecimal.valueOf(resultSet.getLong(1)), BigDecimal.valueOf(resultSet.getLong(2)), 0, maxSplits)) {
+                    boundaries.add(next.longValueExact());
+                }
+                break;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                BigDecimal low = resultSet.getBigDecimal(1);
+                BigDecimal high = resultSet.getBigDecimal(2);
+                boundaries.addAll(equalWidthBoundaries(low, high, Math.max(low.scale(), high.scale()), maxSplits));
+                break;
+            case Types.DATE:
+                for (BigDecimal next : equalWidthBoundaries(BigDecimal.valueOf(resultSet.getDate(1).toLocalDate().toEpochDay()),
+                        BigDecimal.valueOf(resultSet.getDate(2).toLocalDate().toEpochDay()), 0, maxSplits)) {
+                    boundaries.add(Date.valueOf(LocalDate.ofEpochDay(next.longValueExact())));
+                }
+                break;
+            case Types.TIMESTAMP:
+                for (BigDecimal next : equalWidthBoundaries(BigDecimal.valueOf(resultSet.getTimestamp(1).getTime()),
+                        BigDecimal.valueOf(resultSet.getTimestamp(2).getTime()), 0, maxSplits)) {
+                    boundaries.add(new Timestamp(next.longValueExact()));
+                }
+                break;
+            default:
+                return Optional.empty();
+        }
+        return toSplitter(columnName, boundaries);
+    }
+
+    private static boolean isSplittable(final int type)
+    {
         switch (type) {
             case Types.INTEGER:
-                return Optional.of(new IntegerSplitter(new SplitInfo<>(new SplitRange<>(resultSet.getInt(1), resultSet.getInt(2)), columnName, type, maxSplits)));
+            case Types.BIGINT:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.DATE:
+            case Types.TIMESTAMP:
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NVARCHAR:
+                return true;
             default:
-               return Optional.empty();
+                return false;
+        }
+    }
+
+    private static Optional<Splitter> toSplitter(final String columnName, final List<Object> boundaries)
+    {
+        return boundaries.isEmpty() ? Optional.empty() : Optional.of(new BoundarySplitter(columnName, boundaries));
+    }
+
+    /**
+     * Picks at most maxSplits - 1 evenly spaced bounds, histogram buckets hold about the same number of rows so the splits
+     * between the picked bounds do as well.
+     */
+    private static List<Object> pickBoundaries(final List<?> histogramBounds, final int maxSplits)
+    {
+        int numBoundaries = Math.min(histogramBounds.size(), maxSplits - 1);
+        List<Object> boundaries = new ArrayList<>(numBoundaries);
+        for (int i = 1; i <= numBoundaries; i++) {
+            Object next = histogramBounds.get((int) ((long) i * histogramBounds.size() / (numBoundaries + 1)));
+            if (next != null && (boundaries.isEmpty() || !next.equals(boundaries.get(boundaries.size() - 1)))) {
+                boundaries.add(next);
+            }
+        }
+        return boundaries;
+    }
+
+    /**
+     * Cuts [low, high] into maxSplits ranges of equal width, boundaries are rounded down to the given scale and ones
+     * which would give an empty split are dropped.
+     */
+    private static List<BigDecimal> equalWidthBoundaries(final BigDecimal low, final BigDecimal high, final int scale, final int maxSplits)
+    {
+        List<BigDecimal> boundaries = new ArrayList<>();
+        BigDecimal width = high.subtract(low);
+        for (int i = 1; i < maxSplits; i++) {
+            BigDecimal next = low.add(width.multiply(BigDecimal.valueOf(i)).divide(BigDecimal.valueOf(maxSplits), scale, RoundingMode.FLOOR));
+            BigDecimal previous = boundaries.isEmpty() ? low : boundaries.get(boundaries.size() - 1);
+            if (next.compareTo(previous) > 0) {
+                boundaries.add(next);
+            }
         }
+        return boundaries;
     }
 }
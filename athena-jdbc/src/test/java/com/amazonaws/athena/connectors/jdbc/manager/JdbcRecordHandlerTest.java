@@ -39,6 +39,7 @@ import com.amazonaws.athena.connectors.jdbc.TestBase;
 import com.amazonaws.athena.connectors.jdbc.connection.DatabaseConnectionConfig;
 import com.amazonaws.athena.connectors.jdbc.connection.JdbcConnectionFactory;
 import com.amazonaws.athena.connector.credentials.CredentialsProvider;
+import org.apache.arrow.vector.compression.CompressionUtil;
 import org.apache.arrow.vector.holders.NullableFloat8Holder;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.Assert;
@@ -54,8 +55,8 @@ import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
 import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueResponse;
+import software.amazon.awssdk.utils.IoUtils;
 
-import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -127,7 +128,7 @@ public class JdbcRecordHandlerTest
         Schema fieldSchema = expectedSchemaBuilder.build();
 
         BlockAllocator allocator = new BlockAllocatorImpl();
-        S3SpillLocation s3SpillLocation = S3SpillLocation.newBuilder().withIsDirectory(true).build();
+        S3SpillLocation s3SpillLocation = S3SpillLocation.newBuilder().withBucket("testBucket").withIsDirectory(true).build();
 
         Split.Builder splitBuilder = Split.newBuilder(s3SpillLocation, null)
                 .add("testPartitionCol", String.valueOf("testPartitionValue"));
@@ -148,15 +149,14 @@ public class JdbcRecordHandlerTest
 
         SpillConfig spillConfig = Mockito.mock(SpillConfig.class);
         Mockito.when(spillConfig.getSpillLocation()).thenReturn(s3SpillLocation);
+        Mockito.when(spillConfig.getSpillPartBytes()).thenReturn(8L * 1024 * 1024);
+        Mockito.when(spillConfig.getSpillCompression()).thenReturn(CompressionUtil.CodecType.NO_COMPRESSION);
         BlockSpiller s3Spiller = new S3BlockSpiller(this.amazonS3, spillConfig, allocator, fieldSchema, constraintEvaluator, com.google.common.collect.ImmutableMap.of());
         ReadRecordsRequest readRecordsRequest = new ReadRecordsRequest(this.federatedIdentity, "testCatalog", "testQueryId", inputTableName, fieldSchema, splitBuilder.build(), constraints, 1024, 1024);
 
         Mockito.when(amazonS3.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
                 .thenAnswer((InvocationOnMock invocationOnMock) -> {
-                    ByteArrayInputStream inputStream = (ByteArrayInputStream) ((RequestBody) invocationOnMock.getArguments()[1]).contentStreamProvider().newStream();
-                    int n = inputStream.available();
-                    byte[] bytes = new byte[n];
-                    inputStream.read(bytes, 0, n);
+                    byte[] bytes = IoUtils.toByteArray(((RequestBody) invocationOnMock.getArguments()[1]).contentStreamProvider().newStream());
                     String data = new String(bytes, StandardCharsets.UTF_8);
                     Assert.assertTrue(data.contains("testVal1") || data.contains("testVal2") || data.contains("testPartitionValue"));
                     return PutObjectResponse.builder().build();
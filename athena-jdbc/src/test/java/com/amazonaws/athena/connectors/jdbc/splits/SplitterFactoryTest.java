@@ -24,9 +24,15 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.math.BigDecimal;
+import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 public class SplitterFactoryTest
@@ -91,4 +97,91 @@ public class SplitterFactoryTest
         Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.DECIMAL);
         Assert.assertFalse(splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, MAX_SPLITS).isPresent());
     }
+
+    @Test
+    public void getBigIntSplitter()
+            throws SQLException
+    {
+        Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.BIGINT);
+        Mockito.when(resultSet.getObject(1)).thenReturn(1L);
+        Mockito.when(resultSet.getObject(2)).thenReturn(10_000_000_000L);
+        Mockito.when(resultSet.getLong(1)).thenReturn(1L);
+        Mockito.when(resultSet.getLong(2)).thenReturn(10_000_000_000L);
+        List<String> clauses = getClauses(splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, 4));
+        Assert.assertEquals(Arrays.asList("(testColumn < 2500000000)", "(testColumn >= 2500000000 AND testColumn < 5000000000)",
+                "(testColumn >= 5000000000 AND testColumn < 7500000000)", "(testColumn >= 7500000000)"), clauses);
+    }
+
+    @Test
+    public void getDecimalSplitterWithValues()
+            throws SQLException
+    {
+        Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.DECIMAL);
+        Mockito.when(resultSet.getObject(1)).thenReturn(new BigDecimal("0.00"));
+        Mockito.when(resultSet.getObject(2)).thenReturn(new BigDecimal("1.00"));
+        Mockito.when(resultSet.getBigDecimal(1)).thenReturn(new BigDecimal("0.00"));
+        Mockito.when(resultSet.getBigDecimal(2)).thenReturn(new BigDecimal("1.00"));
+        List<String> clauses = getClauses(splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, 3));
+        Assert.assertEquals(Arrays.asList("(testColumn < 0.33)", "(testColumn >= 0.33 AND testColumn < 0.66)", "(testColumn >= 0.66)"), clauses);
+    }
+
+    @Test
+    public void getDateSplitterWithValues()
+            throws SQLException
+    {
+        Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.DATE);
+        Mockito.when(resultSet.getObject(1)).thenReturn(Date.valueOf("2020-01-01"));
+        Mockito.when(resultSet.getObject(2)).thenReturn(Date.valueOf("2020-01-05"));
+        Mockito.when(resultSet.getDate(1)).thenReturn(Date.valueOf("2020-01-01"));
+        Mockito.when(resultSet.getDate(2)).thenReturn(Date.valueOf("2020-01-05"));
+        List<String> clauses = getClauses(splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, 2));
+        Assert.assertEquals(Arrays.asList("(testColumn < DATE '2020-01-03')", "(testColumn >= DATE '2020-01-03')"), clauses);
+    }
+
+    @Test
+    public void getTimestampSplitterWithSameMinMax()
+            throws SQLException
+    {
+        Timestamp timestamp = Timestamp.valueOf("2020-01-01 10:00:00");
+        Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.TIMESTAMP);
+        Mockito.when(resultSet.getObject(1)).thenReturn(timestamp);
+        Mockito.when(resultSet.getObject(2)).thenReturn(timestamp);
+        Mockito.when(resultSet.getTimestamp(1)).thenReturn(timestamp);
+        Mockito.when(resultSet.getTimestamp(2)).thenReturn(timestamp);
+        Assert.assertFalse(splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, MAX_SPLITS).isPresent());
+    }
+
+    @Test
+    public void getStringSplitterWithHistogram()
+            throws SQLException
+    {
+        Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.VARCHAR);
+        List<Object> histogramBounds = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i'j");
+        List<String> clauses = getClauses(splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, histogramBounds, 3));
+        Assert.assertEquals(Arrays.asList("(testColumn < 'd')", "(testColumn >= 'd' AND testColumn < 'g')", "(testColumn >= 'g')"), clauses);
+
+        clauses = getClauses(splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, Arrays.asList("i'j"), 3));
+        Assert.assertEquals(Arrays.asList("(testColumn < 'i''j')", "(testColumn >= 'i''j')"), clauses);
+    }
+
+    @Test
+    public void getIntegerSplitterWithHistogram()
+            throws SQLException
+    {
+        Mockito.when(resultSet.getMetaData().getColumnType(1)).thenReturn(Types.INTEGER);
+        Optional<Splitter> splitter = splitterFactory.getSplitter(TEST_COLUMN_NAME, resultSet, Arrays.asList(1, 2, 3, 1000), MAX_SPLITS);
+        Assert.assertTrue(splitter.isPresent());
+        Assert.assertEquals(BoundarySplitter.class, splitter.get().getClass());
+        Assert.assertEquals(5, getClauses(splitter).size());
+    }
+
+    private static List<String> getClauses(Optional<Splitter> splitter)
+    {
+        Assert.assertTrue(splitter.isPresent());
+        List<String> clauses = new ArrayList<>();
+        while (splitter.get().hasNext()) {
+            clauses.add(splitter.get().nextRangeClause());
+        }
+        return clauses;
+    }
 }
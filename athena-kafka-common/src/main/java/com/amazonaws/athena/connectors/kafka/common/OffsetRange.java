@@ -0,0 +1,35 @@
+/*-
+ * #%L
+ * athena-kafka-common
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.kafka.common;
+
+/**
+ * The range of offsets to read from a topic partition.
+ */
+public class OffsetRange
+{
+    public final long startOffset;
+    public final long endOffset;
+
+    public OffsetRange(long startOffset, long endOffset)
+    {
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+}
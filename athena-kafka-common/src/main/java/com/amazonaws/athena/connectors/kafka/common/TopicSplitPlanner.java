@@ -0,0 +1,299 @@
+/*-
+ * #%L
+ * athena-kafka-common
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.kafka.common;
+
+import com.amazonaws.athena.connector.lambda.domain.predicate.Marker;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.record.TimestampType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Plans the offsets read by the splits of a topic for the Kafka and MSK metadata handlers.
+ *
+ * doGetSplits is called once for each page of splits, so the timestamp type of a topic, the offsets found in
+ * its time index and the average size of its records are cached for a few minutes rather than looked up again
+ * for every page.
+ */
+public class TopicSplitPlanner
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(TopicSplitPlanner.class);
+    //How long the lookups for a topic are reused, long enough to cover every page of splits of a query.
+    private static final long CACHE_TTL_MINUTES = 5;
+    private static final long MAX_CACHED_TOPICS = 100;
+    // The number of records used to estimate the average record size of a topic
+    private static final int RECORD_SIZE_SAMPLES = 100;
+
+    private final Consumer<?, ?> consumer;
+    private final Callable<Admin> adminFactory;
+    private final Cache<String, Boolean> logAppendTimeCache;
+    //Keyed by topic, number of partitions and timestamp, so that newly added partitions are looked up.
+    private final Cache<String, Map<TopicPartition, OffsetAndTimestamp>> timestampOffsetsCache;
+    private final Cache<String, Long> recordSizeCache;
+
+    /**
+     * @param consumer - the consumer used to look up offsets in the time index of the partitions
+     * @param adminFactory - creates the admin client used to read the configuration of a topic
+     */
+    public TopicSplitPlanner(Consumer<?, ?> consumer, Callable<Admin> adminFactory)
+    {
+        this.consumer = consumer;
+        this.adminFactory = requireNonNull(adminFactory, "adminFactory was null");
+        this.logAppendTimeCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+                .maximumSize(MAX_CACHED_TOPICS)
+                .build();
+        this.timestampOffsetsCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+                .maximumSize(MAX_CACHED_TOPICS)
+                .build();
+        this.recordSizeCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+                .maximumSize(MAX_CACHED_TOPICS)
+                .build();
+    }
+
+    /**
+     * Calculates the offsets to read from each topic partition. Without a predicate on the timestamp column
+     * these are the beginning and end offsets of the partition, otherwise the bounds of the predicate are
+     * looked up in the time index of each partition using offsetsForTimes.
+     *
+     * The timestamp column is filled with the record timestamps by the record handler, so the start offset is
+     * the first record at or after the lower bound. The upper bound is only used when the topic uses
+     * LogAppendTime, the end offset is then the first record after the upper bound, which is read and then
+     * filtered out by the constraints. With CreateTime the timestamps can decrease within a partition and the
+     * records after that offset may still match.
+     *
+     * @param timestampColumn - the column filled with the record timestamps, or null if none is configured
+     * @param constraintSummary - the constraints of the query
+     * @param topicPartitions - the partitions of the topic
+     * @param startOffsets - the beginning offset of each partition
+     * @param endOffsets - the end offset of each partition
+     * @return the offset range of each partition, partitions without any matching records are left out
+     */
+    public Map<TopicPartition, OffsetRange> getOffsetRanges(
+            String timestampColumn,
+            Map<String, ValueSet> constraintSummary,
+            List<TopicPartition> topicPartitions,
+            Map<TopicPartition, Long> startOffsets,
+            Map<TopicPartition, Long> endOffsets)
+    {
+        Map<TopicPartition, OffsetRange> offsetRanges = new HashMap<>();
+        topicPartitions.forEach(it -> offsetRanges.put(it, new OffsetRange(startOffsets.get(it), endOffsets.get(it))));
+
+        ValueSet valueSet = timestampColumn == null ? null : constraintSummary.get(timestampColumn.toLowerCase());
+        if (!(valueSet instanceof SortedRangeSet) || valueSet.isNone() || valueSet.isAll()) {
+            return offsetRanges;
+        }
+
+        Range span = ((SortedRangeSet) valueSet).getSpan();
+        Marker low = span.getLow();
+        Marker high = span.getHigh();
+        if (!low.isLowerUnbounded()) {
+            // The earliest timestamp a matching record can have, timestamps have millisecond precision.
+            long timestamp = toEpochMilli(low.getValue()) + (low.getBound() == Marker.Bound.ABOVE ? 1 : 0);
+            Map<TopicPartition, OffsetAndTimestamp> offsets = offsetsForTimes(topicPartitions, Math.max(timestamp, 0));
+            for (TopicPartition partition : topicPartitions) {
+                OffsetAndTimestamp offset = offsets.get(partition);
+                if (offset == null) {
+                    // There are no records at or after the lower bound.
+                    offsetRanges.remove(partition);
+                }
+                else if (offsetRanges.containsKey(partition)) {
+                    OffsetRange range = offsetRanges.get(partition);
+                    offsetRanges.put(partition, new OffsetRange(Math.max(range.startOffset, offset.offset()), range.endOffset));
+                }
+            }
+        }
+        if (!high.isUpperUnbounded() && isLogAppendTime(topicPartitions.get(0).topic())) {
+            // The earliest timestamp a record past the upper bound can have.
+            long timestamp = toEpochMilli(high.getValue()) + (high.getBound() == Marker.Bound.EXACTLY ? 1 : 0);
+            if (timestamp > 0) {
+                Map<TopicPartition, OffsetAndTimestamp> offsets = offsetsForTimes(topicPartitions, timestamp);
+                for (TopicPartition partition : topicPartitions) {
+                    OffsetAndTimestamp offset = offsets.get(partition);
+                    OffsetRange range = offsetRanges.get(partition);
+                    if (offset != null && range != null) {
+                        offsetRanges.put(partition, new OffsetRange(range.startOffset, Math.min(range.endOffset, offset.offset())));
+                    }
+                }
+            }
+        }
+        offsetRanges.values().removeIf(it -> it.startOffset > it.endOffset);
+
+        LOGGER.info("[KafkaPartitionOffset] {} of {} partitions match the predicate on timestamp column {}",
+                offsetRanges.size(), topicPartitions.size(), timestampColumn
+        );
+        return offsetRanges;
+    }
+
+    /**
+     * Calculates how many records to put in each split. When a target number of bytes per split is configured
+     * this is derived from the average size of the records at the head of the first partition with records to
+     * read, otherwise (or if no records could be sampled) each split holds the default number of records.
+     *
+     * @param targetBytes - the target number of bytes per split, 0 if none is configured
+     * @param defaultRecordsInSplit - the number of records in each split without a target size
+     * @param topicPartitions - the partitions of the topic
+     * @param offsetRanges - the offset range to read from each partition
+     * @return the number of records in each split
+     */
+    public long getRecordsInSplit(
+            long targetBytes,
+            long defaultRecordsInSplit,
+            List<TopicPartition> topicPartitions,
+            Map<TopicPartition, OffsetRange> offsetRanges)
+    {
+        if (targetBytes <= 0) {
+            return defaultRecordsInSplit;
+        }
+
+        TopicPartition sampledPartition = topicPartitions.stream()
+                .filter(it -> offsetRanges.containsKey(it) && offsetRanges.get(it).startOffset < offsetRanges.get(it).endOffset)
+                .findFirst()
+                .orElse(null);
+        if (sampledPartition == null) {
+            return defaultRecordsInSplit;
+        }
+
+        long averageRecordSize;
+        try {
+            averageRecordSize = recordSizeCache.asMap().computeIfAbsent(sampledPartition.topic(),
+                    ignored -> sampleAverageRecordSize(sampledPartition, offsetRanges.get(sampledPartition).startOffset));
+        }
+        catch (RuntimeException ex) {
+            LOGGER.warn("[TopicPartitionPiece] Failed to sample the record size of partition {} in topic {}, using {} records per split",
+                    sampledPartition.partition(), sampledPartition.topic(), defaultRecordsInSplit, ex
+            );
+            return defaultRecordsInSplit;
+        }
+        if (averageRecordSize <= 0) {
+            return defaultRecordsInSplit;
+        }
+
+        long recordsInSplit = Math.max(1, targetBytes / averageRecordSize);
+        LOGGER.info("[TopicPartitionPiece] Average record size {} bytes in topic {}, using {} records per split",
+                averageRecordSize, sampledPartition.topic(), recordsInSplit
+        );
+        return recordsInSplit;
+    }
+
+    /**
+     * Checks whether the brokers set the timestamps of the records of the topic, these are the only timestamps
+     * which never decrease within a partition.
+     *
+     * @param topic - the name of the topic
+     * @return true if the topic uses LogAppendTime, false if it does not or its configuration could not be read
+     */
+    private boolean isLogAppendTime(String topic)
+    {
+        return logAppendTimeCache.asMap().computeIfAbsent(topic, this::readLogAppendTime);
+    }
+
+    @VisibleForTesting
+    boolean readLogAppendTime(String topic)
+    {
+        ConfigResource resource = new ConfigResource(ConfigResource.Type.TOPIC, topic);
+        try (Admin admin = adminFactory.call()) {
+            Config config = admin.describeConfigs(Collections.singleton(resource)).all().get().get(resource);
+            ConfigEntry timestampType = config == null ? null : config.get(TopicConfig.MESSAGE_TIMESTAMP_TYPE_CONFIG);
+            return timestampType != null && TimestampType.LOG_APPEND_TIME.name.equals(timestampType.value());
+        }
+        catch (Exception ex) {
+            LOGGER.warn("[KafkaPartitionOffset] Failed to read the timestamp type of topic {}, ignoring the upper bound", topic, ex);
+            return false;
+        }
+    }
+
+    private Map<TopicPartition, OffsetAndTimestamp> offsetsForTimes(List<TopicPartition> topicPartitions, long timestamp)
+    {
+        String key = topicPartitions.get(0).topic() + "/" + topicPartitions.size() + "/" + timestamp;
+        return timestampOffsetsCache.asMap().computeIfAbsent(key, ignored -> {
+            Map<TopicPartition, Long> timestamps = new HashMap<>();
+            topicPartitions.forEach(it -> timestamps.put(it, timestamp));
+            // The consumer returns null for partitions without a record at or after the timestamp.
+            return new HashMap<>(consumer.offsetsForTimes(timestamps));
+        });
+    }
+
+    private long sampleAverageRecordSize(TopicPartition partition, long startOffset)
+    {
+        consumer.assign(Collections.singletonList(partition));
+        try {
+            consumer.seek(partition, startOffset);
+            long totalSize = 0;
+            int sampled = 0;
+            for (ConsumerRecord<?, ?> record : consumer.poll(Duration.ofSeconds(1L))) {
+                if (sampled >= RECORD_SIZE_SAMPLES) {
+                    break;
+                }
+                // The serialized sizes are -1 for a null key or value.
+                totalSize += Math.max(record.serializedKeySize(), 0) + Math.max(record.serializedValueSize(), 0);
+                sampled++;
+            }
+            return sampled == 0 ? 0 : totalSize / sampled;
+        }
+        finally {
+            consumer.unsubscribe();
+        }
+    }
+
+    private static long toEpochMilli(Object value)
+    {
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        else if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        else if (value instanceof Instant) {
+            return ((Instant) value).toEpochMilli();
+        }
+        return ((Number) value).longValue();
+    }
+}
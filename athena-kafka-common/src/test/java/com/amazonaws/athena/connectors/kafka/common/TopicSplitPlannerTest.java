@@ -0,0 +1,204 @@
+/*-
+ * #%L
+ * athena-kafka-common
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.kafka.common;
+
+import com.amazonaws.athena.connector.lambda.data.BlockAllocator;
+import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
+import com.google.common.collect.ImmutableList;
+import org.apache.arrow.vector.types.Types;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class TopicSplitPlannerTest
+{
+    private final TopicPartition partition0 = new TopicPartition("testTopic", 0);
+    private final TopicPartition partition1 = new TopicPartition("testTopic", 1);
+    private final TopicPartition partition2 = new TopicPartition("testTopic", 2);
+    private final List<TopicPartition> topicPartitions = ImmutableList.of(partition0, partition1, partition2);
+    private final Map<TopicPartition, Long> startOffsets = new HashMap<>();
+    private final Map<TopicPartition, Long> endOffsets = new HashMap<>();
+    private BlockAllocator allocator;
+    private Consumer<String, String> consumer;
+    private ValueSet valueSet;
+
+    @Before
+    public void setUp()
+    {
+        allocator = new BlockAllocatorImpl();
+        topicPartitions.forEach(it -> {
+            startOffsets.put(it, 0L);
+            endOffsets.put(it, 100L);
+        });
+
+        // Partition 1 has no records at or after the lower bound, partition 2 has none after the upper bound.
+        consumer = mock(Consumer.class);
+        when(consumer.offsetsForTimes(any())).thenAnswer(invocation -> {
+            Map<TopicPartition, Long> timestamps = invocation.getArgument(0);
+            Map<TopicPartition, OffsetAndTimestamp> offsets = new HashMap<>();
+            if (timestamps.get(partition0) == 1_000L) {
+                offsets.put(partition0, new OffsetAndTimestamp(10L, 1_000L));
+                offsets.put(partition1, null);
+                offsets.put(partition2, new OffsetAndTimestamp(50L, 1_500L));
+            }
+            else if (timestamps.get(partition0) == 2_000L) {
+                offsets.put(partition0, new OffsetAndTimestamp(40L, 2_000L));
+                offsets.put(partition1, null);
+                offsets.put(partition2, null);
+            }
+            return offsets;
+        });
+
+        // event_time >= 1000ms AND event_time < 2000ms
+        valueSet = SortedRangeSet.of(false, Range.range(allocator, Types.MinorType.DATEMILLI.getType(),
+                LocalDateTime.ofEpochSecond(1, 0, ZoneOffset.UTC), true,
+                LocalDateTime.ofEpochSecond(2, 0, ZoneOffset.UTC), false));
+    }
+
+    @After
+    public void tearDown()
+    {
+        allocator.close();
+    }
+
+    @Test
+    public void testGetOffsetRangesWithLogAppendTime()
+    {
+        TopicSplitPlanner planner = spy(new TopicSplitPlanner(consumer, () -> mock(Admin.class)));
+        doReturn(true).when(planner).readLogAppendTime("testTopic");
+
+        Map<TopicPartition, OffsetRange> offsetRanges = planner.getOffsetRanges("EVENT_TIME",
+                Collections.singletonMap("event_time", valueSet), topicPartitions, startOffsets, endOffsets);
+
+        assertEquals(2, offsetRanges.size());
+        assertEquals(10L, offsetRanges.get(partition0).startOffset);
+        assertEquals(40L, offsetRanges.get(partition0).endOffset);
+        assertEquals(50L, offsetRanges.get(partition2).startOffset);
+        assertEquals(100L, offsetRanges.get(partition2).endOffset);
+
+        // The next page of splits reuses the timestamp type and the offsets of both bounds.
+        offsetRanges = planner.getOffsetRanges("EVENT_TIME",
+                Collections.singletonMap("event_time", valueSet), topicPartitions, startOffsets, endOffsets);
+        assertEquals(2, offsetRanges.size());
+        verify(planner, times(1)).readLogAppendTime("testTopic");
+        verify(consumer, times(2)).offsetsForTimes(any());
+    }
+
+    @Test
+    public void testGetOffsetRangesWithCreateTime()
+    {
+        // With CreateTime the timestamps can decrease within a partition, so only the lower bound is used.
+        TopicSplitPlanner planner = spy(new TopicSplitPlanner(consumer, () -> mock(Admin.class)));
+        doReturn(false).when(planner).readLogAppendTime("testTopic");
+
+        Map<TopicPartition, OffsetRange> offsetRanges = planner.getOffsetRanges("event_time",
+                Collections.singletonMap("event_time", valueSet), topicPartitions, startOffsets, endOffsets);
+
+        assertEquals(2, offsetRanges.size());
+        assertEquals(10L, offsetRanges.get(partition0).startOffset);
+        assertEquals(100L, offsetRanges.get(partition0).endOffset);
+        assertEquals(50L, offsetRanges.get(partition2).startOffset);
+        assertEquals(100L, offsetRanges.get(partition2).endOffset);
+    }
+
+    @Test
+    public void testGetOffsetRangesWithoutTimestampPredicate()
+    {
+        // Without a predicate on the timestamp column every partition is read in full.
+        TopicSplitPlanner planner = new TopicSplitPlanner(consumer, () -> mock(Admin.class));
+
+        Map<TopicPartition, OffsetRange> offsetRanges = planner.getOffsetRanges("event_time",
+                Collections.emptyMap(), topicPartitions, startOffsets, endOffsets);
+        assertEquals(3, offsetRanges.size());
+        assertEquals(0L, offsetRanges.get(partition1).startOffset);
+        assertEquals(100L, offsetRanges.get(partition1).endOffset);
+
+        offsetRanges = planner.getOffsetRanges(null,
+                Collections.singletonMap("event_time", valueSet), topicPartitions, startOffsets, endOffsets);
+        assertEquals(3, offsetRanges.size());
+        verify(consumer, times(0)).offsetsForTimes(any());
+    }
+
+    @Test
+    public void testGetRecordsInSplitFromSampledRecordSize()
+    {
+        Map<TopicPartition, OffsetRange> offsetRanges = Collections.singletonMap(partition0, new OffsetRange(0L, 1_000L));
+        List<TopicPartition> partitions = Collections.singletonList(partition0);
+        MockConsumer<String, String> mockConsumer = spy(new MockConsumer<>(OffsetResetStrategy.EARLIEST));
+        mockConsumer.updateBeginningOffsets(Collections.singletonMap(partition0, 0L));
+        // Records of 10 byte keys and 90 byte values at the head of the partition.
+        mockConsumer.schedulePollTask(() -> {
+            for (long offset = 0; offset < 10; offset++) {
+                mockConsumer.addRecord(new ConsumerRecord<>("testTopic", 0, offset, 0L, TimestampType.CREATE_TIME,
+                        10, 90, "key", "value", new RecordHeaders(), Optional.empty()));
+            }
+        });
+        TopicSplitPlanner planner = new TopicSplitPlanner(mockConsumer, () -> mock(Admin.class));
+
+        assertEquals(100L, planner.getRecordsInSplit(10_000L, 10_000L, partitions, offsetRanges));
+
+        // The next page of splits reuses the sampled record size.
+        assertEquals(100L, planner.getRecordsInSplit(10_000L, 10_000L, partitions, offsetRanges));
+        verify(mockConsumer, times(1)).poll(any());
+    }
+
+    @Test
+    public void testGetRecordsInSplitWithoutTargetBytes()
+    {
+        // Without a target size the splits keep the default number of records and nothing is sampled.
+        TopicSplitPlanner planner = new TopicSplitPlanner(consumer, () -> mock(Admin.class));
+        Map<TopicPartition, OffsetRange> offsetRanges = Collections.singletonMap(partition0, new OffsetRange(0L, 1_000L));
+
+        assertEquals(10_000L, planner.getRecordsInSplit(0L, 10_000L, Collections.singletonList(partition0), offsetRanges));
+        // Neither without any records to read.
+        assertEquals(10_000L, planner.getRecordsInSplit(10_000L, 10_000L, topicPartitions, Collections.emptyMap()));
+        verifyNoInteractions(consumer);
+    }
+}
@@ -67,6 +67,22 @@ public class KafkaConstants
     public static final String AWS_SECRET_PWD = "password";
 
     public static final int MAX_RECORDS_IN_SPLIT = 10_000;
+    /**
+     * Name of the column filled with the timestamp of each record instead of a value from the record, predicates
+     * on it are used to skip the offsets outside of the requested time range while creating the splits
+     */
+    public static final String TIMESTAMP_COLUMN = "timestamp_column";
+    /**
+     * Target number of bytes in each split, the number of records in a split is derived from it
+     * using the average size of the records at the head of the topic instead of MAX_RECORDS_IN_SPLIT
+     */
+    public static final String SPLIT_TARGET_BYTES = "split_target_bytes";
+    /**
+     * Consumer fetch tuning, these set max.partition.fetch.bytes, fetch.min.bytes and fetch.max.wait.ms
+     */
+    public static final String MAX_PARTITION_FETCH_BYTES = "max_partition_fetch_bytes";
+    public static final String FETCH_MIN_BYTES = "fetch_min_bytes";
+    public static final String FETCH_MAX_WAIT_MS = "fetch_max_wait_ms";
 
     public static final String AVRO_DATA_FORMAT = "avro";
     public static final String PROTOBUF_DATA_FORMAT = "protobuf";
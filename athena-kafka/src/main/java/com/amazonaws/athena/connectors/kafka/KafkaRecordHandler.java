@@ -30,6 +30,8 @@ import com.amazonaws.athena.connectors.kafka.dto.TopicResultSet;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.types.Types;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.consumer.Consumer;
@@ -44,11 +46,17 @@ import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import static com.amazonaws.athena.connectors.kafka.KafkaConstants.AVRO_DATA_FORMAT;
 import static com.amazonaws.athena.connectors.kafka.KafkaConstants.PROTOBUF_DATA_FORMAT;
+import static com.amazonaws.athena.connectors.kafka.KafkaConstants.TIMESTAMP_COLUMN;
 
 public class KafkaRecordHandler
         extends RecordHandler
@@ -112,8 +120,15 @@ public class KafkaRecordHandler
                     }
                     return;
                 }
+
+                long lastOffset = getLastOffset(splitParameters, endOffsets.get(partition));
+                if (splitParameters.startOffset > lastOffset) {
+                    LOGGER.debug("[kafka] split does not have data, closing consumer {}", splitParameters);
+                    splitParameters.info = "startOffset is past the last offset of the partition i.e split does not have data";
+                    return;
+                }
                 // Consume topic data
-                avroConsume(spiller, recordsRequest, queryStatusChecker, splitParameters, kafkaAvroConsumer);
+                consume(spiller, queryStatusChecker, splitParameters, kafkaAvroConsumer, partition, lastOffset, this::avroExecute);
             }
         }
         else if (dataFormat.equalsIgnoreCase(PROTOBUF_DATA_FORMAT)) {
@@ -138,8 +153,15 @@ public class KafkaRecordHandler
                     }
                     return;
                 }
+
+                long lastOffset = getLastOffset(splitParameters, endOffsets.get(partition));
+                if (splitParameters.startOffset > lastOffset) {
+                    LOGGER.debug("[kafka] split does not have data, closing consumer {}", splitParameters);
+                    splitParameters.info = "startOffset is past the last offset of the partition i.e split does not have data";
+                    return;
+                }
                 // Consume topic data
-                protobufConsume(spiller, recordsRequest, queryStatusChecker, splitParameters, kafkaProtobufConsumer);
+                consume(spiller, queryStatusChecker, splitParameters, kafkaProtobufConsumer, partition, lastOffset, this::protobufExecute);
             }
         }
         else {
@@ -165,8 +187,15 @@ public class KafkaRecordHandler
                     }
                     return;
                 }
+
+                long lastOffset = getLastOffset(splitParameters, endOffsets.get(partition));
+                if (splitParameters.startOffset > lastOffset) {
+                    LOGGER.debug("[kafka] split does not have data, closing consumer {}", splitParameters);
+                    splitParameters.info = "startOffset is past the last offset of the partition i.e split does not have data";
+                    return;
+                }
                 // Consume topic data
-                consume(spiller, recordsRequest, queryStatusChecker, splitParameters, kafkaConsumer);
+                consume(spiller, queryStatusChecker, splitParameters, kafkaConsumer, partition, lastOffset, this::execute);
             }
         }
         if (LOGGER.isDebugEnabled()) {
@@ -175,24 +204,42 @@ public class KafkaRecordHandler
     }
 
     /**
-     * Consume topic data as batch.
+     * The last piece of a partition ends at the end offset of the partition, which is one past its last record.
+     * Reading up to the last record which exists lets the polling stop as soon as that record has been read
+     * instead of waiting for the polls to come back empty.
+     *
+     * @param splitParameters - instance of {@link SplitParameters}
+     * @param partitionEndOffset - the end offset of the partition
+     * @return the last offset to read from the partition
+     */
+    private static long getLastOffset(SplitParameters splitParameters, long partitionEndOffset)
+    {
+        return Math.min(splitParameters.endOffset, partitionEndOffset - 1);
+    }
+
+    /**
+     * Consume topic data as batch, for every data format.
      *
      * @param spiller - instance of {@link BlockSpiller}
-     * @param recordsRequest - instance of {@link ReadRecordsRequest}
      * @param queryStatusChecker - instance of {@link QueryStatusChecker}
      * @param splitParameters - instance of {@link SplitParameters}
      * @param kafkaConsumer - instance of {@link KafkaConsumer}
+     * @param partition - the topic partition being read
+     * @param lastOffset - the last offset to read from the partition
+     * @param recordWriter - writes one record of the data format into a row of a Block
      */
-    private void consume(
+    private <T> void consume(
             BlockSpiller spiller,
-            ReadRecordsRequest recordsRequest,
             QueryStatusChecker queryStatusChecker,
             SplitParameters splitParameters,
-            Consumer<String, TopicResultSet> kafkaConsumer)
+            Consumer<String, T> kafkaConsumer,
+            TopicPartition partition,
+            long lastOffset,
+            RecordWriter<T> recordWriter)
     {
         LOGGER.info("[kafka] {} Polling for data", splitParameters);
         int emptyResultFoundCount = 0;
-        try (Consumer<String, TopicResultSet> consumer = kafkaConsumer) {
+        try (Consumer<String, T> consumer = kafkaConsumer) {
             while (true) {
                 if (!queryStatusChecker.isQueryRunning()) {
                     LOGGER.debug("[kafka]{}  Stopping and closing consumer due to query execution terminated by athena", splitParameters);
@@ -202,7 +249,7 @@ public class KafkaRecordHandler
 
                 // Call the poll on consumer to fetch data from kafka server
                 // poll returns data as batch which can be configured.
-                ConsumerRecords<String, TopicResultSet> records = consumer.poll(Duration.ofSeconds(1L));
+                ConsumerRecords<String, T> records = consumer.poll(Duration.ofSeconds(1L));
                 LOGGER.debug("[kafka] {} polled records size {}", splitParameters, records.count());
 
                 // For debug insight
@@ -222,234 +269,183 @@ public class KafkaRecordHandler
                     return;
                 }
 
-                for (ConsumerRecord<String, TopicResultSet> record : records) {
-                    // Pass batch data one by one to be processed to execute. execute method is
-                    // a kind of abstraction to keep data filtering and writing on spiller separate.
-                    execute(spiller, recordsRequest, queryStatusChecker, splitParameters, record);
-
-                    // If we have reached at the end offset of the partition. we will not continue
-                    // to call the polling.
-                    if (record.offset() >= splitParameters.endOffset) {
-                        LOGGER.debug("[kafka] {} Closing consumer due to reach at end offset (current record offset is {})", splitParameters, record.offset());
-
-                        // For debug insight
-                        splitParameters.info = String.format(
-                                "reached at the end offset i.e no need to work: condition [if(record.offset() >= splitParameters.endOffset) i.e if(%s >= %s)]",
-                                record.offset(),
-                                splitParameters.endOffset
-                        );
-                        return;
-                    }
+                // Pass the records of the poll up to the end offset to be written to the spiller as one batch.
+                // execute method is a kind of abstraction to keep data filtering and writing on spiller separate.
+                List<ConsumerRecord<String, T>> batch = getRecordsToLastOffset(records, lastOffset);
+                writeBatch(spiller, splitParameters, batch, recordWriter);
+
+                // If we have reached at the end offset of the partition. we will not continue
+                // to call the polling.
+                if (isLastOffsetReached(splitParameters, batch, lastOffset)) {
+                    return;
+                }
+
+                // The offsets at the end of the split are not always returned as records, e.g. transaction markers or
+                // compacted records, in which case the position of the consumer shows that the split has been read.
+                if (consumer.position(partition) > lastOffset) {
+                    LOGGER.debug("[kafka] {} Closing consumer due to reach at end offset (current position is {})", splitParameters, consumer.position(partition));
+                    splitParameters.info = "reached at the end offset i.e no need to work";
+                    return;
                 }
             }
         }
     }
 
     /**
-     * Abstraction to keep the data filtering and writing on spiller separate.
+     * Gathers the records of a poll up to and including the last offset of the split.
+     *
+     * @param records - the records returned by the poll
+     * @param lastOffset - the last offset to read from the partition
+     * @return the records which belong to the split
+     */
+    private static <T> List<ConsumerRecord<String, T>> getRecordsToLastOffset(ConsumerRecords<String, T> records, long lastOffset)
+    {
+        List<ConsumerRecord<String, T>> batch = new ArrayList<>(records.count());
+        for (ConsumerRecord<String, T> record : records) {
+            batch.add(record);
+            if (record.offset() >= lastOffset) {
+                break;
+            }
+        }
+        return batch;
+    }
+
+    private static <T> boolean isLastOffsetReached(SplitParameters splitParameters, List<ConsumerRecord<String, T>> batch, long lastOffset)
+    {
+        if (batch.isEmpty() || batch.get(batch.size() - 1).offset() < lastOffset) {
+            return false;
+        }
+        long offset = batch.get(batch.size() - 1).offset();
+        LOGGER.debug("[kafka] {} Closing consumer due to reach at end offset (current record offset is {})", splitParameters, offset);
+
+        // For debug insight
+        splitParameters.info = String.format(
+                "reached at the end offset i.e no need to work: condition [if(record.offset() >= lastOffset) i.e if(%s >= %s)]",
+                offset,
+                lastOffset
+        );
+        return true;
+    }
+
+    /**
+     * Writes the records of a poll with a single call to the spiller, which hands them to the RecordWriter in
+     * ranges sized to fill its Blocks.
      *
      * @param spiller - instance of {@link BlockSpiller}
-     * @param recordsRequest - instance of {@link ReadRecordsRequest}
-     * @param queryStatusChecker - instance of {@link QueryStatusChecker}
      * @param splitParameters - instance of {@link SplitParameters}
-     * @param record - instance of {@link ConsumerRecord}
+     * @param batch - the records to write
+     * @param recordWriter - writes one record into a row of a Block
      */
-    private void execute(
-            BlockSpiller spiller,
-            ReadRecordsRequest recordsRequest,
-            QueryStatusChecker queryStatusChecker,
-            SplitParameters splitParameters,
-            ConsumerRecord<String, TopicResultSet> record)
+    private <T> void writeBatch(BlockSpiller spiller, SplitParameters splitParameters, List<ConsumerRecord<String, T>> batch, RecordWriter<T> recordWriter)
     {
-        final boolean[] isExecuted = {false};
-        if (record == null || record.value() == null) {
-            LOGGER.warn("[NullRecord] {} Received a null record or record value, offset: {}", splitParameters, record != null ? record.offset() : "unknown");
+        if (batch.isEmpty()) {
             return;
         }
-        spiller.writeRows((Block block, int rowNum) -> {
-            for (KafkaField field : record.value().getFields()) {
-                boolean isMatched = block.offerValue(field.getName(), rowNum, field.getValue());
-                if (!isMatched) {
-                    LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
-                    return 0;
+        spiller.writeBatch(batch.size(), (Block block, int rowNum, int sourceOffset, int sourceCount) -> {
+            int rows = 0;
+            for (int i = sourceOffset; i < sourceOffset + sourceCount; i++) {
+                ConsumerRecord<String, T> record = batch.get(i);
+                if (record.value() == null) {
+                    LOGGER.warn("[NullRecord] {} Received a null record value, offset: {}", splitParameters, record.offset());
+                    continue;
+                }
+                // A record which does not match the constraints is overwritten by the next one.
+                if (offerTimestamp(block, rowNum + rows, record) && recordWriter.write(block, rowNum + rows, splitParameters, record)) {
+                    rows++;
                 }
             }
             // For debug insight
-            splitParameters.spilled += 1;
-            return 1;
+            splitParameters.spilled += rows;
+            return rows;
         });
     }
 
-    private void avroConsume(
-            BlockSpiller spiller,
-            ReadRecordsRequest recordsRequest,
-            QueryStatusChecker queryStatusChecker,
-            SplitParameters splitParameters,
-            Consumer<String, GenericRecord> kafkaAvroConsumer)
+    /**
+     * Writes the timestamp of the record into the timestamp column, the offsets of the splits are derived from
+     * these timestamps so the column must not be filled from the record value.
+     *
+     * @return true if the timestamp matched the constraints of the Block, false if the row should be discarded.
+     */
+    private boolean offerTimestamp(Block block, int rowNum, ConsumerRecord<String, ?> record)
     {
-        LOGGER.info("[kafka] {} Polling for data", splitParameters);
-        int emptyResultFoundCount = 0;
-        try (Consumer<String, GenericRecord> avroConsumer = kafkaAvroConsumer) {
-            while (true) {
-                if (!queryStatusChecker.isQueryRunning()) {
-                    LOGGER.debug("[kafka]{}  Stopping and closing consumer due to query execution terminated by athena", splitParameters);
-                    splitParameters.info = "query status is false i.e no need to work";
-                    return;
-                }
-
-                // Call the poll on consumer to fetch data from kafka server
-                // poll returns data as batch which can be configured.
-                ConsumerRecords<String, GenericRecord> records = avroConsumer.poll(Duration.ofSeconds(1L));
-                LOGGER.debug("[kafka] {} polled records size {}", splitParameters, records.count());
-
-                // For debug insight
-                splitParameters.pulled += records.count();
-
-                // Keep track for how many times we are getting empty result for the polling call.
-                if (records.count() == 0) {
-                    emptyResultFoundCount++;
-                }
+        String timestampColumn = configOptions.get(TIMESTAMP_COLUMN);
+        FieldVector vector = timestampColumn == null ? null : block.getFieldVector(timestampColumn.toLowerCase());
+        if (vector == null) {
+            return true;
+        }
+        Object value = vector.getMinorType() == Types.MinorType.BIGINT
+                ? (Object) record.timestamp()
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneOffset.UTC);
+        return block.offerValue(timestampColumn.toLowerCase(), rowNum, value);
+    }
 
-                // We will close KafkaConsumer if we are getting empty result again and again.
-                // Here we are comparing with a max threshold (MAX_EMPTY_RESULT_FOUNT_COUNT) to
-                // stop the polling.
-                if (emptyResultFoundCount >= MAX_EMPTY_RESULT_FOUND_COUNT) {
-                    LOGGER.debug("[kafka] {} Closing consumer due to getting empty result from broker", splitParameters);
-                    splitParameters.info = "always getting empty data i.e leaving from work";
-                    return;
-                }
+    /**
+     * @return true if the field is the timestamp column, which is filled by offerTimestamp.
+     */
+    private boolean isTimestampColumn(String fieldName)
+    {
+        return fieldName.equalsIgnoreCase(configOptions.get(TIMESTAMP_COLUMN));
+    }
 
-                for (ConsumerRecord<String, GenericRecord> record : records) {
-                    // Pass batch data one by one to be processed to execute. execute method is
-                    // a kind of abstraction to keep data filtering and writing on spiller separate.
-                    avroExecute(spiller, recordsRequest, queryStatusChecker, splitParameters, record);
-
-                    // If we have reached at the end offset of the partition. we will not continue
-                    // to call the polling.
-                    if (record.offset() >= splitParameters.endOffset) {
-                        LOGGER.debug("[kafka] {} Closing consumer due to reach at end offset (current record offset is {})", splitParameters, record.offset());
-
-                        // For debug insight
-                        splitParameters.info = String.format(
-                                "reached at the end offset i.e no need to work: condition [if(record.offset() >= splitParameters.endOffset) i.e if(%s >= %s)]",
-                                record.offset(),
-                                splitParameters.endOffset
-                        );
-                        return;
-                    }
-                }
+    /**
+     * Abstraction to keep the data filtering and writing on spiller separate.
+     *
+     * @param block - the Block to write to
+     * @param rowNum - the row of the Block to write the record to
+     * @param splitParameters - instance of {@link SplitParameters}
+     * @param record - instance of {@link ConsumerRecord}
+     * @return true if the record matched the constraints
+     */
+    private boolean execute(Block block, int rowNum, SplitParameters splitParameters, ConsumerRecord<String, TopicResultSet> record)
+    {
+        for (KafkaField field : record.value().getFields()) {
+            if (isTimestampColumn(field.getName())) {
+                continue;
+            }
+            boolean isMatched = block.offerValue(field.getName(), rowNum, field.getValue());
+            if (!isMatched) {
+                LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
+                return false;
             }
         }
+        return true;
     }
 
-    private void avroExecute(
-            BlockSpiller spiller,
-            ReadRecordsRequest recordsRequest,
-            QueryStatusChecker queryStatusChecker,
-            SplitParameters splitParameters,
-            ConsumerRecord<String, GenericRecord> record)
+    private boolean avroExecute(Block block, int rowNum, SplitParameters splitParameters, ConsumerRecord<String, GenericRecord> record)
     {
-        if (record == null || record.value() == null) {
-            LOGGER.warn("[NullRecord] {} Received a null record or record value, offset: {}", splitParameters, record != null ? record.offset() : "unknown");
-            return; // Skip processing this record
-        }
-        spiller.writeRows((Block block, int rowNum) -> {
-            for (Schema.Field next : record.value().getSchema().getFields()) {
-                boolean isMatched = block.offerValue(next.name(), rowNum, record.value().get(next.name()));
-                if (!isMatched) {
-                    LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
-                    return 0;
-                }
+        for (Schema.Field next : record.value().getSchema().getFields()) {
+            if (isTimestampColumn(next.name())) {
+                continue;
             }
-            // For debug insight
-            splitParameters.spilled += 1;
-            return 1;
-        });
+            boolean isMatched = block.offerValue(next.name(), rowNum, record.value().get(next.pos()));
+            if (!isMatched) {
+                LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
+                return false;
+            }
+        }
+        return true;
     }
 
-    private void protobufConsume(
-            BlockSpiller spiller,
-            ReadRecordsRequest recordsRequest,
-            QueryStatusChecker queryStatusChecker,
-            SplitParameters splitParameters,
-            Consumer<String, DynamicMessage> kafkaProtobufConsumer)
+    private boolean protobufExecute(Block block, int rowNum, SplitParameters splitParameters, ConsumerRecord<String, DynamicMessage> record)
     {
-        LOGGER.info("[kafka] {} Polling for data", splitParameters);
-        int emptyResultFoundCount = 0;
-        try (Consumer<String, DynamicMessage> protobufConsumer = kafkaProtobufConsumer) {
-            while (true) {
-                if (!queryStatusChecker.isQueryRunning()) {
-                    LOGGER.debug("[kafka]{}  Stopping and closing consumer due to query execution terminated by athena", splitParameters);
-                    splitParameters.info = "query status is false i.e no need to work";
-                    return;
-                }
-
-                // Call the poll on consumer to fetch data from kafka server
-                // poll returns data as batch which can be configured.
-                ConsumerRecords<String, DynamicMessage> records = protobufConsumer.poll(Duration.ofSeconds(1L));
-                LOGGER.debug("[kafka] {} polled records size {}", splitParameters, records.count());
-
-                // For debug insight
-                splitParameters.pulled += records.count();
-
-                // Keep track for how many times we are getting empty result for the polling call.
-                if (records.count() == 0) {
-                    emptyResultFoundCount++;
-                }
-
-                // We will close KafkaConsumer if we are getting empty result again and again.
-                // Here we are comparing with a max threshold (MAX_EMPTY_RESULT_FOUNT_COUNT) to
-                // stop the polling.
-                if (emptyResultFoundCount >= MAX_EMPTY_RESULT_FOUND_COUNT) {
-                    LOGGER.debug("[kafka] {} Closing consumer due to getting empty result from broker", splitParameters);
-                    splitParameters.info = "always getting empty data i.e leaving from work";
-                    return;
-                }
-
-                for (ConsumerRecord<String, DynamicMessage> record : records) {
-                    // Pass batch data one by one to be processed to execute. execute method is
-                    // a kind of abstraction to keep data filtering and writing on spiller separate.
-                    protobufExecute(spiller, recordsRequest, queryStatusChecker, splitParameters, record);
-
-                    // If we have reached at the end offset of the partition. we will not continue
-                    // to call the polling.
-                    if (record.offset() >= splitParameters.endOffset) {
-                        LOGGER.debug("[kafka] {} Closing consumer due to reach at end offset (current record offset is {})", splitParameters, record.offset());
-
-                        // For debug insight
-                        splitParameters.info = String.format(
-                                "reached at the end offset i.e no need to work: condition [if(record.offset() >= splitParameters.endOffset) i.e if(%s >= %s)]",
-                                record.offset(),
-                                splitParameters.endOffset
-                        );
-                        return;
-                    }
-                }
+        for (Descriptors.FieldDescriptor next : record.value().getAllFields().keySet()) {
+            if (isTimestampColumn(next.getName())) {
+                continue;
+            }
+            boolean isMatched = block.offerValue(next.getName(), rowNum, record.value().getField(next));
+            if (!isMatched) {
+                LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
+                return false;
             }
         }
+        return true;
     }
-    private void protobufExecute(
-            BlockSpiller spiller,
-            ReadRecordsRequest recordsRequest,
-            QueryStatusChecker queryStatusChecker,
-            SplitParameters splitParameters,
-            ConsumerRecord<String, DynamicMessage> record)
+
+    /**
+     * Writes one record into a row of a Block.
+     */
+    private interface RecordWriter<T>
     {
-        if (record == null || record.value() == null) {
-            LOGGER.warn("[NullRecord] {} Received a null record or record value, offset: {}", splitParameters, record != null ? record.offset() : "unknown");
-            return; // Skip processing this record
-        }
-        spiller.writeRows((Block block, int rowNum) -> {
-            for (Descriptors.FieldDescriptor next : record.value().getAllFields().keySet()) {
-                boolean isMatched = block.offerValue(next.getName(), rowNum, record.value().getField(next));
-                if (!isMatched) {
-                    LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
-                    return 0;
-                }
-            }
-            // For debug insight
-            splitParameters.spilled += 1;
-            return 1;
-        });
+        boolean write(Block block, int rowNum, SplitParameters splitParameters, ConsumerRecord<String, T> record);
     }
 }
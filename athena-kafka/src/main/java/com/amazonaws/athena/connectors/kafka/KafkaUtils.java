@@ -94,6 +94,8 @@ public class KafkaUtils
     private static final String KAFKA_AUTO_OFFSET_RESET_CONFIG = "auto.offset.reset";
     private static final String KAFKA_MAX_POLL_RECORDS_CONFIG = "max.poll.records";
     private static final String KAFKA_MAX_PARTITION_FETCH_BYTES_CONFIG = "max.partition.fetch.bytes";
+    private static final String KAFKA_FETCH_MIN_BYTES_CONFIG = "fetch.min.bytes";
+    private static final String KAFKA_FETCH_MAX_WAIT_MS_CONFIG = "fetch.max.wait.ms";
     private static final String KAFKA_KEY_DESERIALIZER_CLASS_CONFIG = "key.deserializer";
     private static final String KAFKA_VALUE_DESERIALIZER_CLASS_CONFIG = "value.deserializer";
     private static final String KAFKA_SCHEMA_REGISTRY_URL = "schema.registry.url";
@@ -186,7 +188,10 @@ public class KafkaUtils
         properties.setProperty(KAFKA_ENABLE_AUTO_COMMIT_CONFIG, "false");
         properties.setProperty(KAFKA_AUTO_OFFSET_RESET_CONFIG, "earliest");
         properties.setProperty(KAFKA_MAX_POLL_RECORDS_CONFIG, "10000");
-        properties.setProperty(KAFKA_MAX_PARTITION_FETCH_BYTES_CONFIG, "1048576");
+        // The consumer sends the next fetch before handing out the polled records, these tune the size of each fetch.
+        properties.setProperty(KAFKA_MAX_PARTITION_FETCH_BYTES_CONFIG, configOptions.getOrDefault(KafkaConstants.MAX_PARTITION_FETCH_BYTES, "1048576"));
+        properties.setProperty(KAFKA_FETCH_MIN_BYTES_CONFIG, configOptions.getOrDefault(KafkaConstants.FETCH_MIN_BYTES, "1"));
+        properties.setProperty(KAFKA_FETCH_MAX_WAIT_MS_CONFIG, configOptions.getOrDefault(KafkaConstants.FETCH_MAX_WAIT_MS, "500"));
         properties.setProperty(KAFKA_KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
 
         //fetch authentication type for the kafka cluster
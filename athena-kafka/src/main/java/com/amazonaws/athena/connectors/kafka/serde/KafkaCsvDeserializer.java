@@ -22,21 +22,39 @@ package com.amazonaws.athena.connectors.kafka.serde;
 import com.amazonaws.athena.connectors.kafka.dto.KafkaField;
 import com.amazonaws.athena.connectors.kafka.dto.Message;
 import com.amazonaws.athena.connectors.kafka.dto.TopicResultSet;
+import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class KafkaCsvDeserializer extends KafkaDeserializer
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaCsvDeserializer.class);
+
+    // The column of each schema field in the raw data, -1 if the mapping of the field is not a column index.
+    private final int[] columnIndexes;
+    // Whether each column of the raw data is mapped to a schema field, columns after the last mapped one are never read.
+    private final boolean[] mappedColumns;
+
     public KafkaCsvDeserializer(Schema schema)
     {
         super(schema);
+        List<Field> fields = schema.getFields();
+        this.columnIndexes = new int[fields.size()];
+        int maxColumnIndex = -1;
+        for (int i = 0; i < fields.size(); i++) {
+            columnIndexes[i] = toColumnIndex(fields.get(i).getMetadata().get("mapping"));
+            maxColumnIndex = Math.max(maxColumnIndex, columnIndexes[i]);
+        }
+        this.mappedColumns = new boolean[maxColumnIndex + 1];
+        for (int columnIndex : columnIndexes) {
+            if (columnIndex >= 0) {
+                mappedColumns[columnIndex] = true;
+            }
+        }
     }
 
     @Override
@@ -51,29 +69,32 @@ public class KafkaCsvDeserializer extends KafkaDeserializer
         topicResultSet.setDataFormat(Message.DATA_FORMAT_CSV);
 
         try {
-            // Transforming the topic raw (csv) data to string List.
-            List<String> words = Arrays
-                    .stream(new String(data, StandardCharsets.UTF_8).split(","))
-                    .map(String::trim)
-                    .collect(Collectors.toList());
+            // Decoding only the mapped columns of the topic raw (csv) data.
+            String[] words = readMappedColumns(data);
 
             // Creating Field object for each fields in raw data.
             // Also putting additional information in fields from fields metadata.
-            schema.getFields().forEach(field -> {
+            List<Field> fields = schema.getFields();
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
                 String mapping = field.getMetadata().get("mapping");
                 try {
+                    int columnIndex = columnIndexes[i];
+                    if (columnIndex < 0 || words[columnIndex] == null) {
+                        throw new IllegalArgumentException("Column " + mapping + " is not present in the message");
+                    }
                     topicResultSet.getFields().add(new KafkaField(
                             field.getName(),
                             mapping,
                             field.getMetadata().get("type"),
                             field.getMetadata().get("formatHint"),
-                            castValue(field, words.get(Integer.parseInt(mapping)))
+                            castValue(field, words[columnIndex])
                     ));
                 }
                 catch (Exception e) {
                     LOGGER.error("KafkaCsvDeserializer: Error in castValue : while converting raw value to typed value", e);
                 }
-            });
+            }
             return topicResultSet;
         }
         catch (Exception e) {
@@ -85,6 +106,55 @@ public class KafkaCsvDeserializer extends KafkaDeserializer
         return topicResultSet;
     }
 
+    /**
+     * Finds the comma separated columns in the raw data and decodes the mapped ones to trimmed strings,
+     * the raw data is scanned in place and only up to the last mapped column.
+     *
+     * @param data - raw (csv) data
+     * @return the value of each mapped column, null for columns which are not mapped or not present
+     */
+    private String[] readMappedColumns(byte[] data)
+    {
+        String[] words = new String[mappedColumns.length];
+        int column = 0;
+        int start = 0;
+        for (int i = 0; i <= data.length && column < mappedColumns.length; i++) {
+            if (i == data.length || data[i] == ',') {
+                if (mappedColumns[column]) {
+                    words[column] = decodeTrimmed(data, start, i);
+                }
+                column++;
+                start = i + 1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Decodes the bytes in [start, end) after dropping the leading and trailing whitespace, the same as String.trim().
+     * Bytes of multibyte UTF-8 characters are never below a space so they are not dropped.
+     */
+    private static String decodeTrimmed(byte[] data, int start, int end)
+    {
+        while (start < end && (data[start] & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (data[end - 1] & 0xff) <= ' ') {
+            end--;
+        }
+        return new String(data, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private static int toColumnIndex(String mapping)
+    {
+        try {
+            return mapping == null ? -1 : Math.max(Integer.parseInt(mapping), -1);
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     /**
      * Converts raw value to typed value, if fails returns null.
      *
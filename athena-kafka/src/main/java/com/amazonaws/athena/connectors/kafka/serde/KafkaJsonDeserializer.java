@@ -22,13 +22,19 @@ package com.amazonaws.athena.connectors.kafka.serde;
 import com.amazonaws.athena.connectors.kafka.dto.KafkaField;
 import com.amazonaws.athena.connectors.kafka.dto.Message;
 import com.amazonaws.athena.connectors.kafka.dto.TopicResultSet;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class KafkaJsonDeserializer extends KafkaDeserializer
 {
@@ -36,9 +42,16 @@ public class KafkaJsonDeserializer extends KafkaDeserializer
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    // The top level json fields which are mapped to a column, all other fields are skipped while parsing.
+    private final Set<String> mappings;
+
     public KafkaJsonDeserializer(Schema schema)
     {
         super(schema);
+        this.mappings = schema.getFields().stream()
+                .map(field -> field.getMetadata().get("mapping"))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
     }
 
     @Override
@@ -54,20 +67,24 @@ public class KafkaJsonDeserializer extends KafkaDeserializer
         topicResultSet.setDataFormat(Message.DATA_FORMAT_JSON);
 
         try {
-            // Transforming the topic raw (json) data to JsonNode using ObjectMapper.
-            JsonNode json = objectMapper.readValue(new String(data, StandardCharsets.UTF_8), JsonNode.class);
+            // Reading the mapped values straight from the topic raw (json) data using the streaming parser.
+            Map<String, String> values = readMappedValues(data);
 
             // Creating Field object for each fields in raw data.
             // Also putting additional information in fields from fields metadata.
             schema.getFields().forEach(field -> {
                 String mapping = field.getMetadata().get("mapping");
                 try {
+                    String value = values.get(mapping);
+                    if (value == null) {
+                        throw new IllegalArgumentException("Field " + mapping + " is not present in the message");
+                    }
                     topicResultSet.getFields().add(new KafkaField(
                             field.getName(),
                             mapping,
                             field.getMetadata().get("type"),
                             field.getMetadata().get("formatHint"),
-                            castValue(field, json.get(mapping).asText())
+                            castValue(field, value)
                     ));
                 }
                 catch (Exception e) {
@@ -85,6 +102,44 @@ public class KafkaJsonDeserializer extends KafkaDeserializer
         return topicResultSet;
     }
 
+    /**
+     * Reads the text of the mapped top level fields of a json object without building a tree of the whole message,
+     * the text is the same as JsonNode.asText() would give for the field.
+     *
+     * @param data - raw (json) data
+     * @return the text of each mapped field present in the message
+     */
+    private Map<String, String> readMappedValues(byte[] data) throws IOException
+    {
+        Map<String, String> values = new HashMap<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return values;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (!mappings.contains(name)) {
+                    parser.skipChildren();
+                }
+                else if (token.isStructStart()) {
+                    parser.skipChildren();
+                    values.put(name, "");
+                }
+                else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    values.put(name, String.valueOf(parser.getDoubleValue()));
+                }
+                else if (token == JsonToken.VALUE_NUMBER_INT) {
+                    values.put(name, parser.getNumberValue().toString());
+                }
+                else {
+                    values.put(name, parser.getText());
+                }
+            }
+        }
+        return values;
+    }
+
     /**
      * Converts raw value to typed value, if fails returns null.
      *
@@ -37,6 +37,7 @@ import software.amazon.awssdk.services.glue.model.ListRegistriesRequest;
 import software.amazon.awssdk.services.glue.model.ListRegistriesResponse;
 import software.amazon.awssdk.services.glue.model.RegistryListItem;
 
+import org.apache.arrow.vector.types.Types;
 import org.apache.kafka.clients.consumer.MockConsumer;
 import org.apache.kafka.clients.consumer.OffsetResetStrategy;
 import org.apache.kafka.common.PartitionInfo;
@@ -244,4 +245,12 @@ public class KafkaMetadataHandlerTest {
         assertEquals(500, response.getSplits().size());
         assertNull(response.getContinuationToken());
     }
+
+    @Test
+    public void testPieceTopicPartitionWithRecordsInSplit()
+    {
+        // The number of records per split sized from split_target_bytes.
+        assertEquals(3, kafkaMetadataHandler.pieceTopicPartition(0L, 250L, 100L).size());
+        assertEquals(1, kafkaMetadataHandler.pieceTopicPartition(0L, 50L, 100L).size());
+    }
 }
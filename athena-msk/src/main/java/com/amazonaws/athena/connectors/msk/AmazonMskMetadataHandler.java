@@ -37,6 +37,8 @@ import com.amazonaws.athena.connector.lambda.metadata.ListSchemasResponse;
 import com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest;
 import com.amazonaws.athena.connector.lambda.metadata.ListTablesResponse;
 import com.amazonaws.athena.connector.util.PaginatedRequestIterator;
+import com.amazonaws.athena.connectors.kafka.common.OffsetRange;
+import com.amazonaws.athena.connectors.kafka.common.TopicSplitPlanner;
 import com.amazonaws.athena.connectors.msk.dto.AvroTopicSchema;
 import com.amazonaws.athena.connectors.msk.dto.MSKField;
 import com.amazonaws.athena.connectors.msk.dto.SplitParameters;
@@ -46,6 +48,7 @@ import com.google.common.annotations.VisibleForTesting;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
@@ -71,6 +74,8 @@ import static com.amazonaws.athena.connector.lambda.metadata.ListTablesRequest.U
 import static com.amazonaws.athena.connectors.msk.AmazonMskConstants.AVRO_DATA_FORMAT;
 import static com.amazonaws.athena.connectors.msk.AmazonMskConstants.MAX_RECORDS_IN_SPLIT;
 import static com.amazonaws.athena.connectors.msk.AmazonMskConstants.PROTOBUF_DATA_FORMAT;
+import static com.amazonaws.athena.connectors.msk.AmazonMskConstants.SPLIT_TARGET_BYTES;
+import static com.amazonaws.athena.connectors.msk.AmazonMskConstants.TIMESTAMP_COLUMN;
 
 public class AmazonMskMetadataHandler extends MetadataHandler
 {
@@ -80,6 +85,7 @@ public class AmazonMskMetadataHandler extends MetadataHandler
     private static final String REGISTRY_MARKER = "{AthenaFederationMSK}";
     private static final Logger LOGGER = LoggerFactory.getLogger(AmazonMskMetadataHandler.class);
     private final Consumer<String, String> kafkaConsumer;
+    private final TopicSplitPlanner splitPlanner;
 
     public AmazonMskMetadataHandler(java.util.Map<String, String> configOptions) throws Exception
     {
@@ -91,6 +97,7 @@ public class AmazonMskMetadataHandler extends MetadataHandler
     {
         super(AmazonMskConstants.MSK_SOURCE, configOptions);
         this.kafkaConsumer = kafkaConsumer;
+        this.splitPlanner = new TopicSplitPlanner(kafkaConsumer, () -> Admin.create(AmazonMskUtils.getKafkaProperties(configOptions)));
     }
 
     private Stream<String> filteredRegistriesStream(Stream<RegistryListItem> registries)
@@ -378,6 +385,14 @@ public class AmazonMskMetadataHandler extends MetadataHandler
             });
         }
 
+        // Narrow the offsets down to the records matching the predicate on the timestamp column, if one is configured.
+        Map<TopicPartition, OffsetRange> offsetRanges = splitPlanner.getOffsetRanges(configOptions.get(TIMESTAMP_COLUMN),
+                request.getConstraints().getSummary(), topicPartitions, startOffsets, endOffsets);
+
+        // Size the pieces for the configured bytes per split, if any, from the records at the head of the topic.
+        long recordsInSplit = splitPlanner.getRecordsInSplit(Long.parseLong(configOptions.getOrDefault(SPLIT_TARGET_BYTES, "0")),
+                MAX_RECORDS_IN_SPLIT, topicPartitions, offsetRanges);
+
         Set<Split> splits = new HashSet<>();
         SpillLocation spillLocation = makeSpillLocation(request);
         int continuationToken = request.getContinuationToken() == null ? 0 : Integer.parseInt(request.getContinuationToken());
@@ -386,8 +401,15 @@ public class AmazonMskMetadataHandler extends MetadataHandler
             partitionIndex < topicPartitions.size();
             partitionIndex++) {
             TopicPartition partition = topicPartitions.get(partitionIndex);
+            OffsetRange offsetRange = offsetRanges.get(partition);
+            if (offsetRange == null) {
+                LOGGER.info("[TopicPartitionPiece] No records match the timestamp predicate in partition {} in topic {}",
+                        partition.partition(), partition.topic()
+                );
+                continue;
+            }
             // Calculate how many pieces we can divide a topic partition.
-            List<TopicPartitionPiece>  topicPartitionPieces = pieceTopicPartition(startOffsets.get(partition), endOffsets.get(partition));
+            List<TopicPartitionPiece>  topicPartitionPieces = pieceTopicPartition(offsetRange.startOffset, offsetRange.endOffset, recordsInSplit);
             LOGGER.info("[TopicPartitionPiece] Total pieces created {} for partition {} in topic {}",
                     topicPartitionPieces.size(), partition.partition(), partition.topic()
             );
@@ -519,12 +541,26 @@ public class AmazonMskMetadataHandler extends MetadataHandler
      * @return {@link List<TopicPartitionPiece>}
      */
     public  List<TopicPartitionPiece> pieceTopicPartition(long startOffset, long endOffset)
+    {
+        return pieceTopicPartition(startOffset, endOffset, MAX_RECORDS_IN_SPLIT);
+    }
+
+    /**
+     * Splits topic partition into pieces of the given number of records and calculates
+     * the start and end offsets of each piece.
+     *
+     * @param startOffset - the first offset of topic partition
+     * @param endOffset - the last offset of topic partition
+     * @param recordsInSplit - the number of records in each piece
+     * @return {@link List<TopicPartitionPiece>}
+     */
+    public  List<TopicPartitionPiece> pieceTopicPartition(long startOffset, long endOffset, long recordsInSplit)
     {
         List<TopicPartitionPiece> topicPartitionPieces = new ArrayList<>();
 
-        // If endOffset + 1 is smaller or equal to MAX_RECORDS_IN_SPLIT then we do not
+        // If endOffset + 1 is smaller or equal to recordsInSplit then we do not
         // need to piece the topic partition.
-        if (endOffset + 1 <= startOffset + MAX_RECORDS_IN_SPLIT) {
+        if (endOffset + 1 <= startOffset + recordsInSplit) {
             topicPartitionPieces.add(new TopicPartitionPiece(startOffset, endOffset));
             return topicPartitionPieces;
         }
@@ -534,19 +570,19 @@ public class AmazonMskMetadataHandler extends MetadataHandler
 
         // We need to piece the partition basing its end offset.
         // Calculate the number of pieces for the topic partition.
-        int pieces = (int) Math.ceil((float) totalOffset / (float) MAX_RECORDS_IN_SPLIT);
+        int pieces = (int) Math.ceil((float) totalOffset / (float) recordsInSplit);
 
         // Set the start and end offset for the first piece
         long xOffset = startOffset;
-        long yOffset = startOffset + MAX_RECORDS_IN_SPLIT;
+        long yOffset = startOffset + recordsInSplit;
 
         // Now we will traverse on loop for the calculated pieces and
         // keep calculating the start and end offsets for each piece
         // until we reach to the end of loop.
-        for (int i = 0; i < pieces; i++) {
+        for (int i = 0; i < pieces && xOffset <= endOffset; i++) {
             topicPartitionPieces.add(new TopicPartitionPiece(xOffset, yOffset));
             xOffset = yOffset + 1;
-            yOffset = xOffset + MAX_RECORDS_IN_SPLIT;
+            yOffset = xOffset + recordsInSplit;
 
             // The last yOffset of the last piece must not be greater than the endOffset
             // of the topic partition, it will be at least equal to endOffset of the topic partition.
@@ -38,6 +38,7 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
 import static com.amazonaws.athena.connectors.msk.AmazonMskConstants.AVRO_DATA_FORMAT;
 import static com.amazonaws.athena.connectors.msk.AmazonMskConstants.PROTOBUF_DATA_FORMAT;
+import static com.amazonaws.athena.connectors.msk.AmazonMskConstants.TIMESTAMP_COLUMN;
 
 public class AmazonMskRecordHandler
         extends RecordHandler
@@ -81,15 +82,15 @@ public class AmazonMskRecordHandler
         switch (dataFormat.toLowerCase()) {
             case AVRO_DATA_FORMAT:
                 consumer = AmazonMskUtils.getAvroKafkaConsumer(configOptions);
-                mskConsumer = new MskAvroConsumer();
+                mskConsumer = new MskAvroConsumer(configOptions.get(TIMESTAMP_COLUMN));
                 break;
             case PROTOBUF_DATA_FORMAT:
                 consumer = AmazonMskUtils.getProtobufKafkaConsumer(configOptions);
-                mskConsumer = new MskProtobufConsumer();
+                mskConsumer = new MskProtobufConsumer(configOptions.get(TIMESTAMP_COLUMN));
                 break;
             default:
                 consumer = AmazonMskUtils.getKafkaConsumer(recordsRequest.getSchema(), configOptions);
-                mskConsumer = new MskDefaultConsumer();
+                mskConsumer = new MskDefaultConsumer(configOptions.get(TIMESTAMP_COLUMN));
                 break;
         }
 
@@ -20,9 +20,12 @@
 package com.amazonaws.athena.connectors.msk.consumer;
 
 import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
+import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
 import com.amazonaws.athena.connectors.msk.dto.SplitParameters;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.types.Types;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
@@ -31,7 +34,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 public abstract class BaseMskConsumer<T> implements MskConsumer
@@ -39,26 +47,47 @@ public abstract class BaseMskConsumer<T> implements MskConsumer
     private static final Logger LOGGER = LoggerFactory.getLogger(BaseMskConsumer.class);
     protected static final int MAX_EMPTY_RESULT_FOUND_COUNT = 3;
 
+    // The column filled with the timestamp of each record instead of a value from the record, may be null.
+    private final String timestampColumn;
+
+    protected BaseMskConsumer(String timestampColumn)
+    {
+        this.timestampColumn = timestampColumn == null ? null : timestampColumn.toLowerCase();
+    }
+
     @Override
     public void consume(BlockSpiller spiller, ReadRecordsRequest recordsRequest, QueryStatusChecker queryStatusChecker, SplitParameters splitParameters, Consumer<?, ?> consumer)
     {
         @SuppressWarnings("unchecked")
         Consumer<String, T> typedConsumer = (Consumer<String, T>) consumer;
-        typedConsumer.assign(Collections.singleton(new TopicPartition(splitParameters.topic, splitParameters.partition)));
-        typedConsumer.seek(new TopicPartition(splitParameters.topic, splitParameters.partition), splitParameters.startOffset);
+        TopicPartition partition = new TopicPartition(splitParameters.topic, splitParameters.partition);
+        typedConsumer.assign(Collections.singleton(partition));
+        typedConsumer.seek(partition, splitParameters.startOffset);
 
-        Map<TopicPartition, Long> endOffsets = typedConsumer.endOffsets(Collections.singleton(new TopicPartition(splitParameters.topic, splitParameters.partition)));
-        if (endOffsets.get(new TopicPartition(splitParameters.topic, splitParameters.partition)) == 0) {
+        Map<TopicPartition, Long> endOffsets = typedConsumer.endOffsets(Collections.singleton(partition));
+        if (endOffsets.get(partition) == 0) {
             LOGGER.debug("[kafka] topic does not have data, closing consumer {}", splitParameters);
             typedConsumer.close();
             splitParameters.info = "endOffset is 0 i.e partition does not have data";
             return;
         }
 
-        pollAndProcess(spiller, queryStatusChecker, splitParameters, typedConsumer);
+        // The last piece of a partition ends at the end offset of the partition, which is one past its last record.
+        // Reading up to the last record which exists lets the polling stop as soon as that record has been read
+        // instead of waiting for the polls to come back empty.
+        long lastOffset = Math.min(splitParameters.endOffset, endOffsets.get(partition) - 1);
+        if (splitParameters.startOffset > lastOffset) {
+            LOGGER.debug("[kafka] split does not have data, closing consumer {}", splitParameters);
+            typedConsumer.close();
+            splitParameters.info = "startOffset is past the last offset of the partition i.e split does not have data";
+            return;
+        }
+
+        pollAndProcess(spiller, queryStatusChecker, splitParameters, typedConsumer, partition, lastOffset);
     }
 
-    private void pollAndProcess(BlockSpiller spiller, QueryStatusChecker queryStatusChecker, SplitParameters splitParameters, Consumer<String, T> consumer)
+    private void pollAndProcess(BlockSpiller spiller, QueryStatusChecker queryStatusChecker, SplitParameters splitParameters,
+                                Consumer<String, T> consumer, TopicPartition partition, long lastOffset)
     {
         LOGGER.info("[kafka] {} Polling for data", splitParameters);
         int emptyResultFoundCount = 0;
@@ -84,25 +113,93 @@ public abstract class BaseMskConsumer<T> implements MskConsumer
                 return;
             }
 
+            // Gather the records of this poll which belong to the split, then write them with a single writeBatch so
+            // the spiller can fill its Block a range of records at a time.
+            List<ConsumerRecord<String, T>> batch = new ArrayList<>(records.count());
+            boolean done = false;
             for (ConsumerRecord<String, T> record : records) {
                 if (record == null || record.value() == null) {
                     LOGGER.warn("[NullRecord] {} Received a null record or record value, offset: {}", splitParameters, record != null ? record.offset() : "unknown");
-                    return;
+                    done = true;
+                    break;
                 }
-                processRecord(spiller, splitParameters, record);
+                batch.add(record);
 
-                if (record.offset() >= splitParameters.endOffset) {
+                if (record.offset() >= lastOffset) {
                     LOGGER.debug("[kafka] {} Closing consumer due to reach at end offset (current record offset is {})", splitParameters, record.offset());
                     splitParameters.info = String.format(
-                            "reached at the end offset i.e no need to work: condition [if(record.offset() >= splitParameters.endOffset) i.e if(%s >= %s)]",
+                            "reached at the end offset i.e no need to work: condition [if(record.offset() >= lastOffset) i.e if(%s >= %s)]",
                             record.offset(),
-                            splitParameters.endOffset
+                            lastOffset
                     );
-                    return;
+                    done = true;
+                    break;
                 }
             }
+            writeRecords(spiller, splitParameters, batch);
+            if (done) {
+                return;
+            }
+
+            // The offsets at the end of the split are not always returned as records, e.g. transaction markers or
+            // compacted records, in which case the position of the consumer shows that the split has been read.
+            if (consumer.position(partition) > lastOffset) {
+                LOGGER.debug("[kafka] {} Closing consumer due to reach at end offset (current position is {})", splitParameters, consumer.position(partition));
+                splitParameters.info = "reached at the end offset i.e no need to work";
+                return;
+            }
         }
     }
 
-    protected abstract void processRecord(BlockSpiller spiller, SplitParameters splitParameters, ConsumerRecord<String, T> record);
+    private void writeRecords(BlockSpiller spiller, SplitParameters splitParameters, List<ConsumerRecord<String, T>> batch)
+    {
+        if (batch.isEmpty()) {
+            return;
+        }
+        spiller.writeBatch(batch.size(), (Block block, int rowNum, int sourceOffset, int sourceCount) -> {
+            int rows = 0;
+            for (int i = sourceOffset; i < sourceOffset + sourceCount; i++) {
+                // A record which does not match the constraints is overwritten by the next one.
+                ConsumerRecord<String, T> record = batch.get(i);
+                if (offerTimestamp(block, rowNum + rows, record) && processRecord(block, rowNum + rows, splitParameters, record)) {
+                    rows++;
+                }
+            }
+            splitParameters.spilled += rows;
+            return rows;
+        });
+    }
+
+    /**
+     * Writes the timestamp of the record into the timestamp column, the offsets of the splits are derived from
+     * these timestamps so the column must not be filled from the record value.
+     *
+     * @return true if the timestamp matched the constraints of the Block, false if the row should be discarded.
+     */
+    private boolean offerTimestamp(Block block, int rowNum, ConsumerRecord<String, T> record)
+    {
+        FieldVector vector = timestampColumn == null ? null : block.getFieldVector(timestampColumn);
+        if (vector == null) {
+            return true;
+        }
+        Object value = vector.getMinorType() == Types.MinorType.BIGINT
+                ? (Object) record.timestamp()
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneOffset.UTC);
+        return block.offerValue(timestampColumn, rowNum, value);
+    }
+
+    /**
+     * @return true if the field is the timestamp column, which the record processors leave to this class.
+     */
+    protected boolean isTimestampColumn(String fieldName)
+    {
+        return timestampColumn != null && timestampColumn.equalsIgnoreCase(fieldName);
+    }
+
+    /**
+     * Writes the fields of a record into the given row of the Block.
+     *
+     * @return true if the record matched the constraints of the Block, false if the row should be discarded.
+     */
+    protected abstract boolean processRecord(Block block, int rowNum, SplitParameters splitParameters, ConsumerRecord<String, T> record);
 }
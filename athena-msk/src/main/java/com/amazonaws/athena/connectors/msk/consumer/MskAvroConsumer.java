@@ -20,7 +20,6 @@
 package com.amazonaws.athena.connectors.msk.consumer;
 
 import com.amazonaws.athena.connector.lambda.data.Block;
-import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connectors.msk.dto.SplitParameters;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericRecord;
@@ -32,24 +31,31 @@ public class MskAvroConsumer extends BaseMskConsumer<GenericRecord>
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(MskAvroConsumer.class);
 
+    public MskAvroConsumer(String timestampColumn)
+    {
+        super(timestampColumn);
+    }
+
     @Override
-    protected void processRecord(BlockSpiller spiller, SplitParameters splitParameters, ConsumerRecord<String, GenericRecord> record)
+    protected boolean processRecord(Block block, int rowNum, SplitParameters splitParameters, ConsumerRecord<String, GenericRecord> record)
     {
-        getRecordProcessor().processRecord(spiller, splitParameters, record);
+        return getRecordProcessor().processRecord(block, rowNum, splitParameters, record);
     }
 
     private MskRecordProcessor<GenericRecord> getRecordProcessor()
     {
-        return (spiller, splitParameters, record) -> spiller.writeRows((Block block, int rowNum) -> {
+        return (block, rowNum, splitParameters, record) -> {
             for (Schema.Field next : record.value().getSchema().getFields()) {
-                boolean isMatched = block.offerValue(next.name(), rowNum, record.value().get(next.name()));
+                if (isTimestampColumn(next.name())) {
+                    continue;
+                }
+                boolean isMatched = block.offerValue(next.name(), rowNum, record.value().get(next.pos()));
                 if (!isMatched) {
                     LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
-                    return 0;
+                    return false;
                 }
             }
-            splitParameters.spilled += 1;
-            return 1;
-        });
+            return true;
+        };
     }
 }
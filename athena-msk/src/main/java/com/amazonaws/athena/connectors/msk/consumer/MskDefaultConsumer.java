@@ -20,7 +20,6 @@
 package com.amazonaws.athena.connectors.msk.consumer;
 
 import com.amazonaws.athena.connector.lambda.data.Block;
-import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connectors.msk.dto.MSKField;
 import com.amazonaws.athena.connectors.msk.dto.SplitParameters;
 import com.amazonaws.athena.connectors.msk.dto.TopicResultSet;
@@ -32,24 +31,31 @@ public class MskDefaultConsumer extends BaseMskConsumer<TopicResultSet>
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(MskDefaultConsumer.class);
 
+    public MskDefaultConsumer(String timestampColumn)
+    {
+        super(timestampColumn);
+    }
+
     @Override
-    protected void processRecord(BlockSpiller spiller, SplitParameters splitParameters, ConsumerRecord<String, TopicResultSet> record)
+    protected boolean processRecord(Block block, int rowNum, SplitParameters splitParameters, ConsumerRecord<String, TopicResultSet> record)
     {
-        getRecordProcessor().processRecord(spiller, splitParameters, record);
+        return getRecordProcessor().processRecord(block, rowNum, splitParameters, record);
     }
 
     private MskRecordProcessor<TopicResultSet> getRecordProcessor()
     {
-        return (spiller, splitParameters, record) -> spiller.writeRows((Block block, int rowNum) -> {
+        return (block, rowNum, splitParameters, record) -> {
             for (MSKField field : record.value().getFields()) {
+                if (isTimestampColumn(field.getName())) {
+                    continue;
+                }
                 boolean isMatched = block.offerValue(field.getName(), rowNum, field.getValue());
                 if (!isMatched) {
                     LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
-                    return 0;
+                    return false;
                 }
             }
-            splitParameters.spilled += 1;
-            return 1;
-        });
+            return true;
+        };
     }
 }
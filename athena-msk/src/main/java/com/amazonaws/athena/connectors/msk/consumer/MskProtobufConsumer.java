@@ -20,7 +20,6 @@
 package com.amazonaws.athena.connectors.msk.consumer;
 
 import com.amazonaws.athena.connector.lambda.data.Block;
-import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connectors.msk.dto.SplitParameters;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
@@ -32,24 +31,31 @@ public class MskProtobufConsumer extends BaseMskConsumer<DynamicMessage>
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(MskProtobufConsumer.class);
 
+    public MskProtobufConsumer(String timestampColumn)
+    {
+        super(timestampColumn);
+    }
+
     @Override
-    protected void processRecord(BlockSpiller spiller, SplitParameters splitParameters, ConsumerRecord<String, DynamicMessage> record)
+    protected boolean processRecord(Block block, int rowNum, SplitParameters splitParameters, ConsumerRecord<String, DynamicMessage> record)
     {
-        getRecordProcessor().processRecord(spiller, splitParameters, record);
+        return getRecordProcessor().processRecord(block, rowNum, splitParameters, record);
     }
 
     private MskRecordProcessor<DynamicMessage> getRecordProcessor()
     {
-        return (spiller, splitParameters, record) -> spiller.writeRows((Block block, int rowNum) -> {
+        return (block, rowNum, splitParameters, record) -> {
             for (Descriptors.FieldDescriptor next : record.value().getAllFields().keySet()) {
+                if (isTimestampColumn(next.getName())) {
+                    continue;
+                }
                 boolean isMatched = block.offerValue(next.getName(), rowNum, record.value().getField(next));
                 if (!isMatched) {
                     LOGGER.debug("[FailedToSpill] {} Failed to spill record, offset: {}", splitParameters, record.offset());
-                    return 0;
+                    return false;
                 }
             }
-            splitParameters.spilled += 1;
-            return 1;
-        });
+            return true;
+        };
     }
 }
@@ -19,11 +19,11 @@
  */
 package com.amazonaws.athena.connectors.msk.consumer;
 
-import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connectors.msk.dto.SplitParameters;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 
 public interface MskRecordProcessor<T>
 {
-    void processRecord(BlockSpiller spiller, SplitParameters splitParameters, ConsumerRecord<String, T> record);
+    boolean processRecord(Block block, int rowNum, SplitParameters splitParameters, ConsumerRecord<String, T> record);
 }
@@ -300,4 +300,12 @@ public class AmazonMskMetadataHandlerTest {
         assertEquals(500, response.getSplits().size());
         assertNull(response.getContinuationToken());
     }
+
+    @Test
+    public void testPieceTopicPartitionWithRecordsInSplit()
+    {
+        // The number of records per split sized from split_target_bytes.
+        assertEquals(3, amazonMskMetadataHandler.pieceTopicPartition(0L, 250L, 100L).size());
+        assertEquals(1, amazonMskMetadataHandler.pieceTopicPartition(0L, 50L, 100L).size());
+    }
 }
@@ -22,6 +22,7 @@ package com.amazonaws.athena.connectors.msk;
 import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
 import com.amazonaws.athena.connector.lambda.data.BlockAllocatorImpl;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
+import com.amazonaws.athena.connector.lambda.data.BlockWriter;
 import com.amazonaws.athena.connector.lambda.data.S3BlockSpiller;
 import com.amazonaws.athena.connector.lambda.data.SchemaBuilder;
 import com.amazonaws.athena.connector.lambda.data.SpillConfig;
@@ -29,6 +30,9 @@ import com.amazonaws.athena.connector.lambda.domain.Split;
 import com.amazonaws.athena.connector.lambda.domain.TableName;
 import com.amazonaws.athena.connector.lambda.domain.predicate.ConstraintEvaluator;
 import com.amazonaws.athena.connector.lambda.domain.predicate.Constraints;
+import com.amazonaws.athena.connector.lambda.domain.predicate.Range;
+import com.amazonaws.athena.connector.lambda.domain.predicate.SortedRangeSet;
+import com.amazonaws.athena.connector.lambda.domain.predicate.ValueSet;
 import com.amazonaws.athena.connector.lambda.domain.spill.S3SpillLocation;
 import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
@@ -36,6 +40,7 @@ import com.amazonaws.athena.connector.lambda.security.EncryptionKey;
 import com.amazonaws.athena.connector.lambda.security.EncryptionKeyFactory;
 import com.amazonaws.athena.connector.lambda.security.FederatedIdentity;
 import com.amazonaws.athena.connector.lambda.security.LocalKeyFactory;
+import com.amazonaws.athena.connectors.msk.consumer.MskDefaultConsumer;
 import com.amazonaws.athena.connectors.msk.dto.AvroTopicSchema;
 import com.amazonaws.athena.connectors.msk.dto.MSKField;
 import com.amazonaws.athena.connectors.msk.dto.Message;
@@ -51,6 +56,8 @@ import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
 import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
+import org.apache.arrow.vector.complex.reader.FieldReader;
+import org.apache.arrow.vector.types.Types;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -60,6 +67,8 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.MockConsumer;
 import org.apache.kafka.clients.consumer.OffsetResetStrategy;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -87,8 +96,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
@@ -97,7 +110,11 @@ import static com.amazonaws.athena.connectors.msk.AmazonMskConstants.PROTOBUF_DA
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -369,6 +386,94 @@ public class AmazonMskRecordHandlerTest
         amazonMskRecordHandler.readWithConstraint(null, request, queryStatusChecker);
     }
 
+    @Test
+    public void testForConsumeStopsAtLastRecordOfPartition() throws Exception
+    {
+        MockConsumer<String, TopicResultSet> spyConsumer = Mockito.spy(new MockConsumer<>(OffsetResetStrategy.EARLIEST));
+        ConsumerRecord<String, TopicResultSet> record1 = createConsumerRecord("myTopic", 0, 0, "k1", createTopicResultSet("myTopic"));
+        ConsumerRecord<String, TopicResultSet> record2 = createConsumerRecord("myTopic", 0, 1, "k2", createTopicResultSet("myTopic"));
+        spyConsumer.schedulePollTask(() -> {
+            spyConsumer.addRecord(record1);
+            spyConsumer.addRecord(record2);
+        });
+
+        HashMap<TopicPartition, Long> offsets;
+        offsets = new HashMap<>();
+        offsets.put(new TopicPartition("myTopic", 0), 0L);
+        spyConsumer.updateBeginningOffsets(offsets);
+
+        offsets = new HashMap<>();
+        offsets.put(new TopicPartition("myTopic", 0), 2L);
+        spyConsumer.updateEndOffsets(offsets);
+
+        // The split of the last piece ends at the end offset of the partition, one past its last record.
+        SplitParameters splitParameters = new SplitParameters("myTopic", 0, 0, 2);
+        Schema schema = createSchema(createCsvTopicSchema());
+
+        mockedMskUtils.when(() -> AmazonMskUtils.getKafkaConsumer(schema, com.google.common.collect.ImmutableMap.of())).thenReturn(spyConsumer);
+        mockedMskUtils.when(() -> AmazonMskUtils.createSplitParam(anyMap())).thenReturn(splitParameters);
+
+        Mockito.when(awsGlue.getSchema(any(GetSchemaRequest.class))).thenReturn(getSchemaResponse());
+        Mockito.when(awsGlue.getSchemaVersion(any(GetSchemaVersionRequest.class))).thenReturn(getJsonSchemaVersionResponse());
+
+        QueryStatusChecker queryStatusChecker = mock(QueryStatusChecker.class);
+        when(queryStatusChecker.isQueryRunning()).thenReturn(true);
+
+        ReadRecordsRequest request = createReadRecordsRequest(schema);
+        BlockSpiller spiller = Mockito.spy(new S3BlockSpiller(amazonS3, spillConfig, allocator, schema, ConstraintEvaluator.emptyEvaluator(), com.google.common.collect.ImmutableMap.of()));
+        amazonMskRecordHandler.readWithConstraint(spiller, request, queryStatusChecker);
+
+        // The read stops after the last record instead of polling until the polls come back empty.
+        assertEquals(2, spiller.getBlock().getRowCount());
+        verify(spyConsumer, times(1)).poll(any(Duration.class));
+        // The records of the poll are written as one batch.
+        verify(spiller, times(1)).writeBatch(eq(2), any(BlockWriter.BatchWriter.class));
+        verify(spiller, never()).writeRows(any(BlockWriter.RowWriter.class));
+    }
+
+    @Test
+    public void testForConsumeFillsTimestampColumn() throws Exception
+    {
+        MockConsumer<String, TopicResultSet> timestampConsumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        // The value of the timestamp column in the record is replaced by the timestamp of the record.
+        TopicResultSet resultSet = createTopicResultSet("myTopic");
+        resultSet.getFields().add(new MSKField("event_time", "4", "TIMESTAMP", "", LocalDateTime.ofEpochSecond(9, 0, ZoneOffset.UTC)));
+        ConsumerRecord<String, TopicResultSet> record1 = new ConsumerRecord<>("myTopic", 0, 0, 1_000L, TimestampType.CREATE_TIME,
+                2, 10, "k1", resultSet, new RecordHeaders(), Optional.empty());
+        ConsumerRecord<String, TopicResultSet> record2 = new ConsumerRecord<>("myTopic", 0, 1, 2_000L, TimestampType.CREATE_TIME,
+                2, 10, "k2", resultSet, new RecordHeaders(), Optional.empty());
+        timestampConsumer.schedulePollTask(() -> {
+            timestampConsumer.addRecord(record1);
+            timestampConsumer.addRecord(record2);
+        });
+        timestampConsumer.updateBeginningOffsets(Collections.singletonMap(new TopicPartition("myTopic", 0), 0L));
+        timestampConsumer.updateEndOffsets(Collections.singletonMap(new TopicPartition("myTopic", 0), 2L));
+
+        SchemaBuilder schemaBuilder = SchemaBuilder.newBuilder();
+        createSchema(createCsvTopicSchema()).getFields().forEach(schemaBuilder::addField);
+        schemaBuilder.addField("event_time", Types.MinorType.DATEMILLI.getType());
+        Schema schema = schemaBuilder.build();
+
+        // event_time >= 1500ms
+        ValueSet valueSet = SortedRangeSet.of(false, Range.greaterThanOrEqual(allocator, Types.MinorType.DATEMILLI.getType(),
+                LocalDateTime.ofEpochSecond(1, 500_000_000, ZoneOffset.UTC)));
+        Constraints constraints = new Constraints(Collections.singletonMap("event_time", valueSet), Collections.emptyList(),
+                Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null);
+        QueryStatusChecker queryStatusChecker = mock(QueryStatusChecker.class);
+        when(queryStatusChecker.isQueryRunning()).thenReturn(true);
+
+        BlockSpiller spiller = new S3BlockSpiller(amazonS3, spillConfig, allocator, schema,
+                new ConstraintEvaluator(allocator, schema, constraints), com.google.common.collect.ImmutableMap.of());
+        new MskDefaultConsumer("EVENT_TIME").consume(spiller, createReadRecordsRequest(schema), queryStatusChecker,
+                new SplitParameters("myTopic", 0, 0, 2), timestampConsumer);
+
+        // Only the second record matches, it is filtered on its timestamp rather than the value in the record.
+        assertEquals(1, spiller.getBlock().getRowCount());
+        FieldReader reader = spiller.getBlock().getFieldReader("event_time");
+        reader.setPosition(0);
+        assertEquals(LocalDateTime.ofEpochSecond(2, 0, ZoneOffset.UTC), reader.readLocalDateTime());
+    }
+
     private ReadRecordsRequest createReadRecordsRequest(Schema schema)
     {
         return new ReadRecordsRequest(
@@ -77,4 +77,23 @@ public class MskCsvDeserializerTest extends MskAbstractDeserializerTest
                 "]}}";
         return objectMapper.readValue(csv, TopicSchema.class);
     }
+
+    @Test
+    public void testMskCsvDeserializerValues() throws Exception
+    {
+        MskCsvDeserializer csvDeserializer = new MskCsvDeserializer(createSchema(createCsvTopicSchema()));
+
+        TopicResultSet resultSet = csvDeserializer.deserialize("test", " 10 , Jämes,true,11,2255, 120.30 ,2000-01-01,unmapped".getBytes(StandardCharsets.UTF_8));
+        assertEquals(7, resultSet.getFields().size());
+        assertEquals(10, resultSet.getFields().get(0).getValue());
+        assertEquals("Jämes", resultSet.getFields().get(1).getValue());
+        assertEquals(true, resultSet.getFields().get(2).getValue());
+        assertEquals((byte) 11, resultSet.getFields().get(3).getValue());
+        assertEquals((short) 2255, resultSet.getFields().get(4).getValue());
+        assertEquals(120.30, resultSet.getFields().get(5).getValue());
+
+        // Columns missing from the message are left out.
+        resultSet = csvDeserializer.deserialize("test", "10, James".getBytes(StandardCharsets.UTF_8));
+        assertEquals(2, resultSet.getFields().size());
+    }
 }
@@ -73,4 +73,24 @@ public class MskJsonDeserializerTest extends MskAbstractDeserializerTest
                 "]}}";
         return objectMapper.readValue(json, TopicSchema.class);
     }
+
+    @Test
+    public void testMskJsonDeserializerValues() throws Exception
+    {
+        MskJsonDeserializer jsonDeserializer = new MskJsonDeserializer(createSchema(createJsonTopicSchema()));
+
+        // Unmapped fields, including nested ones, are skipped and numbers are read the same as from a JsonNode.
+        TopicResultSet resultSet = jsonDeserializer.deserialize("test", ("{\"extra\": {\"id\": 1, \"list\": [1, 2]}, " +
+                "\"id\": 10, \"name\": \"James\", \"isActive\": true, \"phone\": 1010010110}").getBytes(StandardCharsets.UTF_8));
+        assertEquals(4, resultSet.getFields().size());
+        assertEquals(10, resultSet.getFields().get(0).getValue());
+        assertEquals("James", resultSet.getFields().get(1).getValue());
+        assertEquals(true, resultSet.getFields().get(2).getValue());
+        assertEquals(1010010110L, resultSet.getFields().get(3).getValue());
+
+        // Fields missing from the message are left out.
+        resultSet = jsonDeserializer.deserialize("test", "{\"name\": \"James\"}".getBytes(StandardCharsets.UTF_8));
+        assertEquals(1, resultSet.getFields().size());
+        assertEquals("name", resultSet.getFields().get(0).getName());
+    }
 }
@@ -100,6 +100,10 @@ public class PostGreSqlMetadataHandler
 
     static final String LIST_PAGINATED_TABLES_QUERY = "SELECT a.\"TABLE_NAME\", a.\"TABLE_SCHEM\" FROM ((SELECT table_name as \"TABLE_NAME\", table_schema as \"TABLE_SCHEM\" FROM information_schema.tables WHERE table_schema = ?) UNION (SELECT matviewname as \"TABLE_NAME\", schemaname as \"TABLE_SCHEM\" from pg_catalog.pg_matviews mv where has_table_privilege(format('%I.%I', mv.schemaname, mv.matviewname), 'select') and schemaname = ?)) AS a ORDER BY a.\"TABLE_NAME\" LIMIT ? OFFSET ?";
 
+    // Histogram of the split column gathered by ANALYZE, the inherited statistics cover the child tables too.
+    static final String SPLIT_COLUMN_HISTOGRAM_QUERY = "SELECT unnest(histogram_bounds::text::%s[]) FROM (SELECT histogram_bounds FROM pg_catalog.pg_stats " +
+            "WHERE schemaname = ? AND tablename = ? AND attname = ? ORDER BY inherited DESC LIMIT 1) AS s";
+
     //Session Property Flag that hints to the engine that the data source is using none default collation
     protected static final String NON_DEFAULT_COLLATE = "non_default_collate";
 
@@ -292,6 +296,35 @@ public class PostGreSqlMetadataHandler
         return new GetSplitsResponse(getSplitsRequest.getCatalogName(), splits, null);
     }
 
+    /**
+     * Reads the histogram bounds of the split column from pg_stats, the bounds split the column values into buckets with
+     * about the same number of rows. Falls back to the min and max values when the table has not been analyzed.
+     */
+    @Override
+    protected List<Object> getSplitColumnHistogram(final Connection jdbcConnection, final TableName tableName, final String columnName, final String columnTypeName)
+    {
+        List<Object> histogramBounds = new ArrayList<>();
+        if (columnTypeName == null || !columnTypeName.matches("[A-Za-z0-9_ ]+")) {
+            return histogramBounds;
+        }
+        try (PreparedStatement preparedStatement = jdbcConnection.prepareStatement(String.format(SPLIT_COLUMN_HISTOGRAM_QUERY, columnTypeName))) {
+            preparedStatement.setString(1, tableName.getSchemaName());
+            preparedStatement.setString(2, tableName.getTableName());
+            preparedStatement.setString(3, columnName);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    histogramBounds.add(resultSet.getObject(1));
+                }
+            }
+        }
+        catch (SQLException ex) {
+            LOGGER.warn("Unable to read the histogram of {} in {}, splitting on min and max values.", columnName, tableName, ex);
+            histogramBounds.clear();
+        }
+        LOGGER.info("Read {} histogram bounds of {} in {}", histogramBounds.size(), columnName, tableName);
+        return histogramBounds;
+    }
+
     @Override
     protected ListTablesResponse listPaginatedTables(final Connection connection, final ListTablesRequest listTablesRequest) throws SQLException
     {
@@ -308,6 +308,30 @@ public class PostGreSqlMetadataHandlerTest
         Assert.assertEquals(expectedSplits, actualSplits);
     }
 
+    @Test
+    public void getSplitColumnHistogram()
+            throws Exception
+    {
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(this.connection.prepareStatement(String.format(PostGreSqlMetadataHandler.SPLIT_COLUMN_HISTOGRAM_QUERY, "int8"))).thenReturn(preparedStatement);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.next()).thenReturn(true, true, true, false);
+        Mockito.when(resultSet.getObject(1)).thenReturn(1L, 100L, 1000L);
+        Mockito.when(preparedStatement.executeQuery()).thenReturn(resultSet);
+
+        TableName tableName = new TableName("testSchema", "testTable");
+        List<Object> histogramBounds = this.postGreSqlMetadataHandler.getSplitColumnHistogram(this.connection, tableName, "id", "int8");
+
+        Assert.assertEquals(Arrays.asList(1L, 100L, 1000L), histogramBounds);
+        Mockito.verify(preparedStatement).setString(1, "testSchema");
+        Mockito.verify(preparedStatement).setString(2, "testTable");
+        Mockito.verify(preparedStatement).setString(3, "id");
+
+        Mockito.when(preparedStatement.executeQuery()).thenThrow(new SQLException("permission denied"));
+        Assert.assertTrue(this.postGreSqlMetadataHandler.getSplitColumnHistogram(this.connection, tableName, "id", "int8").isEmpty());
+        Assert.assertTrue(this.postGreSqlMetadataHandler.getSplitColumnHistogram(this.connection, tableName, "id", "int8[]; drop table x").isEmpty());
+    }
+
     @Test
     public void doGetSplitsContinuation()
             throws Exception
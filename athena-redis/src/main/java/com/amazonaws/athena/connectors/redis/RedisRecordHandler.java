@@ -23,13 +23,16 @@ import com.amazonaws.athena.connector.lambda.QueryStatusChecker;
 import com.amazonaws.athena.connector.lambda.data.Block;
 import com.amazonaws.athena.connector.lambda.data.BlockSpiller;
 import com.amazonaws.athena.connector.lambda.domain.Split;
+import com.amazonaws.athena.connector.lambda.exceptions.AthenaConnectorException;
 import com.amazonaws.athena.connector.lambda.handlers.RecordHandler;
 import com.amazonaws.athena.connector.lambda.records.ReadRecordsRequest;
+import com.amazonaws.athena.connectors.redis.lettuce.RedisAsyncCommandsWrapper;
 import com.amazonaws.athena.connectors.redis.lettuce.RedisCommandsWrapper;
 import com.amazonaws.athena.connectors.redis.lettuce.RedisConnectionFactory;
 import com.amazonaws.athena.connectors.redis.lettuce.RedisConnectionWrapper;
 import com.amazonaws.athena.connectors.redis.qpt.RedisQueryPassthrough;
 import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.KeyValue;
 import io.lettuce.core.ScanArgs;
 import io.lettuce.core.ScanCursor;
 import io.lettuce.core.ScoredValue;
@@ -40,14 +43,22 @@ import org.apache.arrow.vector.types.pojo.Field;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.athena.AthenaClient;
+import software.amazon.awssdk.services.glue.model.ErrorDetails;
+import software.amazon.awssdk.services.glue.model.FederationSourceErrorCode;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.KEY_COLUMN_NAME;
@@ -84,10 +95,15 @@ public class RedisRecordHandler
     //The page size for Jedis scans.
     private static final int SCAN_COUNT_SIZE = 100;
 
+    //The number of keys whose values are requested (MGET, HGETALL, or ZSCAN) before waiting on any of them, 0 (the
+    //default) reads the value of each key with its own round trip.
+    private static final String PIPELINE_DEPTH = "pipeline_depth";
+
     private final RedisConnectionFactory redisConnectionFactory;
     private final S3Client amazonS3;
 
     private final RedisQueryPassthrough queryPassthrough = new RedisQueryPassthrough();
+    private final int pipelineDepth;
 
     public RedisRecordHandler(java.util.Map<String, String> configOptions)
     {
@@ -109,6 +125,7 @@ public class RedisRecordHandler
         super(amazonS3, secretsManager, athena, SOURCE_TYPE, configOptions);
         this.amazonS3 = amazonS3;
         this.redisConnectionFactory = redisConnectionFactory;
+        this.pipelineDepth = Integer.parseInt(configOptions.getOrDefault(PIPELINE_DEPTH, "0"));
     }
 
     /**
@@ -137,6 +154,9 @@ public class RedisRecordHandler
         if (recordsRequest.getConstraints().isQueryPassThrough()) {
             handleQueryPassthrough(spiller, recordsRequest, queryStatusChecker);
         }
+        else if (pipelineDepth > 0) {
+            handlePipelinedQuery(spiller, recordsRequest, queryStatusChecker);
+        }
         else {
             handleStandardQuery(spiller, recordsRequest, queryStatusChecker);
         }
@@ -148,16 +168,19 @@ public class RedisRecordHandler
      * @return the resulting connection object
      */
     private RedisCommandsWrapper<String, String> getSyncCommands(ReadRecordsRequest recordsRequest)
+    {
+        RedisCommandsWrapper<String, String> syncCommands = getConnection(recordsRequest).sync();
+        return syncCommands;
+    }
+
+    private RedisConnectionWrapper<String, String> getConnection(ReadRecordsRequest recordsRequest)
     {
         Split split = recordsRequest.getSplit();
         boolean sslEnabled = Boolean.parseBoolean(split.getProperty(REDIS_SSL_FLAG));
         boolean isCluster = Boolean.parseBoolean(split.getProperty(REDIS_CLUSTER_FLAG));
         String dbNumber = split.getProperty(REDIS_DB_NUMBER);
 
-        RedisConnectionWrapper<String, String> connection = getOrCreateClient(split.getProperty(REDIS_ENDPOINT_PROP),
-                                                                              sslEnabled, isCluster, dbNumber);
-        RedisCommandsWrapper<String, String> syncCommands = connection.sync();
-        return syncCommands;
+        return getOrCreateClient(split.getProperty(REDIS_ENDPOINT_PROP), sslEnabled, isCluster, dbNumber);
     }
 
     /**
@@ -236,6 +259,103 @@ public class RedisRecordHandler
         while (keyCursor != null && !keyCursor.isFinished());
     }
 
+    /**
+     * readWithConstraint case for when the query does not involve Query Passthrough and pipeline_depth is set. Rather
+     * than a round trip per key, the values of up to pipelineDepth keys are requested before waiting on the first of
+     * them (a single MGET for literal values), and the next SCAN page is requested before the current one is written.
+     * @see RecordHandler
+     */
+    private void handlePipelinedQuery(BlockSpiller spiller,
+                                      ReadRecordsRequest recordsRequest,
+                                      QueryStatusChecker queryStatusChecker)
+    {
+        Split split = recordsRequest.getSplit();
+        ValueType valueType = ValueType.fromId(split.getProperty(VALUE_TYPE_TABLE_PROP));
+        List<Field> fieldList = recordsRequest.getSchema().getFields().stream()
+                .filter((Field next) -> !KEY_COLUMN_NAME.equals(next.getName())).collect(Collectors.toList());
+        RedisAsyncCommandsWrapper<String, String> asyncCommands = getConnection(recordsRequest).async();
+
+        KeyType keyType = KeyType.fromId(split.getProperty(KEY_TYPE));
+        String keyPrefix = split.getProperty(KEY_PREFIX_TABLE_PROP);
+        ScanArgs scanArgs = new ScanArgs();
+        scanArgs.limit(SCAN_COUNT_SIZE);
+        scanArgs.match(keyPrefix);
+
+        List<String> keys;
+        CompletableFuture<KeyScanCursor<String>> nextScan = null;
+        if (keyType == KeyType.ZSET) {
+            long start = Long.valueOf(split.getProperty(SPLIT_START_INDEX));
+            long end = Long.valueOf(split.getProperty(SPLIT_END_INDEX));
+            keys = await(asyncCommands.zrange(keyPrefix, start, end), asyncCommands.getTimeout());
+        }
+        else {
+            KeyScanCursor<String> cursor = await(asyncCommands.scan(INITIAL, scanArgs), asyncCommands.getTimeout());
+            keys = cursor.getKeys();
+            nextScan = cursor.isFinished() ? null : asyncCommands.scan(cursor, scanArgs);
+        }
+
+        while (true) {
+            //SCAN may return a key more than once
+            List<String> distinctKeys = new ArrayList<>(new HashSet<>(keys));
+            for (int batchStart = 0; batchStart < distinctKeys.size(); batchStart += pipelineDepth) {
+                if (!queryStatusChecker.isQueryRunning()) {
+                    if (nextScan != null) {
+                        nextScan.cancel(true);
+                    }
+                    return;
+                }
+                List<String> batch = distinctKeys.subList(batchStart, Math.min(batchStart + pipelineDepth, distinctKeys.size()));
+                switch (valueType) {
+                    case LITERAL:
+                        loadLiteralRows(asyncCommands, batch, spiller, fieldList);
+                        break;
+                    case HASH:
+                        loadHashRows(asyncCommands, batch, spiller, fieldList);
+                        break;
+                    case ZSET:
+                        loadZSetRows(asyncCommands, batch, spiller, fieldList);
+                        break;
+                    default:
+                        throw new RuntimeException("Unsupported value type " + valueType);
+                }
+            }
+
+            if (nextScan == null) {
+                return;
+            }
+            KeyScanCursor<String> cursor = await(nextScan, asyncCommands.getTimeout());
+            keys = cursor.getKeys();
+            nextScan = cursor.isFinished() ? null : asyncCommands.scan(cursor, scanArgs);
+        }
+    }
+
+    /**
+     * Waits on a pipelined command, using the command timeout of the connection which Lettuce applies to synchronous commands.
+     */
+    private static <T> T await(CompletableFuture<T> future, Duration timeout)
+    {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AthenaConnectorException("Interrupted while waiting on Redis: " + ex.getMessage(),
+                    ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).errorMessage(ex.getMessage()).build());
+        }
+        catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new AthenaConnectorException("Timed out waiting on Redis",
+                    ErrorDetails.builder().errorCode(FederationSourceErrorCode.OPERATION_TIMEOUT_EXCEPTION.toString()).build());
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new AthenaConnectorException("Error reading from Redis: " + ex.getMessage(),
+                    ErrorDetails.builder().errorCode(FederationSourceErrorCode.INTERNAL_SERVICE_EXCEPTION.toString()).errorMessage(ex.getMessage()).build());
+        }
+    }
+
     /**
      * For the given key prefix, find all actual keys depending on the type of the key.
      *
@@ -304,6 +424,19 @@ public class RedisRecordHandler
     }
 
     private void loadLiteralRow(RedisCommandsWrapper<String, String> syncCommands, String keyString, BlockSpiller spiller, List<Field> fieldList)
+    {
+        writeLiteralRow(keyString, syncCommands.get(keyString), spiller, fieldList);
+    }
+
+    private void loadLiteralRows(RedisAsyncCommandsWrapper<String, String> asyncCommands, List<String> keys, BlockSpiller spiller,
+                                 List<Field> fieldList)
+    {
+        for (KeyValue<String, String> next : await(asyncCommands.mget(keys.toArray(new String[0])), asyncCommands.getTimeout())) {
+            writeLiteralRow(next.getKey(), next.getValueOrElse(null), spiller, fieldList);
+        }
+    }
+
+    private void writeLiteralRow(String keyString, String rawValue, BlockSpiller spiller, List<Field> fieldList)
     {
         spiller.writeRows((Block block, int row) -> {
             if (fieldList.size() != 1) {
@@ -311,7 +444,7 @@ public class RedisRecordHandler
             }
 
             Field field = fieldList.get(0);
-            Object value = ValueConverter.convert(field, syncCommands.get(keyString));
+            Object value = ValueConverter.convert(field, rawValue);
             boolean literalMatched = block.offerValue(KEY_COLUMN_NAME, row, keyString);
             literalMatched &= block.offerValue(field.getName(), row, value);
             return literalMatched ? 1 : 0;
@@ -321,14 +454,31 @@ public class RedisRecordHandler
     private void loadHashRow(RedisCommandsWrapper<String, String> syncCommands, String keyString, BlockSpiller spiller,
                              List<Field> fieldList)
     {
+        writeHashRow(keyString, syncCommands.hgetall(keyString), spiller, fieldList);
+    }
+
+    private void loadHashRows(RedisAsyncCommandsWrapper<String, String> asyncCommands, List<String> keys, BlockSpiller spiller,
+                              List<Field> fieldList)
+    {
+        List<CompletableFuture<Map<String, String>>> values = new ArrayList<>(keys.size());
+        for (String keyString : keys) {
+            values.add(asyncCommands.hgetall(keyString));
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            writeHashRow(keys.get(i), await(values.get(i), asyncCommands.getTimeout()), spiller, fieldList);
+        }
+    }
+
+    private void writeHashRow(String keyString, Map<String, String> hashValues, BlockSpiller spiller, List<Field> fieldList)
+    {
+        Map<String, String> rawValues = new HashMap<>();
+        //Glue only supports lowercase column names / also could do a better job only fetching the columns
+        //that are needed
+        hashValues.forEach((key, entry) -> rawValues.put(key.toLowerCase(), entry));
+
         spiller.writeRows((Block block, int row) -> {
             boolean hashMatched = block.offerValue(KEY_COLUMN_NAME, row, keyString);
 
-            Map<String, String> rawValues = new HashMap<>();
-            //Glue only supports lowercase column names / also could do a better job only fetching the columns
-            //that are needed
-            syncCommands.hgetall(keyString).forEach((key, entry) -> rawValues.put(key.toLowerCase(), entry));
-
             for (Field hfield : fieldList) {
                 Object hvalue = ValueConverter.convert(hfield, rawValues.get(hfield.getName()));
                 if (hashMatched && !block.offerValue(hfield.getName(), row, hvalue)) {
@@ -351,18 +501,49 @@ public class RedisRecordHandler
         ScoredValueScanCursor<String> cursor = null;
         do {
             cursor = syncCommands.zscan(keyString, cursor == null ? INITIAL : cursor);
-            for (ScoredValue<String> nextElement : cursor.getValues()) {
-                spiller.writeRows((Block block, int rowNum) -> {
-                    Object zvalue = ValueConverter.convert(zfield, nextElement.getValue());
-                    boolean zsetMatched = block.offerValue(KEY_COLUMN_NAME, rowNum, keyString);
-                    zsetMatched &= block.offerValue(zfield.getName(), rowNum, zvalue);
-                    return zsetMatched ? 1 : 0;
-                });
-            }
+            writeZSetRows(keyString, cursor, spiller, zfield);
         }
         while (!cursor.isFinished());
     }
 
+    /**
+     * Pipelines the first ZSCAN of every key in the batch, the remaining pages of any larger zset are then read in turn.
+     */
+    private void loadZSetRows(RedisAsyncCommandsWrapper<String, String> asyncCommands, List<String> keys, BlockSpiller spiller,
+                              List<Field> fieldList)
+    {
+        if (fieldList.size() != 1) {
+            throw new RuntimeException("Ambiguous field mapping, more than 1 field for ZSET value type.");
+        }
+
+        Field zfield = fieldList.get(0);
+        List<CompletableFuture<ScoredValueScanCursor<String>>> firstPages = new ArrayList<>(keys.size());
+        for (String keyString : keys) {
+            firstPages.add(asyncCommands.zscan(keyString, INITIAL));
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            String keyString = keys.get(i);
+            ScoredValueScanCursor<String> cursor = await(firstPages.get(i), asyncCommands.getTimeout());
+            writeZSetRows(keyString, cursor, spiller, zfield);
+            while (!cursor.isFinished()) {
+                cursor = await(asyncCommands.zscan(keyString, cursor), asyncCommands.getTimeout());
+                writeZSetRows(keyString, cursor, spiller, zfield);
+            }
+        }
+    }
+
+    private void writeZSetRows(String keyString, ScoredValueScanCursor<String> cursor, BlockSpiller spiller, Field zfield)
+    {
+        for (ScoredValue<String> nextElement : cursor.getValues()) {
+            spiller.writeRows((Block block, int rowNum) -> {
+                Object zvalue = ValueConverter.convert(zfield, nextElement.getValue());
+                boolean zsetMatched = block.offerValue(KEY_COLUMN_NAME, rowNum, keyString);
+                zsetMatched &= block.offerValue(zfield.getName(), rowNum, zvalue);
+                return zsetMatched ? 1 : 0;
+            });
+        }
+    }
+
     /**
      * @param split The split for this request, mostly used to get the redis endpoint and config details.
      * @param keyString The key to read.
@@ -0,0 +1,126 @@
+/*-
+ * #%L
+ * athena-redis
+ * %%
+ * Copyright (C) 2019 - 2025 Amazon Web Services
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.amazonaws.athena.connectors.redis.lettuce;
+
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.ScoredValueScanCursor;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.cluster.api.async.RedisAdvancedClusterAsyncCommands;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Async counterpart of RedisCommandsWrapper. Lettuce writes each async command to the connection as soon as it is
+ * issued, so issuing several commands before waiting on any of them pipelines them over the connection.
+ */
+public class RedisAsyncCommandsWrapper<K, V>
+{
+  private final RedisAsyncCommands<K, V> standaloneCommands;
+  private final RedisAdvancedClusterAsyncCommands<K, V> clusterCommands;
+  private final boolean isCluster;
+
+  public RedisAsyncCommandsWrapper(RedisAsyncCommands<K, V> standaloneCommands,
+                                   RedisAdvancedClusterAsyncCommands<K, V> clusterCommands, boolean isCluster)
+  {
+    this.standaloneCommands = standaloneCommands;
+    this.clusterCommands = clusterCommands;
+    this.isCluster = isCluster;
+    if (isCluster) {
+      requireNonNull(clusterCommands, "RedisAdvancedClusterAsyncCommands is required");
+    }
+    else {
+      requireNonNull(standaloneCommands, "RedisAsyncCommands is required");
+    }
+  }
+
+  /**
+   * @return the command timeout of the underlying connection, which Lettuce applies to synchronous commands.
+   */
+  public Duration getTimeout()
+  {
+    if (isCluster) {
+      return clusterCommands.getStatefulConnection().getTimeout();
+    }
+    else {
+      return standaloneCommands.getStatefulConnection().getTimeout();
+    }
+  }
+
+  public CompletableFuture<KeyScanCursor<K>> scan(ScanCursor var1, ScanArgs var2)
+  {
+    if (isCluster) {
+      return clusterCommands.scan(var1, var2).toCompletableFuture();
+    }
+    else {
+      return standaloneCommands.scan(var1, var2).toCompletableFuture();
+    }
+  }
+
+  public CompletableFuture<List<V>> zrange(K var1, long var2, long var3)
+  {
+    if (isCluster) {
+      return clusterCommands.zrange(var1, var2, var3).toCompletableFuture();
+    }
+    else {
+      return standaloneCommands.zrange(var1, var2, var3).toCompletableFuture();
+    }
+  }
+
+  /**
+   * On a cluster, keys in different hash slots are fetched with one MGET per slot.
+   */
+  public CompletableFuture<List<KeyValue<K, V>>> mget(K... var1)
+  {
+    if (isCluster) {
+      return clusterCommands.mget(var1).toCompletableFuture();
+    }
+    else {
+      return standaloneCommands.mget(var1).toCompletableFuture();
+    }
+  }
+
+  public CompletableFuture<Map<K, V>> hgetall(K var1)
+  {
+    if (isCluster) {
+      return clusterCommands.hgetall(var1).toCompletableFuture();
+    }
+    else {
+      return standaloneCommands.hgetall(var1).toCompletableFuture();
+    }
+  }
+
+  public CompletableFuture<ScoredValueScanCursor<V>> zscan(K var1, ScanCursor var2)
+  {
+    if (isCluster) {
+      return clusterCommands.zscan(var1, var2).toCompletableFuture();
+    }
+    else {
+      return standaloneCommands.zscan(var1, var2).toCompletableFuture();
+    }
+  }
+}
@@ -30,6 +30,7 @@ public class RedisConnectionWrapper<K, V>
   private final StatefulRedisClusterConnection<K, V> clusterConnection;
   private final boolean isCluster;
   private final RedisCommandsWrapper<K, V> redisCommandsWrapper;
+  private final RedisAsyncCommandsWrapper<K, V> redisAsyncCommandsWrapper;
 
   public RedisConnectionWrapper(StatefulRedisConnection<K, V> standaloneConnection,
                                 StatefulRedisClusterConnection<K, V> clusterConnection, boolean isCluster)
@@ -40,10 +41,12 @@ public class RedisConnectionWrapper<K, V>
     if (isCluster) {
       requireNonNull(clusterConnection, "Cluster Connection is required");
       redisCommandsWrapper = new RedisCommandsWrapper<K, V>(null, clusterConnection.sync(), isCluster);
+      redisAsyncCommandsWrapper = new RedisAsyncCommandsWrapper<K, V>(null, clusterConnection.async(), isCluster);
     }
     else {
       requireNonNull(standaloneConnection, "Standalone Connection is required");
       redisCommandsWrapper = new RedisCommandsWrapper<K, V>(standaloneConnection.sync(), null, isCluster);
+      redisAsyncCommandsWrapper = new RedisAsyncCommandsWrapper<K, V>(standaloneConnection.async(), null, isCluster);
     }
   }
 
@@ -52,6 +55,11 @@ public class RedisConnectionWrapper<K, V>
     return this.redisCommandsWrapper;
   }
 
+  public RedisAsyncCommandsWrapper<K, V> async()
+  {
+    return this.redisAsyncCommandsWrapper;
+  }
+
   public void close()
   {
     if (isCluster) {
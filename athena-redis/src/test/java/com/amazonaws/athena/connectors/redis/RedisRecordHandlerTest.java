@@ -35,13 +35,16 @@ import com.amazonaws.athena.connector.lambda.records.ReadRecordsResponse;
 import com.amazonaws.athena.connector.lambda.records.RecordResponse;
 import com.amazonaws.athena.connector.lambda.security.EncryptionKeyFactory;
 import com.amazonaws.athena.connector.lambda.security.LocalKeyFactory;
+import com.amazonaws.athena.connectors.redis.lettuce.RedisAsyncCommandsWrapper;
 import com.amazonaws.athena.connectors.redis.lettuce.RedisCommandsWrapper;
 import com.amazonaws.athena.connectors.redis.lettuce.RedisConnectionFactory;
 import com.amazonaws.athena.connectors.redis.lettuce.RedisConnectionWrapper;
 import com.amazonaws.athena.connectors.redis.util.MockKeyScanCursor;
 import com.amazonaws.athena.connectors.redis.util.MockScoredValueScanCursor;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.io.ByteStreams;
+import io.lettuce.core.KeyValue;
 import io.lettuce.core.ScanArgs;
 import io.lettuce.core.ScanCursor;
 import io.lettuce.core.ScoredValue;
@@ -74,12 +77,14 @@ import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRespon
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.amazonaws.athena.connector.lambda.domain.predicate.Constraints.DEFAULT_NO_LIMIT;
@@ -87,6 +92,8 @@ import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.KEY_COL
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.KEY_PREFIX_TABLE_PROP;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.KEY_TYPE;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.REDIS_ENDPOINT_PROP;
+import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.SPLIT_END_INDEX;
+import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.SPLIT_START_INDEX;
 import static com.amazonaws.athena.connectors.redis.RedisMetadataHandler.VALUE_TYPE_TABLE_PROP;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -94,6 +101,9 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -120,6 +130,9 @@ public class RedisRecordHandlerTest
     @Mock
     private RedisCommandsWrapper<String, String> mockSyncCommands;
 
+    @Mock
+    private RedisAsyncCommandsWrapper<String, String> mockAsyncCommands;
+
     @Mock
     private SecretsManagerClient mockSecretsManager;
 
@@ -135,7 +148,9 @@ public class RedisRecordHandlerTest
         logger.info("{}: enter", testName.getMethodName());
 
         when(mockFactory.getOrCreateConn(eq(decodedEndpoint), anyBoolean(), anyBoolean(), any())).thenReturn(mockConnection);
-        when(mockConnection.sync()).thenReturn(mockSyncCommands);
+        Mockito.lenient().when(mockConnection.sync()).thenReturn(mockSyncCommands);
+        Mockito.lenient().when(mockConnection.async()).thenReturn(mockAsyncCommands);
+        Mockito.lenient().when(mockAsyncCommands.getTimeout()).thenReturn(Duration.ofSeconds(2));
 
         allocator = new BlockAllocatorImpl();
 
@@ -173,7 +188,7 @@ public class RedisRecordHandlerTest
                     throw new RuntimeException("Unknown secret " + request.secretId());
                 });
 
-        handler = new RedisRecordHandler(amazonS3, mockSecretsManager, mockAthena, mockFactory, com.google.common.collect.ImmutableMap.of());
+        handler = new RedisRecordHandler(amazonS3, mockSecretsManager, mockAthena, mockFactory, ImmutableMap.of());
         spillReader = new S3BlockSpillReader(amazonS3, allocator);
 
         logger.info("setUpBefore - exit");
@@ -271,6 +286,86 @@ public class RedisRecordHandlerTest
         assertNotNull(intCol.readInteger());
     }
 
+    @Test
+    public void doReadRecordsLiteralPipelined()
+            throws Exception
+    {
+        handler = new RedisRecordHandler(amazonS3, mockSecretsManager, mockAthena, mockFactory,
+                ImmutableMap.of("pipeline_depth", "3"));
+
+        //4 keys on the first page, 1 on the second
+        when(mockAsyncCommands.scan(nullable(ScanCursor.class), nullable(ScanArgs.class))).then((InvocationOnMock invocationOnMock) -> {
+            ScanCursor cursor = (ScanCursor) invocationOnMock.getArguments()[0];
+            MockKeyScanCursor<String> scanCursor = new MockKeyScanCursor<>();
+            if (cursor.getCursor().equals("0")) {
+                scanCursor.setCursor("1");
+                scanCursor.setKeys(ImmutableList.of("key-1", "key-2", "key-3", "key-4"));
+            }
+            else {
+                scanCursor.setCursor("0");
+                scanCursor.setKeys(ImmutableList.of("key-5"));
+                scanCursor.setFinished(true);
+            }
+            return CompletableFuture.completedFuture(scanCursor);
+        });
+
+        //the value of each key is its number
+        when(mockAsyncCommands.mget(any())).then((InvocationOnMock invocationOnMock) -> {
+            List<KeyValue<String, String>> result = new ArrayList<>();
+            for (Object key : invocationOnMock.getArguments()) {
+                result.add(KeyValue.just((String) key, ((String) key).substring("key-".length())));
+            }
+            return CompletableFuture.completedFuture(result);
+        });
+
+        S3SpillLocation splitLoc = S3SpillLocation.newBuilder()
+                .withBucket(UUID.randomUUID().toString())
+                .withSplitId(UUID.randomUUID().toString())
+                .withQueryId(UUID.randomUUID().toString())
+                .withIsDirectory(true)
+                .build();
+
+        Split split = Split.newBuilder(splitLoc, keyFactory.create())
+                .add(REDIS_ENDPOINT_PROP, endpoint)
+                .add(KEY_TYPE, KeyType.PREFIX.getId())
+                .add(KEY_PREFIX_TABLE_PROP, "key-*")
+                .add(VALUE_TYPE_TABLE_PROP, ValueType.LITERAL.getId())
+                .build();
+
+        Schema schemaForRead = SchemaBuilder.newBuilder()
+                .addField("_key_", Types.MinorType.VARCHAR.getType())
+                .addField("intcol", Types.MinorType.INT.getType())
+                .build();
+
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put("intcol", SortedRangeSet.copyOf(Types.MinorType.INT.getType(),
+                ImmutableList.of(Range.greaterThan(allocator, Types.MinorType.INT.getType(), 1)), false));
+
+        ReadRecordsRequest request = new ReadRecordsRequest(IDENTITY,
+                DEFAULT_CATALOG,
+                "queryId-" + System.currentTimeMillis(),
+                TABLE_NAME,
+                schemaForRead,
+                split,
+                new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L, //100GB don't expect this to spill
+                100_000_000_000L
+        );
+
+        RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+
+        assertTrue(rawResponse instanceof ReadRecordsResponse);
+
+        ReadRecordsResponse response = (ReadRecordsResponse) rawResponse;
+        logger.info("doReadRecordsLiteralPipelined: rows[{}]", response.getRecordCount());
+
+        //keys 2 through 5 match the constraint
+        assertEquals(4, response.getRecords().getRowCount());
+        //the first page is read with a batch of 3 keys and a batch of 1, the second page with a batch of 1
+        verify(mockAsyncCommands, times(3)).mget(any());
+        verify(mockAsyncCommands, times(2)).scan(nullable(ScanCursor.class), nullable(ScanArgs.class));
+    }
+
     @Test
     public void doReadRecordsHash()
             throws Exception
@@ -484,6 +579,177 @@ public class RedisRecordHandlerTest
         assertNotNull(intCol.readInteger());
     }
 
+    @Test
+    public void doReadRecordsHashPipelined()
+            throws Exception
+    {
+        handler = new RedisRecordHandler(amazonS3, mockSecretsManager, mockAthena, mockFactory,
+                ImmutableMap.of("pipeline_depth", "2"));
+
+        //3 keys on the first page, 1 on the second
+        when(mockAsyncCommands.scan(nullable(ScanCursor.class), nullable(ScanArgs.class))).then((InvocationOnMock invocationOnMock) -> {
+            ScanCursor cursor = (ScanCursor) invocationOnMock.getArguments()[0];
+            MockKeyScanCursor<String> scanCursor = new MockKeyScanCursor<>();
+            if (cursor.getCursor().equals("0")) {
+                scanCursor.setCursor("1");
+                scanCursor.setKeys(ImmutableList.of("key-1", "key-2", "key-3"));
+            }
+            else {
+                scanCursor.setCursor("0");
+                scanCursor.setKeys(ImmutableList.of("key-4"));
+                scanCursor.setFinished(true);
+            }
+            return CompletableFuture.completedFuture(scanCursor);
+        });
+
+        //the intcol of each key is its number, the column names are lowercased
+        when(mockAsyncCommands.hgetall(nullable(String.class))).then((InvocationOnMock invocationOnMock) -> {
+            String key = invocationOnMock.getArgument(0);
+            Map<String, String> result = new HashMap<>();
+            result.put("IntCol", key.substring("key-".length()));
+            result.put("stringcol", key);
+            result.put("extracol", UUID.randomUUID().toString());
+            return CompletableFuture.completedFuture(result);
+        });
+
+        S3SpillLocation splitLoc = S3SpillLocation.newBuilder()
+                .withBucket(UUID.randomUUID().toString())
+                .withSplitId(UUID.randomUUID().toString())
+                .withQueryId(UUID.randomUUID().toString())
+                .withIsDirectory(true)
+                .build();
+
+        Split split = Split.newBuilder(splitLoc, keyFactory.create())
+                .add(REDIS_ENDPOINT_PROP, endpoint)
+                .add(KEY_TYPE, KeyType.PREFIX.getId())
+                .add(KEY_PREFIX_TABLE_PROP, "key-*")
+                .add(VALUE_TYPE_TABLE_PROP, ValueType.HASH.getId())
+                .build();
+
+        Schema schemaForRead = SchemaBuilder.newBuilder()
+                .addField("_key_", Types.MinorType.VARCHAR.getType())
+                .addField("intcol", Types.MinorType.INT.getType())
+                .addField("stringcol", Types.MinorType.VARCHAR.getType())
+                .build();
+
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put("intcol", SortedRangeSet.copyOf(Types.MinorType.INT.getType(),
+                ImmutableList.of(Range.greaterThan(allocator, Types.MinorType.INT.getType(), 1)), false));
+
+        ReadRecordsRequest request = new ReadRecordsRequest(IDENTITY,
+                DEFAULT_CATALOG,
+                "queryId-" + System.currentTimeMillis(),
+                TABLE_NAME,
+                schemaForRead,
+                split,
+                new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L, //100GB don't expect this to spill
+                100_000_000_000L
+        );
+
+        RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+
+        assertTrue(rawResponse instanceof ReadRecordsResponse);
+
+        ReadRecordsResponse response = (ReadRecordsResponse) rawResponse;
+        logger.info("doReadRecordsHashPipelined: rows[{}]", response.getRecordCount());
+
+        //keys 2 through 4 match the constraint
+        assertEquals(3, response.getRecords().getRowCount());
+        assertEquals(schemaForRead.getFields().size(), response.getRecords().getFields().size());
+        FieldReader stringCol = response.getRecords().getFieldReader("stringcol");
+        FieldReader intCol = response.getRecords().getFieldReader("intcol");
+        for (int i = 0; i < response.getRecords().getRowCount(); i++) {
+            stringCol.setPosition(i);
+            intCol.setPosition(i);
+            assertEquals("key-" + intCol.readInteger(), stringCol.readText().toString());
+        }
+        //one HGETALL per key, none of them synchronous
+        verify(mockAsyncCommands, times(4)).hgetall(nullable(String.class));
+        verify(mockAsyncCommands, times(2)).scan(nullable(ScanCursor.class), nullable(ScanArgs.class));
+        verify(mockSyncCommands, never()).hgetall(nullable(String.class));
+    }
+
+    @Test
+    public void doReadRecordsZsetPipelined()
+            throws Exception
+    {
+        handler = new RedisRecordHandler(amazonS3, mockSecretsManager, mockAthena, mockFactory,
+                ImmutableMap.of("pipeline_depth", "2"));
+
+        //the keys of the split are the members of a zset
+        when(mockAsyncCommands.zrange(eq("keys-zset"), eq(0L), eq(2L)))
+                .thenReturn(CompletableFuture.completedFuture(ImmutableList.of("key-1", "key-2", "key-3")));
+
+        //key-1 has two pages of values, the other keys have one
+        when(mockAsyncCommands.zscan(nullable(String.class), nullable(ScanCursor.class))).then((InvocationOnMock invocationOnMock) -> {
+            String key = invocationOnMock.getArgument(0);
+            ScanCursor cursor = (ScanCursor) invocationOnMock.getArguments()[1];
+            MockScoredValueScanCursor<String> scanCursor = new MockScoredValueScanCursor<>();
+            if (key.equals("key-1") && cursor.getCursor().equals("0")) {
+                scanCursor.setCursor("1");
+                scanCursor.setValues(ImmutableList.of(ScoredValue.just(0.0D, "1"), ScoredValue.just(0.0D, "2")));
+            }
+            else {
+                scanCursor.setCursor("0");
+                scanCursor.setValues(ImmutableList.of(ScoredValue.just(0.0D, key.equals("key-1") ? "3" : "4")));
+                scanCursor.setFinished(true);
+            }
+            return CompletableFuture.completedFuture(scanCursor);
+        });
+
+        S3SpillLocation splitLoc = S3SpillLocation.newBuilder()
+                .withBucket(UUID.randomUUID().toString())
+                .withSplitId(UUID.randomUUID().toString())
+                .withQueryId(UUID.randomUUID().toString())
+                .withIsDirectory(true)
+                .build();
+
+        Split split = Split.newBuilder(splitLoc, keyFactory.create())
+                .add(REDIS_ENDPOINT_PROP, endpoint)
+                .add(KEY_TYPE, KeyType.ZSET.getId())
+                .add(KEY_PREFIX_TABLE_PROP, "keys-zset")
+                .add(SPLIT_START_INDEX, "0")
+                .add(SPLIT_END_INDEX, "2")
+                .add(VALUE_TYPE_TABLE_PROP, ValueType.ZSET.getId())
+                .build();
+
+        Schema schemaForRead = SchemaBuilder.newBuilder()
+                .addField("_key_", Types.MinorType.VARCHAR.getType())
+                .addField("intcol", Types.MinorType.INT.getType())
+                .build();
+
+        Map<String, ValueSet> constraintsMap = new HashMap<>();
+        constraintsMap.put("intcol", SortedRangeSet.copyOf(Types.MinorType.INT.getType(),
+                ImmutableList.of(Range.greaterThan(allocator, Types.MinorType.INT.getType(), 1)), false));
+
+        ReadRecordsRequest request = new ReadRecordsRequest(IDENTITY,
+                DEFAULT_CATALOG,
+                "queryId-" + System.currentTimeMillis(),
+                TABLE_NAME,
+                schemaForRead,
+                split,
+                new Constraints(constraintsMap, Collections.emptyList(), Collections.emptyList(), DEFAULT_NO_LIMIT, Collections.emptyMap(), null),
+                100_000_000_000L, //100GB don't expect this to spill
+                100_000_000_000L
+        );
+
+        RecordResponse rawResponse = handler.doReadRecords(allocator, request);
+
+        assertTrue(rawResponse instanceof ReadRecordsResponse);
+
+        ReadRecordsResponse response = (ReadRecordsResponse) rawResponse;
+        logger.info("doReadRecordsZsetPipelined: rows[{}]", response.getRecordCount());
+
+        //the values 2 and 3 of key-1 and the value 4 of key-2 and key-3 match the constraint
+        assertEquals(4, response.getRecords().getRowCount());
+        //the first page of every key is pipelined, the second page of key-1 is read after it
+        verify(mockAsyncCommands, times(4)).zscan(nullable(String.class), nullable(ScanCursor.class));
+        verify(mockAsyncCommands, times(1)).zrange(eq("keys-zset"), eq(0L), eq(2L));
+        verify(mockAsyncCommands, never()).scan(nullable(ScanCursor.class), nullable(ScanArgs.class));
+        verify(mockSyncCommands, never()).zscan(nullable(String.class), nullable(ScanCursor.class));
+    }
+
     private class ByteHolder
     {
         private byte[] bytes;